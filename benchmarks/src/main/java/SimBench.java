@@ -0,0 +1,391 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+
+/**
+ * ========================================================
+ * JMH 벤치마크 연결 클래스 (SimBench)
+ * ========================================================
+ * 게임 코드는 기본 패키지에 있어서 이름 있는 패키지의 JMH 벤치마크(crazyarcade.bench)가
+ * import할 수 없고, 측정 대상 일부(createExplosion, 충돌 판정 등)는 private입니다.
+ * 이 클래스가 같은 기본 패키지에서 장면(SimSnapshot)을 만들고 private 메서드는
+ * MethodHandle로 호출합니다. 벤치마크 쪽은 Object만 들고 여기 static 메서드를 부릅니다.
+ *
+ * 장면 (모두 같은 시드라 실행마다 똑같은 상태):
+ * - empty   : 블록/아이템이 하나도 없는 빈 맵, 물풍선 없음
+ * - opening : mapData1 시작 직후
+ * - midgame : mapData1에서 봇끼리 약 15초 진행 (물풍선/부서진 블록/아이템이 섞인 보통 경기)
+ * - dense   : 빈 맵에 물풍선 MAX_BALLOONS개를 촘촘히 깔고 물줄기가 지나가는 중
+ *
+ * 리소스(res/, mapData*.txt)는 실행 폴더 기준으로 읽으므로 저장소 루트에서 실행해야 합니다.
+ */
+public final class SimBench {
+    public static final int TICKS_PER_RUN = 60; // runTicks 한 번에 진행하는 틱 (약 1초)
+    public static final int PROBES = 64; // 충돌 판정 한 번에 확인하는 위치 수
+
+    private static final String MAP = "mapData1.txt";
+    private static final long SEED = 20240601L;
+    private static final int EMPTY = 4; // 파괴된(빈) 칸
+    private static final int MIDGAME_TICKS = GameSimulation.msToTicks(15000);
+
+    // GameSimulation private 메서드
+    private static final MethodHandle CREATE_EXPLOSION = handle(GameSimulation.class, "createExplosion", int.class, int.class, int.class);
+    private static final MethodHandle CHECK_EXPLOSION_COLLISION = handle(GameSimulation.class, "checkExplosionCollision");
+    private static final MethodHandle COLLIDING_WITH_BLOCK = handle(GameSimulation.class, "isCollidingWithBlock", int.class, int.class, int.class);
+    private static final MethodHandle COLLIDING_WITH_BALLOON = handle(GameSimulation.class, "isCollidingWithBalloon", int.class, int.class, int.class);
+    // 스프라이트 투명 처리 (SpriteStore / GamePanelPlaceholder private 메서드)
+    private static final MethodHandle KEY_ITEMS = handle(SpriteStore.class, "loadItemsWithTransparency");
+    private static final MethodHandle KEY_SHEET = handle(GamePanelPlaceholder.class, "makeColorTransparent", BufferedImage.class, int.class);
+    private static final MethodHandle FILTER_SHEET = handle(GamePanelPlaceholder.class, "transformColorToTransparency", BufferedImage.class, Color.class);
+    private static final MethodHandle LOAD_AND_FILTER = handle(GamePanelPlaceholder.class, "loadAndTransformImage", String.class, Color.class);
+
+    private SimBench() {
+    }
+
+    /**
+     * 시뮬레이션 하나와 되돌아갈 시작 상태
+     */
+    static final class Scene {
+        final GameSimulation sim = new GameSimulation();
+        final SimSnapshot start = new SimSnapshot();
+        // runTicks에서 넣을 입력 (시작 상태에서 봇이 낸 입력을 미리 기록)
+        final int[] p1Inputs = new int[TICKS_PER_RUN];
+        final int[] p2Inputs = new int[TICKS_PER_RUN];
+        // 충돌 판정 위치 (플레이어 왼쪽 위 좌표)
+        final int[] probeX = new int[PROBES];
+        final int[] probeY = new int[PROBES];
+        int originRow;
+        int originCol;
+        int originRange;
+    }
+
+    // ===== 장면 만들기 =====
+
+    /**
+     * 이름으로 장면을 만듭니다 (empty, opening, midgame, dense).
+     */
+    public static Object scene(String name) {
+        Scene s = newScene(MAP);
+        GameSimulation sim = s.sim;
+        switch (name) {
+            case "empty":
+                sim.saveState(s.start);
+                clearTiles(s.start);
+                sim.loadState(s.start);
+                break;
+            case "opening":
+                break;
+            case "midgame":
+                BotPlayer[] bots = { new BotPlayer(0), new BotPlayer(1) };
+                while (sim.getTick() < MIDGAME_TICKS && sim.getGameState() == GameSimulation.STATE_PLAYING) {
+                    sim.updateGame(bots[0].nextInput(sim), bots[1].nextInput(sim));
+                }
+                check(sim.getGameState() == GameSimulation.STATE_PLAYING, "midgame 장면이 경기 종료로 끝났습니다");
+                break;
+            case "dense":
+                sim.saveState(s.start);
+                clearTiles(s.start);
+                fillDense(s.start);
+                sim.loadState(s.start);
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 장면: " + name);
+        }
+        sim.saveState(s.start);
+        recordInputs(s, !"dense".equals(name));
+        makeProbes(s);
+        return s;
+    }
+
+    /**
+     * 연쇄 폭발 장면: 짝수 행/열 칸마다 범위 2 물풍선을 놓아 첫 폭발이 length개 전부로 이어지게 합니다.
+     * 첫 물풍선은 터지는 중이라 목록에서 빠져 있고 explode가 그 자리에서 createExplosion을 부릅니다.
+     *
+     * @param board  "empty"(빈 맵) 또는 맵 데이터 파일명 (아이템 칸을 부수며 진행)
+     * @param length 연쇄로 터질 물풍선 수 (1 ~ MAX_BALLOONS)
+     */
+    public static Object chainScene(String board, int length) {
+        check(length >= 1 && length <= GameSimulation.MAX_BALLOONS, "length 범위: 1 ~ " + GameSimulation.MAX_BALLOONS);
+        Scene s = newScene("empty".equals(board) ? MAP : board);
+        SimSnapshot st = s.start;
+        s.sim.saveState(st);
+        if ("empty".equals(board)) {
+            clearTiles(st);
+        }
+        st.balloonCount = 0;
+        int n = 0;
+        // 행마다 방향을 바꿔 가며 (뱀 모양) 이웃끼리 이어지게 배치
+        for (int r = 0; r < GameSimulation.TILE_ROWS && n < length; r += 2) {
+            for (int k = 0; k < GameSimulation.TILE_COLS && n < length; k += 2) {
+                int c = ((r / 2) % 2 == 0) ? k : (GameSimulation.TILE_COLS - 1 - k);
+                if (n == 0) {
+                    s.originRow = r;
+                    s.originCol = c;
+                    s.originRange = 2;
+                } else {
+                    addBalloon(st, r, c, 2, 1 + n % 2, st.tick + GameSimulation.BALLOON_DELAY_TICKS);
+                }
+                n++;
+            }
+        }
+        s.sim.loadState(st);
+        s.sim.saveState(st);
+        return s;
+    }
+
+    private static Scene newScene(String map) {
+        check(new File(System.getProperty("user.dir"), map).isFile(),
+                map + "이 없습니다. 저장소 루트에서 실행하세요 (user.dir=" + System.getProperty("user.dir") + ")");
+        Scene s = new Scene();
+        s.sim.setLogging(false);
+        s.sim.loadTilesFromFile(map);
+        s.sim.setCharacters("배찌", "디지니");
+        s.sim.setMatchSeed(SEED);
+        s.sim.resetGame();
+        return s;
+    }
+
+    private static void clearTiles(SimSnapshot st) {
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            st.tileItems[i] = EMPTY;
+        }
+    }
+
+    /**
+     * 짝수 행/열 칸에 범위 1 물풍선을 가득 놓습니다 (서로 닿지 않아 연쇄 없이 2틱 간격으로 하나씩 터짐).
+     * 플레이어는 홀수 행/열 칸(시작 위치)에 있어 물줄기에 맞지 않고,
+     * 5행과 7열에는 방금 터진 물줄기가 지나가는 중입니다.
+     */
+    private static void fillDense(SimSnapshot st) {
+        st.balloonCount = 0;
+        int n = 0;
+        for (int r = 0; r < GameSimulation.TILE_ROWS && n < GameSimulation.MAX_BALLOONS; r += 2) {
+            for (int c = 0; c < GameSimulation.TILE_COLS && n < GameSimulation.MAX_BALLOONS; c += 2) {
+                addBalloon(st, r, c, 1, 1 + n % 2, st.tick + 1 + n * 2);
+                n++;
+            }
+        }
+        for (int c = 0; c < GameSimulation.TILE_COLS; c++) {
+            st.blastStartTick[5 * GameSimulation.TILE_COLS + c] = st.tick;
+            st.blastType[5 * GameSimulation.TILE_COLS + c] = GameSimulation.BLAST_LEFT;
+        }
+        for (int r = 0; r < GameSimulation.TILE_ROWS; r++) {
+            st.blastStartTick[r * GameSimulation.TILE_COLS + 7] = st.tick;
+            st.blastType[r * GameSimulation.TILE_COLS + 7] = GameSimulation.BLAST_UP;
+        }
+        st.blastType[5 * GameSimulation.TILE_COLS + 7] = GameSimulation.BLAST_CENTER;
+    }
+
+    private static void addBalloon(SimSnapshot st, int row, int col, int range, int owner, int explodeTick) {
+        int i = st.balloonCount++;
+        st.balloonRow[i] = row;
+        st.balloonCol[i] = col;
+        st.balloonRange[i] = range;
+        st.balloonOwner[i] = owner;
+        st.balloonPlaceTick[i] = st.tick;
+        st.balloonExplodeTick[i] = explodeTick;
+        st.balloonInstallX[i] = GameSimulation.MAP_X + col * GameSimulation.TILE_WIDTH;
+        st.balloonInstallY[i] = GameSimulation.MAP_Y + row * GameSimulation.TILE_HEIGHT;
+        st.balloonCollision[i] = true;
+    }
+
+    /**
+     * 시작 상태에서 TICKS_PER_RUN틱 동안 낼 입력을 기록합니다 (봇이 없으면 제자리).
+     * 측정할 때는 봇 판단 시간 없이 이 입력만 넣습니다.
+     */
+    private static void recordInputs(Scene s, boolean bots) {
+        BotPlayer[] players = { new BotPlayer(0), new BotPlayer(1) };
+        for (int t = 0; t < TICKS_PER_RUN; t++) {
+            s.p1Inputs[t] = bots ? players[0].nextInput(s.sim) : 0;
+            s.p2Inputs[t] = bots ? players[1].nextInput(s.sim) : 0;
+            s.sim.updateGame(s.p1Inputs[t], s.p2Inputs[t]);
+        }
+        s.sim.loadState(s.start);
+    }
+
+    private static void makeProbes(Scene s) {
+        MatchRandom random = new MatchRandom(SEED);
+        int maxX = GameSimulation.TILE_COLS * GameSimulation.TILE_WIDTH - GameSimulation.PLAYER_SIZE;
+        int maxY = GameSimulation.TILE_ROWS * GameSimulation.TILE_HEIGHT - GameSimulation.PLAYER_SIZE;
+        for (int i = 0; i < PROBES; i++) {
+            s.probeX[i] = GameSimulation.MAP_X + random.nextInt(maxX + 1);
+            s.probeY[i] = GameSimulation.MAP_Y + random.nextInt(maxY + 1);
+        }
+    }
+
+    // ===== 측정 대상 =====
+
+    /**
+     * 시작 상태로 되돌리기만 (runTicks, explode에 포함된 복원 비용 기준선)
+     */
+    public static long restore(Object scene) {
+        Scene s = (Scene) scene;
+        s.sim.loadState(s.start);
+        return s.sim.getStateHash();
+    }
+
+    /**
+     * 시작 상태로 되돌린 뒤 기록된 입력으로 TICKS_PER_RUN틱 진행
+     */
+    public static long runTicks(Object scene) {
+        Scene s = (Scene) scene;
+        GameSimulation sim = s.sim;
+        sim.loadState(s.start);
+        for (int t = 0; t < TICKS_PER_RUN; t++) {
+            sim.updateGame(s.p1Inputs[t], s.p2Inputs[t]);
+        }
+        return sim.getStateHash();
+    }
+
+    /**
+     * 시작 상태로 되돌린 뒤 첫 물풍선 자리에서 연쇄 폭발
+     */
+    public static long explode(Object scene) throws Throwable {
+        Scene s = (Scene) scene;
+        s.sim.loadState(s.start);
+        CREATE_EXPLOSION.invokeExact(s.sim, s.originRow, s.originCol, s.originRange);
+        return s.sim.getStateHash();
+    }
+
+    /**
+     * PROBES개 위치의 블록 충돌 판정 (충돌한 위치 수)
+     */
+    public static int blockCollisions(Object scene) throws Throwable {
+        Scene s = (Scene) scene;
+        int hits = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if ((boolean) COLLIDING_WITH_BLOCK.invokeExact(s.sim, s.probeX[i], s.probeY[i], GameSimulation.PLAYER_SIZE)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * PROBES개 위치의 물풍선 충돌 판정 (충돌한 위치 수)
+     */
+    public static int balloonCollisions(Object scene) throws Throwable {
+        Scene s = (Scene) scene;
+        int hits = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if ((boolean) COLLIDING_WITH_BALLOON.invokeExact(s.sim, s.probeX[i], s.probeY[i], GameSimulation.PLAYER_SIZE)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 물줄기-플레이어 판정 한 번 (장면의 플레이어는 물줄기 밖이라 상태가 바뀌지 않음)
+     */
+    public static int explosionCollision(Object scene) throws Throwable {
+        Scene s = (Scene) scene;
+        CHECK_EXPLOSION_COLLISION.invokeExact(s.sim);
+        return s.sim.getPlayerState(0) + s.sim.getPlayerState(1);
+    }
+
+    /**
+     * 맵 데이터 파일 읽기 + 타일 생성 + 위험 지도/해시 재계산
+     */
+    public static int loadTiles(Object scene, String map) {
+        Scene s = (Scene) scene;
+        s.sim.loadTilesFromFile(map);
+        return s.sim.getTileVersion();
+    }
+
+    // ===== 스프라이트 투명 처리 =====
+
+    /**
+     * 스프라이트 투명 처리에 쓸 패널과 원본 시트
+     */
+    static final class Sprites {
+        GamePanelPlaceholder panel;
+        BufferedImage characterSheet; // RedBazzi.png (마젠타 배경)
+        BufferedImage dieSheet; // Die.png (마젠타 배경, RGBImageFilter 경로)
+        String bmpPath; // explosion_center.bmp (읽기 + 검정 배경 제거)
+    }
+
+    /**
+     * 게임 화면과 같은 방법으로 패널을 만들고 (게임 루프는 멈춤) 원본 시트를 읽어 둡니다.
+     */
+    public static Object sprites() throws Exception {
+        String res = System.getProperty("user.dir") + File.separator + "res" + File.separator;
+        check(new File(res + "Items.png").isFile(), "res/가 없습니다. 저장소 루트에서 실행하세요");
+        Sprites s = new Sprites();
+        SpriteStore.init();
+        SwingUtilities.invokeAndWait(() -> s.panel = new GamePanelPlaceholder(null));
+        Field timer = GamePanelPlaceholder.class.getDeclaredField("gameTimer");
+        timer.setAccessible(true);
+        javax.swing.Timer gameTimer = (javax.swing.Timer) timer.get(s.panel);
+        if (gameTimer != null) {
+            SwingUtilities.invokeAndWait(gameTimer::stop);
+        }
+        s.characterSheet = read(res + "RedBazzi.png");
+        s.dieSheet = read(res + "Die.png");
+        s.bmpPath = res + "explosion_center.bmp";
+        return s;
+    }
+
+    private static BufferedImage read(String path) throws IOException {
+        BufferedImage image = ImageIO.read(new File(path));
+        check(image != null, "이미지 로드 실패: " + path);
+        return image;
+    }
+
+    /**
+     * 아이템 시트 4칸 잘라내기 + 마젠타 제거 (SpriteStore)
+     */
+    public static Object keyItems(Object sprites) throws Throwable {
+        KEY_ITEMS.invokeExact();
+        return SpriteStore.getItem(0);
+    }
+
+    /**
+     * 캐릭터 시트 마젠타 제거 (getRGB/setRGB 픽셀 순회)
+     */
+    public static Object keyCharacterSheet(Object sprites) throws Throwable {
+        Sprites s = (Sprites) sprites;
+        return (BufferedImage) KEY_SHEET.invokeExact(s.panel, s.characterSheet, 0xFF00FF);
+    }
+
+    /**
+     * Die 시트 마젠타 제거 (RGBImageFilter + Toolkit 이미지)
+     */
+    public static Object filterDieSheet(Object sprites) throws Throwable {
+        Sprites s = (Sprites) sprites;
+        return (BufferedImage) FILTER_SHEET.invokeExact(s.panel, s.dieSheet, new Color(255, 0, 255));
+    }
+
+    /**
+     * BMP 읽기 + ARGB 변환 + 검정 제거 (폭발/물풍선 스프라이트 로드 경로 그대로)
+     */
+    public static Object loadAndFilterBmp(Object sprites) throws Throwable {
+        Sprites s = (Sprites) sprites;
+        return (BufferedImage) LOAD_AND_FILTER.invokeExact(s.panel, s.bmpPath, Color.BLACK);
+    }
+
+    // ===== 도우미 =====
+
+    private static MethodHandle handle(Class<?> owner, String name, Class<?>... params) {
+        try {
+            Method m = owner.getDeclaredMethod(name, params);
+            m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(owner.getName() + "." + name + " 을(를) 찾을 수 없습니다", e);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
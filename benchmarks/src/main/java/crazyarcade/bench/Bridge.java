@@ -0,0 +1,39 @@
+package crazyarcade.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * ========================================================
+ * 기본 패키지 연결 (Bridge)
+ * ========================================================
+ * JMH는 기본 패키지의 벤치마크를 만들지 않고, 이름 있는 패키지는 기본 패키지 클래스를
+ * import할 수 없으므로 SimBench의 static 메서드를 MethodHandle로 찾아 씁니다.
+ * 벤치마크 클래스의 static final 필드에 두면 JIT가 상수로 보고 인라인합니다.
+ */
+final class Bridge {
+    private static final Class<?> SIM_BENCH = find("SimBench");
+
+    private Bridge() {
+    }
+
+    /**
+     * SimBench.name(params) 핸들 (ret/params는 SimBench 선언과 같아야 invokeExact가 맞음)
+     */
+    static MethodHandle method(String name, Class<?> ret, Class<?>... params) {
+        try {
+            return MethodHandles.publicLookup().findStatic(SIM_BENCH, name, MethodType.methodType(ret, params));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("SimBench." + name + " 을(를) 찾을 수 없습니다", e);
+        }
+    }
+
+    private static Class<?> find(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(name + " 클래스가 클래스패스에 없습니다", e);
+        }
+    }
+}
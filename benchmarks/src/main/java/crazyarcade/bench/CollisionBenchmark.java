@@ -0,0 +1,64 @@
+package crazyarcade.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ========================================================
+ * 충돌 판정
+ * ========================================================
+ * block/balloon: 맵 위 64개 위치에서 isCollidingWithBlock / isCollidingWithBalloon (위치당 시간)
+ * explosion: checkExplosionCollision 한 번 (플레이어 두 명의 물줄기/상태 전환 확인)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CollisionBenchmark {
+    private static final MethodHandle SCENE = Bridge.method("scene", Object.class, String.class);
+    private static final MethodHandle BLOCK = Bridge.method("blockCollisions", int.class, Object.class);
+    private static final MethodHandle BALLOON = Bridge.method("balloonCollisions", int.class, Object.class);
+    private static final MethodHandle EXPLOSION = Bridge.method("explosionCollision", int.class, Object.class);
+
+    @Param({ "empty", "opening", "midgame", "dense" })
+    public String scene;
+
+    private Object state;
+
+    @Setup
+    public void setup() throws Throwable {
+        state = (Object) SCENE.invokeExact(scene);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64) // SimBench.PROBES
+    public int block() throws Throwable {
+        return (int) BLOCK.invokeExact(state);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64) // SimBench.PROBES
+    public int balloon() throws Throwable {
+        return (int) BALLOON.invokeExact(state);
+    }
+
+    @Benchmark
+    public int explosion() throws Throwable {
+        return (int) EXPLOSION.invokeExact(state);
+    }
+}
@@ -0,0 +1,58 @@
+package crazyarcade.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ========================================================
+ * 연쇄 폭발 (GameSimulation.createExplosion)
+ * ========================================================
+ * 물풍선 chain개가 한 번에 이어 터지는 폭발 한 번 (물줄기 표시, 블록 파괴, 위험 지도/해시 갱신 포함).
+ * 매번 같은 상태에서 터뜨리도록 loadState로 되돌리므로 restore 결과를 빼고 봐야 합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ExplosionBenchmark {
+    private static final MethodHandle CHAIN_SCENE = Bridge.method("chainScene", Object.class, String.class, int.class);
+    private static final MethodHandle EXPLODE = Bridge.method("explode", long.class, Object.class);
+    private static final MethodHandle RESTORE = Bridge.method("restore", long.class, Object.class);
+
+    @Param({ "empty", "mapData1.txt" })
+    public String board;
+
+    @Param({ "1", "8", "32" })
+    public int chain;
+
+    private Object state;
+
+    @Setup
+    public void setup() throws Throwable {
+        state = (Object) CHAIN_SCENE.invokeExact(board, chain);
+    }
+
+    @Benchmark
+    public long explode() throws Throwable {
+        return (long) EXPLODE.invokeExact(state);
+    }
+
+    @Benchmark
+    public long restore() throws Throwable {
+        return (long) RESTORE.invokeExact(state);
+    }
+}
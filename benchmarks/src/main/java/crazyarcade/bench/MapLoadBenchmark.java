@@ -0,0 +1,48 @@
+package crazyarcade.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ========================================================
+ * 맵 로드 (GameSimulation.loadTilesFromFile)
+ * ========================================================
+ * mapData 파일 읽기 + 타일 생성 + 위험 지도/해시 재계산 (경기 시작마다 한 번)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapLoadBenchmark {
+    private static final MethodHandle SCENE = Bridge.method("scene", Object.class, String.class);
+    private static final MethodHandle LOAD_TILES = Bridge.method("loadTiles", int.class, Object.class, String.class);
+
+    @Param({ "mapData1.txt", "mapData2.txt" })
+    public String map;
+
+    private Object scene;
+
+    @Setup
+    public void setup() throws Throwable {
+        scene = (Object) SCENE.invokeExact("opening");
+    }
+
+    @Benchmark
+    public int loadTiles() throws Throwable {
+        return (int) LOAD_TILES.invokeExact(scene, map);
+    }
+}
@@ -0,0 +1,65 @@
+package crazyarcade.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ========================================================
+ * 스프라이트 투명 처리 (배경색 제거)
+ * ========================================================
+ * keyItems          : SpriteStore 아이템 시트 4칸 (getRGB/setRGB)
+ * keyCharacterSheet : 캐릭터 시트 마젠타 제거 (게임 시작마다 두 장)
+ * filterDieSheet    : RGBImageFilter + Toolkit 경로 (Trapped/Die 시트)
+ * loadAndFilterBmp  : BMP 읽기 + ARGB 변환 + 검정 제거 (폭발/물풍선 스프라이트)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpriteKeyingBenchmark {
+    private static final MethodHandle SPRITES = Bridge.method("sprites", Object.class);
+    private static final MethodHandle KEY_ITEMS = Bridge.method("keyItems", Object.class, Object.class);
+    private static final MethodHandle KEY_CHARACTER = Bridge.method("keyCharacterSheet", Object.class, Object.class);
+    private static final MethodHandle FILTER_DIE = Bridge.method("filterDieSheet", Object.class, Object.class);
+    private static final MethodHandle LOAD_BMP = Bridge.method("loadAndFilterBmp", Object.class, Object.class);
+
+    private Object sprites;
+
+    @Setup
+    public void setup() throws Throwable {
+        sprites = (Object) SPRITES.invokeExact();
+    }
+
+    @Benchmark
+    public Object keyItems() throws Throwable {
+        return (Object) KEY_ITEMS.invokeExact(sprites);
+    }
+
+    @Benchmark
+    public Object keyCharacterSheet() throws Throwable {
+        return (Object) KEY_CHARACTER.invokeExact(sprites);
+    }
+
+    @Benchmark
+    public Object filterDieSheet() throws Throwable {
+        return (Object) FILTER_DIE.invokeExact(sprites);
+    }
+
+    @Benchmark
+    public Object loadAndFilterBmp() throws Throwable {
+        return (Object) LOAD_BMP.invokeExact(sprites);
+    }
+}
@@ -0,0 +1,57 @@
+package crazyarcade.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ========================================================
+ * 시뮬레이션 틱 (GameSimulation.updateGame)
+ * ========================================================
+ * 장면의 시작 상태로 되돌린 뒤 미리 기록한 봇 입력으로 60틱을 진행하고 틱당 시간을 냅니다.
+ * restore는 되돌리기(loadState)만 한 기준선이고, tick 결과에는 그 1/60이 섞여 있습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TickBenchmark {
+    private static final MethodHandle SCENE = Bridge.method("scene", Object.class, String.class);
+    private static final MethodHandle RUN_TICKS = Bridge.method("runTicks", long.class, Object.class);
+    private static final MethodHandle RESTORE = Bridge.method("restore", long.class, Object.class);
+
+    @Param({ "empty", "opening", "midgame", "dense" })
+    public String scene;
+
+    private Object state;
+
+    @Setup
+    public void setup() throws Throwable {
+        state = (Object) SCENE.invokeExact(scene);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(60) // SimBench.TICKS_PER_RUN
+    public long tick() throws Throwable {
+        return (long) RUN_TICKS.invokeExact(state);
+    }
+
+    @Benchmark
+    public long restore() throws Throwable {
+        return (long) RESTORE.invokeExact(state);
+    }
+}
@@ -54,10 +54,8 @@ public class BGMPlayer {
                 clip.close();
             }
 
-            // 오디오 스트림 열기
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(file);
-            clip = AudioSystem.getClip();
-            clip.open(audioStream);
+            // 오디오 스트림 열기 (기록 중이면 JFR 이벤트)
+            clip = GameEvents.openClip(file);
 
             // 볼륨 컨트롤 객체 획득 (MASTER_GAIN)
             if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
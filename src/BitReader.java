@@ -0,0 +1,58 @@
+/**
+ * ========================================================
+ * 비트 단위 읽기 클래스 (BitReader)
+ * ========================================================
+ * BitWriter로 쓴 데이터를 같은 순서로 읽어 옵니다.
+ */
+public class BitReader {
+    private byte[] buffer;
+    private int length;
+    private int bitPosition = 0;
+
+    public BitReader() {
+    }
+
+    public BitReader(byte[] buffer, int length) {
+        reset(buffer, length);
+    }
+
+    public void reset(byte[] buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+        this.bitPosition = 0;
+    }
+
+    /**
+     * bits 비트를 읽어 부호 없는 정수로 반환합니다 (최대 32비트).
+     */
+    public int readBits(int bits) {
+        if (bitPosition + bits > length * 8) {
+            throw new IllegalStateException("패킷 길이를 넘어서 읽음: " + (bitPosition + bits) + "비트");
+        }
+        int value = 0;
+        for (int i = 0; i < bits; i++) {
+            int byteIndex = bitPosition >>> 3;
+            int bitIndex = 7 - (bitPosition & 7);
+            value = (value << 1) | ((buffer[byteIndex] >>> bitIndex) & 1);
+            bitPosition++;
+        }
+        return value;
+    }
+
+    public boolean readBoolean() {
+        return readBits(1) != 0;
+    }
+
+    /**
+     * bits 비트 2의 보수 값을 읽습니다.
+     */
+    public int readSigned(int bits) {
+        int value = readBits(bits);
+        int shift = 32 - bits;
+        return (value << shift) >> shift;
+    }
+
+    public int getBitPosition() {
+        return bitPosition;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * ========================================================
+ * 비트 단위 쓰기 클래스 (BitWriter)
+ * ========================================================
+ * 스냅샷 패킷을 바이트가 아닌 비트 단위로 채워 넣기 위한 버퍼입니다.
+ * 버퍼는 재사용하며, reset() 후 다시 씁니다.
+ */
+public class BitWriter {
+    private byte[] buffer;
+    private int bitPosition = 0;
+
+    public BitWriter(int capacityBytes) {
+        buffer = new byte[capacityBytes];
+    }
+
+    public void reset() {
+        bitPosition = 0;
+    }
+
+    /**
+     * 하위 bits 비트를 씁니다 (최대 32비트).
+     */
+    public void writeBits(int value, int bits) {
+        ensureCapacity(bitPosition + bits);
+        for (int i = bits - 1; i >= 0; i--) {
+            int byteIndex = bitPosition >>> 3;
+            int bitIndex = 7 - (bitPosition & 7);
+            if (((value >>> i) & 1) != 0) {
+                buffer[byteIndex] |= (byte) (1 << bitIndex);
+            } else {
+                buffer[byteIndex] &= (byte) ~(1 << bitIndex);
+            }
+            bitPosition++;
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        writeBits(value ? 1 : 0, 1);
+    }
+
+    /**
+     * 부호 있는 값을 bits 비트 2의 보수로 씁니다.
+     */
+    public void writeSigned(int value, int bits) {
+        writeBits(value & ((1 << bits) - 1), bits);
+    }
+
+    private void ensureCapacity(int bits) {
+        int bytes = (bits + 7) >>> 3;
+        if (bytes > buffer.length) {
+            byte[] bigger = new byte[Math.max(bytes, buffer.length * 2)];
+            System.arraycopy(buffer, 0, bigger, 0, buffer.length);
+            buffer = bigger;
+        }
+    }
+
+    public int getBitLength() {
+        return bitPosition;
+    }
+
+    public int getByteLength() {
+        return (bitPosition + 7) >>> 3;
+    }
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * ========================================================
+ * 컴퓨터 플레이어 인터페이스 (BotController)
+ * ========================================================
+ * 매 틱 시뮬레이션 상태를 보고 입력 비트마스크(방향 + INPUT_BOMB)를 돌려줍니다.
+ * 키보드 입력 자리(buildInput)에 그대로 끼워 넣을 수 있도록 동작은 이것뿐입니다.
+ *
+ * 구현: BotPlayer (위험 지도 + BFS), MctsBot (몬테카를로 트리 탐색)
+ */
+public interface BotController {
+
+    /**
+     * 이번 틱에 넘길 입력 (틱마다 한 번, 게임 루프 스레드에서 호출)
+     */
+    int nextInput(GameSimulation sim);
+
+    /**
+     * 판단 시간 등 통계 한 줄
+     */
+    String getStatsSummary();
+
+    /**
+     * 백그라운드 작업 정리 (없으면 아무 것도 안 함)
+     */
+    default void close() {
+    }
+}
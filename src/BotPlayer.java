@@ -0,0 +1,315 @@
+/**
+ * ========================================================
+ * 컴퓨터 플레이어 (BotPlayer)
+ * ========================================================
+ * 키보드 대신 매 틱 입력 비트마스크를 만들어 주는 봇입니다.
+ * 사람 플레이어와 똑같이 GameSimulation.updateGame에 입력만 넘기므로
+ * 로컬 2P 자리, 서버 방, 헤드리스 대전 어디에나 끼울 수 있습니다.
+ *
+ * 판단 순서 (매 틱):
+ * 1. 물줄기가 닿을 칸에 서 있으면 → 가장 가까운 안전한 칸으로 도망
+ * 2. 상대가 갇혀 있으면 → 닿아서 터뜨리러 감
+ * 3. 상대가 물줄기 안에 있으면 → 물풍선 설치 (설치 후 도망칠 곳이 있을 때만)
+ * 4. 가까운 아이템(0~2)이 있으면 → 주우러 감
+ * 5. 그 외 → 상대 쪽으로 접근, 가는 길이 블록으로 막혀 있으면 부숨
+ *
+ * 아이템/상대/안전한 칸까지의 길은 시뮬레이션이 공유하는 FlowFieldService 지도에서
+ * 다음 칸만 읽어 옵니다 (봇이 몇 개든 지도는 바뀔 때 한 번만 계산).
+ * 도망칠 때 공유 지도의 다음 칸이 위험하거나 물풍선 설치 후 도망칠 곳을 확인할 때만
+ * 칸마다 도착 예상 틱에 물줄기가 없는 길을 찾는 자체 BFS를 씁니다.
+ */
+public class BotPlayer implements BotController {
+    private static final int COLS = GameSimulation.TILE_COLS;
+    private static final int CELLS = GameSimulation.CELL_COUNT;
+    private static final int[] DIR_ROW = { -1, 1, 0, 0 };
+    private static final int[] DIR_COL = { 0, 0, -1, 1 };
+
+    // 칸 가운데 정렬 허용 오차 (충돌 판정이 모서리에서 5px 안쪽이므로 그보다 작게)
+    private static final int ALIGN_TOLERANCE = 4;
+    // 물줄기 도착 예상 틱에 더해 두는 여유
+    private static final int SAFETY_MARGIN_TICKS = 6;
+    // 이 거리(칸)보다 먼 아이템은 무시
+    private static final int ITEM_SEARCH_DEPTH = 8;
+
+    private final int p; // 0 = 1P, 1 = 2P
+
+    private final DangerMap planned = new DangerMap(); // 지금 물풍선을 놓았다고 가정한 지도
+
+    // BFS (할당 없이 재사용)
+    private final int[] dist = new int[CELLS];
+    private final int[] firstStep = new int[CELLS]; // 출발 칸에서 처음 옮겨 갈 칸
+    private final int[] queue = new int[CELLS];
+    private final boolean[] balloonCell = new boolean[CELLS];
+
+    // 판단 시간 측정 (나노초)
+    private final LatencyHistogram decisionNanos = new LatencyHistogram();
+
+    /**
+     * @param slot 조작할 플레이어 (0 = 1P, 1 = 2P)
+     */
+    public BotPlayer(int slot) {
+        this.p = slot;
+    }
+
+    @Override
+    public int nextInput(GameSimulation sim) {
+        long start = System.nanoTime();
+        int input = decide(sim);
+        decisionNanos.record(System.nanoTime() - start);
+        return input;
+    }
+
+    private int decide(GameSimulation sim) {
+        if (sim.getGameState() != GameSimulation.STATE_PLAYING
+                || sim.getPlayerState(p) != GameSimulation.PLAYER_STATE_ALIVE) {
+            return GameSimulation.DIR_NONE;
+        }
+
+        int now = sim.getTick();
+        int x = sim.getPlayerX(p);
+        int y = sim.getPlayerY(p);
+        int myRow = GameSimulation.getTileRow(y + GameSimulation.PLAYER_SIZE / 2);
+        int myCol = GameSimulation.getTileCol(x + GameSimulation.PLAYER_SIZE / 2);
+        int myCell = myRow * COLS + myCol;
+        int stepTicks = (GameSimulation.TILE_WIDTH + sim.getSpeed(p) - 1) / sim.getSpeed(p);
+
+        int o = 1 - p;
+        int oppRow = GameSimulation.getTileRow(sim.getPlayerY(o) + GameSimulation.PLAYER_SIZE / 2);
+        int oppCol = GameSimulation.getTileCol(sim.getPlayerX(o) + GameSimulation.PLAYER_SIZE / 2);
+        int oppCell = oppRow * COLS + oppCol;
+        int oppState = sim.getPlayerState(o);
+
+        DangerMap danger = sim.getDangerMap();
+        FlowFieldService fields = sim.getFlowFields();
+        fields.update();
+        markBalloons(sim);
+
+        // 1. 위험한 칸에 있으면 도망
+        if (danger.isThreatened(myCell, now)) {
+            // 공유 지도의 다음 칸이 지나가는 동안 안전하면 그대로, 아니면 시간까지 따지는 BFS로
+            int next = fields.nextCell(FlowFieldService.FIELD_SAFE, myCell);
+            if (next >= 0 && danger.isSafeDuring(next, now, now + 2 * stepTicks + SAFETY_MARGIN_TICKS)) {
+                return moveToward(sim, myRow, myCol, next);
+            }
+            return flee(sim, danger, myCell, now, stepTicks);
+        }
+
+        // 2. 갇힌 상대 터뜨리기
+        int toOpp = FlowFieldService.FIELD_PLAYER + o;
+        if (oppState == GameSimulation.PLAYER_STATE_TRAPPED) {
+            if (oppCell == myCell) {
+                return steerToPixel(x, y, sim.getPlayerX(o), sim.getPlayerY(o));
+            }
+            int next = fields.nextCell(toOpp, myCell);
+            if (next >= 0 && !fields.isBreakableBlock(next) && !danger.isThreatened(next, now)) {
+                return moveToward(sim, myRow, myCol, next);
+            }
+        }
+
+        boolean canBomb = canPlaceBalloon(sim, myCell);
+        int range = sim.getBombRange(p);
+
+        // 3. 상대가 내 물줄기 안에 있으면 설치
+        if (canBomb && oppState == GameSimulation.PLAYER_STATE_ALIVE
+                && inBlastLine(sim, myRow, myCol, range, oppRow, oppCol)
+                && hasEscape(sim, myRow, myCol, range, now, stepTicks)) {
+            return GameSimulation.INPUT_BOMB;
+        }
+
+        // 4. 아이템 줍기
+        if (fields.distance(FlowFieldService.FIELD_ITEM, myCell) <= ITEM_SEARCH_DEPTH) {
+            int next = fields.nextCell(FlowFieldService.FIELD_ITEM, myCell);
+            if (next >= 0 && !danger.isThreatened(next, now)) {
+                return moveToward(sim, myRow, myCol, next);
+            }
+        }
+
+        // 5. 상대에게 접근, 길이 블록으로 막혀 있으면 부숨
+        int next = fields.nextCell(toOpp, myCell);
+        if (next >= 0 && fields.isBreakableBlock(next)) {
+            if (canBomb && hasEscape(sim, myRow, myCol, range, now, stepTicks)) {
+                return GameSimulation.INPUT_BOMB;
+            }
+            next = -1;
+        }
+        if (next >= 0 && !danger.isThreatened(next, now)) {
+            return moveToward(sim, myRow, myCol, next);
+        }
+        return moveToward(sim, myRow, myCol, -1);
+    }
+
+    /**
+     * 도착 예상 시간까지 따지는 BFS로 가장 가까운 안전한 칸(없으면 가장 늦게 물줄기가 닿는 칸)으로 도망
+     */
+    private int flee(GameSimulation sim, DangerMap danger, int myCell, int now, int stepTicks) {
+        search(sim, danger, myCell, now, stepTicks);
+        int target = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (dist[cell] >= 0 && !danger.isThreatened(cell, now) && (target < 0 || dist[cell] < dist[target])) {
+                target = cell;
+            }
+        }
+        if (target < 0) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (dist[cell] >= 0 && (target < 0 || danger.getBlastTick(cell, now) > danger.getBlastTick(target, now))) {
+                    target = cell;
+                }
+            }
+        }
+        int myRow = myCell / COLS;
+        int myCol = myCell % COLS;
+        if (target < 0 || target == myCell) {
+            return moveToward(sim, myRow, myCol, -1);
+        }
+        return moveToward(sim, myRow, myCol, firstStep[target]);
+    }
+
+    // ===== 길찾기 =====
+
+    private void markBalloons(GameSimulation sim) {
+        java.util.Arrays.fill(balloonCell, false);
+        for (int i = 0; i < sim.getBalloonCount(); i++) {
+            balloonCell[sim.getBalloonRow(i) * COLS + sim.getBalloonCol(i)] = true;
+        }
+    }
+
+    /**
+     * start에서 BFS. 블록/물풍선 칸과, 도착 예상 시간에 물줄기가 있는 칸은 지나가지 않습니다.
+     * 결과: dist[칸] (도달 불가면 -1), firstStep[칸]
+     */
+    private void search(GameSimulation sim, DangerMap map, int start, int now, int stepTicks) {
+        java.util.Arrays.fill(dist, -1);
+        Tile[][] tiles = sim.getTiles();
+        int head = 0;
+        int tail = 0;
+        dist[start] = 0;
+        firstStep[start] = start;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int row = cell / COLS;
+            int col = cell % COLS;
+            int d = dist[cell] + 1;
+            // 이 칸을 지나는 동안 (한 칸 전부터 다음 칸으로 빠져나갈 때까지)
+            int enter = now + (d - 1) * stepTicks;
+            int leave = now + (d + 1) * stepTicks + SAFETY_MARGIN_TICKS;
+
+            for (int dir = 0; dir < 4; dir++) {
+                int r = row + DIR_ROW[dir];
+                int c = col + DIR_COL[dir];
+                if (!GameSimulation.inBounds(r, c)) continue;
+                int next = r * COLS + c;
+                if (dist[next] >= 0 || balloonCell[next]) continue;
+                if (tiles != null && tiles[r][c].getItemIndex() == 3) continue;
+                if (!map.isSafeDuring(next, enter, leave)) continue;
+
+                dist[next] = d;
+                firstStep[next] = (cell == start) ? next : firstStep[cell];
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /**
+     * 지금 물풍선을 놓아도 터지기 전에 안전한 칸까지 갈 수 있는지
+     */
+    private boolean hasEscape(GameSimulation sim, int row, int col, int range, int now, int stepTicks) {
+        planned.copyFrom(sim.getDangerMap());
+        planned.placeBalloon(sim.getTiles(), row, col, range, now + GameSimulation.BALLOON_DELAY_TICKS);
+        search(sim, planned, row * COLS + col, now, stepTicks);
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (dist[cell] > 0 && !planned.isThreatened(cell, now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canPlaceBalloon(GameSimulation sim, int myCell) {
+        if (balloonCell[myCell]) return false;
+        int mine = 0;
+        for (int i = 0; i < sim.getBalloonCount(); i++) {
+            if (sim.getBalloonOwner(i) == p + 1) mine++;
+        }
+        return mine < sim.getBombCount(p);
+    }
+
+    /**
+     * (row, col)에 놓은 물풍선의 물줄기가 (targetRow, targetCol)에 닿는지 (블록에서 멈춤)
+     */
+    private static boolean inBlastLine(GameSimulation sim, int row, int col, int range, int targetRow, int targetCol) {
+        if (row != targetRow && col != targetCol) return false;
+        int distance = Math.abs(row - targetRow) + Math.abs(col - targetCol);
+        if (distance > range) return false;
+        int dr = Integer.signum(targetRow - row);
+        int dc = Integer.signum(targetCol - col);
+        Tile[][] tiles = sim.getTiles();
+        for (int i = 1; i < distance; i++) {
+            if (tiles != null && tiles[row + dr * i][col + dc * i].getItemIndex() == 3) return false;
+        }
+        return true;
+    }
+
+    // ===== 이동 =====
+
+    /**
+     * 바로 옆 칸 next로 옮겨 가는 입력을 만듭니다 (-1이면 지금 칸 가운데에 멈춤).
+     * 방향을 꺾기 전에 칸 가운데로 먼저 맞춰야 블록 모서리에 걸리지 않습니다.
+     */
+    private int moveToward(GameSimulation sim, int myRow, int myCol, int next) {
+        int x = sim.getPlayerX(p);
+        int y = sim.getPlayerY(p);
+        if (next < 0 || next == myRow * COLS + myCol) {
+            return steerToPixel(x, y, cellX(myCol), cellY(myRow));
+        }
+
+        int nextRow = next / COLS;
+        int nextCol = next % COLS;
+        if (nextRow != myRow) {
+            // 세로 이동: 가로 정렬 먼저
+            int dx = cellX(myCol) - x;
+            if (Math.abs(dx) > ALIGN_TOLERANCE) {
+                return dx > 0 ? GameSimulation.DIR_RIGHT : GameSimulation.DIR_LEFT;
+            }
+            return nextRow > myRow ? GameSimulation.DIR_DOWN : GameSimulation.DIR_UP;
+        }
+        int dy = cellY(myRow) - y;
+        if (Math.abs(dy) > ALIGN_TOLERANCE) {
+            return dy > 0 ? GameSimulation.DIR_DOWN : GameSimulation.DIR_UP;
+        }
+        return nextCol > myCol ? GameSimulation.DIR_RIGHT : GameSimulation.DIR_LEFT;
+    }
+
+    private static int steerToPixel(int x, int y, int targetX, int targetY) {
+        int dx = targetX - x;
+        int dy = targetY - y;
+        if (Math.abs(dx) <= ALIGN_TOLERANCE && Math.abs(dy) <= ALIGN_TOLERANCE) {
+            return GameSimulation.DIR_NONE;
+        }
+        if (Math.abs(dx) >= Math.abs(dy)) {
+            return dx > 0 ? GameSimulation.DIR_RIGHT : GameSimulation.DIR_LEFT;
+        }
+        return dy > 0 ? GameSimulation.DIR_DOWN : GameSimulation.DIR_UP;
+    }
+
+    private static int cellX(int col) {
+        return GameSimulation.MAP_X + col * GameSimulation.TILE_WIDTH;
+    }
+
+    private static int cellY(int row) {
+        return GameSimulation.MAP_Y + row * GameSimulation.TILE_HEIGHT;
+    }
+
+    public int getSlot() { return p; }
+
+    @Override
+    public String getStatsSummary() {
+        return "판단 시간 " + decisionNanos.summaryMicros();
+    }
+
+    /**
+     * 틱당 판단 시간 분포 (나노초)
+     */
+    public LatencyHistogram getDecisionNanos() { return decisionNanos; }
+}
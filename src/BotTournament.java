@@ -0,0 +1,241 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ========================================================
+ * 봇 대전 토너먼트 (BotTournament)
+ * ========================================================
+ * 화면 없이 BotPlayer끼리 수천 판을 모든 코어에서 돌려서
+ * 캐릭터/맵 조합별 승률과 경기 길이를 보여 줍니다.
+ * 능력치를 바꿨을 때 밸런스가 어떻게 변하는지 몇 분 안에 확인하는 용도입니다.
+ *
+ * 실행: java CrazyArcade_UI tournament [옵션]
+ *   --matches N     전체 경기 수 (기본 2000, 조합마다 고르게 나눔)
+ *   --threads N     작업 스레드 수 (기본 코어 수)
+ *   --seed N        경기 시작 지연과 경기 난수(아이템 드롭)를 정하는 시드
+ *   --stat 대상.능력치=값   능력치 덮어쓰기 (여러 번 가능)
+ *                   대상: 캐릭터 이름(배찌/다오/디지니) 또는 p1/p2
+ *                   능력치: bombCount, bombRange, speed, maxBombCount, maxBombRange, maxSpeed
+ *   예) --stat 배찌.maxBombRange=8 --stat p2.speed=5
+ *
+ * 같은 조합이 매번 같은 경기가 되지 않도록 두 봇의 출발을 0 ~ START_JITTER_TICKS 틱 무작위로 늦춥니다.
+ */
+public class BotTournament {
+    static final String[] CHARACTERS = { "배찌", "다오", "디지니" };
+    static final String[] MAPS = { "mapData1.txt", "mapData2.txt" };
+    private static final int START_JITTER_TICKS = 60;
+
+    // 조합: 맵 x 1P 캐릭터 x 2P 캐릭터
+    private static final int PAIRINGS = CHARACTERS.length * CHARACTERS.length;
+    private static final int CONFIGS = MAPS.length * PAIRINGS;
+
+    private final List<String[]> statOverrides = new ArrayList<>(); // { 대상, 능력치, 값 }
+
+    /**
+     * 조합별 결과 (작업 스레드마다 따로 쌓고 끝에 합침)
+     */
+    private static final class Stats {
+        final long[] matches = new long[CONFIGS];
+        final long[] p1Wins = new long[CONFIGS];
+        final long[] p2Wins = new long[CONFIGS];
+        final long[] draws = new long[CONFIGS];
+        final long[] ticks = new long[CONFIGS];
+        final LatencyHistogram decisionNanos = new LatencyHistogram();
+
+        void merge(Stats o) {
+            for (int i = 0; i < CONFIGS; i++) {
+                matches[i] += o.matches[i];
+                p1Wins[i] += o.p1Wins[i];
+                p2Wins[i] += o.p2Wins[i];
+                draws[i] += o.draws[i];
+                ticks[i] += o.ticks[i];
+            }
+            decisionNanos.merge(o.decisionNanos);
+        }
+    }
+
+    void addStatOverride(String spec) {
+        // "배찌.maxBombRange=8"
+        int dot = spec.indexOf('.');
+        int eq = spec.indexOf('=');
+        if (dot <= 0 || eq <= dot + 1) {
+            throw new IllegalArgumentException("능력치 형식 오류: " + spec + " (예: 배찌.maxBombRange=8)");
+        }
+        String target = spec.substring(0, dot);
+        String stat = spec.substring(dot + 1, eq);
+        String value = spec.substring(eq + 1);
+        Integer.parseInt(value); // 형식 확인
+        new GameSimulation().setPlayerStat(0, stat, 0); // 능력치 이름 확인
+        statOverrides.add(new String[] { target, stat, value });
+    }
+
+    /**
+     * 경기들을 나눠서 돌리고 합친 결과를 돌려줍니다.
+     */
+    Stats run(int matchCount, int threads, long seed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "tournament");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Stats>> futures = new ArrayList<>();
+            for (int w = 0; w < threads; w++) {
+                int worker = w;
+                futures.add(pool.submit(() -> runWorker(worker, threads, matchCount, seed)));
+            }
+            Stats total = new Stats();
+            for (Future<Stats> f : futures) {
+                total.merge(f.get());
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 작업 스레드 하나: worker, worker + threads, ... 번째 경기를 맡음
+     */
+    private Stats runWorker(int worker, int threads, int matchCount, long seed) {
+        Stats stats = new Stats();
+        GameSimulation[] sims = new GameSimulation[MAPS.length]; // 맵마다 한 번만 읽음
+        for (int m = 0; m < MAPS.length; m++) {
+            sims[m] = new GameSimulation();
+            sims[m].setLogging(false);
+            sims[m].loadTilesFromFile(MAPS[m]);
+        }
+
+        for (int match = worker; match < matchCount; match += threads) {
+            int config = match % CONFIGS;
+            int map = config / PAIRINGS;
+            String p1 = CHARACTERS[(config % PAIRINGS) / CHARACTERS.length];
+            String p2 = CHARACTERS[config % CHARACTERS.length];
+            SplittableRandom random = new SplittableRandom(seed ^ (match * 0x9E3779B97F4A7C15L));
+
+            GameSimulation sim = sims[map];
+            sim.setCharacters(p1, p2);
+            sim.setMatchSeed(random.nextLong());
+            sim.resetGame();
+            applyStatOverrides(sim, p1, p2);
+
+            BotPlayer[] bots = { new BotPlayer(0), new BotPlayer(1) };
+            int[] startTick = { random.nextInt(START_JITTER_TICKS + 1), random.nextInt(START_JITTER_TICKS + 1) };
+            while (sim.getGameState() == GameSimulation.STATE_PLAYING) {
+                int tick = sim.getTick();
+                int in1 = tick >= startTick[0] ? bots[0].nextInput(sim) : GameSimulation.DIR_NONE;
+                int in2 = tick >= startTick[1] ? bots[1].nextInput(sim) : GameSimulation.DIR_NONE;
+                sim.updateGame(in1, in2);
+            }
+
+            stats.matches[config]++;
+            stats.ticks[config] += sim.getEndTick();
+            switch (sim.getGameState()) {
+                case GameSimulation.STATE_P1_WIN: stats.p1Wins[config]++; break;
+                case GameSimulation.STATE_P2_WIN: stats.p2Wins[config]++; break;
+                default: stats.draws[config]++; break;
+            }
+            stats.decisionNanos.merge(bots[0].getDecisionNanos());
+            stats.decisionNanos.merge(bots[1].getDecisionNanos());
+        }
+        return stats;
+    }
+
+    private void applyStatOverrides(GameSimulation sim, String p1, String p2) {
+        for (String[] o : statOverrides) {
+            int value = Integer.parseInt(o[2]);
+            if (o[0].equals("p1") || o[0].equals(p1)) sim.setPlayerStat(0, o[1], value);
+            if (o[0].equals("p2") || o[0].equals(p2)) sim.setPlayerStat(1, o[1], value);
+        }
+    }
+
+    // ===== 결과 출력 =====
+
+    private static void printReport(Stats s, double seconds) {
+        System.out.println();
+        System.out.println(String.format("%-14s %-14s %6s %7s %7s %7s %9s",
+            "맵", "1P vs 2P", "경기", "1P 승", "2P 승", "무승부", "평균 길이"));
+        long totalMatches = 0;
+        long totalTicks = 0;
+        for (int config = 0; config < CONFIGS; config++) {
+            long n = s.matches[config];
+            if (n == 0) continue;
+            String p1 = CHARACTERS[(config % PAIRINGS) / CHARACTERS.length];
+            String p2 = CHARACTERS[config % CHARACTERS.length];
+            System.out.println(String.format("%-14s %-14s %6d %6.1f%% %6.1f%% %6.1f%% %8.1f초",
+                MAPS[config / PAIRINGS], p1 + " vs " + p2, n,
+                100.0 * s.p1Wins[config] / n, 100.0 * s.p2Wins[config] / n, 100.0 * s.draws[config] / n,
+                ticksToSeconds(s.ticks[config] / (double) n)));
+            totalMatches += n;
+            totalTicks += s.ticks[config];
+        }
+
+        // 캐릭터별 승률 (1P/2P 자리 합산, 무승부는 반 승으로)
+        System.out.println();
+        for (int c = 0; c < CHARACTERS.length; c++) {
+            double points = 0;
+            long games = 0;
+            for (int config = 0; config < CONFIGS; config++) {
+                int c1 = (config % PAIRINGS) / CHARACTERS.length;
+                int c2 = config % CHARACTERS.length;
+                if (c1 == c2) continue; // 같은 캐릭터끼리는 제외
+                if (c1 == c) {
+                    points += s.p1Wins[config] + 0.5 * s.draws[config];
+                    games += s.matches[config];
+                }
+                if (c2 == c) {
+                    points += s.p2Wins[config] + 0.5 * s.draws[config];
+                    games += s.matches[config];
+                }
+            }
+            if (games > 0) {
+                System.out.println(String.format("%s: 다른 캐릭터 상대 승점 %.1f%% (%d경기)",
+                    CHARACTERS[c], 100.0 * points / games, games));
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("전체 %d경기, 평균 %.1f초, %.1f초 걸림 → 초당 %.1f경기 (게임 시간 %.0f배속)",
+            totalMatches, ticksToSeconds(totalTicks / (double) Math.max(1, totalMatches)), seconds,
+            totalMatches / seconds, ticksToSeconds(totalTicks) / seconds));
+        System.out.println("봇 판단 시간: " + s.decisionNanos.summaryMicros());
+    }
+
+    private static double ticksToSeconds(double ticks) {
+        return ticks * GameSimulation.TICK_MS / 1000.0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        BotTournament tournament = new BotTournament();
+        int matchCount = 2000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--matches": matchCount = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--stat": tournament.addStatOverride(args[++i]); break;
+                default:
+                    System.out.println("알 수 없는 옵션: " + args[i]);
+                    System.out.println("사용법: BotTournament [--matches N] [--threads N] [--seed N] [--stat 대상.능력치=값]...");
+                    return;
+            }
+        }
+        threads = Math.max(1, threads);
+
+        System.out.println("봇 토너먼트: " + matchCount + "경기, 스레드 " + threads + "개, 조합 " + CONFIGS + "개, 시드 " + seed);
+        for (String[] o : tournament.statOverrides) {
+            System.out.println("능력치 변경: " + o[0] + "." + o[1] + " = " + o[2]);
+        }
+        long start = System.nanoTime();
+        Stats stats = tournament.run(matchCount, threads, seed);
+        printReport(stats, (System.nanoTime() - start) / 1e9);
+    }
+}
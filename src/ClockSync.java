@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * ========================================================
+ * 시계 동기화 추정 클래스 (ClockSync)
+ * ========================================================
+ * NTP 방식 핑/퐁 교환으로 왕복 지연(RTT), 상대 시계와의 차이(offset),
+ * 그리고 내 틱이 상대 틱보다 얼마나 앞서 있는지(tick advantage)를 추정합니다.
+ * 튀는 값에 흔들리지 않도록 최근 WINDOW개 표본의 중앙값을 사용합니다.
+ *
+ * 시각 표기 (나노초, 각자 자기 시계):
+ * t0 = 내가 PING을 보낸 시각, t1 = 상대가 받은 시각,
+ * t2 = 상대가 PONG을 보낸 시각, t3 = 내가 PONG을 받은 시각
+ * RTT = (t3 - t0) - (t2 - t1), offset = ((t1 - t0) + (t2 - t3)) / 2
+ */
+public class ClockSync {
+    static final int WINDOW = 15;
+
+    private final long[] rttSamples = new long[WINDOW];
+    private final long[] offsetSamples = new long[WINDOW];
+    private final double[] advantageSamples = new double[WINDOW];
+    private int count = 0;
+    private int next = 0;
+
+    // 중앙값 계산용 (할당 없이 재사용)
+    private final long[] sortLong = new long[WINDOW];
+    private final double[] sortDouble = new double[WINDOW];
+
+    private long medianRtt = 0;
+    private long medianOffset = 0;
+    private double medianAdvantage = 0;
+
+    /**
+     * PONG을 받았을 때 표본 하나를 추가합니다.
+     *
+     * @param remoteTick PONG을 보낼 때(t2) 상대 시뮬레이션 틱
+     * @param localTick  PONG을 받았을 때(t3) 내 시뮬레이션 틱
+     */
+    public void addSample(long t0, long t1, long t2, long t3, int remoteTick, int localTick) {
+        long rtt = Math.max(0, (t3 - t0) - (t2 - t1));
+        long offset = ((t1 - t0) + (t2 - t3)) / 2;
+        // PONG이 오는 동안 상대도 진행했으므로 편도 시간만큼 더해서 비교
+        double remoteTickNow = remoteTick + (rtt / 2.0) / (GameSimulation.TICK_MS * 1_000_000.0);
+
+        rttSamples[next] = rtt;
+        offsetSamples[next] = offset;
+        advantageSamples[next] = localTick - remoteTickNow;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) count++;
+
+        medianRtt = median(rttSamples);
+        medianOffset = median(offsetSamples);
+        medianAdvantage = median(advantageSamples);
+    }
+
+    private long median(long[] samples) {
+        System.arraycopy(samples, 0, sortLong, 0, count);
+        Arrays.sort(sortLong, 0, count);
+        return sortLong[count / 2];
+    }
+
+    private double median(double[] samples) {
+        System.arraycopy(samples, 0, sortDouble, 0, count);
+        Arrays.sort(sortDouble, 0, count);
+        return sortDouble[count / 2];
+    }
+
+    public void reset() {
+        count = 0;
+        next = 0;
+        medianRtt = 0;
+        medianOffset = 0;
+        medianAdvantage = 0;
+    }
+
+    /**
+     * 추정에 쓸 만큼 표본이 모였는지 (3개 이상)
+     */
+    public boolean hasEstimate() { return count >= 3; }
+    public int getSampleCount() { return count; }
+    public long getRttNanos() { return medianRtt; }
+    public long getOffsetNanos() { return medianOffset; }
+
+    /**
+     * 내 틱 - 상대 틱 (양수면 내가 앞서 있음)
+     */
+    public double getTickAdvantage() { return medianAdvantage; }
+
+    /**
+     * 편도 지연을 틱 단위로
+     */
+    public double getOneWayTicks() {
+        return (medianRtt / 2.0) / (GameSimulation.TICK_MS * 1_000_000.0);
+    }
+}
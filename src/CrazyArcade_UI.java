@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 
 /**
@@ -34,8 +36,15 @@ public class CrazyArcade_UI extends JFrame {
      * 생성자: 메인 윈도우 설정 및 각 패널 초기화
      */
     public CrazyArcade_UI() {
+        // 단계별 시작 시간 (StartupProfiler가 켜져 있을 때만 기록)
+        StartupProfiler.mark("constructor");
+
         // 저장된 설정 로드
+        long t = StartupProfiler.begin();
         GameSettings.loadSettings();
+        StartupProfiler.end("settings", t);
+        // 설정에서 켜 두었으면 JFR 기록 시작 (이미지 읽기 이벤트도 담기도록 패널 생성 전에)
+        GameEvents.startRecording();
 
         setTitle("Water Bomb Man - UI Prototype"); // 윈도우 제목 설정
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // X 버튼 클릭 시 프로그램 종료
@@ -47,22 +56,40 @@ public class CrazyArcade_UI extends JFrame {
 
         // 각 패널 생성 및 메인 컨테이너에 추가
         // add(패널객체, 식별자) 형태로 추가하여 나중에 식별자로 화면을 전환함
+        t = StartupProfiler.begin();
         mainContainer.add(new MenuPanel(this), PANEL_MENU);
+        StartupProfiler.end("MenuPanel", t);
 
         // 로비 패널 (맵 선택 정보를 가져오기 위해 참조 유지)
+        t = StartupProfiler.begin();
         LobbyPanel lobbyPanel = new LobbyPanel(this);
         mainContainer.add(lobbyPanel, PANEL_LOBBY);
+        StartupProfiler.end("LobbyPanel", t);
+        // 종료할 때 채팅 서버에 나간다고 알림 (안 하면 접속 유지 시간 동안 목록에 남음)
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                lobbyPanel.closeChat();
+            }
+        });
 
         // 게임 패널 (로비에서 선택한 맵 정보를 전달받음)
+        t = StartupProfiler.begin();
         GamePanelPlaceholder gamePanel = new GamePanelPlaceholder(this, lobbyPanel);
         mainContainer.add(gamePanel, PANEL_GAME);
+        StartupProfiler.end("GamePanelPlaceholder", t);
 
+        t = StartupProfiler.begin();
         mainContainer.add(new GuidePanel(this), PANEL_GUIDE);
+        StartupProfiler.end("GuidePanel", t);
+        t = StartupProfiler.begin();
         mainContainer.add(new SettingsPanel(this), PANEL_SETTINGS);
+        StartupProfiler.end("SettingsPanel", t);
 
         // 메인 컨테이너를 프레임에 부착
         add(mainContainer);
 
+        t = StartupProfiler.begin();
         // 컴포넌트 크기에 맞춰 창 크기 자동 조절
         pack();
 
@@ -71,13 +98,18 @@ public class CrazyArcade_UI extends JFrame {
 
         // 창을 보이게 설정
         setVisible(true);
+        StartupProfiler.end("showWindow", t);
 
         // 커스텀 커서 전역 적용
+        t = StartupProfiler.begin();
         loadCustomCursor();
+        StartupProfiler.end("cursor", t);
 
         // 프로그램 시작 시 메뉴 화면 표시 및 BGM 재생
         showPanel(PANEL_MENU);
+        t = StartupProfiler.begin();
         startBGM();
+        StartupProfiler.end("bgm", t);
     }
 
     /**
@@ -108,6 +140,28 @@ public class CrazyArcade_UI extends JFrame {
         }
     }
 
+    /**
+     * 저장된 리플레이를 게임 화면에서 재생합니다 (끝나면 평소처럼 로비로 돌아감).
+     */
+    public void playReplay(InputReplay replay) {
+        Component gamePanel = mainContainer.getComponent(2);
+        if (gamePanel instanceof GamePanelPlaceholder) {
+            ((GamePanelPlaceholder) gamePanel).setPendingReplay(replay);
+        }
+        showPanel(PANEL_GAME);
+    }
+
+    /**
+     * 저장된 경기(QuickSave 파일)를 게임 화면에서 이어 합니다.
+     */
+    public void resumeGame(File saveFile) {
+        Component gamePanel = mainContainer.getComponent(2);
+        if (gamePanel instanceof GamePanelPlaceholder) {
+            ((GamePanelPlaceholder) gamePanel).setPendingResume(saveFile);
+        }
+        showPanel(PANEL_GAME);
+    }
+    
     /**
      * 배경 음악(BGM) 재생 시작
      * 메뉴 화면으로 진입할 때 호출되어 배경 음악을 재생합니다.
@@ -131,7 +185,7 @@ public class CrazyArcade_UI extends JFrame {
             String cursorPath = System.getProperty("user.dir") + File.separator + "res" + File.separator + "cursor.png";
             File cursorFile = new File(cursorPath);
             if (cursorFile.exists()) {
-                Image cursorImg = javax.imageio.ImageIO.read(cursorFile);
+                Image cursorImg = GameEvents.readImage(cursorFile);
                 Cursor customCursor = Toolkit.getDefaultToolkit().createCustomCursor(
                         cursorImg, new java.awt.Point(0, 0), "CustomCursor");
                 setCursor(customCursor);
@@ -145,7 +199,52 @@ public class CrazyArcade_UI extends JFrame {
      * 메인 메서드: 프로그램의 시작점
      * Swing 스레드 안전성을 위해 invokeLater를 사용하여 GUI를 생성합니다.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // "server" 인자로 실행하면 화면 없이 게임 서버만 실행
+        if (args.length > 0 && args[0].equals("server")) {
+            GameServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "tournament" 인자로 실행하면 화면 없이 봇 대전만 돌려서 승률 보고
+        if (args.length > 0 && args[0].equals("tournament")) {
+            BotTournament.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "verify" 인자로 실행하면 같은 입력을 여러 스레드/속도로 돌려서 결과가 같은지 검사
+        if (args.length > 0 && args[0].equals("verify")) {
+            DeterminismVerifier.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "export 파일" 인자로 실행하면 리플레이를 화면 없이 PNG/GIF로 내보냄
+        if (args.length > 0 && args[0].equals("export")) {
+            ReplayExporter.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "renderbench" 인자로 실행하면 화면 없이 게임 화면 그리기 속도(FPS, 층별 시간)를 잼
+        if (args.length > 0 && args[0].equals("renderbench")) {
+            RenderBenchmark.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "startup" 인자로 실행하면 시작 단계별 시간을 재서 JSON으로 저장하고 종료
+        if (args.length > 0 && args[0].equals("startup")) {
+            StartupProfiler.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "replay 파일" 인자로 실행하면 저장된 경기를 재생
+        if (args.length > 1 && args[0].equals("replay")) {
+            InputReplay replay = InputReplay.read(new File(args[1]));
+            SwingUtilities.invokeLater(() -> new CrazyArcade_UI().playReplay(replay));
+            return;
+        }
+        // "resume [파일]" 인자로 실행하면 저장된 경기를 이어 함 (기본: 자동 저장 파일)
+        if (args.length > 0 && args[0].equals("resume")) {
+            File saveFile = args.length > 1 ? new File(args[1]) : QuickSave.file(QuickSave.AUTO_SAVE);
+            SwingUtilities.invokeLater(() -> new CrazyArcade_UI().resumeGame(saveFile));
+            return;
+        }
+        if (QuickSave.file(QuickSave.AUTO_SAVE).exists()) {
+            System.out.println("지난 경기가 끝나지 않고 종료됨: 'resume' 인자로 실행하면 이어 할 수 있음");
+        }
         SwingUtilities.invokeLater(() -> new CrazyArcade_UI());
     }
 }
\ No newline at end of file
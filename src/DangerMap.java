@@ -0,0 +1,374 @@
+import java.util.Arrays;
+
+/**
+ * ========================================================
+ * 위험 지도 (DangerMap)
+ * ========================================================
+ * 칸마다 "물줄기가 가장 먼저 닿는 틱"과 "물줄기가 모두 사라지는 틱"을 들고 있습니다.
+ * GameSimulation이 하나를 가지고 있으면서 물풍선 설치/폭발, 블록 파괴 때마다
+ * 바뀐 부분만 고쳐 두므로, 봇/위험 표시/서버 통계는 칸마다 O(1)로 읽기만 하면 됩니다.
+ *
+ * - 물풍선마다 고정 슬롯(0~31)을 주고, 4방향 물줄기 길이(블록/가장자리까지)를 저장합니다.
+ * - 칸마다 "이 칸까지 물줄기가 닿을 수 있는 슬롯" 비트마스크를 둡니다.
+ *   블록이 부서지면 그 칸 비트마스크의 슬롯만 물줄기를 다시 계산합니다.
+ * - 연쇄: 터질 틱 순서로 물풍선을 훑으며, 물줄기에 처음 닿는 물풍선의 틱을 앞당깁니다.
+ *   (GameSimulation.createExplosion과 같은 규칙, 먼저 터진 물풍선 자리는 통과)
+ *   실제 터질 틱이나 잘린 길이가 바뀐 슬롯의 칸만 다시 계산합니다.
+ * - 지금 진행 중인 물줄기는 setBlast 때 받은 시작 틱으로 따로 판단합니다.
+ *
+ * 물줄기 계산은 현재 블록 기준입니다 (먼저 터진 물풍선이 부술 블록 너머는
+ * 실제로 부서진 뒤에 반영됩니다).
+ */
+public class DangerMap {
+    // 물줄기가 닿지 않는 칸
+    public static final int SAFE = Integer.MAX_VALUE;
+
+    private static final int COLS = GameSimulation.TILE_COLS;
+    private static final int CELLS = GameSimulation.CELL_COUNT;
+    private static final int SLOTS = GameSimulation.MAX_BALLOONS; // 비트마스크 int 한 개에 들어가도록 32
+    private static final int EXPLOSION = GameSimulation.EXPLOSION_TICKS;
+    // 방향 순서: 왼쪽, 오른쪽, 위, 아래 (createExplosion과 같음)
+    private static final int[] DIR_ROW = { 0, 0, -1, 1 };
+    private static final int[] DIR_COL = { -1, 1, 0, 0 };
+
+    // ========== 칸 ==========
+    private final int[] blastTick = new int[CELLS]; // 예정된 물줄기 중 가장 빠른 틱
+    private final int[] clearTick = new int[CELLS]; // 예정된 물줄기가 모두 끝나는 틱
+    private final int[] activeStart = new int[CELLS]; // 진행 중(또는 지난) 물줄기 시작 틱, 없으면 -1
+    private final int[] cover = new int[CELLS]; // 물줄기가 닿을 수 있는 슬롯 비트마스크
+    private final int[] slotAt = new int[CELLS]; // 이 칸의 물풍선 슬롯 + 1, 없으면 0
+
+    // ========== 물풍선 슬롯 ==========
+    private int usedMask = 0;
+    private final int[] slotRow = new int[SLOTS];
+    private final int[] slotCol = new int[SLOTS];
+    private final int[] slotRange = new int[SLOTS];
+    private final int[] slotTick = new int[SLOTS]; // 원래 터질 틱
+    private final int[] effectiveTick = new int[SLOTS]; // 연쇄를 반영한 터질 틱
+    private final int[] chainParent = new int[SLOTS]; // 이 물풍선을 터뜨리는 슬롯, 스스로 터지면 -1
+    private final int[] rayLen = new int[SLOTS * 4]; // 블록/가장자리까지 길이 (물풍선 무시)
+    private final int[] paintLen = new int[SLOTS * 4]; // 연쇄 물풍선에서 잘린 실제 길이
+
+    // 계산용 (할당 없이 재사용)
+    private final int[] oldEffective = new int[SLOTS];
+    private final int[] oldPaint = new int[SLOTS * 4];
+    private final int[] dirtyList = new int[CELLS];
+    private final boolean[] dirty = new boolean[CELLS];
+    private int dirtyCount = 0;
+
+    private int version = 0; // 내용이 바뀔 때마다 증가
+
+    public DangerMap() {
+        clear();
+    }
+
+    /**
+     * 물풍선도 물줄기도 없는 상태로 되돌립니다.
+     */
+    public void clear() {
+        Arrays.fill(blastTick, SAFE);
+        Arrays.fill(clearTick, 0);
+        Arrays.fill(activeStart, -1);
+        Arrays.fill(cover, 0);
+        Arrays.fill(slotAt, 0);
+        usedMask = 0;
+        version++;
+    }
+
+    /**
+     * 시뮬레이션 상태에서 처음부터 다시 만듭니다 (스냅샷 복원 등).
+     */
+    public void rebuild(GameSimulation sim) {
+        clear();
+        for (int r = 0; r < GameSimulation.TILE_ROWS; r++) {
+            for (int c = 0; c < COLS; c++) {
+                activeStart[r * COLS + c] = sim.getBlastStartTick(r, c);
+            }
+        }
+        Tile[][] tiles = sim.getTiles();
+        for (int i = 0; i < sim.getBalloonCount(); i++) {
+            addSlot(tiles, sim.getBalloonRow(i), sim.getBalloonCol(i), sim.getBalloonRange(i),
+                    sim.getBalloonExplodeTick(i));
+        }
+        updateChains();
+    }
+
+    /**
+     * 다른 지도의 내용을 그대로 복사합니다 (가정용 지도를 만들 때).
+     */
+    public void copyFrom(DangerMap o) {
+        System.arraycopy(o.blastTick, 0, blastTick, 0, CELLS);
+        System.arraycopy(o.clearTick, 0, clearTick, 0, CELLS);
+        System.arraycopy(o.activeStart, 0, activeStart, 0, CELLS);
+        System.arraycopy(o.cover, 0, cover, 0, CELLS);
+        System.arraycopy(o.slotAt, 0, slotAt, 0, CELLS);
+        usedMask = o.usedMask;
+        System.arraycopy(o.slotRow, 0, slotRow, 0, SLOTS);
+        System.arraycopy(o.slotCol, 0, slotCol, 0, SLOTS);
+        System.arraycopy(o.slotRange, 0, slotRange, 0, SLOTS);
+        System.arraycopy(o.slotTick, 0, slotTick, 0, SLOTS);
+        System.arraycopy(o.effectiveTick, 0, effectiveTick, 0, SLOTS);
+        System.arraycopy(o.chainParent, 0, chainParent, 0, SLOTS);
+        System.arraycopy(o.rayLen, 0, rayLen, 0, SLOTS * 4);
+        System.arraycopy(o.paintLen, 0, paintLen, 0, SLOTS * 4);
+        version++;
+    }
+
+    // ===== 변경 알림 (GameSimulation에서 호출) =====
+
+    /**
+     * 물풍선 설치
+     */
+    public void placeBalloon(Tile[][] tiles, int row, int col, int range, int explodeTick) {
+        if (addSlot(tiles, row, col, range, explodeTick) >= 0) {
+            updateChains();
+        }
+    }
+
+    /**
+     * 물풍선이 터져서(또는 연쇄로) 사라짐
+     */
+    public void removeBalloon(int row, int col) {
+        int cell = row * COLS + col;
+        int s = slotAt[cell] - 1;
+        if (s < 0) return;
+        markRayDirty(s);
+        setCover(s, false);
+        slotAt[cell] = 0;
+        usedMask &= ~(1 << s);
+        updateChains();
+    }
+
+    /**
+     * 블록이 부서져서 물줄기가 더 나갈 수 있게 됨
+     */
+    public void blockBroken(Tile[][] tiles, int row, int col) {
+        int mask = cover[row * COLS + col];
+        if (mask == 0) return;
+        // 이 칸까지 닿던 물줄기는 모두 이 블록에서 멈춰 있었음
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            markRayDirty(s);
+            setCover(s, false);
+            computeRay(s, tiles);
+            setCover(s, true);
+            markRayDirty(s);
+        }
+        updateChains();
+    }
+
+    /**
+     * 물줄기 시작 (GameSimulation.setBlast)
+     */
+    public void onBlast(int row, int col, int tick) {
+        activeStart[row * COLS + col] = tick;
+    }
+
+    // ===== 내부 계산 =====
+
+    private int addSlot(Tile[][] tiles, int row, int col, int range, int explodeTick) {
+        int cell = row * COLS + col;
+        if (slotAt[cell] != 0 || usedMask == -1) return -1;
+        int s = Integer.numberOfTrailingZeros(~usedMask);
+        usedMask |= 1 << s;
+        slotRow[s] = row;
+        slotCol[s] = col;
+        slotRange[s] = range;
+        slotTick[s] = explodeTick;
+        effectiveTick[s] = explodeTick;
+        chainParent[s] = -1;
+        slotAt[cell] = s + 1;
+        computeRay(s, tiles);
+        for (int d = 0; d < 4; d++) paintLen[s * 4 + d] = rayLen[s * 4 + d];
+        setCover(s, true);
+        markRayDirty(s);
+        return s;
+    }
+
+    private void computeRay(int s, Tile[][] tiles) {
+        for (int d = 0; d < 4; d++) {
+            int len = 0;
+            for (int i = 1; i <= slotRange[s]; i++) {
+                int r = slotRow[s] + DIR_ROW[d] * i;
+                int c = slotCol[s] + DIR_COL[d] * i;
+                if (!GameSimulation.inBounds(r, c)) break;
+                len = i;
+                if (tiles != null && tiles[r][c].getItemIndex() == 3) break; // 블록 칸까지 젖고 멈춤
+            }
+            rayLen[s * 4 + d] = len;
+        }
+    }
+
+    private void setCover(int s, boolean on) {
+        int bit = 1 << s;
+        int center = slotRow[s] * COLS + slotCol[s];
+        cover[center] = on ? (cover[center] | bit) : (cover[center] & ~bit);
+        for (int d = 0; d < 4; d++) {
+            for (int i = 1; i <= rayLen[s * 4 + d]; i++) {
+                int cell = (slotRow[s] + DIR_ROW[d] * i) * COLS + slotCol[s] + DIR_COL[d] * i;
+                cover[cell] = on ? (cover[cell] | bit) : (cover[cell] & ~bit);
+            }
+        }
+    }
+
+    private void markRayDirty(int s) {
+        markDirty(slotRow[s] * COLS + slotCol[s]);
+        for (int d = 0; d < 4; d++) {
+            for (int i = 1; i <= rayLen[s * 4 + d]; i++) {
+                markDirty((slotRow[s] + DIR_ROW[d] * i) * COLS + slotCol[s] + DIR_COL[d] * i);
+            }
+        }
+    }
+
+    private void markDirty(int cell) {
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyList[dirtyCount++] = cell;
+        }
+    }
+
+    /**
+     * 터질 틱 순서로 연쇄를 다시 따져 보고, 바뀐 슬롯의 칸과 표시해 둔 칸을 다시 계산합니다.
+     */
+    private void updateChains() {
+        System.arraycopy(effectiveTick, 0, oldEffective, 0, SLOTS);
+        System.arraycopy(paintLen, 0, oldPaint, 0, SLOTS * 4);
+        for (int bits = usedMask; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            effectiveTick[s] = slotTick[s];
+            chainParent[s] = -1;
+        }
+
+        int pending = usedMask;
+        while (pending != 0) {
+            int s = -1;
+            for (int bits = pending; bits != 0; bits &= bits - 1) {
+                int i = Integer.numberOfTrailingZeros(bits);
+                if (s < 0 || effectiveTick[i] < effectiveTick[s]) s = i;
+            }
+            pending &= ~(1 << s);
+
+            for (int d = 0; d < 4; d++) {
+                int len = rayLen[s * 4 + d];
+                int paint = len;
+                for (int i = 1; i <= len; i++) {
+                    int cell = (slotRow[s] + DIR_ROW[d] * i) * COLS + slotCol[s] + DIR_COL[d] * i;
+                    int hit = slotAt[cell] - 1;
+                    if (hit >= 0 && (pending & (1 << hit)) != 0) {
+                        if (effectiveTick[s] < effectiveTick[hit]) {
+                            effectiveTick[hit] = effectiveTick[s];
+                            chainParent[hit] = s;
+                        }
+                        paint = i;
+                        break;
+                    }
+                }
+                paintLen[s * 4 + d] = paint;
+            }
+        }
+
+        for (int bits = usedMask; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            boolean changed = effectiveTick[s] != oldEffective[s];
+            for (int d = 0; d < 4 && !changed; d++) {
+                changed = paintLen[s * 4 + d] != oldPaint[s * 4 + d];
+            }
+            if (changed) markRayDirty(s);
+        }
+
+        for (int k = 0; k < dirtyCount; k++) {
+            int cell = dirtyList[k];
+            refreshCell(cell);
+            dirty[cell] = false;
+        }
+        dirtyCount = 0;
+        version++;
+    }
+
+    private void refreshCell(int cell) {
+        int row = cell / COLS;
+        int col = cell % COLS;
+        int best = SAFE;
+        int clear = 0;
+        for (int bits = cover[cell]; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            if (!reaches(s, row, col)) continue;
+            int t = effectiveTick[s];
+            if (t < best) best = t;
+            if (t + EXPLOSION > clear) clear = t + EXPLOSION;
+        }
+        blastTick[cell] = best;
+        clearTick[cell] = clear;
+    }
+
+    private boolean reaches(int s, int row, int col) {
+        int dr = row - slotRow[s];
+        int dc = col - slotCol[s];
+        if (dr == 0 && dc == 0) return true;
+        int d;
+        int distance;
+        if (dr == 0) {
+            d = (dc < 0) ? 0 : 1;
+            distance = Math.abs(dc);
+        } else {
+            d = (dr < 0) ? 2 : 3;
+            distance = Math.abs(dr);
+        }
+        return distance <= paintLen[s * 4 + d];
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 물줄기가 가장 먼저 닿는 틱 (진행 중이면 그 시작 틱, 닿지 않으면 SAFE)
+     */
+    public int getBlastTick(int cell, int now) {
+        int active = activeStart[cell];
+        if (active >= 0 && now - active < EXPLOSION) return active;
+        return blastTick[cell];
+    }
+
+    /**
+     * 진행 중/예정된 물줄기가 모두 사라지는 틱
+     */
+    public int getClearTick(int cell) {
+        int active = activeStart[cell];
+        return Math.max(clearTick[cell], active >= 0 ? active + EXPLOSION : 0);
+    }
+
+    public boolean isThreatened(int cell, int now) {
+        return getBlastTick(cell, now) != SAFE;
+    }
+
+    /**
+     * [fromTick, toTick] 동안 물줄기가 없는지
+     */
+    public boolean isSafeDuring(int cell, int fromTick, int toTick) {
+        int active = activeStart[cell];
+        if (active >= 0 && toTick >= active && fromTick < active + EXPLOSION) return false;
+        return toTick < blastTick[cell] || fromTick >= clearTick[cell];
+    }
+
+    /**
+     * (row, col) 물풍선이 연쇄를 반영해 실제로 터질 틱 (물풍선이 없으면 -1)
+     */
+    public int getEffectiveExplodeTick(int row, int col) {
+        int s = slotAt[row * COLS + col] - 1;
+        return s < 0 ? -1 : effectiveTick[s];
+    }
+
+    /**
+     * (row, col) 물풍선을 연쇄로 터뜨리는 물풍선의 칸 (스스로 터지거나 물풍선이 없으면 -1)
+     */
+    public int getChainSourceCell(int row, int col) {
+        int s = slotAt[row * COLS + col] - 1;
+        if (s < 0 || chainParent[s] < 0) return -1;
+        int parent = chainParent[s];
+        return slotRow[parent] * COLS + slotCol[parent];
+    }
+
+    /**
+     * 내용이 바뀔 때마다 증가하는 번호 (다시 계산할 필요가 있는지 확인용)
+     */
+    public int getVersion() { return version; }
+}
@@ -0,0 +1,467 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ========================================================
+ * 결정성 검사기 (DeterminismVerifier)
+ * ========================================================
+ * 같은 입력을 넣으면 언제, 어느 스레드에서, 어떤 속도로 돌려도 같은 경기가 되는지 확인합니다.
+ * createExplosion, 충돌 판정, 틱 처리 등을 고친 뒤 동작이 바뀌지 않았다는 것을 싸게 증명하는 용도입니다.
+ *
+ * 리플레이마다 다음을 검사합니다.
+ *   1. 기준 실행: 한 스레드에서 처음부터 끝까지 돌리며 틱마다 상태 해시를 남김
+ *      - 증분 해시가 판 전체를 다시 계산한 값(StateHash.compute)과 같은지
+ *      - 리플레이 파일에 기록된 해시(기록 당시 동작)와 같은지
+ *   2. 병렬 실행: 여러 스레드에서 동시에 같은 입력을 돌려 틱마다 해시를,
+ *      CHECK_INTERVAL 틱마다 전체 상태를 기준 실행과 비교
+ *   3. 빨리 감기와 실시간 비교: ReplayPlayback으로 1배속(들쭉날쭉한 화면 프레임),
+ *      16배속, 무작위 위치 이동(키프레임 복원 후 진행)을 해 보고 기준 실행과 비교
+ *
+ * 어긋나면 처음 달라진 틱과 그 틱의 상태 차이(필드별 기준 값/실행 값)를 보여 줍니다.
+ *
+ * 실행: java CrazyArcade_UI verify [옵션]
+ *   --replay 경로   검사할 리플레이 파일 또는 폴더 (여러 번 가능, 없으면 봇 경기를 새로 기록)
+ *   --matches N     리플레이를 주지 않았을 때 기록할 봇 경기 수 (기본 8)
+ *   --runs N        리플레이마다 동시에 돌릴 실행 수 (기본 코어 수, 최소 4)
+ *   --seeks N       무작위 위치 이동 횟수 (기본 200)
+ *   --seed N        봇 경기와 프레임 간격을 정하는 시드
+ *
+ * 동작을 바꾸기 전에 리플레이를 기록해 두고, 바꾼 뒤 --replay replays 로 돌리면
+ * 기록 당시와 같은 경기인지까지 확인됩니다. 어긋남이 있으면 종료 코드 1.
+ */
+public class DeterminismVerifier {
+    private static final int CHECK_INTERVAL = InputReplay.HASH_INTERVAL; // 전체 상태 비교 간격
+    private static final int RING = 64; // 실행마다 최근 틱 상태 보관 (CHECK_INTERVAL + 1 이상)
+    private static final int DIFF_LIMIT = 20; // 보여 줄 차이 줄 수
+    private static final long FRAME_NANOS = 16_666_667L; // 60Hz 화면
+
+    /**
+     * 기준 실행 결과 (검사 중에는 읽기만 하므로 스레드끼리 공유)
+     */
+    private static final class Reference {
+        final InputReplay replay;
+        final long[] hashes;          // hashes[t] = t 틱 시작 상태의 해시
+        final SimSnapshot[] keyframes; // CHECK_INTERVAL 틱마다 전체 상태
+        final int lastTick;           // 경기가 끝난 틱 (그 뒤로는 상태가 그대로)
+
+        Reference(InputReplay replay, long[] hashes, SimSnapshot[] keyframes, int lastTick) {
+            this.replay = replay;
+            this.hashes = hashes;
+            this.keyframes = keyframes;
+            this.lastTick = lastTick;
+        }
+
+        long hashAt(int tick) {
+            return hashes[Math.min(tick, lastTick)];
+        }
+    }
+
+    /**
+     * 찾은 어긋남 하나
+     */
+    private static final class Divergence {
+        final String where;
+        final int tick;
+        final String reason;
+        final List<String> diff;
+
+        Divergence(String where, int tick, String reason, List<String> diff) {
+            this.where = where;
+            this.tick = tick;
+            this.reason = reason;
+            this.diff = diff;
+        }
+
+        void print() {
+            System.out.println("  ✗ " + where + ": tick " + tick + " " + reason);
+            for (String line : diff) {
+                System.out.println("      " + line);
+            }
+        }
+    }
+
+    private final int runs;
+    private final int seeks;
+    private final long seed;
+    private final ExecutorService pool;
+    private long verifiedTicks = 0;
+
+    DeterminismVerifier(int runs, int seeks, long seed) {
+        this.runs = runs;
+        this.seeks = seeks;
+        this.seed = seed;
+        this.pool = Executors.newFixedThreadPool(runs, r -> {
+            Thread t = new Thread(r, "determinism");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static GameSimulation newSim() {
+        GameSimulation sim = new GameSimulation();
+        sim.setLogging(false);
+        return sim;
+    }
+
+    // ===== 1. 기준 실행 =====
+
+    private static Reference buildReference(InputReplay replay, List<Divergence> out) {
+        GameSimulation sim = newSim();
+        replay.start(sim);
+        long[] hashes = new long[replay.getLength() + 1];
+        List<SimSnapshot> keyframes = new ArrayList<>();
+        boolean hashChecked = false;
+        boolean recordChecked = false;
+
+        int t = 0;
+        while (true) {
+            hashes[t] = sim.getStateHash();
+            if (t % CHECK_INTERVAL == 0) {
+                SimSnapshot s = new SimSnapshot();
+                sim.saveState(s);
+                keyframes.add(s);
+            }
+            long full = StateHash.compute(sim);
+            if (!hashChecked && full != hashes[t]) {
+                out.add(new Divergence("기준 실행", t, "증분 해시가 전체 계산과 다름 (해시를 고치지 않은 상태 변경이 있음)",
+                        List.of(String.format("증분 %016x / 전체 %016x", hashes[t], full))));
+                hashChecked = true;
+            }
+            if (!recordChecked && replay.isCheckpoint(t) && replay.getCheckpointHash(t) != hashes[t]) {
+                out.add(new Divergence("기준 실행", t, "리플레이 기록 당시와 상태가 다름 (그 앞 "
+                        + CHECK_INTERVAL + "틱 사이에서 동작이 바뀜)", List.of()));
+                recordChecked = true;
+            }
+            if (t >= replay.getLength() || sim.getGameState() != GameSimulation.STATE_PLAYING) {
+                break;
+            }
+            sim.updateGame(replay.getInput(0, t), replay.getInput(1, t));
+            t++;
+        }
+        return new Reference(replay, hashes, keyframes.toArray(new SimSnapshot[0]), t);
+    }
+
+    /**
+     * 기준 실행의 tick 상태를 가장 가까운 키프레임에서 다시 만들어 out에 담습니다.
+     */
+    private static void referenceState(Reference ref, int tick, GameSimulation sim, SimSnapshot out) {
+        tick = Math.min(tick, ref.lastTick);
+        sim.loadState(ref.keyframes[tick / CHECK_INTERVAL]);
+        while (sim.getTick() < tick) {
+            int t = sim.getTick();
+            sim.updateGame(ref.replay.getInput(0, t), ref.replay.getInput(1, t));
+        }
+        sim.saveState(out);
+    }
+
+    // ===== 2. 병렬 실행 =====
+
+    private List<Divergence> checkParallel(Reference ref) throws Exception {
+        CountDownLatch ready = new CountDownLatch(runs);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Divergence>> futures = new ArrayList<>();
+        for (int r = 0; r < runs; r++) {
+            String name = "병렬 실행 " + (r + 1);
+            futures.add(pool.submit(() -> runOnce(ref, name, ready, go)));
+        }
+        ready.await();
+        go.countDown(); // 모든 스레드가 맵을 읽은 뒤 한꺼번에 출발
+        List<Divergence> found = new ArrayList<>();
+        for (Future<Divergence> f : futures) {
+            Divergence d = f.get();
+            if (d != null) found.add(d);
+        }
+        return found;
+    }
+
+    private static Divergence runOnce(Reference ref, String name, CountDownLatch ready, CountDownLatch go)
+            throws InterruptedException {
+        GameSimulation sim = newSim();
+        ref.replay.start(sim);
+        SimSnapshot[] ring = new SimSnapshot[RING];
+        for (int i = 0; i < RING; i++) {
+            ring[i] = new SimSnapshot();
+        }
+        ready.countDown();
+        go.await();
+
+        for (int t = 0; t <= ref.lastTick; t++) {
+            SimSnapshot s = ring[t & (RING - 1)];
+            sim.saveState(s);
+            boolean hashDiffers = sim.getStateHash() != ref.hashes[t];
+            boolean stateDiffers = t % CHECK_INTERVAL == 0 && !diff(ref.keyframes[t / CHECK_INTERVAL], s, 1).isEmpty();
+            if (hashDiffers || stateDiffers) {
+                return locate(ref, ring, t, name);
+            }
+            if (t < ref.lastTick) {
+                sim.updateGame(ref.replay.getInput(0, t), ref.replay.getInput(1, t));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * badTick에서 어긋남을 발견했을 때, 마지막으로 전체 상태가 같았던 키프레임부터
+     * 한 틱씩 기준 상태를 다시 만들어 처음 달라진 틱을 찾습니다.
+     * (해시에 들어가지 않는 능력치 등은 해시보다 먼저 달라질 수 있음)
+     */
+    private static Divergence locate(Reference ref, SimSnapshot[] ring, int badTick, String name) {
+        GameSimulation sim = newSim();
+        ref.replay.start(sim);
+        SimSnapshot expected = new SimSnapshot();
+        int base = Math.max(0, (badTick - 1) / CHECK_INTERVAL * CHECK_INTERVAL);
+        for (int t = base; t <= badTick; t++) {
+            referenceState(ref, t, sim, expected);
+            List<String> d = diff(expected, ring[t & (RING - 1)], DIFF_LIMIT);
+            if (!d.isEmpty()) {
+                return new Divergence(name, t, "부터 상태가 다름", d);
+            }
+        }
+        return new Divergence(name, badTick, "해시만 다름 (스냅샷에 없는 상태가 결과에 영향을 줌)",
+                List.of(String.format("기준 %016x / 실행 %016x", ref.hashes[badTick], ring[badTick & (RING - 1)].stateHash)));
+    }
+
+    // ===== 3. 빨리 감기와 실시간 비교 =====
+
+    private List<Divergence> checkPlayback(Reference ref, SplittableRandom random) {
+        List<Divergence> found = new ArrayList<>();
+        GameSimulation sim = newSim();
+        ReplayPlayback playback = new ReplayPlayback(ref.replay, sim);
+        GameSimulation scratch = newSim();
+        ref.replay.start(scratch);
+
+        // 실시간: 화면 프레임 간격이 들쭉날쭉해도 같은 틱 순서가 되어야 함
+        Divergence d = playThrough(ref, playback, sim, scratch, random, "1배속 재생");
+        if (d != null) found.add(d);
+
+        // 빨리 감기: 프레임마다 여러 틱을 몰아서 진행
+        while (playback.getSpeed() < ReplayPlayback.MAX_SPEED) {
+            playback.faster();
+        }
+        d = playThrough(ref, playback, sim, scratch, random, "16배속 재생");
+        if (d != null) found.add(d);
+
+        // 위치 이동: 키프레임 복원(loadState) 후 남은 틱 진행
+        SimSnapshot expected = new SimSnapshot();
+        SimSnapshot actual = new SimSnapshot();
+        for (int i = 0; i < seeks; i++) {
+            int tick = random.nextInt(ref.lastTick + 1);
+            playback.seek(tick);
+            referenceState(ref, tick, scratch, expected);
+            sim.saveState(actual);
+            List<String> diff = diff(expected, actual, DIFF_LIMIT);
+            if (!diff.isEmpty() || sim.getStateHash() != ref.hashAt(tick)) {
+                found.add(new Divergence("위치 이동 " + (i + 1) + "번째", tick, "로 이동한 상태가 처음부터 진행한 상태와 다름", diff));
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 처음부터 끝까지 재생하면서 프레임마다 해시를, 키프레임 틱에서는 전체 상태를 비교합니다.
+     */
+    private static Divergence playThrough(Reference ref, ReplayPlayback playback, GameSimulation sim,
+                                          GameSimulation scratch, SplittableRandom random, String name) {
+        SimSnapshot expected = new SimSnapshot();
+        SimSnapshot actual = new SimSnapshot();
+        int checked = 0; // 이 틱까지는 해시가 같았음
+        playback.seek(0);
+        if (playback.isPaused()) playback.togglePause();
+        while (!playback.isPaused()) {
+            // 화면 프레임은 정확히 16.7ms 간격이 아님 (반 프레임 ~ 두 프레임)
+            playback.advance(FRAME_NANOS / 2 + random.nextLong(FRAME_NANOS * 3 / 2));
+            int t = sim.getTick();
+            boolean hashDiffers = sim.getStateHash() != ref.hashAt(t);
+            boolean stateDiffers = false;
+            if (!hashDiffers && t <= ref.lastTick && t % CHECK_INTERVAL == 0) {
+                sim.saveState(actual);
+                stateDiffers = !diff(ref.keyframes[t / CHECK_INTERVAL], actual, 1).isEmpty();
+            }
+            if (hashDiffers || stateDiffers) {
+                referenceState(ref, t, scratch, expected);
+                sim.saveState(actual);
+                return new Divergence(name, t, "에서 발견 (" + (checked + 1) + "틱 이후 이 프레임 사이에서 어긋남)",
+                        diff(expected, actual, DIFF_LIMIT));
+            }
+            checked = t;
+        }
+        return null;
+    }
+
+    // ===== 상태 비교 =====
+
+    /**
+     * 두 스냅샷의 다른 필드를 "필드: 기준 값 / 실행 값" 줄로 돌려줍니다 (최대 limit줄).
+     * 끝난 폭발 칸처럼 결과에 영향이 없는 값은 비교하지 않습니다.
+     */
+    static List<String> diff(SimSnapshot a, SimSnapshot b, int limit) {
+        List<String> out = new ArrayList<>();
+        field(out, limit, "tick", a.tick, b.tick);
+        field(out, limit, "gameState", a.gameState, b.gameState);
+        field(out, limit, "endTick", a.endTick, b.endTick);
+        if (a.randomState != b.randomState && out.size() < limit) {
+            out.add(String.format("randomState: %016x / %016x", a.randomState, b.randomState));
+        }
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            String cell = "[" + (i / GameSimulation.TILE_COLS) + "," + (i % GameSimulation.TILE_COLS) + "]";
+            field(out, limit, "tileItems" + cell, a.tileItems[i], b.tileItems[i]);
+            field(out, limit, "blastStartTick" + cell, SnapshotCodec.activeBlastStart(a, i), SnapshotCodec.activeBlastStart(b, i));
+            if (SnapshotCodec.activeBlastStart(a, i) >= 0) {
+                field(out, limit, "blastType" + cell, a.blastType[i], b.blastType[i]);
+            }
+        }
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            String who = "[" + p + "]";
+            field(out, limit, "playerX" + who, a.playerX[p], b.playerX[p]);
+            field(out, limit, "playerY" + who, a.playerY[p], b.playerY[p]);
+            field(out, limit, "playerState" + who, a.playerState[p], b.playerState[p]);
+            field(out, limit, "stateStartTick" + who, a.stateStartTick[p], b.stateStartTick[p]);
+            field(out, limit, "bombCount" + who, a.bombCount[p], b.bombCount[p]);
+            field(out, limit, "bombRange" + who, a.bombRange[p], b.bombRange[p]);
+            field(out, limit, "speed" + who, a.speed[p], b.speed[p]);
+            field(out, limit, "maxBombCount" + who, a.maxBombCount[p], b.maxBombCount[p]);
+            field(out, limit, "maxBombRange" + who, a.maxBombRange[p], b.maxBombRange[p]);
+            field(out, limit, "maxSpeed" + who, a.maxSpeed[p], b.maxSpeed[p]);
+            field(out, limit, "lastDir" + who, a.lastDir[p], b.lastDir[p]);
+            field(out, limit, "spriteRow" + who, a.spriteRow[p], b.spriteRow[p]);
+            field(out, limit, "spriteCol" + who, a.spriteCol[p], b.spriteCol[p]);
+            field(out, limit, "frameCounter" + who, a.frameCounter[p], b.frameCounter[p]);
+        }
+        field(out, limit, "balloonCount", a.balloonCount, b.balloonCount);
+        for (int i = 0; i < Math.min(a.balloonCount, b.balloonCount); i++) {
+            String idx = "[" + i + "]";
+            field(out, limit, "balloonRow" + idx, a.balloonRow[i], b.balloonRow[i]);
+            field(out, limit, "balloonCol" + idx, a.balloonCol[i], b.balloonCol[i]);
+            field(out, limit, "balloonRange" + idx, a.balloonRange[i], b.balloonRange[i]);
+            field(out, limit, "balloonOwner" + idx, a.balloonOwner[i], b.balloonOwner[i]);
+            field(out, limit, "balloonPlaceTick" + idx, a.balloonPlaceTick[i], b.balloonPlaceTick[i]);
+            field(out, limit, "balloonExplodeTick" + idx, a.balloonExplodeTick[i], b.balloonExplodeTick[i]);
+            field(out, limit, "balloonInstallX" + idx, a.balloonInstallX[i], b.balloonInstallX[i]);
+            field(out, limit, "balloonInstallY" + idx, a.balloonInstallY[i], b.balloonInstallY[i]);
+            field(out, limit, "balloonCollision" + idx, a.balloonCollision[i] ? 1 : 0, b.balloonCollision[i] ? 1 : 0);
+        }
+        return out;
+    }
+
+    private static void field(List<String> out, int limit, String name, int expected, int actual) {
+        if (expected != actual && out.size() < limit) {
+            out.add(name + ": " + expected + " / " + actual);
+        }
+    }
+
+    // ===== 검사할 경기 =====
+
+    /**
+     * 봇끼리 한 판을 두고 입력을 기록합니다.
+     */
+    static InputReplay recordBotMatch(long seed, int index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        GameSimulation sim = newSim();
+        sim.loadTilesFromFile(BotTournament.MAPS[index % BotTournament.MAPS.length]);
+        sim.setCharacters(BotTournament.CHARACTERS[random.nextInt(BotTournament.CHARACTERS.length)],
+                BotTournament.CHARACTERS[random.nextInt(BotTournament.CHARACTERS.length)]);
+        sim.setMatchSeed(random.nextLong());
+        sim.resetGame();
+
+        InputReplay replay = InputReplay.begin(sim);
+        sim.setInputRecorder(replay);
+        BotPlayer[] bots = { new BotPlayer(0), new BotPlayer(1) };
+        while (sim.getGameState() == GameSimulation.STATE_PLAYING) {
+            sim.updateGame(bots[0].nextInput(sim), bots[1].nextInput(sim));
+        }
+        sim.setInputRecorder(null);
+        return replay;
+    }
+
+    private static void addReplays(File path, List<File> out) {
+        if (path.isDirectory()) {
+            File[] files = path.listFiles((dir, name) -> name.endsWith(InputReplay.EXTENSION));
+            if (files != null) {
+                Arrays.sort(files);
+                out.addAll(Arrays.asList(files));
+            }
+        } else {
+            out.add(path);
+        }
+    }
+
+    /**
+     * 리플레이 하나를 모두 검사하고 찾은 어긋남을 돌려줍니다.
+     */
+    List<Divergence> verify(InputReplay replay) throws Exception {
+        List<Divergence> found = new ArrayList<>();
+        Reference ref = buildReference(replay, found);
+        found.addAll(checkParallel(ref));
+        found.addAll(checkPlayback(ref, new SplittableRandom(seed ^ replay.getSeed())));
+        verifiedTicks += (long) ref.lastTick * (runs + 3);
+        return found;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        List<File> files = new ArrayList<>();
+        int matches = 8;
+        int runs = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int seeks = 200;
+        long seed = System.nanoTime();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--replay": addReplays(new File(args[++i]), files); break;
+                case "--matches": matches = Integer.parseInt(args[++i]); break;
+                case "--runs": runs = Math.max(1, Integer.parseInt(args[++i])); break;
+                case "--seeks": seeks = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.out.println("알 수 없는 옵션: " + args[i]);
+                    System.out.println("사용법: DeterminismVerifier [--replay 경로]... [--matches N] [--runs N] [--seeks N] [--seed N]");
+                    return;
+            }
+        }
+
+        DeterminismVerifier verifier = new DeterminismVerifier(runs, seeks, seed);
+        int count = files.isEmpty() ? matches : files.size();
+        System.out.println("결정성 검사: 경기 " + count + "개" + (files.isEmpty() ? " (봇 경기 기록)" : "")
+                + ", 병렬 실행 " + runs + "개, 위치 이동 " + seeks + "회, 시드 " + seed);
+
+        long start = System.nanoTime();
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            InputReplay replay;
+            String name;
+            if (files.isEmpty()) {
+                replay = recordBotMatch(seed, i);
+                name = "봇 경기 " + (i + 1);
+            } else {
+                replay = InputReplay.read(files.get(i));
+                name = files.get(i).getName();
+            }
+            List<Divergence> found = verifier.verify(replay);
+            System.out.println(String.format("[%d/%d] %s (%s, %s vs %s, %d틱): %s", i + 1, count, name,
+                    replay.getMapDataFile(), replay.getCharacter(0), replay.getCharacter(1), replay.getLength(),
+                    found.isEmpty() ? "일치" : "어긋남 " + found.size() + "건"));
+            for (Divergence d : found) {
+                d.print();
+            }
+            if (!found.isEmpty()) failed++;
+        }
+        verifier.pool.shutdownNow();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d틱 검사, %.1f초 (초당 %.0f틱)", verifier.verifiedTicks, seconds,
+                verifier.verifiedTicks / seconds));
+        if (failed > 0) {
+            System.out.println("결정성 검사 실패: " + failed + "/" + count + "경기");
+            System.exit(1);
+        }
+        System.out.println("결정성 검사 통과");
+    }
+}
@@ -0,0 +1,308 @@
+import java.util.Arrays;
+
+/**
+ * ========================================================
+ * 공유 거리 지도 (FlowFieldService)
+ * ========================================================
+ * 봇마다 같은 목표(안전한 칸, 아이템, 상대)를 향해 BFS를 반복하지 않도록
+ * 목표 종류마다 "모든 칸 → 가장 가까운 목표까지 거리" 지도를 한 번만 만들어 둡니다.
+ * 봇은 자기 칸의 이웃 중 거리가 줄어드는 칸을 O(1)로 고르기만 하면 됩니다.
+ *
+ * 지도 종류:
+ * - FIELD_SAFE: 물줄기가 닿지 않는 칸까지 (블록/물풍선/진행 중인 물줄기만 피함)
+ * - FIELD_ITEM: 아이템(0~2)까지 (곧 터질 칸도 피함)
+ * - FIELD_PLAYER + p: p번 플레이어까지 (곧 터질 칸은 피하고, 부술 수 있는 블록은 BLOCK_COST로 통과)
+ *
+ * 다시 계산하는 때:
+ * - 위험 지도 버전, 타일 버전이 바뀌었거나 물줄기 시작/종료 등 시간 경계를 지났을 때 → 전부
+ * - 그 외에는 칸을 옮긴 플레이어의 지도만
+ * 틱마다 몇 번을 불러도 바뀐 것이 없으면 비교만 하고 끝납니다.
+ */
+public class FlowFieldService {
+    public static final int FIELD_SAFE = 0;
+    public static final int FIELD_ITEM = 1;
+    public static final int FIELD_PLAYER = 2; // + 플레이어 번호
+    public static final int FIELD_COUNT = FIELD_PLAYER + GameSimulation.PLAYER_COUNT;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // 물줄기까지 이 틱 이하로 남은 칸은 지나가지 않음 (FIELD_SAFE 제외)
+    static final int IMMINENT_TICKS = 40;
+    // 상대에게 가는 길에 블록 하나를 부수고 지나가는 비용 (칸 수 기준)
+    static final int BLOCK_COST = 4;
+
+    private static final int COLS = GameSimulation.TILE_COLS;
+    private static final int CELLS = GameSimulation.CELL_COUNT;
+    private static final int[] DIR_ROW = { -1, 1, 0, 0 };
+    private static final int[] DIR_COL = { 0, 0, -1, 1 };
+
+    private final GameSimulation sim;
+    private final int[][] dist = new int[FIELD_COUNT][CELLS];
+
+    // 칸 상태: 0 = 막힘(블록/물풍선/진행 중 물줄기), 1 = 곧 터짐, 2 = 지나갈 수 있음, 3 = 부술 수 있는 블록
+    private static final int BLOCKED = 0;
+    private static final int IMMINENT = 1;
+    private static final int OPEN = 2;
+    private static final int BREAKABLE = 3;
+    private final byte[] cellState = new byte[CELLS];
+
+    // 마지막 계산 때 본 값 (바뀌었는지 비교용)
+    private int seenDangerVersion = -1;
+    private int seenTileVersion = -1;
+    private int computedTick = Integer.MAX_VALUE;
+    private int nextChangeTick = Integer.MIN_VALUE;
+    private final int[] seenPlayerCell = new int[GameSimulation.PLAYER_COUNT];
+
+    // 계산용 (할당 없이 재사용)
+    private final int[] queue = new int[CELLS];
+    private final int[][] buckets = new int[BLOCK_COST + 1][CELLS * 4];
+    private final int[] bucketSize = new int[BLOCK_COST + 1];
+
+    // 통계
+    private final long[] recomputeCount = new long[FIELD_COUNT];
+    private long updateCount = 0;
+
+    public FlowFieldService(GameSimulation sim) {
+        this.sim = sim;
+        Arrays.fill(seenPlayerCell, -1);
+    }
+
+    /**
+     * 바뀐 것이 있으면 필요한 지도만 다시 계산합니다. 읽기 전에 한 번 부릅니다.
+     */
+    public void update() {
+        updateCount++;
+        int now = sim.getTick();
+        DangerMap danger = sim.getDangerMap();
+        boolean layoutChanged = danger.getVersion() != seenDangerVersion
+            || sim.getTileVersion() != seenTileVersion
+            || now >= nextChangeTick || now < computedTick;
+
+        if (layoutChanged) {
+            seenDangerVersion = danger.getVersion();
+            seenTileVersion = sim.getTileVersion();
+            computedTick = now;
+            classifyCells(danger, now);
+            computeSafe(danger, now);
+            computeItems(danger, now);
+        }
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            int cell = playerCell(p);
+            if (layoutChanged || cell != seenPlayerCell[p]) {
+                seenPlayerCell[p] = cell;
+                computePlayer(p, cell);
+            }
+        }
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * cell에서 field의 목표까지 거리 (닿을 수 없으면 UNREACHABLE)
+     */
+    public int distance(int field, int cell) {
+        return dist[field][cell];
+    }
+
+    /**
+     * cell에서 목표 쪽으로 한 칸 옮겨 갈 이웃 칸 (이미 목표이거나 길이 없으면 -1)
+     */
+    public int nextCell(int field, int cell) {
+        int[] d = dist[field];
+        int best = -1;
+        int bestDist = d[cell];
+        int row = cell / COLS;
+        int col = cell % COLS;
+        for (int dir = 0; dir < 4; dir++) {
+            int r = row + DIR_ROW[dir];
+            int c = col + DIR_COL[dir];
+            if (!GameSimulation.inBounds(r, c)) continue;
+            int next = r * COLS + c;
+            if (d[next] < bestDist && canEnter(field, cellState[next])) {
+                best = next;
+                bestDist = d[next];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 부술 수 있는 블록 칸인지 (FIELD_PLAYER 길에서 다음 칸이 블록이면 물풍선으로 뚫어야 함)
+     */
+    public boolean isBreakableBlock(int cell) {
+        return cellState[cell] == BREAKABLE;
+    }
+
+    public long getRecomputeCount(int field) { return recomputeCount[field]; }
+    public long getUpdateCount() { return updateCount; }
+
+    // ===== 계산 =====
+
+    private static boolean canEnter(int field, int state) {
+        if (field == FIELD_SAFE) return state == OPEN || state == IMMINENT;
+        if (field == FIELD_ITEM) return state == OPEN;
+        return state == OPEN || state == BREAKABLE;
+    }
+
+    private int playerCell(int p) {
+        int row = GameSimulation.getTileRow(sim.getPlayerY(p) + GameSimulation.PLAYER_SIZE / 2);
+        int col = GameSimulation.getTileCol(sim.getPlayerX(p) + GameSimulation.PLAYER_SIZE / 2);
+        return row * COLS + col;
+    }
+
+    /**
+     * 칸 상태를 정하고, 다음에 상태가 바뀔 틱(물줄기 시작/끝, 곧 터짐 진입)을 기록합니다.
+     */
+    private void classifyCells(DangerMap danger, int now) {
+        Tile[][] tiles = sim.getTiles();
+        Arrays.fill(cellState, (byte) OPEN);
+        for (int i = 0; i < sim.getBalloonCount(); i++) {
+            cellState[sim.getBalloonRow(i) * COLS + sim.getBalloonCol(i)] = BLOCKED;
+        }
+
+        int next = Integer.MAX_VALUE;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / COLS;
+            int col = cell % COLS;
+            if (tiles != null && tiles[row][col].getItemIndex() == 3) {
+                cellState[cell] = (byte) (tiles[row][col].isBreakable() ? BREAKABLE : BLOCKED);
+                continue;
+            }
+            if (sim.isBlastActive(row, col)) {
+                cellState[cell] = BLOCKED;
+                next = Math.min(next, sim.getBlastStartTick(row, col) + GameSimulation.EXPLOSION_TICKS);
+                continue;
+            }
+            int blastTick = danger.getBlastTick(cell, now);
+            if (blastTick == DangerMap.SAFE) continue;
+            if (blastTick - now <= IMMINENT_TICKS) {
+                if (cellState[cell] == OPEN) cellState[cell] = IMMINENT;
+                if (blastTick > now) next = Math.min(next, blastTick);
+            } else {
+                next = Math.min(next, blastTick - IMMINENT_TICKS);
+            }
+        }
+        nextChangeTick = next;
+    }
+
+    private void computeSafe(DangerMap danger, int now) {
+        int[] d = dist[FIELD_SAFE];
+        Arrays.fill(d, UNREACHABLE);
+        int tail = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cellState[cell] == OPEN && !danger.isThreatened(cell, now)) {
+                d[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        bfs(FIELD_SAFE, tail);
+        fillBlocked(FIELD_SAFE);
+        recomputeCount[FIELD_SAFE]++;
+    }
+
+    private void computeItems(DangerMap danger, int now) {
+        int[] d = dist[FIELD_ITEM];
+        Arrays.fill(d, UNREACHABLE);
+        Tile[][] tiles = sim.getTiles();
+        int tail = 0;
+        for (int cell = 0; tiles != null && cell < CELLS; cell++) {
+            int item = tiles[cell / COLS][cell % COLS].getItemIndex();
+            if (item >= 0 && item <= 2 && cellState[cell] == OPEN && !danger.isThreatened(cell, now)) {
+                d[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        bfs(FIELD_ITEM, tail);
+        fillBlocked(FIELD_ITEM);
+        recomputeCount[FIELD_ITEM]++;
+    }
+
+    /**
+     * queue[0, tail)에 넣어 둔 출발 칸들에서 거리 1씩 넓혀 갑니다.
+     */
+    private void bfs(int field, int tail) {
+        int[] d = dist[field];
+        int head = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            int row = cell / COLS;
+            int col = cell % COLS;
+            for (int dir = 0; dir < 4; dir++) {
+                int r = row + DIR_ROW[dir];
+                int c = col + DIR_COL[dir];
+                if (!GameSimulation.inBounds(r, c)) continue;
+                int next = r * COLS + c;
+                if (d[next] != UNREACHABLE || !canEnter(field, cellState[next])) continue;
+                d[next] = d[cell] + 1;
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /**
+     * 플레이어까지 거리: 블록은 BLOCK_COST, 나머지는 1인 최단 거리 (버킷 큐)
+     */
+    private void computePlayer(int p, int source) {
+        int field = FIELD_PLAYER + p;
+        int[] d = dist[field];
+        Arrays.fill(d, UNREACHABLE);
+        Arrays.fill(bucketSize, 0);
+        d[source] = 0;
+        buckets[0][bucketSize[0]++] = source;
+
+        int emptyRun = 0;
+        for (int distance = 0; emptyRun <= BLOCK_COST; distance++) {
+            int b = distance % (BLOCK_COST + 1);
+            if (bucketSize[b] == 0) {
+                emptyRun++;
+                continue;
+            }
+            emptyRun = 0;
+            int[] bucket = buckets[b];
+            for (int i = 0; i < bucketSize[b]; i++) {
+                int cell = bucket[i];
+                if (d[cell] != distance) continue; // 더 짧은 길로 이미 처리됨
+                int row = cell / COLS;
+                int col = cell % COLS;
+                for (int dir = 0; dir < 4; dir++) {
+                    int r = row + DIR_ROW[dir];
+                    int c = col + DIR_COL[dir];
+                    if (!GameSimulation.inBounds(r, c)) continue;
+                    int next = r * COLS + c;
+                    int state = cellState[next];
+                    if (!canEnter(field, state)) continue;
+                    int nd = distance + (state == BREAKABLE ? BLOCK_COST : 1);
+                    if (nd < d[next]) {
+                        d[next] = nd;
+                        int nb = nd % (BLOCK_COST + 1);
+                        buckets[nb][bucketSize[nb]++] = next;
+                    }
+                }
+            }
+            bucketSize[b] = 0;
+        }
+        fillBlocked(field);
+        recomputeCount[field]++;
+    }
+
+    /**
+     * 들어갈 수 없는 칸(내가 서 있는 물풍선 칸, 곧 터질 칸 등)도 이웃 + 1로 채워서
+     * 그 칸에 서 있는 봇이 빠져나갈 방향을 찾을 수 있게 합니다.
+     */
+    private void fillBlocked(int field) {
+        int[] d = dist[field];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (d[cell] != UNREACHABLE || canEnter(field, cellState[cell])) continue;
+            int row = cell / COLS;
+            int col = cell % COLS;
+            int best = UNREACHABLE;
+            for (int dir = 0; dir < 4; dir++) {
+                int r = row + DIR_ROW[dir];
+                int c = col + DIR_COL[dir];
+                if (!GameSimulation.inBounds(r, c)) continue;
+                int next = r * COLS + c;
+                if (canEnter(field, cellState[next]) && d[next] < best) best = d[next];
+            }
+            if (best != UNREACHABLE) d[cell] = best + 1;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+
+/**
+ * ========================================================
+ * JFR 이벤트 (GameEvents)
+ * ========================================================
+ * 끊김이 생긴 판의 .jfr 파일 하나로 JDK 기본 이벤트(GC, 스레드, 잠금)와 함께
+ * 게임 쪽에서 무슨 일이 있었는지 (틱, 그리기, 연쇄 폭발, 이미지 읽기, 소리 열기) 볼 수 있게 합니다.
+ * JDK Mission Control에서 "Crazy Arcade" 분류로 보입니다.
+ *
+ * 기록 중이 아니면 이벤트는 isEnabled/shouldCommit이 false가 되어 JIT가 생성까지 없애므로 비용이 없습니다.
+ *
+ * 기록 켜기: 설정 jfrRecording=1 (jfrProfile=default 또는 profile)
+ *   → 프로그램이 켜질 때 recordings/session-날짜.jfr 에 기록을 시작하고, 종료할 때 파일로 씁니다.
+ * 명령줄로 켜도 됩니다: java -XX:StartFlightRecording:filename=x.jfr CrazyArcade_UI
+ */
+public final class GameEvents {
+    public static final String RECORDING_DIR = "recordings";
+    private static final Duration MAX_AGE = Duration.ofMinutes(30); // 오래 켜 두어도 최근 30분만 유지
+
+    private static Recording recording;
+
+    private GameEvents() {
+    }
+
+    @Name("crazyarcade.Tick")
+    @Label("Simulation Tick")
+    @Category({ "Crazy Arcade", "Simulation" })
+    @Description("게임 루프에서 진행한 시뮬레이션 틱 하나 (네트워크 대전이면 되감기 재시뮬레이션 포함)")
+    public static final class Tick extends Event {
+        @Label("Tick")
+        public int tick;
+        @Label("Balloons")
+        public int balloons;
+        @Label("Network")
+        public boolean network;
+    }
+
+    @Name("crazyarcade.Paint")
+    @Label("Paint")
+    @Category({ "Crazy Arcade", "Rendering" })
+    @Description("게임 화면 한 프레임 그리기 (paintComponent)")
+    public static final class Paint extends Event {
+        @Label("Tick")
+        public int tick;
+    }
+
+    @Name("crazyarcade.ChainReaction")
+    @Label("Chain Reaction")
+    @Category({ "Crazy Arcade", "Simulation" })
+    @Description("물풍선 하나에서 시작한 연쇄 폭발 전체 (createExplosion)")
+    public static final class ChainReaction extends Event {
+        @Label("Tick")
+        public int tick;
+        @Label("Row")
+        public int row;
+        @Label("Column")
+        public int col;
+        @Label("Cells Touched")
+        public int cells;
+        @Label("Balloons Detonated")
+        public int balloons;
+        @Label("Blocks Broken")
+        public int blocks;
+    }
+
+    @Name("crazyarcade.AssetDecode")
+    @Label("Asset Decode")
+    @Category({ "Crazy Arcade", "Assets" })
+    @Description("이미지 파일 읽기 (ImageIO.read)")
+    public static final class AssetDecode extends Event {
+        @Label("Path")
+        public String path;
+        @Label("Width")
+        public int width;
+        @Label("Height")
+        public int height;
+        @Label("File Size")
+        @jdk.jfr.DataAmount
+        public long bytes;
+    }
+
+    @Name("crazyarcade.AudioOpen")
+    @Label("Audio Line Open")
+    @Category({ "Crazy Arcade", "Audio" })
+    @Description("소리 파일을 읽고 Clip 라인을 여는 데 걸린 시간 (배경 음악, 효과음)")
+    public static final class AudioOpen extends Event {
+        @Label("Path")
+        public String path;
+        @Label("Format")
+        public String format;
+        @Label("Frames")
+        public long frames;
+    }
+
+    // ===== 자주 쓰는 작업 + 이벤트 =====
+
+    /**
+     * ImageIO.read와 같고, 기록 중이면 AssetDecode 이벤트를 남깁니다.
+     */
+    public static BufferedImage readImage(File file) throws IOException {
+        AssetDecode event = new AssetDecode();
+        event.begin();
+        BufferedImage image = ImageIO.read(file);
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.width = image != null ? image.getWidth() : 0;
+            event.height = image != null ? image.getHeight() : 0;
+            event.bytes = file.length();
+            event.commit();
+        }
+        return image;
+    }
+
+    /**
+     * 소리 파일을 읽어 연 Clip을 돌려줍니다 (재생은 호출한 쪽에서). 기록 중이면 AudioOpen 이벤트를 남깁니다.
+     */
+    public static Clip openClip(File file) throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        AudioOpen event = new AudioOpen();
+        event.begin();
+        AudioInputStream stream = AudioSystem.getAudioInputStream(file);
+        Clip clip = AudioSystem.getClip();
+        clip.open(stream);
+        if (event.shouldCommit()) {
+            AudioFormat format = stream.getFormat();
+            event.path = file.getPath();
+            event.format = format.toString();
+            event.frames = stream.getFrameLength();
+            event.commit();
+        }
+        return clip;
+    }
+
+    // ===== 기록 =====
+
+    /**
+     * 설정(jfrRecording)이 켜져 있으면 기록을 시작합니다. 프로그램이 끝날 때 파일로 씁니다.
+     */
+    public static synchronized void startRecording() {
+        if (GameSettings.jfrRecording <= 0 || recording != null) return;
+        try {
+            Recording r = new Recording(Configuration.getConfiguration(GameSettings.jfrProfile));
+            r.setName("crazyarcade");
+            r.enable(Tick.class).withoutThreshold().withoutStackTrace();
+            r.enable(Paint.class).withoutThreshold().withoutStackTrace();
+            r.enable(ChainReaction.class).withoutThreshold().withoutStackTrace();
+            r.enable(AssetDecode.class).withoutThreshold().withStackTrace();
+            r.enable(AudioOpen.class).withoutThreshold().withStackTrace();
+            r.setToDisk(true);
+            r.setMaxAge(MAX_AGE);
+
+            File dir = new File(RECORDING_DIR);
+            dir.mkdirs();
+            String name = "session-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jfr";
+            Path out = new File(dir, name).toPath();
+            r.setDestination(out);
+            r.setDumpOnExit(true);
+            r.start();
+            recording = r;
+            System.out.println("JFR 기록 시작 (" + GameSettings.jfrProfile + "): " + out);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("JFR 기록 시작 실패: " + e.getMessage());
+        }
+    }
+}
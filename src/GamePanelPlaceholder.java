@@ -4,124 +4,20 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.List;
 import java.awt.image.ImageProducer;
 import java.awt.image.ImageFilter;
 import java.awt.image.FilteredImageSource;
 import java.awt.image.RGBImageFilter;
-
-/**
- * ===== 폭탄 및 폭발 관련 내부 클래스 =====
- */
-
-// 폭발 효과 클래스
-class Explosion {
-    public enum ExplosionType {
-        CENTER, UP, DOWN, LEFT, RIGHT
-    }
-    
-    private final int row, col;  // 타일 좌표
-    private final long startTime;
-    private final ExplosionType type;
-    private boolean active = true;
-    private static final int FRAME_DURATION_MS = 100;
-    private static final int FRAME_COUNT = 5;
-    
-    public Explosion(int row, int col, long startTime, ExplosionType type) {
-        this.row = row;
-        this.col = col;
-        this.startTime = startTime;
-        this.type = type;
-    }
-    
-    public void update(long currentTime) {
-        if (currentTime - startTime >= FRAME_COUNT * FRAME_DURATION_MS) {
-            this.active = false;
-        }
-    }
-    
-    public int getCurrentFrameIndex(long currentTime) {
-        if (!active) return FRAME_COUNT - 1;
-        long elapsedTime = currentTime - startTime;
-        int frameIndex = (int)(elapsedTime / FRAME_DURATION_MS);
-        return Math.min(frameIndex, FRAME_COUNT - 1);
-    }
-    
-    public boolean isActive() { return active; }
-    public int getRow() { return row; }
-    public int getCol() { return col; }
-    public ExplosionType getType() { return type; }
-}
-
-// 물풍선 클래스
-class WaterBalloon {
-    private final int row, col;  // 타일 좌표
-    private final int range;
-    private final long explodeTime;
-    private final long startTime;
-    private final int ownerPlayer;  // 1 또는 2
-    private static final int FRAME_COUNT = 7;
-    private boolean collisionEnabled = false;  // ← 추가: 충돌 판정 활성화 여부
-
-    private final int installPlayerX;
-    private final int installPlayerY;
-    
-    public WaterBalloon(int row, int col, long explodeTime, int range, int ownerPlayer, int playerX, int playerY) {
-        this.row = row;
-        this.col = col;
-        this.explodeTime = explodeTime;
-        this.range = range;
-        this.ownerPlayer = ownerPlayer;
-        this.startTime = System.currentTimeMillis();
-        this.collisionEnabled = false;
-        this.installPlayerX = playerX;
-        this.installPlayerY = playerY;
-    }
-    
-    
-    public int getCurrentFrameIndex() {
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        long totalDuration = explodeTime - startTime;
-        
-        if (totalDuration <= 0) return FRAME_COUNT - 1;
-        
-        // 폭탄이 터질 때까지 애니메이션 반복
-        int frameIndex = (int)((elapsedTime % 1000) * FRAME_COUNT / 1000);
-        return frameIndex % FRAME_COUNT;
-    }
-    
-    // ← 추가: 충돌 판정 활성화
-    public void enableCollision() {
-        this.collisionEnabled = true;
-    }
-    
-    // ← 추가: 충돌 판정 상태 확인
-    public boolean isCollisionEnabled() {
-        return collisionEnabled;
-    }
-    public int getInstallPlayerX() {
-        return installPlayerX;
-    }
-    public int getInstallPlayerY() {
-        return installPlayerY;
-    }
-    public int getRow() { return row; }
-    public int getCol() { return col; }
-    public long getExplodeTime() { return explodeTime; }
-    public int getRange() { return range; }
-    public int getOwnerPlayer() { return ownerPlayer; }
-}
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * ===== 메인 게임 패널 =====
+ * 게임 규칙은 GameSimulation이 고정 틱으로 진행하고,
+ * 이 패널은 키 입력을 틱 입력으로 바꿔 전달하고 결과를 그리는 역할만 합니다.
  */
 public class GamePanelPlaceholder extends JPanel {
     
@@ -129,11 +25,11 @@ public class GamePanelPlaceholder extends JPanel {
     private CrazyArcade_UI mainFrame;
     private LobbyPanel lobbyPanel;
     
-    // 2) 맵 및 타일 시스템
+    // 2) 맵 및 시뮬레이션
     private Map gameMap;
-    private Tile[][] tiles;
-    private static final int TILE_ROWS = 13;
-    private static final int TILE_COLS = 15;
+    private GameSimulation sim;
+    private static final int TILE_ROWS = GameSimulation.TILE_ROWS;
+    private static final int TILE_COLS = GameSimulation.TILE_COLS;
     private String currentMapDataFile = "mapData2.txt";
     
     // 3) 캐릭터 스프라이트 시스템
@@ -147,85 +43,88 @@ public class GamePanelPlaceholder extends JPanel {
     private int p2SpriteWidth = 44;
     private int p2SpriteHeight = 62;
     
-    private int p1SpriteRow = 3;
-    private int p1SpriteCol = 0;
-    private int p2SpriteRow = 3;
-    private int p2SpriteCol = 0;
-    private int animationSpeed = 3;
-    private int p1FrameCounter = 0;
-    private int p2FrameCounter = 0;
-    
     private String p1CharacterName = "배찌";
     private String p2CharacterName = "다오";
     
-    // 3-2) 플레이어 능력치
-    private int p1BombCount = 1;
-    private int p1BombRange = 1;
-    private int p1Speed = 4;
-    
-    private int p2BombCount = 1;
-    private int p2BombRange = 1;
-    private int p2Speed = 4;
-    
-    private int p1MaxBombCount = 6;
-    private int p1MaxBombRange = 7;
-    private int p1MaxSpeed = 9;
-    
-    private int p2MaxBombCount = 7;
-    private int p2MaxBombRange = 9;
-    private int p2MaxSpeed = 8;
-    
-    // 4) 플레이어 위치 및 입력 상태
-    private int p1X = 60;
-    private int p1Y = 60;
-    private int p2X = 520;
-    private int p2Y = 520;
-    private static final int PLAYER_SIZE = 40;
+    // 4) 키 입력 상태 (틱마다 GameSimulation 입력 비트마스크로 변환)
+    private static final int PLAYER_SIZE = GameSimulation.PLAYER_SIZE;
     
     private boolean p1UpPressed, p1DownPressed, p1LeftPressed, p1RightPressed;
     private boolean p2UpPressed, p2DownPressed, p2LeftPressed, p2RightPressed;
     private Integer p1LastKey = null;
     private Integer p2LastKey = null;
+    private boolean p1BombQueued = false; // 다음 틱에 물풍선 설치
+    private boolean p2BombQueued = false;
     
-    // 5) 게임 루프
+    // 5) 게임 루프 (고정 틱 누적 방식)
     private javax.swing.Timer gameTimer;
-    private int tileWidth;
-    private int tileHeight;
-    
-    // 6) 게임 시간 및 상태
-    private static final int GAME_TIME = 150;
-    private int remainingTime = GAME_TIME;
-    private long lastTimerUpdate = 0;
-    
-    private static final int STATE_PLAYING = 0;
-    private static final int STATE_P1_WIN = 1;
-    private static final int STATE_P2_WIN = 2;
-    private static final int STATE_DRAW = 3;
-    private int gameState = STATE_PLAYING;
-    
-    private boolean p1Alive = true;
-    private boolean p2Alive = true;
+    private int tileWidth = GameSimulation.TILE_WIDTH;
+    private int tileHeight = GameSimulation.TILE_HEIGHT;
+    private static final long TICK_NANOS = GameSimulation.TICK_MS * 1_000_000L;
+    private static final int MAX_TICKS_PER_FRAME = 5; // 멈췄다 돌아왔을 때 한 번에 따라잡을 최대 틱
+    private long lastLoopNanos = 0;
+    private long tickAccumulator = 0;
+    
+    // 네트워크 대전 (설정이 없으면 null → 한 PC 2인 플레이)
+    private RollbackSession netSession;
+    
+    // 관전 모드 (설정이 없으면 null → 직접 플레이), 화면은 같은 paintComponent로 그림
+    private SpectatorClient spectator;
+    
+    // 2P 컴퓨터 플레이어 (설정이 없으면 null → 키보드 조작)
+    private BotController p2Bot;
+    
+    // 리플레이: 지금 경기 기록 / 재생 중인 기록 (재생 중에는 키 입력 대신 기록된 입력 사용)
+    private InputReplay recording;
+    private ReplayPlayback playback;
+    private static final int REPLAY_SEEK_TICKS = GameSimulation.msToTicks(5000); // ←/→ 한 번에 이동할 시간
+    private InputReplay pendingReplay; // 다음 startNewGame에서 재생할 기록
+    
+    // 빠른 저장: F5 저장 / F9 불러오기, 한 PC 경기는 autoSaveSeconds마다 자동 저장 (정상적으로 나가면 삭제)
+    private final QuickSave quickSave = new QuickSave();
+    // F3 성능 표시 (프레임 시간, GC, 히스토그램)
+    private PerfOverlay perfOverlay;
+    // 끊김 기록 (프레임이 hitchBudgetMs를 넘으면 최근 프레임들과 EDT 스택을 hitches 폴더에 저장)
+    private HitchRecorder hitchRecorder;
+    private final ExecutorService saveWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "quicksave-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private int lastAutoSaveTick = 0;
+    private File pendingResume; // 다음 startNewGame에서 이어 할 저장 파일
+    
+    // 로비의 "랜덤" 캐릭터 선택용 (경기 시드에서 만듦)
+    private final MatchRandom lobbyRandom = new MatchRandom(0);
+    // 프로그램을 켠 뒤 시작한 네트워크 대전 수 (재대결마다 시드를 바꾸는 데 씀)
+    private int netMatchCount = 0;
+    
+    // 6) 게임 결과 표시
+    private static final int STATE_PLAYING = GameSimulation.STATE_PLAYING;
+    private static final int STATE_P1_WIN = GameSimulation.STATE_P1_WIN;
+    private static final int STATE_P2_WIN = GameSimulation.STATE_P2_WIN;
+    private static final int STATE_DRAW = GameSimulation.STATE_DRAW;
+    
     private Image winImg, drawImg;
-    private long resultDisplayTime = 0;
-    private static final int RESULT_DISPLAY_DURATION = 3000;
+    private static final int RESULT_DISPLAY_TICKS = GameSimulation.msToTicks(3000);
     
     // 7) 맵 영역 설정
-    private static final int MAP_X = 15;
-    private static final int MAP_Y = 15;
-    private static final int MAP_WIDTH = 600;
-    private static final int MAP_HEIGHT = 520;
+    private static final int MAP_X = GameSimulation.MAP_X;
+    private static final int MAP_Y = GameSimulation.MAP_Y;
+    private static final int MAP_WIDTH = GameSimulation.MAP_WIDTH;
+    private static final int MAP_HEIGHT = GameSimulation.MAP_HEIGHT;
     private static final int RIGHT_PANEL_X = 630;
     private static final int RIGHT_PANEL_WIDTH = 155;
     
-    private boolean itemCollisionEnabled = false;
-    private int startupFrameCount = 0;
-    private static final int STARTUP_DELAY_FRAMES = 10;
-    
-    // ===== 폭탄 시스템 추가 =====
-    private List<WaterBalloon> p1Balloons;
-    private List<WaterBalloon> p2Balloons;
-    private List<Explosion> explosions;
-    private static final int BALLOON_DELAY_MS = 3800;
+    // 화면 층 (paintLayer, 그리는 순서대로)
+    static final int LAYER_MAP = 0; // 배경 + 맵 이미지
+    static final int LAYER_TILES = 1; // 블록/아이템 (+ 위험 칸 표시)
+    static final int LAYER_BALLOONS = 2;
+    static final int LAYER_EXPLOSIONS = 3;
+    static final int LAYER_PLAYERS = 4;
+    static final int LAYER_HUD = 5; // 오른쪽 정보 패널, 결과/관전/리플레이 표시
+    static final int LAYER_COUNT = 6;
+    static final String[] LAYER_NAMES = { "map", "tiles", "balloons", "explosions", "players", "hud" };
     
     // 폭탄/폭발 스프라이트
     private BufferedImage waterBalloonSpriteSheet;
@@ -236,35 +135,24 @@ public class GamePanelPlaceholder extends JPanel {
     private BufferedImage explosionLeftImage;
     private BufferedImage explosionRightImage;
     
-    private boolean p1Trapped = false;
-    private boolean p2Trapped = false;
-    
     private static final int BALLOON_DRAW_SIZE = 40;
     private static final int BALLOON_FRAME_WIDTH = 40;
     private static final int BALLOON_FRAME_COUNT = 7;
     private static final int EXP_FRAME_COUNT = 5;
     private static final int EXP_FRAME_WIDTH = 40;
+    private static final int EXP_FRAME_DURATION_MS = 100;
 
     // Trapped/Die 스프라이트
     private BufferedImage[][] trappedSprites;  // 2행 8열 (1행: 배찌, 2행: 디지니)
     private BufferedImage[][] dieSprites;      // 4행 8열 (RedBazzi, BlueBazzi, RedDizni, BlueDizni)
 
-    // Trapped 시작 시간
-    private long p1TrappedStartTime = 0;
-    private long p2TrappedStartTime = 0;
-
-    // Die 애니메이션 시작 시간
-    private long p1DieStartTime = 0;
-    private long p2DieStartTime = 0;
-
     // 상태 관리
-    private static final int PLAYER_STATE_ALIVE = 0;
-    private static final int PLAYER_STATE_TRAPPED = 1;
-    private static final int PLAYER_STATE_DYING = 2;
-    private static final int PLAYER_STATE_DEAD = 3;
+    private static final int PLAYER_STATE_ALIVE = GameSimulation.PLAYER_STATE_ALIVE;
+    private static final int PLAYER_STATE_TRAPPED = GameSimulation.PLAYER_STATE_TRAPPED;
+    private static final int PLAYER_STATE_DYING = GameSimulation.PLAYER_STATE_DYING;
+    private static final int PLAYER_STATE_DEAD = GameSimulation.PLAYER_STATE_DEAD;
     
     // 시간 상수
-    private static final long TRAPPED_DURATION = 6000; // 6초
     private static final long DIE_ANIMATION_DURATION = 1000; // 1초
 
     // 애니메이션 프레임 설정
@@ -272,10 +160,6 @@ public class GamePanelPlaceholder extends JPanel {
     private static final int TRAPPED_SPRITE_COLS = 16;
     private static final int DIE_SPRITE_ROWS = 4;
     private static final int DIE_SPRITE_COLS = 8;
-
-    // 추가: 플레이어 상태 변수
-    private int p1State = PLAYER_STATE_ALIVE;
-    private int p2State = PLAYER_STATE_ALIVE;
     
 
     public GamePanelPlaceholder(CrazyArcade_UI mainFrame) {
@@ -290,16 +174,38 @@ public class GamePanelPlaceholder extends JPanel {
         setPreferredSize(new Dimension(800, 600));
         setBackground(new Color(50, 50, 50));
         
-        // 폭탄 리스트 초기화
-        p1Balloons = new ArrayList<>();
-        p2Balloons = new ArrayList<>();
-        explosions = new ArrayList<>();
+        // F3 성능 표시 (설정에서 켜 두면 처음부터 보임)
+        perfOverlay = new PerfOverlay(GameSettings.showPerfOverlay > 0);
+        hitchRecorder = new HitchRecorder(GameSettings.hitchBudgetMs);
+        
+        // 시뮬레이션 생성 (효과음은 이벤트로 받아서 재생)
+        sim = new GameSimulation();
+        sim.setTracing(true); // 연쇄 폭발 JFR 이벤트는 화면의 시뮬레이션에서만
+        sim.setPhaseTimes(hitchRecorder.getPhaseSink());
+        sim.setListener(new GameSimulation.SimulationListener() {
+            @Override
+            public void onBalloonPlaced(int row, int col, int owner) {
+                playSoundEffect("installationBallon.wav");
+            }
+
+            @Override
+            public void onExplosion(int row, int col, int range) {
+                playSoundEffect("explosionBallon_less.wav");
+            }
+        });
         
+        long t = StartupProfiler.begin();
         loadCharacterSprites();
+        StartupProfiler.end("characterSprites", t);
+        t = StartupProfiler.begin();
         loadBombSprites();
+        StartupProfiler.end("bombSprites", t);
+        t = StartupProfiler.begin();
         loadResultImages();
+        StartupProfiler.end("resultImages", t);
+        t = StartupProfiler.begin();
         initMapSystem();
-        initPlayerPositions();
+        StartupProfiler.end("mapSystem", t);
         
         setFocusable(true);
         addKeyListener(new KeyAdapter() {
@@ -351,7 +257,7 @@ public class GamePanelPlaceholder extends JPanel {
             
             File p1File = new File(basePath + p1FileName);
             if (p1File.exists()) {
-                BufferedImage p1Sheet = ImageIO.read(p1File);
+                BufferedImage p1Sheet = GameEvents.readImage(p1File);
                 BufferedImage p1Transparent = makeColorTransparent(p1Sheet, 0xFF00FF);
                 p1Sprites = loadSpriteSheet(p1Transparent, SPRITE_ROWS, SPRITE_COLS);
             } else {
@@ -376,7 +282,7 @@ public class GamePanelPlaceholder extends JPanel {
             
             File p2File = new File(basePath + p2FileName);
             if (p2File.exists()) {
-                BufferedImage p2Sheet = ImageIO.read(p2File);
+                BufferedImage p2Sheet = GameEvents.readImage(p2File);
                 BufferedImage p2Transparent = makeColorTransparent(p2Sheet, 0xFF00FF);
                 p2Sprites = loadSpriteSheet(p2Transparent, SPRITE_ROWS, SPRITE_COLS);
             } else {
@@ -427,7 +333,7 @@ public class GamePanelPlaceholder extends JPanel {
             return null;
         }
         
-        BufferedImage image = ImageIO.read(file);
+        BufferedImage image = GameEvents.readImage(file);
         if (image == null) {
             System.err.println("이미지 로드 실패: " + path);
             return null;
@@ -520,71 +426,262 @@ public class GamePanelPlaceholder extends JPanel {
         return transparent;
     }
     
-    private void initCharacterStats() {
-        if ("배찌".equals(p1CharacterName)) {
-            p1BombCount = 1;
-            p1BombRange = 1;
-            p1Speed = 4;
-            p1MaxBombCount = 6;
-            p1MaxBombRange = 7;
-            p1MaxSpeed = 9;
-        } else if ("다오".equals(p1CharacterName)) {
-            p1BombCount = 2;
-            p1BombRange = 1;
-            p1Speed = 4;
-            p1MaxBombCount = 7;
-            p1MaxBombRange = 9;
-            p1MaxSpeed = 8;
-        }
-        
-        if ("배찌".equals(p2CharacterName)) {
-            p2BombCount = 1;
-            p2BombRange = 1;
-            p2Speed = 4;
-            p2MaxBombCount = 6;
-            p2MaxBombRange = 7;
-            p2MaxSpeed = 9;
-        } else if ("다오".equals(p2CharacterName)) {
-            p2BombCount = 2;
-            p2BombRange = 1;
-            p2Speed = 4;
-            p2MaxBombCount = 7;
-            p2MaxBombRange = 9;
-            p2MaxSpeed = 8;
-        }
-    }
-    
     @Override
     public void addNotify() {
         super.addNotify();
         loadSelectedMap();
-        loadTilesFromFile();
         resetGame();
-        p1UpPressed = p1DownPressed = p1LeftPressed = p1RightPressed = false;
-        p2UpPressed = p2DownPressed = p2LeftPressed = p2RightPressed = false;
-        p1LastKey = null;
-        p2LastKey = null;
-        itemCollisionEnabled = false;
-        startupFrameCount = 0;
+        clearInputState();
         startGameLoop();
         requestFocusInWindow();
     }
     
     public void startNewGame() {
+        if (pendingReplay != null) {
+            startReplay();
+            return;
+        }
+        if (pendingResume != null && resumeSavedGame()) {
+            return;
+        }
         loadSelectedMap();
+        sim.setMatchSeed(chooseMatchSeed());
         loadSelectedCharacters();
-        loadTilesFromFile();
         loadCharacterSprites();
         resetGame();
-        p1UpPressed = p1DownPressed = p1LeftPressed = p1RightPressed = false;
-        p2UpPressed = p2DownPressed = p2LeftPressed = p2RightPressed = false;
-        p1LastKey = null;
-        p2LastKey = null;
-        itemCollisionEnabled = false;
+        clearInputState();
+        startNetworkSession();
+        startSpectating();
+        startBots();
+        startRecording();
+        startGameLoop();
+        requestFocusInWindow();
+        playInGameBGM();
+        if (spectator != null) {
+            System.out.println("관전 시작! 방 " + GameSettings.spectateRoom);
+        } else {
+            System.out.println("게임 시작! 1P: " + p1CharacterName + ", 2P: " + p2CharacterName);
+        }
+    }
+    
+    /**
+     * 다음 게임 화면 진입 때 키 입력 대신 이 기록을 재생합니다.
+     */
+    public void setPendingReplay(InputReplay r) {
+        this.pendingReplay = r;
+    }
+    
+    private void startReplay() {
+        InputReplay replay = pendingReplay;
+        pendingReplay = null;
+        loadReplayAssets(replay);
+        playback = new ReplayPlayback(replay, sim);
+        clearInputState();
+        startGameLoop();
+        requestFocusInWindow();
+        playInGameBGM();
+        System.out.println("리플레이 재생: 1P " + p1CharacterName + ", 2P " + p2CharacterName
+            + ", " + replay.getLength() + "틱 (키프레임 준비 " + playback.getBuildNanos() / 1_000_000 + "ms)");
+        if (playback.getDivergenceTick() >= 0) {
+            System.err.println("리플레이가 기록과 다르게 진행됨: 틱 " + playback.getDivergenceTick()
+                + " 이전 " + InputReplay.HASH_INTERVAL + "틱 사이에서 어긋남 (게임 규칙이 바뀌었을 수 있음)");
+        }
+        System.out.println("조작: Space 일시정지, ←/→ 5초 이동, ↑/↓ 배속, ,/. 한 틱 이동 (일시정지 중), Home 처음으로");
+    }
+    
+    /**
+     * 다음 게임 화면 진입 때 새 경기 대신 저장된 경기를 이어 합니다.
+     */
+    public void setPendingResume(File file) {
+        this.pendingResume = file;
+    }
+    
+    /**
+     * 저장 파일의 경기를 이어서 시작합니다 (리플레이 기록은 하지 않음).
+     * 
+     * @return 불러오지 못했으면 false (새 경기로 시작)
+     */
+    private boolean resumeSavedGame() {
+        File file = pendingResume;
+        pendingResume = null;
+        try {
+            quickSave.load(sim, file);
+        } catch (IOException e) {
+            System.err.println("저장된 경기 불러오기 실패: " + e.getMessage());
+            return false;
+        }
+        applyLoadedGame();
+        clearInputState();
+        startBots();
         startGameLoop();
         requestFocusInWindow();
         playInGameBGM();
-        System.out.println("게임 시작! 1P: " + p1CharacterName + ", 2P: " + p2CharacterName);
+        System.out.println("저장된 경기 이어 하기: " + file.getName() + ", 남은 시간 " + sim.getRemainingTime()
+            + "초 (불러오기 " + quickSave.getLastLoadNanos() / 1000 + "µs)");
+        return true;
+    }
+    
+    /**
+     * 빠른 저장을 불러온 뒤 화면 쪽(맵 그림, 캐릭터 그림)을 시뮬레이션에 맞춥니다.
+     * 이어 하는 경기는 처음부터의 입력이 없으므로 리플레이 기록을 멈춥니다.
+     */
+    private void applyLoadedGame() {
+        if (!sim.getMapDataFile().equals(currentMapDataFile)) {
+            currentMapDataFile = sim.getMapDataFile();
+            gameMap = new Map("mapData1.txt".equals(currentMapDataFile) ? "forest24.png" : "map2.png");
+        }
+        if (!sim.getCharacterName(0).equals(p1CharacterName) || !sim.getCharacterName(1).equals(p2CharacterName)) {
+            p1CharacterName = sim.getCharacterName(0);
+            p2CharacterName = sim.getCharacterName(1);
+            loadCharacterSprites();
+        }
+        sim.setInputRecorder(null);
+        recording = null;
+        lastAutoSaveTick = sim.getTick();
+    }
+    
+    /**
+     * F5 저장 / F9 불러오기 (네트워크 대전 중에는 상대와 어긋나므로 사용 불가)
+     */
+    private void handleQuickSaveKey(int key) {
+        if (netSession != null) {
+            System.out.println("네트워크 대전 중에는 빠른 저장을 쓸 수 없음");
+            return;
+        }
+        File file = QuickSave.file(QuickSave.QUICK_SAVE);
+        if (key == KeyEvent.VK_F5) {
+            writeSaveAsync(file);
+            System.out.println("빠른 저장: tick " + sim.getTick() + " (" + quickSave.getLastSaveNanos() / 1000 + "µs)");
+            return;
+        }
+        if (!file.exists()) {
+            System.out.println("빠른 저장 파일 없음: " + file.getPath());
+            return;
+        }
+        try {
+            quickSave.load(sim, file);
+            applyLoadedGame();
+            clearInputState();
+            tickAccumulator = 0;
+            System.out.println("빠른 불러오기: tick " + sim.getTick() + " (" + quickSave.getLastLoadNanos() / 1000 + "µs)");
+        } catch (IOException e) {
+            System.err.println("빠른 불러오기 실패: " + e.getMessage());
+        }
+        repaint();
+    }
+    
+    /**
+     * 지금 상태를 바로 인코딩하고(수 µs) 파일 쓰기는 저장 스레드에 맡깁니다.
+     */
+    private void writeSaveAsync(File file) {
+        long start = System.nanoTime();
+        int length = quickSave.encode(sim);
+        byte[] data = java.util.Arrays.copyOf(quickSave.getBuffer(), length);
+        saveWriter.execute(() -> {
+            try {
+                QuickSave.writeFile(data, length, file);
+            } catch (IOException e) {
+                System.err.println("경기 저장 실패: " + e.getMessage());
+            }
+        });
+        quickSave.setLastSaveNanos(System.nanoTime() - start);
+    }
+    
+    /**
+     * 경기를 정상적으로 끝냈으면 자동 저장은 필요 없음 (남아 있으면 비정상 종료로 봄)
+     */
+    private void deleteAutoSave() {
+        File file = QuickSave.file(QuickSave.AUTO_SAVE);
+        saveWriter.execute(() -> file.delete()); // 대기 중인 자동 저장보다 뒤에 실행
+    }
+    
+    /**
+     * 리플레이에 기록된 맵과 캐릭터 그림을 불러옵니다.
+     */
+    private void loadReplayAssets(InputReplay replay) {
+        loadMap("mapData1.txt".equals(replay.getMapDataFile()) ? "Map1" : "Map2");
+        p1CharacterName = replay.getCharacter(0);
+        p2CharacterName = replay.getCharacter(1);
+        loadCharacterSprites();
+    }
+    
+    // ===== 화면 밖 그리기 (ReplayExporter) =====
+    
+    /**
+     * 게임 루프와 효과음을 끄고 replay의 시작 상태로 맞춥니다 (EDT에서 호출).
+     * 이후 시뮬레이션 진행은 getSimulation()으로 호출한 쪽이 직접 하고
+     * renderFrame으로 지금 상태를 그립니다.
+     */
+    void prepareOffscreen(InputReplay replay) {
+        if (gameTimer != null) {
+            gameTimer.stop();
+        }
+        perfOverlay.setVisible(false);
+        hitchRecorder.stop();
+        sim.setPhaseTimes(null);
+        sim.setListener(null);
+        sim.setLogging(false);
+        loadReplayAssets(replay);
+        replay.start(sim);
+        setSize(getPreferredSize());
+    }
+    
+    GameSimulation getSimulation() {
+        return sim;
+    }
+    
+    /**
+     * 화면에 그릴 때와 같은 코드(paintComponent)로 g에 한 프레임을 그립니다.
+     */
+    void renderFrame(Graphics2D g) {
+        paintComponent(g);
+    }
+    
+    /**
+     * 리플레이 재생 중 키 입력 (재생 제어만)
+     */
+    private void handleReplayKey(int key) {
+        switch (key) {
+            case KeyEvent.VK_SPACE: playback.togglePause(); break;
+            case KeyEvent.VK_LEFT: playback.seekBy(-REPLAY_SEEK_TICKS); break;
+            case KeyEvent.VK_RIGHT: playback.seekBy(REPLAY_SEEK_TICKS); break;
+            case KeyEvent.VK_UP: playback.faster(); break;
+            case KeyEvent.VK_DOWN: playback.slower(); break;
+            case KeyEvent.VK_HOME: playback.seek(0); break;
+            case KeyEvent.VK_COMMA:
+                if (playback.isPaused()) playback.seekBy(-1);
+                break;
+            case KeyEvent.VK_PERIOD:
+                if (playback.isPaused()) playback.seekBy(1);
+                break;
+            default: return;
+        }
+        repaint();
+    }
+    
+    /**
+     * 설정이 켜져 있으면 이번 경기의 틱 입력을 기록합니다 (관전 중에는 기록 안 함).
+     */
+    private void startRecording() {
+        recording = null;
+        if (GameSettings.recordReplays != 1 || spectator != null) return;
+        recording = InputReplay.begin(sim);
+        sim.setInputRecorder(recording);
+    }
+    
+    private void saveRecording() {
+        sim.setInputRecorder(null);
+        if (recording == null) return;
+        try {
+            if (recording.getLength() > 0) {
+                File file = recording.save();
+                System.out.println("리플레이 저장: " + file.getPath() + " (" + recording.getLength() + "틱, "
+                    + file.length() + "바이트)");
+            }
+        } catch (IOException e) {
+            System.err.println("리플레이 저장 실패: " + e.getMessage());
+        }
+        recording = null;
     }
     
     private void playInGameBGM() {
@@ -601,15 +698,37 @@ public class GamePanelPlaceholder extends JPanel {
     
     private void loadSelectedCharacters() {
         if (lobbyPanel != null) {
-            p1CharacterName = lobbyPanel.getP1Character();
-            p2CharacterName = lobbyPanel.getP2Character();
+            lobbyRandom.setSeed(~sim.getMatchSeed()); // 아이템 드롭과 다른 순서로 뽑도록
+            p1CharacterName = lobbyPanel.getP1Character(lobbyRandom);
+            p2CharacterName = lobbyPanel.getP2Character(lobbyRandom);
+        }
+    }
+    
+    /**
+     * 이번 경기의 난수 시드를 정합니다.
+     * 설정에 고정 시드가 있으면 그 값, 네트워크 대전이면 두 PC가 같은 값을 쓰도록
+     * 맵, 포트 번호, 지금까지 함께 한 대전 수로 정하고, 그 외에는 매번 다른 값을 씁니다.
+     * (두 PC 모두 재대결마다 대전 수를 하나씩 올리므로 같은 맵이어도 경기마다 시드가 달라짐)
+     */
+    private long chooseMatchSeed() {
+        if (GameSettings.matchSeed != 0) {
+            return GameSettings.matchSeed;
+        }
+        if (GameSettings.isNetworkMatch()) {
+            // 한쪽의 내 포트가 다른 쪽의 상대 포트이므로 합은 양쪽이 같음
+            long base = currentMapDataFile.hashCode() * 31L + GameSettings.netLocalPort + GameSettings.netPeerPort;
+            return base * 0x9E3779B97F4A7C15L + netMatchCount++;
         }
+        return System.nanoTime();
     }
     
+    
     private void loadSelectedMap() {
         if (lobbyPanel == null) return;
-        
-        String selectedMap = lobbyPanel.getSelectedMap();
+        loadMap(lobbyPanel.getSelectedMap());
+    }
+    
+    private void loadMap(String selectedMap) {
         String mapFileName;
         String mapDataFileName;
         
@@ -624,499 +743,270 @@ public class GamePanelPlaceholder extends JPanel {
         gameMap = new Map(mapFileName);
         currentMapDataFile = mapDataFileName;
         loadTilesFromFile();
-        initPlayerPositions();
         repaint();
     }
     
-    private void initPlayerPositions() {
-        p1X = MAP_X + 40;
-        p1Y = MAP_Y + 40;
-        p2X = MAP_X + MAP_WIDTH - 80;
-        p2Y = MAP_Y + MAP_HEIGHT - 80;
-    }
-    
-    private void startGameLoop() {
-        if (gameTimer != null) {
-            gameTimer.stop();
+    /**
+     * 네트워크 대전 설정이 있으면 롤백 세션을 연결합니다.
+     * 두 PC 모두 같은 맵/캐릭터를 고른 뒤 동시에 시작해야 합니다.
+     */
+    private void startNetworkSession() {
+        closeNetworkSession();
+        if (!GameSettings.isNetworkMatch()) return;
+        
+        try {
+            PacketTransport transport = new UdpPacketTransport(
+                GameSettings.netLocalPort, GameSettings.netPeerHost, GameSettings.netPeerPort);
+            NetworkConditions conditions = NetworkConditions.fromSettings();
+            if (!conditions.isPerfect()) {
+                // 한 PC에서 두 창으로 시험할 때 지연/손실 주입
+                transport = new LaggyPacketTransport(transport, conditions, System.nanoTime(), System::nanoTime);
+                System.out.println("네트워크 상태 흉내: " + conditions);
+            }
+            int localSlot = (GameSettings.netLocalPlayer == 2) ? 1 : 0;
+            netSession = new RollbackSession(sim, transport, localSlot, GameSettings.rollbackMaxTicks,
+                GameSettings.netMaxInputDelay, System::nanoTime);
+            System.out.println("네트워크 대전 연결: " + GameSettings.netPeerHost + ":" + GameSettings.netPeerPort
+                + " (내 플레이어: " + (localSlot + 1) + "P)");
+        } catch (IOException e) {
+            System.err.println("네트워크 연결 실패, 로컬 플레이로 진행: " + e.getMessage());
+            netSession = null;
         }
-        gameTimer = new javax.swing.Timer(16, e -> {
-            updateGame();
-            repaint();
-        });
-        gameTimer.start();
     }
     
-    private void stopGameLoop() {
-        if (gameTimer != null) {
-            gameTimer.stop();
+    private void closeNetworkSession() {
+        if (netSession != null) {
+            System.out.println("네트워크 통계: " + netSession.getStatsSummary());
+            netSession.close();
+            netSession = null;
         }
     }
     
-    private void updateGame() {
-        if (tileWidth == 0) tileWidth = MAP_WIDTH / TILE_COLS;
-        if (tileHeight == 0) tileHeight = MAP_HEIGHT / TILE_ROWS;
-        
-        if (!itemCollisionEnabled) {
-            startupFrameCount++;
-            if (startupFrameCount >= STARTUP_DELAY_FRAMES) {
-                itemCollisionEnabled = true;
-                startupFrameCount = 0;
-                System.out.println("아이템 충돌 활성화");
-            }
-        }
-        
-        updateBalloonCollisions();
-        
-        // ⭐ 수정: 상태에 따라 속도 조정
-    int p1MoveSpeed;
-        if (p1State == PLAYER_STATE_ALIVE) {
-            p1MoveSpeed = p1Speed;
-        } else if (p1State == PLAYER_STATE_TRAPPED) {
-            p1MoveSpeed = 1;  // Trapped 상태에서만 속도 1
-        } else {
-            p1MoveSpeed = 0;  // Dying/Dead 상태에서는 이동 불가
-        }
+    /**
+     * 관전 설정이 있으면 서버 방에 관전자로 접속합니다.
+     * 관전 중에는 입력을 받지 않고 서버가 보낸 상태를 시뮬레이션에 덮어써서 그립니다.
+     */
+    private void startSpectating() {
+        closeSpectator();
+        if (!GameSettings.isSpectating()) return;
         
-        int p2MoveSpeed;
-        if (p2State == PLAYER_STATE_ALIVE) {
-            p2MoveSpeed = p2Speed;
-        } else if (p2State == PLAYER_STATE_TRAPPED) {
-            p2MoveSpeed = 1;  // Trapped 상태에서만 속도 1
-        } else {
-            p2MoveSpeed = 0;  // Dying/Dead 상태에서는 이동 불가
-        }
-        
-        // 1. Player 1 이동 처리
-        int newP1X = p1X, newP1Y = p1Y;
-        
-        // ⭐ 수정: ALIVE 또는 TRAPPED 상태일 때만 이동 가능
-        if ((p1State == PLAYER_STATE_ALIVE || p1State == PLAYER_STATE_TRAPPED) && p1LastKey != null) {
-            if (p1LastKey == GameSettings.p1_Up) {
-                newP1Y = Math.max(MAP_Y, p1Y - p1MoveSpeed);
-            } else if (p1LastKey == GameSettings.p1_Down) {
-                newP1Y = Math.min(MAP_Y + MAP_HEIGHT - PLAYER_SIZE, p1Y + p1MoveSpeed);
-            } else if (p1LastKey == GameSettings.p1_Left) {
-                newP1X = Math.max(MAP_X, p1X - p1MoveSpeed);
-            } else if (p1LastKey == GameSettings.p1_Right) {
-                newP1X = Math.min(MAP_X + MAP_WIDTH - PLAYER_SIZE, p1X + p1MoveSpeed);
-            }
-            
-            if (!isCollidingWithBlock(newP1X, p1Y, PLAYER_SIZE) && !isCollidingWithBalloon(newP1X, p1Y, PLAYER_SIZE))
-                p1X = newP1X;
-            if (!isCollidingWithBlock(p1X, newP1Y, PLAYER_SIZE) && !isCollidingWithBalloon(p1X, newP1Y, PLAYER_SIZE))
-                p1Y = newP1Y;
+        try {
+            spectator = new SpectatorClient(GameSettings.lobbyServerHost, GameSettings.lobbyServerPort,
+                GameSettings.spectateRoom);
+        } catch (IOException e) {
+            System.err.println("관전 연결 실패: " + e.getMessage());
+            spectator = null;
         }
+    }
     
-    // 2. Player 2 이동 처리
-    int newP2X = p2X, newP2Y = p2Y;
-    
-    // ⭐ 수정: ALIVE 또는 TRAPPED 상태일 때만 이동 가능
-    if ((p2State == PLAYER_STATE_ALIVE || p2State == PLAYER_STATE_TRAPPED) && p2LastKey != null) {
-        if (p2LastKey == GameSettings.p2_Up) {
-            newP2Y = Math.max(MAP_Y, p2Y - p2MoveSpeed);
-        } else if (p2LastKey == GameSettings.p2_Down) {
-            newP2Y = Math.min(MAP_Y + MAP_HEIGHT - PLAYER_SIZE, p2Y + p2MoveSpeed);
-        } else if (p2LastKey == GameSettings.p2_Right) {
-            newP2X = Math.min(MAP_X + MAP_WIDTH - PLAYER_SIZE, p2X + p2MoveSpeed);
-        } else if (p2LastKey == GameSettings.p2_Left) {
-            newP2X = Math.max(MAP_X, p2X - p2MoveSpeed);
+    private void closeSpectator() {
+        if (spectator != null) {
+            System.out.println("관전 통계: 받은 프레임 " + spectator.getFramesReceived()
+                + ", 버린 프레임 " + spectator.getFramesDropped());
+            spectator.close();
+            spectator = null;
         }
-        
-        if (!isCollidingWithBlock(newP2X, p2Y, PLAYER_SIZE) && !isCollidingWithBalloon(newP2X, p2Y, PLAYER_SIZE))
-            p2X = newP2X;
-        if (!isCollidingWithBlock(p2X, newP2Y, PLAYER_SIZE) && !isCollidingWithBalloon(p2X, newP2Y, PLAYER_SIZE))
-            p2Y = newP2Y;
     }
-        
-        // 3. 아이템 충돌 체크 (살아있을 때만)
-        if (itemCollisionEnabled) {
-            if (p1State == PLAYER_STATE_ALIVE) {
-                checkPlayerItemCollision(p1X, p1Y, 1);
-            }
-            if (p2State == PLAYER_STATE_ALIVE) {
-                checkPlayerItemCollision(p2X, p2Y, 2);
+    
+    private void pollSpectator() {
+        try {
+            SimSnapshot s = spectator.poll();
+            if (s == null) return;
+            String mapData = (spectator.getMapIndex() == 1) ? "mapData1.txt" : "mapData2.txt";
+            if (!mapData.equals(currentMapDataFile)) {
+                loadMap(spectator.getMapIndex() == 1 ? "Map1" : "Map2");
             }
+            sim.loadState(s);
+        } catch (IOException e) {
+            System.err.println("관전 수신 오류: " + e.getMessage());
         }
+    }
+    
+    /**
+     * 설정에 따라 2P 자리를 봇이 조작합니다 (네트워크 대전/관전 중에는 사용 안 함).
+     */
+    private void startBots() {
+        p2Bot = null;
+        if (GameSettings.p2Bot <= 0 || netSession != null || spectator != null) return;
         
-        // 4. 스프라이트 애니메이션 업데이트 (살아있을 때만)
-        if (p1State == PLAYER_STATE_ALIVE) {
-            updatePlayerAnimation(1);
-        }
-        if (p2State == PLAYER_STATE_ALIVE) {
-            updatePlayerAnimation(2);
-        }
-        
-        // 5. 폭탄 시스템 업데이트
-        updateBombSystem();
-        checkPlayerToPlayerCollision();
-        // 6. 게임 타이머 및 결과 판정
-        if (gameState == STATE_PLAYING) {
-            long currentTime = System.currentTimeMillis();
-            if (lastTimerUpdate == 0) {
-                lastTimerUpdate = currentTime;
-            }
-            
-            if (currentTime - lastTimerUpdate >= 1000) {
-                remainingTime--;
-                lastTimerUpdate = currentTime;
-            }
-            
-            if (remainingTime <= 0) {
-                gameState = STATE_DRAW;
-                resultDisplayTime = System.currentTimeMillis();
-            }
-            
-            // ⭐ 수정: Dead 상태 체크
-            if (p1State == PLAYER_STATE_DEAD && p2State != PLAYER_STATE_DEAD) {
-                gameState = STATE_P2_WIN;
-                resultDisplayTime = System.currentTimeMillis();
-            } else if (p2State == PLAYER_STATE_DEAD && p1State != PLAYER_STATE_DEAD) {
-                gameState = STATE_P1_WIN;
-                resultDisplayTime = System.currentTimeMillis();
-            } else if (p1State == PLAYER_STATE_DEAD && p2State == PLAYER_STATE_DEAD) {
-                gameState = STATE_DRAW;
-                resultDisplayTime = System.currentTimeMillis();
-            }
+        if (GameSettings.p2Bot == 2) {
+            p2Bot = new MctsBot(1, sim.getMatchSeed(), GameSettings.botRollouts, GameSettings.botThinkMs);
+            System.out.println("2P: 컴퓨터 (탐색 봇, 롤아웃 " + GameSettings.botRollouts + "개)");
         } else {
-            if (System.currentTimeMillis() - resultDisplayTime >= RESULT_DISPLAY_DURATION) {
-                stopGameLoop();
-                resetGame();
-                playLobbyBGM();
-                mainFrame.showPanel(CrazyArcade_UI.PANEL_LOBBY);
-            }
+            p2Bot = new BotPlayer(1);
+            System.out.println("2P: 컴퓨터");
         }
     }
     
-    
-    
-    
-    // ===== 폭탄 시스템 업데이트 =====
-    private void updateBombSystem() {
-        long currentTime = System.currentTimeMillis();
-        
-        // ⭐ 수정: 복사본 리스트 생성하여 안전하게 순회
-        List<WaterBalloon> p1ToExplode = new ArrayList<>();
-        List<WaterBalloon> p2ToExplode = new ArrayList<>();
-        
-        // 1P 폭탄 폭발 확인 (터질 물풍선만 수집)
-        for (WaterBalloon balloon : p1Balloons) {
-            if (currentTime >= balloon.getExplodeTime()) {
-                p1ToExplode.add(balloon);
-            }
-        }
-        
-        // 2P 폭탄 폭발 확인 (터질 물풍선만 수집)
-        for (WaterBalloon balloon : p2Balloons) {
-            if (currentTime >= balloon.getExplodeTime()) {
-                p2ToExplode.add(balloon);
-            }
-        }
-        
-        // ⭐ 실제 폭발 처리 (수집한 물풍선들을 한 번에 처리)
-        for (WaterBalloon balloon : p1ToExplode) {
-            // 연쇄 폭발로 이미 삭제되었을 수 있으므로 다시 확인
-            if (p1Balloons.contains(balloon)) {
-                p1Balloons.remove(balloon);
-                createExplosion(balloon.getRow(), balloon.getCol(), balloon.getRange());
-            }
-        }
-        
-        for (WaterBalloon balloon : p2ToExplode) {
-            // 연쇄 폭발로 이미 삭제되었을 수 있으므로 다시 확인
-            if (p2Balloons.contains(balloon)) {
-                p2Balloons.remove(balloon);
-                createExplosion(balloon.getRow(), balloon.getCol(), balloon.getRange());
-            }
-        }
-        
-        // 폭발 애니메이션 업데이트
-        for (int i = explosions.size() - 1; i >= 0; i--) {
-            if (i >= explosions.size()) continue;
-            Explosion explosion = explosions.get(i);
-            explosion.update(currentTime);
-            if (!explosion.isActive()) {
-                explosions.remove(i);
-            }
+    private void stopBots() {
+        if (p2Bot != null) {
+            System.out.println("2P 봇 통계: " + p2Bot.getStatsSummary());
+            p2Bot.close();
+            p2Bot = null;
         }
-        
-        // 플레이어가 폭발에 맞았는지 확인
-        checkExplosionCollision();
     }
     
-    private void createExplosion(int centerRow, int centerCol, int range) {
-        playSoundEffect("explosionBallon_less.wav");
-        long startTime = System.currentTimeMillis();
-        
-        // 중심 폭발
-        explosions.add(new Explosion(centerRow, centerCol, startTime, Explosion.ExplosionType.CENTER));
-        
-        // 중심 위치의 블록 파괴
-        if (tiles != null && centerRow >= 0 && centerRow < TILE_ROWS && centerCol >= 0 && centerCol < TILE_COLS) {
-            Tile centerTile = tiles[centerRow][centerCol];
-            if (centerTile != null && centerTile.isBreakable()) {
-                centerTile.breakBlock();
-            }
-        }
-        
-        // 4방향 폭발
-        int[][] directions = {{0, -1}, {0, 1}, {-1, 0}, {1, 0}};
-        List<int[]> chainExplosions = new ArrayList<>();
-        
-        for (int[] dir : directions) {
-            int dRow = dir[0];
-            int dCol = dir[1];
-            
-            Explosion.ExplosionType currentExplosionType;
-            if (dRow == -1) currentExplosionType = Explosion.ExplosionType.UP;
-            else if (dRow == 1) currentExplosionType = Explosion.ExplosionType.DOWN;
-            else if (dCol == -1) currentExplosionType = Explosion.ExplosionType.LEFT;
-            else currentExplosionType = Explosion.ExplosionType.RIGHT;
-            
-            for (int i = 1; i <= range; i++) {
-                int newRow = centerRow + dRow * i;
-                int newCol = centerCol + dCol * i;
-                
-                if (newRow < 0 || newRow >= TILE_ROWS || newCol < 0 || newCol >= TILE_COLS) {
-                    break;
-                }
-                
-                explosions.add(new Explosion(newRow, newCol, startTime, currentExplosionType));
-                
-                if (tiles != null) {
-                    Tile tile = tiles[newRow][newCol];
-                    if (tile != null) {
-                        int itemIndex = tile.getItemIndex();
-
-                        
-                        // 파괴 가능한 블록(3)에 막힘 → 파괴 후 전파 중단
-                        if (itemIndex == 3) {
-                            if (tile.isBreakable()) {
-                                tile.breakBlock();
-                            }
-                            break;
-                        }
-                        if (itemIndex >= 0 && itemIndex <= 2) {
-                            tile.breakBlock();
-                            //break;
-                        }
-                    }
-                }
-                
-                // 연쇄 폭발 확인
-                WaterBalloon hitBalloon = getBalloonAt(newRow, newCol);
-                if (hitBalloon != null) {
-                    chainExplosions.add(new int[]{newRow, newCol, hitBalloon.getRange()});
-                    break;
-                }
-            }
-        }
-        
-        // 연쇄 폭발 처리
-        for (int[] explosion : chainExplosions) {
-            // getBalloonAt으로 다시 확인해서 존재하는 경우에만 삭제
-            WaterBalloon balloon = getBalloonAt(explosion[0], explosion[1]);
-            if (balloon != null) {
-                removeBalloonAt(explosion[0], explosion[1]);
-                createExplosion(explosion[0], explosion[1], explosion[2]);
-            }
+    private void startGameLoop() {
+        if (gameTimer != null) {
+            gameTimer.stop();
         }
+        lastLoopNanos = System.nanoTime();
+        tickAccumulator = 0;
+        hitchRecorder.start();
+        gameTimer = new javax.swing.Timer(16, e -> {
+            long start = perfOverlay.begin();
+            long frame = hitchRecorder.beginFrame();
+            updateGame();
+            perfOverlay.endUpdate(start);
+            hitchRecorder.endFrame(frame, sim);
+            repaint();
+        });
+        gameTimer.start();
     }
     
-    private WaterBalloon getBalloonAt(int row, int col) {
-        for (WaterBalloon balloon : p1Balloons) {
-            if (balloon.getRow() == row && balloon.getCol() == col) {
-                return balloon;
-            }
-        }
-        for (WaterBalloon balloon : p2Balloons) {
-            if (balloon.getRow() == row && balloon.getCol() == col) {
-                return balloon;
-            }
+    private void stopGameLoop() {
+        if (gameTimer != null) {
+            gameTimer.stop();
         }
-        return null;
+        hitchRecorder.stop();
+        saveRecording();
+        deleteAutoSave();
+        closeNetworkSession();
+        closeSpectator();
+        stopBots();
+        playback = null;
     }
     
-    private void removeBalloonAt(int row, int col) {
-        for (int i = p1Balloons.size() - 1; i >= 0; i--) {
-            if (i >= p1Balloons.size()) continue;
-            WaterBalloon balloon = p1Balloons.get(i);
-            if (balloon.getRow() == row && balloon.getCol() == col) {
-                p1Balloons.remove(i);
-                return;
-            }
+    /**
+     * 흐른 시간만큼 시뮬레이션 틱을 진행합니다.
+     * Swing Timer 주기가 흔들려도 게임 속도는 TICK_MS 기준으로 유지됩니다.
+     * 네트워크 대전 중에는 상대와 틱을 맞추기 위해 세션이 정한 틱 길이를 씁니다.
+     */
+    private void updateGame() {
+        if (spectator != null) {
+            pollSpectator(); // 관전 중에는 서버 상태를 그대로 표시
+            return;
         }
-        for (int i = p2Balloons.size() - 1; i >= 0; i--) {
-            if (i >= p2Balloons.size()) continue;
-            WaterBalloon balloon = p2Balloons.get(i);
-            if (balloon.getRow() == row && balloon.getCol() == col) {
-                p2Balloons.remove(i);
-                return;
-            }
+        if (playback != null) {
+            // 리플레이는 끝나도 로비로 돌아가지 않고 멈춤 (ESC로 나감)
+            long now = System.nanoTime();
+            playback.advance(now - lastLoopNanos);
+            lastLoopNanos = now;
+            return;
         }
-    }
-    
-    private void checkExplosionCollision() {
-        if (p1State == PLAYER_STATE_DEAD && p2State == PLAYER_STATE_DEAD) return;
         
-        long currentTime = System.currentTimeMillis();
+        long now = System.nanoTime();
+        tickAccumulator += now - lastLoopNanos;
+        lastLoopNanos = now;
         
-        for (Explosion exp : explosions) {
-            int expRow = exp.getRow();
-            int expCol = exp.getCol();
+        long tickNanos = (netSession != null) ? netSession.getTickNanos() : TICK_NANOS;
+        int steps = 0;
+        while (tickAccumulator >= tickNanos && steps < MAX_TICKS_PER_FRAME) {
+            tickAccumulator -= tickNanos;
+            steps++;
             
-            // 1P 충돌 확인
-            if (p1State == PLAYER_STATE_ALIVE) {
-                int p1TileRow = getTileRow(p1Y + PLAYER_SIZE / 2);
-                int p1TileCol = getTileCol(p1X + PLAYER_SIZE / 2);
-                
-                if (p1TileRow == expRow && p1TileCol == expCol) {
-                    // ⭐ Trapped 상태로 전환
-                    p1State = PLAYER_STATE_TRAPPED;
-                    p1Trapped = true;
-                    p1TrappedStartTime = currentTime;
-                    System.out.println("1P Trapped!");
-                }
-            }
-            
-            // 2P 충돌 확인
-            if (p2State == PLAYER_STATE_ALIVE) {
-                int p2TileRow = getTileRow(p2Y + PLAYER_SIZE / 2);
-                int p2TileCol = getTileCol(p2X + PLAYER_SIZE / 2);
-                
-                if (p2TileRow == expRow && p2TileCol == expCol) {
-                    // ⭐ Trapped 상태로 전환
-                    p2State = PLAYER_STATE_TRAPPED;
-                    p2Trapped = true;
-                    p2TrappedStartTime = currentTime;
-                    System.out.println("2P Trapped!");
+            GameEvents.Tick event = new GameEvents.Tick();
+            event.begin();
+            if (netSession != null) {
+                int input = buildInput(1);
+                if (!netSession.advance(input)) {
+                    // 상대 입력 대기 중: 이번 입력은 반영되지 않았으므로 물풍선은 다음 틱에 다시 보냄
+                    if ((input & GameSimulation.INPUT_BOMB) != 0) {
+                        p1BombQueued = true;
+                    }
+                    tickAccumulator = 0;
+                    break;
                 }
+            } else {
+                sim.updateGame(buildInput(1), buildInput(2));
             }
-        }
-        
-        // ⭐ Trapped 상태 체크 (6초 경과 시 Die 애니메이션 시작)
-        if (p1State == PLAYER_STATE_TRAPPED) {
-            if (currentTime - p1TrappedStartTime >= TRAPPED_DURATION) {
-                p1State = PLAYER_STATE_DYING;
-                p1DieStartTime = currentTime;
-                System.out.println("1P Dying...");
-            }
-        }
-        
-        if (p2State == PLAYER_STATE_TRAPPED) {
-            if (currentTime - p2TrappedStartTime >= TRAPPED_DURATION) {
-                p2State = PLAYER_STATE_DYING;
-                p2DieStartTime = currentTime;
-                System.out.println("2P Dying...");
+            if (event.shouldCommit()) {
+                event.tick = sim.getTick();
+                event.balloons = sim.getBalloonCount();
+                event.network = netSession != null;
+                event.commit();
             }
-        }
-        
-        // ⭐ Dying 상태 체크 (1초 경과 시 Dead 상태로 전환)
-        if (p1State == PLAYER_STATE_DYING) {
-            if (currentTime - p1DieStartTime >= DIE_ANIMATION_DURATION) {
-                p1State = PLAYER_STATE_DEAD;
-                p1Alive = false;
-                System.out.println("1P Dead!");
-            }
-        }
-        
-        if (p2State == PLAYER_STATE_DYING) {
-            if (currentTime - p2DieStartTime >= DIE_ANIMATION_DURATION) {
-                p2State = PLAYER_STATE_DEAD;
-                p2Alive = false;
-                System.out.println("2P Dead!");
+            
+            if (checkGameResult()) {
+                return;
             }
         }
+        if (steps == MAX_TICKS_PER_FRAME) {
+            tickAccumulator = 0;
+        }
+        
+        // 자동 저장 (PC가 꺼져도 이어 할 수 있도록)
+        if (GameSettings.autoSaveSeconds > 0 && netSession == null
+                && sim.getTick() - lastAutoSaveTick >= GameSimulation.msToTicks(GameSettings.autoSaveSeconds * 1000)) {
+            lastAutoSaveTick = sim.getTick();
+            writeSaveAsync(QuickSave.file(QuickSave.AUTO_SAVE));
+        }
     }
     
-    private int getTileRow(int pixelY) {
-        return (pixelY - MAP_Y) / tileHeight;
-    }
-    
-    private int getTileCol(int pixelX) {
-        return (pixelX - MAP_X) / tileWidth;
-    }
-    
-    private void updatePlayerAnimation(int player) {
+    /**
+     * 현재 키 상태를 틱 입력 비트마스크로 변환 (물풍선 설치 요청은 한 번만 전달)
+     */
+    private int buildInput(int player) {
+        int input;
         if (player == 1) {
-            if (p1UpPressed || p1DownPressed || p1LeftPressed || p1RightPressed) {
-                p1FrameCounter++;
-                if (p1FrameCounter >= animationSpeed) {
-                    p1FrameCounter = 0;
-                    p1SpriteCol = (p1SpriteCol + 1) % 8;
-                }
-            }
+            input = toDirection(p1LastKey, GameSettings.p1_Up, GameSettings.p1_Down,
+                GameSettings.p1_Left, GameSettings.p1_Right);
+            if (p1BombQueued) {
+                input |= GameSimulation.INPUT_BOMB;
+                p1BombQueued = false;
+            }
+        } else if (p2Bot != null) {
+            input = p2Bot.nextInput(sim);
         } else {
-            if (p2UpPressed || p2DownPressed || p2LeftPressed || p2RightPressed) {
-                p2FrameCounter++;
-                if (p2FrameCounter >= animationSpeed) {
-                    p2FrameCounter = 0;
-                    p2SpriteCol = (p2SpriteCol + 1) % 8;
-                }
+            input = toDirection(p2LastKey, GameSettings.p2_Up, GameSettings.p2_Down,
+                GameSettings.p2_Left, GameSettings.p2_Right);
+            if (p2BombQueued) {
+                input |= GameSimulation.INPUT_BOMB;
+                p2BombQueued = false;
             }
         }
+        return input;
     }
     
-    private void resetGame() {
-        gameState = STATE_PLAYING;
-        remainingTime = GAME_TIME;
-        lastTimerUpdate = 0;
-        
-        p1Alive = true;
-        p2Alive = true;
-        p1Trapped = false;
-        p2Trapped = false;
-        
-        // ⭐ 상태 초기화
-        p1State = PLAYER_STATE_ALIVE;
-        p2State = PLAYER_STATE_ALIVE;
-        p1TrappedStartTime = 0;
-        p2TrappedStartTime = 0;
-        p1DieStartTime = 0;
-        p2DieStartTime = 0;
-        
-        initPlayerPositions();
-        p1SpriteRow = 3;
-        p1SpriteCol = 0;
-        p2SpriteRow = 3;
-        p2SpriteCol = 0;
-        p1FrameCounter = 0;
-        p2FrameCounter = 0;
-        
-        initCharacterStats();
-        loadTilesFromFile();
-        
-        p1Balloons.clear();
-        p2Balloons.clear();
-        explosions.clear();
+    private int toDirection(Integer lastKey, int up, int down, int left, int right) {
+        if (lastKey == null) return GameSimulation.DIR_NONE;
+        if (lastKey == up) return GameSimulation.DIR_UP;
+        if (lastKey == down) return GameSimulation.DIR_DOWN;
+        if (lastKey == left) return GameSimulation.DIR_LEFT;
+        if (lastKey == right) return GameSimulation.DIR_RIGHT;
+        return GameSimulation.DIR_NONE;
+    }
+    
+    /**
+     * 결과 화면을 일정 시간 보여준 뒤 로비로 돌아갑니다.
+     * 
+     * @return 로비로 돌아갔으면 true
+     */
+    private boolean checkGameResult() {
+        if (sim.getGameState() == STATE_PLAYING) return false;
+        if (sim.getTick() - sim.getEndTick() < RESULT_DISPLAY_TICKS) return false;
         
+        stopGameLoop();
+        resetGame();
+        playLobbyBGM();
+        mainFrame.showPanel(CrazyArcade_UI.PANEL_LOBBY);
+        return true;
+    }
+    
+    private void resetGame() {
+        sim.setCharacters(p1CharacterName, p2CharacterName);
+        sim.resetGame();
+        lastAutoSaveTick = 0;
         System.out.println("게임 초기화 완료");
     }
     
-    private boolean isCollidingWithBlock(int x, int y, int size) {
-        if (tiles == null) return false;
-        
-        int[][] corners = {
-            {x + 5, y + 5},
-            {x + size - 5, y + 5},
-            {x + 5, y + size - 5},
-            {x + size - 5, y + size - 5}
-        };
-        
-        for (int[] corner : corners) {
-            int col = (corner[0] - MAP_X) / tileWidth;
-            int row = (corner[1] - MAP_Y) / tileHeight;
-            
-            if (row < 0 || row >= TILE_ROWS || col < 0 || col >= TILE_COLS) continue;
-            
-            Tile tile = tiles[row][col];
-            if (tile != null) {
-                int itemIndex = tile.getItemIndex();
-                if (itemIndex == 3) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private void clearInputState() {
+        p1UpPressed = p1DownPressed = p1LeftPressed = p1RightPressed = false;
+        p2UpPressed = p2DownPressed = p2LeftPressed = p2RightPressed = false;
+        p1LastKey = null;
+        p2LastKey = null;
+        p1BombQueued = false;
+        p2BombQueued = false;
     }
     
     private void handleKeyPressed(KeyEvent e) {
@@ -1127,127 +1017,65 @@ public class GamePanelPlaceholder extends JPanel {
             mainFrame.showPanel(CrazyArcade_UI.PANEL_LOBBY);
             return;
         }
+        if (key == KeyEvent.VK_F3) {
+            perfOverlay.toggle(); // 성능 표시 (관전/리플레이 중에도)
+            return;
+        }
+        
+        if (spectator != null) return; // 관전 중에는 조작 불가
+        if (playback != null) {
+            handleReplayKey(key);
+            return;
+        }
+        if (key == KeyEvent.VK_F5 || key == KeyEvent.VK_F9) {
+            handleQuickSaveKey(key);
+            return;
+        }
         
-        // 1P 조작
+        // 1P 조작 (방향 전환 시 스프라이트 변경은 GameSimulation에서 처리)
         if (key == GameSettings.p1_Up) {
-            if (!p1UpPressed) {
-                p1SpriteRow = 1;
-                p1SpriteCol = 0;
-                p1FrameCounter = 0;
-            }
             p1LastKey = key;
             p1UpPressed = true;
         }
         if (key == GameSettings.p1_Down) {
-            if (!p1DownPressed) {
-                p1SpriteRow = 3;
-                p1SpriteCol = 0;
-                p1FrameCounter = 0;
-            }
             p1LastKey = key;
             p1DownPressed = true;
         }
         if (key == GameSettings.p1_Left) {
-            if (!p1LeftPressed) {
-                p1SpriteRow = 0;
-                p1SpriteCol = 0;
-                p1FrameCounter = 0;
-            }
             p1LastKey = key;
             p1LeftPressed = true;
         }
         if (key == GameSettings.p1_Right) {
-            if (!p1RightPressed) {
-                p1SpriteRow = 2;
-                p1SpriteCol = 0;
-                p1FrameCounter = 0;
-            }
             p1LastKey = key;
             p1RightPressed = true;
         }
         
-        // 1P 폭탄 설치
+        // 1P 폭탄 설치 (다음 틱에 반영)
         if (key == GameSettings.p1_Bomb) {
-            placeWaterBalloon(1);
+            p1BombQueued = true;
         }
         
         // 2P 조작
         if (key == GameSettings.p2_Up) {
-            if (!p2UpPressed) {
-                p2SpriteRow = 1;
-                p2SpriteCol = 0;
-                p2FrameCounter = 0;
-            }
             p2LastKey = key;
             p2UpPressed = true;
         }
         if (key == GameSettings.p2_Down) {
-            if (!p2DownPressed) {
-                p2SpriteRow = 3;
-                p2SpriteCol = 0;
-                p2FrameCounter = 0;
-            }
             p2LastKey = key;
             p2DownPressed = true;
         }
         if (key == GameSettings.p2_Left) {
-            if (!p2LeftPressed) {
-                p2SpriteRow = 0;
-                p2SpriteCol = 0;
-                p2FrameCounter = 0;
-            }
             p2LastKey = key;
             p2LeftPressed = true;
         }
         if (key == GameSettings.p2_Right) {
-            if (!p2RightPressed) {
-                p2SpriteRow = 2;
-                p2SpriteCol = 0;
-                p2FrameCounter = 0;
-            }
             p2LastKey = key;
             p2RightPressed = true;
         }
         
         // 2P 폭탄 설치
         if (key == GameSettings.p2_Bomb) {
-            placeWaterBalloon(2);
-        }
-    }
-    
-    // 물풍선 설치
-    private void placeWaterBalloon(int player) {
-        if (player == 1) {
-            if (p1State != PLAYER_STATE_ALIVE) return;
-            if (p1Balloons.size() >= p1BombCount) return;
-            
-            int p1TileRow = getTileRow(p1Y + PLAYER_SIZE / 2);
-            int p1TileCol = getTileCol(p1X + PLAYER_SIZE / 2);
-            
-            // 이미 폭탄이 있는지 확인
-            if (getBalloonAt(p1TileRow, p1TileCol) != null) return;
-            
-            long explodeTime = System.currentTimeMillis() + BALLOON_DELAY_MS;
-            WaterBalloon newBalloon = new WaterBalloon(p1TileRow, p1TileCol, explodeTime, p1BombRange, 1, p1X, p1Y);
-            p1Balloons.add(newBalloon);
-            playSoundEffect("installationBallon.wav");
-            System.out.println("1P 물풍선 설치: (" + p1TileRow + ", " + p1TileCol + ")");
-            
-        } else if (player == 2) {
-            if (p2State != PLAYER_STATE_ALIVE) return;
-            if (p2Balloons.size() >= p2BombCount) return;
-            
-            int p2TileRow = getTileRow(p2Y + PLAYER_SIZE / 2);
-            int p2TileCol = getTileCol(p2X + PLAYER_SIZE / 2);
-            
-            // 이미 폭탄이 있는지 확인
-            if (getBalloonAt(p2TileRow, p2TileCol) != null) return;
-            
-            long explodeTime = System.currentTimeMillis() + BALLOON_DELAY_MS;
-            WaterBalloon newBalloon = new WaterBalloon(p2TileRow, p2TileCol, explodeTime, p2BombRange, 2, p2X, p2Y);
-            p2Balloons.add(newBalloon);
-            playSoundEffect("installationBallon.wav");
-            System.out.println("2P 물풍선 설치: (" + p2TileRow + ", " + p2TileCol + ")");
+            p2BombQueued = true;
         }
     }
     
@@ -1291,10 +1119,17 @@ public class GamePanelPlaceholder extends JPanel {
     
     private void initMapSystem() {
         try {
+            long t = StartupProfiler.begin();
             gameMap = new Map("map2.png");
+            StartupProfiler.end("mapImage", t);
             currentMapDataFile = "mapData2.txt";
+            t = StartupProfiler.begin();
             SpriteStore.init();
+            StartupProfiler.end("SpriteStore.init", t);
+            t = StartupProfiler.begin();
             loadTilesFromFile();
+            StartupProfiler.end("mapData", t);
+            resetGame();
             System.out.println("맵 시스템 초기화 완료");
         } catch (Exception e) {
             System.err.println("맵 초기화 실패: " + e.getMessage());
@@ -1303,53 +1138,7 @@ public class GamePanelPlaceholder extends JPanel {
     }
     
     private void loadTilesFromFile() {
-        try {
-            String path = System.getProperty("user.dir") + File.separator + currentMapDataFile;
-            int[][] data = new int[TILE_ROWS][TILE_COLS];
-            
-            BufferedReader br = new BufferedReader(new FileReader(path));
-            String line;
-            int row = 0;
-            
-            while ((line = br.readLine()) != null && row < TILE_ROWS) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                
-                // 공백 또는 쉼표로 구분 (유연하게 처리)
-                String[] parts = line.split("[,\\s]+");  // ← 수정: 쉼표와 공백 모두 처리
-                
-                for (int col = 0; col < TILE_COLS && col < parts.length; col++) {
-                    try {
-                        data[row][col] = Integer.parseInt(parts[col].trim());  // ← trim() 추가
-                    } catch (NumberFormatException e) {
-                        System.err.println("숫자 파싱 오류 - 행:" + row + ", 열:" + col + ", 값:'" + parts[col] + "'");
-                        data[row][col] = 0;  // 기본값 설정
-                    }
-                }
-                row++;
-            }
-            br.close();
-            
-            // 타일 객체 생성
-            tiles = new Tile[TILE_ROWS][TILE_COLS];
-            int cellWidth = MAP_WIDTH / TILE_COLS;
-            int cellHeight = MAP_HEIGHT / TILE_ROWS;
-            
-            for (int r = 0; r < TILE_ROWS; r++) {
-                for (int c = 0; c < TILE_COLS; c++) {
-                    int centerX = MAP_X + c * cellWidth + cellWidth / 2;
-                    int centerY = MAP_Y + r * cellHeight + cellHeight / 2;
-                    boolean isBreakable = (data[r][c] >= 0 && data[r][c] <= 3);
-                    tiles[r][c] = new Tile(centerX, centerY, data[r][c], isBreakable);
-                }
-            }
-            
-            System.out.println("타일 로드 완료: " + TILE_ROWS + "x" + TILE_COLS + " (파일: " + currentMapDataFile + ")");
-            
-        } catch (IOException e) {
-            System.err.println("맵 데이터 로드 실패 (" + currentMapDataFile + "): " + e.getMessage());
-            e.printStackTrace();
-        }
+        sim.loadTilesFromFile(currentMapDataFile);
     }
     
     private void loadResultImages() {
@@ -1358,12 +1147,12 @@ public class GamePanelPlaceholder extends JPanel {
             
             File winFile = new File(basePath + "win.bmp");
             if (winFile.exists()) {
-                winImg = makeTransparent(ImageIO.read(winFile));
+                winImg = makeTransparent(GameEvents.readImage(winFile));
             }
             
             File drawFile = new File(basePath + "draw.bmp");
             if (drawFile.exists()) {
-                drawImg = makeTransparent(ImageIO.read(drawFile));
+                drawImg = makeTransparent(GameEvents.readImage(drawFile));
             }
         } catch (IOException e) {
             System.err.println("결과 이미지 로드 실패: " + e.getMessage());
@@ -1388,19 +1177,70 @@ public class GamePanelPlaceholder extends JPanel {
         return result;
     }
     
+    
     @Override
     protected void paintComponent(Graphics g) {
+        long paintStart = perfOverlay.beginPaint();
+        long hitchPaintStart = hitchRecorder.beginPaint();
+        GameEvents.Paint event = new GameEvents.Paint();
+        event.begin();
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        // 배경 채우기
-        g2.setColor(new Color(50, 50, 50));
-        g2.fillRect(0, 0, getWidth(), getHeight());
-        
-        // 맵 그리기
-        drawGameMap(g2);
-        
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            paintLayer(g2, layer);
+        }
+        perfOverlay.endPaint(paintStart);
+        hitchRecorder.endPaint(hitchPaintStart);
+        if (event.shouldCommit()) {
+            event.tick = sim.getTick();
+            event.commit();
+        }
+        perfOverlay.draw(g2, sim, MAP_X + 8, MAP_Y + 44);
+    }
+    
+    /**
+     * 화면 한 층을 그립니다. paintComponent는 LAYER_MAP부터 순서대로 모두 그리고,
+     * 렌더링 벤치마크(RenderBenchmark)는 층마다 따로 불러 시간을 잽니다.
+     */
+    void paintLayer(Graphics2D g2, int layer) {
+        switch (layer) {
+            case LAYER_MAP:
+                // 배경 채우기
+                g2.setColor(new Color(50, 50, 50));
+                g2.fillRect(0, 0, getWidth(), getHeight());
+                // 배경 맵 그리기
+                if (gameMap != null) {
+                    gameMap.drawMap(g2, MAP_X, MAP_Y, MAP_WIDTH, MAP_HEIGHT);
+                }
+                break;
+            case LAYER_TILES:
+                drawTiles(g2);
+                // 물줄기 예정 칸 표시 (설정에서 켠 경우)
+                if (GameSettings.showDangerOverlay > 0) {
+                    drawDangerOverlay(g2);
+                }
+                break;
+            case LAYER_BALLOONS:
+                drawBalloons(g2);
+                break;
+            case LAYER_EXPLOSIONS:
+                drawExplosions(g2);
+                break;
+            case LAYER_PLAYERS:
+                drawPlayers(g2);
+                break;
+            case LAYER_HUD:
+                drawHud(g2);
+                break;
+        }
+    }
+    
+    /**
+     * 오른쪽 정보 패널과 결과/관전/리플레이 표시
+     */
+    private void drawHud(Graphics2D g2) {
         // ==========================================
         // ⭐ 수정: 프로필용 이미지 준비 (정면 모습 사용)
         // ==========================================
@@ -1434,18 +1274,53 @@ public class GamePanelPlaceholder extends JPanel {
         drawTimer(g2, RIGHT_PANEL_X, 495, RIGHT_PANEL_WIDTH, 40);
         drawExitButton(g2, RIGHT_PANEL_X, 540, RIGHT_PANEL_WIDTH, 45);
         
-        if (gameState != STATE_PLAYING) {
+        if (sim.getGameState() != STATE_PLAYING) {
             drawResultOverlay(g2);
         }
+        
+        if (spectator != null) {
+            g2.setColor(new Color(0, 0, 0, 150));
+            g2.fillRoundRect(MAP_X + 8, MAP_Y + 8, 110, 28, 10, 10);
+            g2.setColor(Color.WHITE);
+            g2.setFont(new Font("맑은 고딕", Font.BOLD, 14));
+            g2.drawString("관전 중 (방 " + GameSettings.spectateRoom + ")", MAP_X + 16, MAP_Y + 27);
+        }
+        
+        if (playback != null) {
+            drawReplayBar(g2);
+        }
     }
     
-    private void drawGameMap(Graphics2D g2) {
-        // 배경 맵 그리기
-        if (gameMap != null) {
-            gameMap.drawMap(g2, MAP_X, MAP_Y, MAP_WIDTH, MAP_HEIGHT);
-        }
+    /**
+     * 리플레이 진행 막대와 배속/시간 표시 (맵 아래쪽)
+     */
+    private void drawReplayBar(Graphics2D g2) {
+        int x = MAP_X + 8;
+        int y = MAP_Y + MAP_HEIGHT - 36;
+        int w = MAP_WIDTH - 16;
+        int h = 28;
+        g2.setColor(new Color(0, 0, 0, 150));
+        g2.fillRoundRect(x, y, w, h, 10, 10);
+        
+        int barX = x + 150;
+        int barW = w - 160;
+        double progress = playback.getTick() / (double) Math.max(1, playback.getLastTick());
+        g2.setColor(new Color(255, 255, 255, 80));
+        g2.fillRect(barX, y + 12, barW, 4);
+        g2.setColor(new Color(255, 200, 0));
+        g2.fillRect(barX, y + 12, (int) (barW * progress), 4);
         
-        // 타일 그리기
+        int seconds = playback.getTick() * GameSimulation.TICK_MS / 1000;
+        String speed = playback.getSpeed() >= 1 ? String.format("%.0f", playback.getSpeed())
+            : String.format("%.2f", playback.getSpeed());
+        g2.setColor(Color.WHITE);
+        g2.setFont(new Font("맑은 고딕", Font.BOLD, 13));
+        g2.drawString((playback.isPaused() ? "⏸ " : "▶ ") + String.format("%d:%02d", seconds / 60, seconds % 60)
+            + "  x" + speed, x + 10, y + 19);
+    }
+    
+    private void drawTiles(Graphics2D g2) {
+        Tile[][] tiles = sim.getTiles();
         if (tiles != null) {
             for (int r = 0; r < TILE_ROWS; r++) {
                 for (int c = 0; c < TILE_COLS; c++) {
@@ -1455,55 +1330,43 @@ public class GamePanelPlaceholder extends JPanel {
                 }
             }
         }
-        
-        // 물풍선 그리기
-        drawBalloons(g2);
-        
-        // 폭발 그리기
-        drawExplosions(g2);
-        
-        // 플레이어 그리기
-        drawPlayers(g2);
     }
     
-    private void drawBalloons(Graphics2D g2) {
-        long currentTime = System.currentTimeMillis();
-        
-        // 1P 물풍선 그리기
-        for (WaterBalloon balloon : p1Balloons) {
-            int tileX = MAP_X + balloon.getCol() * tileWidth;
-            int tileY = MAP_Y + balloon.getRow() * tileHeight;
-            int centerX = tileX + tileWidth / 2;
-            int centerY = tileY + tileHeight / 2;
-            
-            int drawX = centerX - BALLOON_DRAW_SIZE / 2;
-            int drawY = centerY - BALLOON_DRAW_SIZE / 2;
-            
-            int frameIndex = balloon.getCurrentFrameIndex() % BALLOON_FRAME_COUNT;
-            int srcX = frameIndex * BALLOON_FRAME_WIDTH;
-            
-            if (waterBalloonSpriteSheet != null) {
-                g2.drawImage(waterBalloonSpriteSheet,
-                    drawX, drawY, drawX + BALLOON_DRAW_SIZE, drawY + BALLOON_DRAW_SIZE,
-                    srcX, 0, srcX + BALLOON_FRAME_WIDTH, waterBalloonSpriteSheet.getHeight(),
-                    null);
-            } else {
-                g2.setColor(new Color(0, 191, 255));
-                g2.fillOval(drawX, drawY, BALLOON_DRAW_SIZE, BALLOON_DRAW_SIZE);
+    /**
+     * 물줄기가 닿을 칸을 붉게 칠합니다. 터질 때가 가까울수록 진하게 표시합니다.
+     */
+    private void drawDangerOverlay(Graphics2D g2) {
+        DangerMap danger = sim.getDangerMap();
+        int now = sim.getTick();
+        for (int row = 0; row < TILE_ROWS; row++) {
+            for (int col = 0; col < TILE_COLS; col++) {
+                int blastTick = danger.getBlastTick(row * TILE_COLS + col, now);
+                if (blastTick == DangerMap.SAFE) continue;
+                
+                int remaining = Math.max(0, blastTick - now);
+                int alpha = 140 - 100 * Math.min(remaining, GameSimulation.BALLOON_DELAY_TICKS)
+                    / GameSimulation.BALLOON_DELAY_TICKS;
+                g2.setColor(new Color(255, 40, 40, alpha));
+                g2.fillRect(MAP_X + col * tileWidth, MAP_Y + row * tileHeight, tileWidth, tileHeight);
             }
         }
+    }
+    
+    private void drawBalloons(Graphics2D g2) {
+        int currentTick = sim.getTick();
         
-        // 2P 물풍선 그리기
-        for (WaterBalloon balloon : p2Balloons) {
-            int tileX = MAP_X + balloon.getCol() * tileWidth;
-            int tileY = MAP_Y + balloon.getRow() * tileHeight;
+        for (int i = 0; i < sim.getBalloonCount(); i++) {
+            int tileX = MAP_X + sim.getBalloonCol(i) * tileWidth;
+            int tileY = MAP_Y + sim.getBalloonRow(i) * tileHeight;
             int centerX = tileX + tileWidth / 2;
             int centerY = tileY + tileHeight / 2;
             
             int drawX = centerX - BALLOON_DRAW_SIZE / 2;
             int drawY = centerY - BALLOON_DRAW_SIZE / 2;
             
-            int frameIndex = balloon.getCurrentFrameIndex() % BALLOON_FRAME_COUNT;
+            // 설치 후 1초 주기로 애니메이션 반복
+            long elapsedMs = (long) (currentTick - sim.getBalloonPlaceTick(i)) * GameSimulation.TICK_MS;
+            int frameIndex = (int) ((elapsedMs % 1000) * BALLOON_FRAME_COUNT / 1000) % BALLOON_FRAME_COUNT;
             int srcX = frameIndex * BALLOON_FRAME_WIDTH;
             
             if (waterBalloonSpriteSheet != null) {
@@ -1519,166 +1382,118 @@ public class GamePanelPlaceholder extends JPanel {
     }
     
     private void drawExplosions(Graphics2D g2) {
-        long currentTime = System.currentTimeMillis();
-        
-        for (Explosion explosion : explosions) {
-            int tileX = MAP_X + explosion.getCol() * tileWidth;
-            int tileY = MAP_Y + explosion.getRow() * tileHeight;
-            
-            BufferedImage currentImage = null;
-            switch (explosion.getType()) {
-                case CENTER:
-                    currentImage = explosionCenterImage;
-                    break;
-                case UP:
-                    currentImage = explosionUpImage;
-                    break;
-                case DOWN:
-                    currentImage = explosionDownImage;
-                    break;
-                case LEFT:
-                    currentImage = explosionLeftImage;
-                    break;
-                case RIGHT:
-                    currentImage = explosionRightImage;
-                    break;
-            }
-            
-            if (currentImage != null) {
-                int frameIndex = explosion.getCurrentFrameIndex(currentTime);
-                int srcX = frameIndex * EXP_FRAME_WIDTH;
-                
-                g2.drawImage(currentImage,
-                    tileX, tileY, tileX + tileWidth, tileY + tileHeight,
-                    srcX, 0, srcX + EXP_FRAME_WIDTH, currentImage.getHeight(),
-                    null);
-            } else {
-                g2.setColor(Color.RED);
-                g2.fillRect(tileX, tileY, tileWidth, tileHeight);
-            }
-        }
-    }
-    
-    private void drawPlayers(Graphics2D g2) {
-        long currentTime = System.currentTimeMillis();
+        int currentTick = sim.getTick();
         
-        // ===== 1P 그리기 =====
-        if (p1State != PLAYER_STATE_DEAD) {
-            BufferedImage p1Frame = null;
-            int drawWidth = p1SpriteWidth;
-            int drawHeight = p1SpriteHeight;
-            
-            if (p1State == PLAYER_STATE_ALIVE) {
-                // 일반 상태
-                if (p1Sprites != null && p1SpriteRow < SPRITE_ROWS && p1SpriteCol < SPRITE_COLS
-                        && p1Sprites[p1SpriteRow] != null && p1Sprites[p1SpriteRow][p1SpriteCol] != null) {
-                    p1Frame = p1Sprites[p1SpriteRow][p1SpriteCol];
-                }
-            } else if (p1State == PLAYER_STATE_TRAPPED && trappedSprites != null) {
-                // ⭐ Trapped 상태 (애니메이션)
-                long elapsed = currentTime - p1TrappedStartTime;
-                int frameIndex = (int)((elapsed % 1000) * TRAPPED_SPRITE_COLS / 1000); // 1초당 8프레임
+        for (int row = 0; row < TILE_ROWS; row++) {
+            for (int col = 0; col < TILE_COLS; col++) {
+                if (!sim.isBlastActive(row, col)) continue;
                 
-                // 1행: 배찌, 2행: 디지니
-                int row = "배찌".equals(p1CharacterName) ? 0 : 1;
+                int tileX = MAP_X + col * tileWidth;
+                int tileY = MAP_Y + row * tileHeight;
                 
-                if (row < TRAPPED_SPRITE_ROWS && frameIndex < TRAPPED_SPRITE_COLS) {
-                    p1Frame = trappedSprites[row][frameIndex];
-                    drawWidth = p1Frame.getWidth();
-                    drawHeight = p1Frame.getHeight();
+                BufferedImage currentImage = null;
+                switch (sim.getBlastType(row, col)) {
+                    case GameSimulation.BLAST_CENTER:
+                        currentImage = explosionCenterImage;
+                        break;
+                    case GameSimulation.BLAST_UP:
+                        currentImage = explosionUpImage;
+                        break;
+                    case GameSimulation.BLAST_DOWN:
+                        currentImage = explosionDownImage;
+                        break;
+                    case GameSimulation.BLAST_LEFT:
+                        currentImage = explosionLeftImage;
+                        break;
+                    case GameSimulation.BLAST_RIGHT:
+                        currentImage = explosionRightImage;
+                        break;
                 }
-            } else if (p1State == PLAYER_STATE_DYING && dieSprites != null) {
-                // ⭐ Die 애니메이션
-                long elapsed = currentTime - p1DieStartTime;
-                int frameIndex = (int)((elapsed % DIE_ANIMATION_DURATION) * DIE_SPRITE_COLS / DIE_ANIMATION_DURATION);
                 
-                // 1행: RedBazzi, 2행: BlueBazzi, 3행: RedDizni, 4행: BlueDizni
-                int row;
-                if ("배찌".equals(p1CharacterName)) {
-                    row = 0; // RedBazzi (1P는 항상 Red)
+                if (currentImage != null) {
+                    long elapsedMs = (long) (currentTick - sim.getBlastStartTick(row, col)) * GameSimulation.TICK_MS;
+                    int frameIndex = (int) Math.min(elapsedMs / EXP_FRAME_DURATION_MS, EXP_FRAME_COUNT - 1);
+                    int srcX = frameIndex * EXP_FRAME_WIDTH;
+                    
+                    g2.drawImage(currentImage,
+                        tileX, tileY, tileX + tileWidth, tileY + tileHeight,
+                        srcX, 0, srcX + EXP_FRAME_WIDTH, currentImage.getHeight(),
+                        null);
                 } else {
-                    row = 2; // RedDizni
-                }
-                
-                if (row < DIE_SPRITE_ROWS && frameIndex < DIE_SPRITE_COLS) {
-                    p1Frame = dieSprites[row][frameIndex];
-                    drawWidth = p1Frame.getWidth();
-                    drawHeight = p1Frame.getHeight();
+                    g2.setColor(Color.RED);
+                    g2.fillRect(tileX, tileY, tileWidth, tileHeight);
                 }
             }
-            
-            if (p1Frame != null) {
-                int drawX = p1X - (drawWidth - PLAYER_SIZE) / 2;
-                int drawY = p1Y - (drawHeight - PLAYER_SIZE);
-                g2.drawImage(p1Frame, drawX, drawY, drawWidth, drawHeight, null);
-            } else {
-                // 기본 사각형
-                g2.setColor(Color.RED);
-                g2.fillRect(p1X, p1Y, PLAYER_SIZE, PLAYER_SIZE);
-                g2.setColor(Color.WHITE);
-                g2.setFont(new Font("Arial", Font.BOLD, 12));
-                g2.drawString("1P", p1X + 12, p1Y + 25);
-            }
         }
+    }
+    
+    private void drawPlayers(Graphics2D g2) {
+        // ===== 1P 그리기 (1P는 항상 Red) =====
+        drawPlayer(g2, 0, p1Sprites, p1SpriteWidth, p1SpriteHeight, p1CharacterName, Color.RED, "1P");
         
-        // ===== 2P 그리기 =====
-        if (p2State != PLAYER_STATE_DEAD) {
-            BufferedImage p2Frame = null;
-            int drawWidth = p2SpriteWidth;
-            int drawHeight = p2SpriteHeight;
-            
-            if (p2State == PLAYER_STATE_ALIVE) {
-                // 일반 상태
-                if (p2Sprites != null && p2SpriteRow < SPRITE_ROWS && p2SpriteCol < SPRITE_COLS
-                        && p2Sprites[p2SpriteRow] != null && p2Sprites[p2SpriteRow][p2SpriteCol] != null) {
-                    p2Frame = p2Sprites[p2SpriteRow][p2SpriteCol];
-                }
-            } else if (p2State == PLAYER_STATE_TRAPPED && trappedSprites != null) {
-                // ⭐ Trapped 상태 (애니메이션)
-                long elapsed = currentTime - p2TrappedStartTime;
-                int frameIndex = (int)((elapsed % 1000) * TRAPPED_SPRITE_COLS / 1000);
-                
-                // 1행: 배찌, 2행: 디지니
-                int row = "배찌".equals(p2CharacterName) ? 0 : 1;
-                
-                if (row < TRAPPED_SPRITE_ROWS && frameIndex < TRAPPED_SPRITE_COLS) {
-                    p2Frame = trappedSprites[row][frameIndex];
-                    drawWidth = p2Frame.getWidth();
-                    drawHeight = p2Frame.getHeight();
-                }
-            } else if (p2State == PLAYER_STATE_DYING && dieSprites != null) {
-                // ⭐ Die 애니메이션
-                long elapsed = currentTime - p2DieStartTime;
-                int frameIndex = (int)((elapsed % DIE_ANIMATION_DURATION) * DIE_SPRITE_COLS / DIE_ANIMATION_DURATION);
-                
-                // 1행: RedBazzi, 2행: BlueBazzi, 3행: RedDizni, 4행: BlueDizni
-                int row;
-                if ("배찌".equals(p2CharacterName)) {
-                    row = 1; // BlueBazzi (2P는 항상 Blue)
-                } else {
-                    row = 3; // BlueDizni
-                }
-                
-                if (row < DIE_SPRITE_ROWS && frameIndex < DIE_SPRITE_COLS) {
-                    p2Frame = dieSprites[row][frameIndex];
-                    drawWidth = p2Frame.getWidth();
-                    drawHeight = p2Frame.getHeight();
-                }
+        // ===== 2P 그리기 (2P는 항상 Blue) =====
+        drawPlayer(g2, 1, p2Sprites, p2SpriteWidth, p2SpriteHeight, p2CharacterName, Color.BLUE, "2P");
+    }
+    
+    private void drawPlayer(Graphics2D g2, int p, BufferedImage[][] sprites, int spriteWidth, int spriteHeight,
+            String characterName, Color fallbackColor, String label) {
+        int state = sim.getPlayerState(p);
+        if (state == PLAYER_STATE_DEAD) return;
+        
+        int x = sim.getPlayerX(p);
+        int y = sim.getPlayerY(p);
+        long elapsed = (long) (sim.getTick() - sim.getStateStartTick(p)) * GameSimulation.TICK_MS;
+        
+        BufferedImage frame = null;
+        int drawWidth = spriteWidth;
+        int drawHeight = spriteHeight;
+        
+        if (state == PLAYER_STATE_ALIVE) {
+            // 일반 상태
+            int spriteRow = sim.getSpriteRow(p);
+            int spriteCol = sim.getSpriteCol(p);
+            if (sprites != null && spriteRow < SPRITE_ROWS && spriteCol < SPRITE_COLS
+                    && sprites[spriteRow] != null && sprites[spriteRow][spriteCol] != null) {
+                frame = sprites[spriteRow][spriteCol];
             }
+        } else if (state == PLAYER_STATE_TRAPPED && trappedSprites != null) {
+            // ⭐ Trapped 상태 (애니메이션)
+            int frameIndex = (int)((elapsed % 1000) * TRAPPED_SPRITE_COLS / 1000);
             
-            if (p2Frame != null) {
-                int drawX = p2X - (drawWidth - PLAYER_SIZE) / 2;
-                int drawY = p2Y - (drawHeight - PLAYER_SIZE);
-                g2.drawImage(p2Frame, drawX, drawY, drawWidth, drawHeight, null);
-            } else {
-                // 기본 사각형
-                g2.setColor(Color.BLUE);
-                g2.fillRect(p2X, p2Y, PLAYER_SIZE, PLAYER_SIZE);
-                g2.setColor(Color.WHITE);
-                g2.setFont(new Font("Arial", Font.BOLD, 12));
-                g2.drawString("2P", p2X + 12, p2Y + 25);
+            // 1행: 배찌, 2행: 디지니
+            int row = "배찌".equals(characterName) ? 0 : 1;
+            
+            if (row < TRAPPED_SPRITE_ROWS && frameIndex < TRAPPED_SPRITE_COLS) {
+                frame = trappedSprites[row][frameIndex];
+                drawWidth = frame.getWidth();
+                drawHeight = frame.getHeight();
+            }
+        } else if (state == PLAYER_STATE_DYING && dieSprites != null) {
+            // ⭐ Die 애니메이션
+            int frameIndex = (int)((elapsed % DIE_ANIMATION_DURATION) * DIE_SPRITE_COLS / DIE_ANIMATION_DURATION);
+            
+            // 1행: RedBazzi, 2행: BlueBazzi, 3행: RedDizni, 4행: BlueDizni
+            int row = ("배찌".equals(characterName) ? 0 : 2) + p;
+            
+            if (row < DIE_SPRITE_ROWS && frameIndex < DIE_SPRITE_COLS) {
+                frame = dieSprites[row][frameIndex];
+                drawWidth = frame.getWidth();
+                drawHeight = frame.getHeight();
             }
         }
+        
+        if (frame != null) {
+            int drawX = x - (drawWidth - PLAYER_SIZE) / 2;
+            int drawY = y - (drawHeight - PLAYER_SIZE);
+            g2.drawImage(frame, drawX, drawY, drawWidth, drawHeight, null);
+        } else {
+            // 기본 사각형
+            g2.setColor(fallbackColor);
+            g2.fillRect(x, y, PLAYER_SIZE, PLAYER_SIZE);
+            g2.setColor(Color.WHITE);
+            g2.setFont(new Font("Arial", Font.BOLD, 12));
+            g2.drawString(label, x + 12, y + 25);
+        }
     }
     
     
@@ -1729,6 +1544,7 @@ public class GamePanelPlaceholder extends JPanel {
         g2.setStroke(new BasicStroke(2));
         g2.drawRoundRect(x, y, w, h, 10, 10);
         
+        int remainingTime = Math.max(0, sim.getRemainingTime());
         int minutes = remainingTime / 60;
         int seconds = remainingTime % 60;
         String timeText = String.format("%d:%02d", minutes, seconds);
@@ -1771,6 +1587,7 @@ public class GamePanelPlaceholder extends JPanel {
         g2.setColor(new Color(0, 0, 0, 180));
         g2.fillRect(0, 0, getWidth(), getHeight());
         
+        int gameState = sim.getGameState();
         Image resultImg = null;
         if (gameState == STATE_DRAW) {
             resultImg = drawImg;
@@ -1814,228 +1631,23 @@ public class GamePanelPlaceholder extends JPanel {
         }
     }
     
-    private void checkItemCollision() {
-        if (tiles == null) return;
-        
-        if (p1Alive) {
-            checkPlayerItemCollision(p1X, p1Y, 1);
-        }
-        if (p2Alive) {
-            checkPlayerItemCollision(p2X, p2Y, 2);
-        }
-    }
-    
-    private void checkPlayerItemCollision(int playerX, int playerY, int playerNum) {
-        int centerX = playerX + PLAYER_SIZE / 2;
-        int centerY = playerY + PLAYER_SIZE / 2;
-        
-        int col = (centerX - MAP_X) / tileWidth;
-        int row = (centerY - MAP_Y) / tileHeight;
-        
-        if (row < 0 || row >= TILE_ROWS || col < 0 || col >= TILE_COLS) {
-            return;
-        }
-        
-        Tile tile = tiles[row][col];
-        if (tile == null) return;
-        
-        int itemIndex = tile.getItemIndex();
-        if (itemIndex >= 0 && itemIndex <= 2) {
-            acquireItem(playerNum, itemIndex);
-            tile.setItemIndex(5);
-            System.out.println(playerNum + "P가 아이템 " + itemIndex + "을 획득!");
-        }
-    }
-    
-    private void acquireItem(int playerNum, int itemType) {
-        if (playerNum == 1) {
-            switch (itemType) {
-                case 0:  // 물풍선 개수 증가
-                    if (p1BombCount < p1MaxBombCount) {
-                        p1BombCount++;
-                        System.out.println("1P 물풍선 개수: " + p1BombCount + "/" + p1MaxBombCount);
-                    } else {
-                        System.out.println("1P 물풍선 개수 최대치!");
-                    }
-                    break;
-                case 1:  // 물풍선 범위 증가
-                    if (p1BombRange < p1MaxBombRange) {
-                        p1BombRange++;
-                        System.out.println("1P 물풍선 범위: " + p1BombRange + "/" + p1MaxBombRange);
-                    } else {
-                        System.out.println("1P 물풍선 범위 최대치!");
-                    }
-                    break;
-                case 2:  // 이동속도 증가
-                    if (p1Speed < p1MaxSpeed) {
-                        p1Speed++;
-                        System.out.println("1P 이동속도: " + p1Speed + "/" + p1MaxSpeed);
-                    } else {
-                        System.out.println("1P 이동속도 최대치!");
-                    }
-                    break;
-            }
-        } else if (playerNum == 2) {
-            switch (itemType) {
-                case 0:  // 물풍선 개수 증가
-                    if (p2BombCount < p2MaxBombCount) {
-                        p2BombCount++;
-                        System.out.println("2P 물풍선 개수: " + p2BombCount + "/" + p2MaxBombCount);
-                    } else {
-                        System.out.println("2P 물풍선 개수 최대치!");
-                    }
-                    break;
-                case 1:  // 물풍선 범위 증가
-                    if (p2BombRange < p2MaxBombRange) {
-                        p2BombRange++;
-                        System.out.println("2P 물풍선 범위: " + p2BombRange + "/" + p2MaxBombRange);
-                    } else {
-                        System.out.println("2P 물풍선 범위 최대치!");
-                    }
-                    break;
-                case 2:  // 이동속도 증가
-                    if (p2Speed < p2MaxSpeed) {
-                        p2Speed++;
-                        System.out.println("2P 이동속도: " + p2Speed + "/" + p2MaxSpeed);
-                    } else {
-                        System.out.println("2P 이동속도 최대치!");
-                    }
-                    break;
-            }
-        }
-    }
-    private void updateBalloonCollisions() {
-        // 충분히 멀어진 거리 기준 (타일 크기의 60% 정도)
-        final int SAFE_DISTANCE = (int)(Math.min(tileWidth, tileHeight) * 1.2);
-        
-        // 1P 물풍선 체크
-        for (WaterBalloon balloon : p1Balloons) {
-            if (!balloon.isCollisionEnabled()) {
-                // 1P가 설치 위치에서 충분히 멀어졌는지 확인 (거리 기반)
-                int dx = (p1X + PLAYER_SIZE / 2) - (balloon.getInstallPlayerX() + PLAYER_SIZE / 2);
-                int dy = (p1Y + PLAYER_SIZE / 2) - (balloon.getInstallPlayerY() + PLAYER_SIZE / 2);
-                double distance = Math.sqrt(dx * dx + dy * dy);
-                
-                if (distance > SAFE_DISTANCE) {
-                    balloon.enableCollision();
-                    System.out.println("1P 물풍선 충돌 활성화: 거리=" + (int)distance + " (기준: " + SAFE_DISTANCE + ")");
-                }
-            }
-        }
-        
-        // 2P 물풍선 체크
-        for (WaterBalloon balloon : p2Balloons) {
-            if (!balloon.isCollisionEnabled()) {
-                // 2P가 설치 위치에서 충분히 멀어졌는지 확인 (거리 기반)
-                int dx = (p2X + PLAYER_SIZE / 2) - (balloon.getInstallPlayerX() + PLAYER_SIZE / 2);
-                int dy = (p2Y + PLAYER_SIZE / 2) - (balloon.getInstallPlayerY() + PLAYER_SIZE / 2);
-                double distance = Math.sqrt(dx * dx + dy * dy);
-                
-                if (distance > SAFE_DISTANCE) {
-                    balloon.enableCollision();
-                    System.out.println("2P 물풍선 충돌 활성화: 거리=" + (int)distance + " (기준: " + SAFE_DISTANCE + ")");
-                }
-            }
-        }
-    }
-    
-    /**
-     * 물풍선과의 충돌 감지 (충돌 판정이 활성화된 물풍선만)
-     */
-    private boolean isCollidingWithBalloon(int x, int y, int size) {
-        if (tileWidth == 0 || tileHeight == 0) return false;
-        
-        int[][] corners = {
-            {x + 5, y + 5},
-            {x + size - 5, y + 5},
-            {x + 5, y + size - 5},
-            {x + size - 5, y + size - 5}
-        };
-        
-        for (int[] corner : corners) {
-            int col = (corner[0] - MAP_X) / tileWidth;
-            int row = (corner[1] - MAP_Y) / tileHeight;
-            
-            if (row < 0 || row >= TILE_ROWS || col < 0 || col >= TILE_COLS) continue;
-            
-            // 1P 물풍선 체크
-            for (WaterBalloon balloon : p1Balloons) {
-                if (balloon.isCollisionEnabled() && 
-                    balloon.getRow() == row && balloon.getCol() == col) {
-                    return true;
-                }
-            }
-            
-            // 2P 물풍선 체크
-            for (WaterBalloon balloon : p2Balloons) {
-                if (balloon.isCollisionEnabled() && 
-                    balloon.getRow() == row && balloon.getCol() == col) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
     private void playSoundEffect(String soundFileName) {
+        long start = perfOverlay.begin();
         try {
             String soundPath = System.getProperty("user.dir") + File.separator + "sound" + File.separator + soundFileName;
             // BGMPlayer를 사용하여 효과음 재생 (효과음은 한 번만 재생하므로 반복 없이)
             
             File soundFile = new File(soundPath);
             if (soundFile.exists()) {
-                javax.sound.sampled.AudioInputStream audioInputStream = javax.sound.sampled.AudioSystem.getAudioInputStream(soundFile);
-                javax.sound.sampled.Clip clip = javax.sound.sampled.AudioSystem.getClip();
-                clip.open(audioInputStream);
+                javax.sound.sampled.Clip clip = GameEvents.openClip(soundFile);
                 clip.start();
             } else {
                 System.err.println("사운드 파일 없음: " + soundFileName);
             }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            perfOverlay.endAudio(start);
         }
     }
-    // 캐릭터 간 충돌 확인 및 처형(Kill) 처리
-private void checkPlayerToPlayerCollision() {
-    // 둘 중 하나라도 죽었거나 없으면 체크 안 함
-    if (p1State == PLAYER_STATE_DEAD || p2State == PLAYER_STATE_DEAD) return;
-
-    // 히트박스 계산 (약간 여유를 둠)
-    Rectangle p1Bounds = new Rectangle(p1X, p1Y, PLAYER_SIZE, PLAYER_SIZE);
-    Rectangle p2Bounds = new Rectangle(p2X, p2Y, PLAYER_SIZE, PLAYER_SIZE);
-
-    // 두 캐릭터가 겹쳤는지 확인
-    if (p1Bounds.intersects(p2Bounds)) {
-        
-        // 상황 1: 1P가 갇혀있고, 2P가 살아있을 때 -> 1P 사망
-        if (p1State == PLAYER_STATE_TRAPPED && p2State == PLAYER_STATE_ALIVE) {
-            killPlayer(1);
-        }
-        
-        // 상황 2: 2P가 갇혀있고, 1P가 살아있을 때 -> 2P 사망
-        if (p2State == PLAYER_STATE_TRAPPED && p1State == PLAYER_STATE_ALIVE) {
-            killPlayer(2);
-        }
-    }
-}
-
-// 플레이어 즉시 사망 처리 (터지는 효과)
-private void killPlayer(int playerNum) {
-    long currentTime = System.currentTimeMillis();
-    
-    if (playerNum == 1) {
-        if (p1State != PLAYER_STATE_DYING && p1State != PLAYER_STATE_DEAD) {
-            p1State = PLAYER_STATE_DYING;
-            p1DieStartTime = currentTime;
-            System.out.println("1P가 터졌습니다! (접촉 사망)");
-        }
-    } else if (playerNum == 2) {
-        if (p2State != PLAYER_STATE_DYING && p2State != PLAYER_STATE_DEAD) {
-            p2State = PLAYER_STATE_DYING;
-            p2DieStartTime = currentTime;
-            System.out.println("2P가 터졌습니다! (접촉 사망)");
-        }
-    }
-}
-
 }
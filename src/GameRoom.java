@@ -0,0 +1,207 @@
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ========================================================
+ * 서버 게임 방 클래스 (GameRoom)
+ * ========================================================
+ * 헤드리스 서버에서 경기 하나를 진행하는 방입니다.
+ * GameSimulation 하나와 플레이어 입력 칸 2개, 접속한 클라이언트 목록을 가집니다.
+ *
+ * - 입력은 네트워크 수신 스레드가 receiveInput으로 넣고 (JOIN한 주소만, 그 슬롯에만), 틱 스레드가 tick에서 가져갑니다.
+ * - 물풍선 설치 요청은 다음 틱에서 한 번만 반영되도록 따로 표시해 둡니다.
+ * - 경기가 끝나면 결과 표시 시간만큼 기다린 뒤 같은 방에서 새 경기를 시작합니다.
+ */
+public class GameRoom {
+    private static final int RESULT_DISPLAY_TICKS = GameSimulation.msToTicks(3000);
+    private static final int HISTORY_SIZE = 32;
+
+    private final int id;
+    private final GameSimulation sim;
+    private final AtomicIntegerArray inputs = new AtomicIntegerArray(GameSimulation.PLAYER_COUNT);
+
+    // 봇 입력 (벤치마크/빈 슬롯용, 틱 스레드에서만 사용)
+    private final boolean[] botSlots = new boolean[GameSimulation.PLAYER_COUNT];
+    private final int[] botInputs = new int[GameSimulation.PLAYER_COUNT];
+    private final SplittableRandom botRandom;
+
+    // 스냅샷 전송 (클라이언트가 접속했을 때만 만듦)
+    private final List<Client> clients = new ArrayList<>();
+    private SnapshotHistory history;
+    // 지금 경기의 틱 (ack 확인용, 경기가 바뀔 때는 clients 잠금 안에서 바꿈)
+    private volatile int currentTick = 0;
+
+    // 관전 (틱당 한 번 인코딩, 전송은 SpectatorHub 스레드)
+    private final SpectatorBroadcast spectators = new SpectatorBroadcast();
+
+    private int matchesPlayed = 0;
+
+    /**
+     * 방에 접속한 클라이언트 (플레이어)
+     */
+    static class Client {
+        final SocketAddress address;
+        final int slot;
+        volatile int ackTick = -1;
+
+        Client(SocketAddress address, int slot) {
+            this.address = address;
+            this.slot = slot;
+        }
+    }
+
+    public GameRoom(int id, String mapDataFile, long seed) {
+        this.id = id;
+        this.botRandom = new SplittableRandom(seed);
+        sim = new GameSimulation();
+        sim.setLogging(false);
+        sim.loadTilesFromFile(mapDataFile);
+        sim.setMatchSeed(botRandom.nextLong());
+        sim.resetGame();
+    }
+
+    /**
+     * 빈 슬롯을 봇(무작위 입력)으로 채웁니다.
+     */
+    public void setBot(int slot, boolean bot) {
+        botSlots[slot] = bot;
+    }
+
+    /**
+     * 슬롯 입력 반영 (수신 스레드)
+     * 물풍선 요청은 틱에서 가져갈 때까지 유지합니다.
+     */
+    private void setInput(int slot, int input) {
+        int prev;
+        int next;
+        do {
+            prev = inputs.get(slot);
+            next = (input & GameSimulation.INPUT_DIR_MASK) | ((prev | input) & GameSimulation.INPUT_BOMB);
+        } while (!inputs.compareAndSet(slot, prev, next));
+    }
+
+    private int takeInput(int slot) {
+        if (botSlots[slot]) {
+            return nextBotInput(slot);
+        }
+        int prev;
+        do {
+            prev = inputs.get(slot);
+        } while (!inputs.compareAndSet(slot, prev, prev & ~GameSimulation.INPUT_BOMB));
+        return prev;
+    }
+
+    // 가끔 방향을 바꾸고 가끔 물풍선을 놓는 무작위 입력
+    private int nextBotInput(int slot) {
+        int dir = botInputs[slot] & GameSimulation.INPUT_DIR_MASK;
+        if (botRandom.nextInt(20) == 0) {
+            dir = botRandom.nextInt(5);
+        }
+        int input = dir;
+        if (botRandom.nextInt(40) == 0) {
+            input |= GameSimulation.INPUT_BOMB;
+        }
+        botInputs[slot] = input;
+        return input;
+    }
+
+    /**
+     * 한 틱 진행 (틱 스레드)
+     */
+    public void tick() {
+        sim.updateGame(takeInput(0), takeInput(1));
+        currentTick = sim.getTick();
+
+        if (sim.getGameState() != GameSimulation.STATE_PLAYING
+                && sim.getTick() - sim.getEndTick() >= RESULT_DISPLAY_TICKS) {
+            matchesPlayed++;
+            sim.setMatchSeed(botRandom.nextLong());
+            sim.resetGame();
+            if (history != null) history.clear();
+            synchronized (clients) {
+                currentTick = sim.getTick();
+                for (Client c : clients) {
+                    c.ackTick = -1; // 새 경기는 키프레임부터
+                }
+            }
+        }
+    }
+
+    /**
+     * 접속한 클라이언트마다 마지막 ack 기준 델타 스냅샷을 만들어 전달합니다.
+     */
+    public void broadcastSnapshots(BitWriter writer, SnapshotSender sender) {
+        synchronized (clients) {
+            if (clients.isEmpty()) return;
+            if (history == null) history = new SnapshotHistory(HISTORY_SIZE);
+            SimSnapshot cur = history.record(sim);
+            for (Client c : clients) {
+                writer.reset();
+                SnapshotCodec.encode(history.get(c.ackTick), cur, writer);
+                sender.send(this, c, writer);
+            }
+        }
+    }
+
+    /**
+     * 관전자용 프레임을 방송 버퍼에 한 번 기록합니다 (틱 스레드).
+     */
+    public void publishSpectatorFrame() {
+        spectators.publish(sim);
+    }
+
+    /**
+     * 스냅샷 전송 방법 (서버 소켓 구현에서 제공)
+     */
+    interface SnapshotSender {
+        void send(GameRoom room, Client client, BitWriter snapshot);
+    }
+
+    public void join(SocketAddress address, int slot) {
+        synchronized (clients) {
+            clients.removeIf(c -> c.address.equals(address));
+            clients.add(new Client(address, slot));
+            botSlots[slot] = false;
+        }
+    }
+
+    public void leave(SocketAddress address) {
+        synchronized (clients) {
+            clients.removeIf(c -> c.address.equals(address));
+        }
+    }
+
+    /**
+     * 클라이언트가 보낸 입력과 ack 반영 (수신 스레드)
+     * 입력은 그 주소가 JOIN한 슬롯에만 넣고, 입장하지 않은 주소의 패킷은 버립니다.
+     */
+    public void receiveInput(SocketAddress address, int input, int ackTick) {
+        synchronized (clients) {
+            for (Client c : clients) {
+                if (c.address.equals(address)) {
+                    setInput(c.slot, input);
+                    acknowledge(c, ackTick);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 지금 경기 틱보다 큰 ack는 지난 경기에서 늦게 도착한 것이므로 버립니다
+     * (받아들이면 새 경기의 ack가 모두 작아 보여 경기 내내 키프레임만 보내게 됨).
+     */
+    private void acknowledge(Client c, int ackTick) {
+        if (ackTick > c.ackTick && ackTick <= currentTick) {
+            c.ackTick = ackTick;
+        }
+    }
+
+    public int getId() { return id; }
+    public GameSimulation getSimulation() { return sim; }
+    public SpectatorBroadcast getSpectatorBroadcast() { return spectators; }
+    public int getMatchesPlayed() { return matchesPlayed; }
+}
@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ========================================================
+ * 헤드리스 게임 서버 (GameServer)
+ * ========================================================
+ * 화면 없이 여러 게임 방(GameRoom)을 동시에 진행하는 서버입니다.
+ *
+ * - 방은 스레드 수만큼의 샤드로 나뉘고, 샤드마다 16ms 고정 주기 작업 하나가
+ *   자기 방들을 차례로 한 틱씩 진행합니다 (방마다 스레드를 두지 않음).
+ *   빌드 대상이 Java 11(pom.xml의 maven.compiler.release)이라 가상 스레드를 쓸 수 없어서
+ *   공유 스케줄러가 그 역할을 합니다.
+ * - UDP 소켓 하나로 모든 방의 입력을 받고 스냅샷을 보냅니다.
+ * - 같은 소켓으로 로비 채팅도 중계합니다 (LobbyChatServer).
+ * - 관전자 전송은 별도 스레드(SpectatorHub)가 맡아 방 틱 시간과 분리합니다.
+ * - 주기적으로 틱 처리 시간 백분위수와 코어당 수용 가능한 방 수를 출력합니다.
+ *
+ * 실행 예시:
+ * java -cp out CrazyArcade_UI server --rooms 500 --port 7777
+ * java -cp out GameServer --rooms 2000 --bench 10
+ *
+ * 메시지 형식 (int는 빅 엔디언):
+ * JOIN     [10][방 번호 int][슬롯 byte]
+ * INPUT    [11][방 번호 int][슬롯 byte][입력 byte][ack 틱 int] (슬롯은 무시하고 JOIN한 슬롯에 반영)
+ * SNAPSHOT [12][방 번호 int][SnapshotCodec 비트열]
+ * LEAVE    [13][방 번호 int]
+ * 관전 메시지(15~17)는 SpectatorHub, 채팅 메시지(20~23)는 LobbyChatServer 참고
+ */
+public class GameServer {
+    static final byte MSG_JOIN = 10;
+    static final byte MSG_INPUT = 11;
+    static final byte MSG_SNAPSHOT = 12;
+    static final byte MSG_LEAVE = 13;
+
+    private static final int REPORT_INTERVAL_MS = 5000;
+    private static final String[] MAPS = { "mapData1.txt", "mapData2.txt" };
+
+    private final GameRoom[] rooms;
+    private final Shard[] shards;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private DatagramChannel channel;
+    private LobbyChatServer chat;
+    private SpectatorHub spectatorHub;
+    private ScheduledThreadPoolExecutor spectatorSender;
+    private Thread receiver;
+    private volatile boolean running = false;
+
+    /**
+     * 한 스레드가 맡는 방 묶음
+     * 히스토그램과 전송 버퍼는 샤드 안에서만 쓰므로 잠금이 필요 없습니다.
+     */
+    private class Shard implements Runnable, GameRoom.SnapshotSender {
+        final List<GameRoom> rooms = new ArrayList<>();
+        final LatencyHistogram tickTimes = new LatencyHistogram();
+        final BitWriter writer = new BitWriter(512);
+        final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(2048);
+        final AtomicLong overruns = new AtomicLong();
+
+        // 보고용 (run 안에서 교대로 채움)
+        private LatencyHistogram pending = new LatencyHistogram();
+        private final Object reportLock = new Object();
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            for (int i = 0; i < rooms.size(); i++) {
+                GameRoom room = rooms.get(i);
+                long t0 = System.nanoTime();
+                room.tick();
+                tickTimes.record(System.nanoTime() - t0);
+                if (channel != null) {
+                    room.broadcastSnapshots(writer, this);
+                    room.publishSpectatorFrame();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > GameSimulation.TICK_MS * 1_000_000L) {
+                overruns.incrementAndGet();
+            }
+
+            synchronized (reportLock) {
+                pending.merge(tickTimes);
+            }
+            tickTimes.reset();
+        }
+
+        @Override
+        public void send(GameRoom room, GameRoom.Client client, BitWriter snapshot) {
+            sendBuffer.clear();
+            sendBuffer.put(MSG_SNAPSHOT);
+            sendBuffer.putInt(room.getId());
+            sendBuffer.put(snapshot.getBuffer(), 0, snapshot.getByteLength());
+            sendBuffer.flip();
+            try {
+                channel.send(sendBuffer, client.address);
+            } catch (IOException e) {
+                // 전송 실패는 다음 틱 스냅샷으로 복구되므로 무시
+            }
+        }
+
+        LatencyHistogram drain(LatencyHistogram into) {
+            synchronized (reportLock) {
+                into.merge(pending);
+                pending.reset();
+            }
+            return into;
+        }
+    }
+
+    public GameServer(int roomCount, int threads, boolean botsEverywhere) {
+        rooms = new GameRoom[roomCount];
+        shards = new Shard[threads];
+        for (int i = 0; i < threads; i++) {
+            shards[i] = new Shard();
+        }
+        for (int i = 0; i < roomCount; i++) {
+            rooms[i] = new GameRoom(i, MAPS[i % MAPS.length], 0x9E3779B97F4A7C15L * (i + 1));
+            if (botsEverywhere) {
+                rooms[i].setBot(0, true);
+                rooms[i].setBot(1, true);
+            }
+            shards[i % threads].rooms.add(rooms[i]);
+        }
+        scheduler = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new Thread(r, "room-tick");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * UDP 포트를 열고 수신 스레드를 준비합니다 (벤치마크 모드에서는 열지 않음).
+     */
+    public void openSocket(int port) throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        chat = new LobbyChatServer(channel);
+        spectatorHub = new SpectatorHub(channel);
+        spectatorSender = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "spectator-sender");
+            t.setDaemon(true);
+            return t;
+        });
+        receiver = new Thread(this::receiveLoop, "room-receiver");
+        receiver.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        if (receiver != null) receiver.start();
+        for (int i = 0; i < shards.length; i++) {
+            // 샤드마다 시작 시점을 조금씩 어긋나게 해서 CPU 사용을 고르게 함
+            long offset = (GameSimulation.TICK_MS * 1000L * i) / shards.length;
+            scheduler.scheduleAtFixedRate(shards[i], offset, GameSimulation.TICK_MS * 1000L, TimeUnit.MICROSECONDS);
+        }
+        if (chat != null) {
+            scheduler.scheduleAtFixedRate(chat::flush, LobbyChatServer.FLUSH_INTERVAL_MS,
+                    LobbyChatServer.FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        if (spectatorHub != null) {
+            spectatorSender.scheduleAtFixedRate(spectatorHub, GameSimulation.TICK_MS,
+                    GameSimulation.TICK_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        if (spectatorSender != null) spectatorSender.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.out.println("서버 소켓 종료 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    // ===== 네트워크 수신 =====
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2048);
+        while (running) {
+            try {
+                buffer.clear();
+                SocketAddress from = channel.receive(buffer);
+                if (from == null) continue;
+                buffer.flip();
+                handleMessage(from, buffer);
+            } catch (IOException e) {
+                if (running) {
+                    System.out.println("서버 수신 오류: " + e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                // 잘못된 패킷은 버림
+            }
+        }
+    }
+
+    private void handleMessage(SocketAddress from, ByteBuffer buffer) {
+        byte type = buffer.get();
+        if (chat != null && chat.handle(from, type, buffer)) return;
+
+        int roomId = buffer.getInt();
+        if (roomId < 0 || roomId >= rooms.length) return;
+        GameRoom room = rooms[roomId];
+        if (spectatorHub != null && spectatorHub.handle(from, type, room, buffer)) return;
+
+        switch (type) {
+            case MSG_JOIN: {
+                int slot = buffer.get();
+                if (slot < 0 || slot >= GameSimulation.PLAYER_COUNT) return;
+                room.join(from, slot);
+                System.out.println("방 " + roomId + " 입장: " + from + " (" + (slot + 1) + "P)");
+                break;
+            }
+            case MSG_INPUT: {
+                buffer.get(); // 슬롯: 보낸 주소가 JOIN한 슬롯을 씀
+                int input = buffer.get() & 0xFF;
+                int ackTick = buffer.getInt();
+                room.receiveInput(from, input, ackTick); // 입장하지 않은 주소면 버림
+                break;
+            }
+            case MSG_LEAVE:
+                room.leave(from);
+                if (spectatorHub != null) spectatorHub.remove(from, room);
+                System.out.println("방 " + roomId + " 퇴장: " + from);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ===== 상태 보고 =====
+
+    /**
+     * 지난 보고 이후의 틱 처리 시간을 모아 출력합니다.
+     *
+     * @param wallNanos 보고 구간 길이
+     * @param cpuNanos  보고 구간 동안 틱 스레드가 쓴 CPU 시간 (모르면 -1)
+     */
+    private void report(long wallNanos, long cpuNanos) {
+        LatencyHistogram merged = new LatencyHistogram();
+        long overruns = 0;
+        for (Shard s : shards) {
+            s.drain(merged);
+            overruns += s.overruns.getAndSet(0);
+        }
+        int matches = 0;
+        for (GameRoom room : rooms) {
+            matches += room.getMatchesPlayed();
+        }
+
+        double meanMicros = merged.getMean() / 1000.0;
+        double roomsPerCore = meanMicros > 0 ? (GameSimulation.TICK_MS * 1000.0) / meanMicros : 0;
+        double ticksPerSecond = merged.getCount() * 1e9 / wallNanos;
+
+        System.out.println("===== 서버 상태 =====");
+        System.out.printf("방 %d개, 스레드 %d개, 코어 %d개, 누적 경기 %d판%n",
+                rooms.length, shards.length, Runtime.getRuntime().availableProcessors(), matches);
+        System.out.println("방 틱 처리 시간: " + merged.summaryMicros());
+        System.out.printf("방 틱 처리량: %.0f 틱/초 (목표 %.0f), 주기 초과 %d회%n",
+                ticksPerSecond, rooms.length * 1000.0 / GameSimulation.TICK_MS, overruns);
+        System.out.printf("코어당 수용 가능 방 수 (16ms / 평균 틱): 약 %.0f개%n", roomsPerCore);
+        if (spectatorHub != null) {
+            System.out.printf("관전: %d명, 보낸 프레임 %d개, 키프레임 건너뛰기 %d회%n",
+                    spectatorHub.getViewerCount(), spectatorHub.getFramesSent(), spectatorHub.getSkipCount());
+        }
+        if (chat != null) {
+            System.out.printf("로비 채팅: 접속 %d명, 중계 %d건, 도배 차단 %d건%n",
+                    chat.getMemberCount(), chat.getRelayedCount(), chat.getThrottledCount());
+        }
+        if (cpuNanos >= 0) {
+            System.out.printf("틱 스레드 CPU 사용률: %.1f%% (코어 %d개 기준)%n",
+                    cpuNanos * 100.0 / wallNanos / Runtime.getRuntime().availableProcessors(),
+                    Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    // 틱 스레드들의 누적 CPU 시간 (지원하지 않으면 -1)
+    private static long tickThreadCpuNanos() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!mx.isThreadCpuTimeSupported()) return -1;
+        long total = 0;
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if ("room-tick".equals(t.getName())) {
+                long cpu = mx.getThreadCpuTime(t.getId());
+                if (cpu > 0) total += cpu;
+            }
+        }
+        return total;
+    }
+
+    // ===== 실행 =====
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int port = 7777;
+        int roomCount = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int benchSeconds = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--rooms": roomCount = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--bench": benchSeconds = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("알 수 없는 옵션: " + args[i]);
+                    System.out.println("사용법: GameServer [--port N] [--rooms N] [--threads N] [--bench 초]");
+                    return;
+            }
+        }
+        threads = Math.max(1, threads);
+        boolean bench = benchSeconds > 0;
+
+        GameServer server = new GameServer(roomCount, threads, bench);
+        if (!bench) {
+            server.openSocket(port);
+            System.out.println("게임 서버 시작: UDP " + port + ", 방 " + roomCount + "개, 스레드 " + threads + "개");
+        } else {
+            System.out.println("서버 벤치마크: 방 " + roomCount + "개 (봇 대전), 스레드 " + threads + "개, " + benchSeconds + "초");
+        }
+        server.start();
+
+        long startNanos = System.nanoTime();
+        long lastNanos = startNanos;
+        long lastCpu = tickThreadCpuNanos();
+        while (true) {
+            Thread.sleep(REPORT_INTERVAL_MS);
+            long now = System.nanoTime();
+            long cpu = tickThreadCpuNanos();
+            server.report(now - lastNanos, (cpu >= 0 && lastCpu >= 0) ? cpu - lastCpu : -1);
+            lastNanos = now;
+            lastCpu = cpu;
+            if (bench && now - startNanos >= benchSeconds * 1_000_000_000L) {
+                break;
+            }
+        }
+        server.stop();
+    }
+}
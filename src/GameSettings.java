@@ -31,6 +31,43 @@ public class GameSettings {
     public static int p2_Right = KeyEvent.VK_RIGHT;
     public static int p2_Bomb = KeyEvent.VK_NUMPAD1; // 물풍선: NumPad 1
     public static int p2_Item = KeyEvent.VK_NUMPAD0; // 아이템: NumPad 0
+    public static int p2Bot = 0; // 2P 컴퓨터 조작 (0 = 사람, 1 = 길찾기 봇, 2 = 탐색 봇), 로컬 플레이에서만
+    public static int botRollouts = 1000; // 탐색 봇 난이도: 결정 한 번에 돌려 볼 롤아웃 수
+    public static int botThinkMs = 40; // 탐색 봇이 결정 한 번에 쓸 최대 시간
+    public static int showDangerOverlay = 0; // 1이면 물줄기가 닿을 칸을 붉게 표시
+
+    // [네트워크 대전] 상대 주소가 비어 있으면 한 PC에서 2인 플레이
+    public static String netPeerHost = "";
+    public static int netPeerPort = 7777;
+    public static int netLocalPort = 7777;
+    public static int netLocalPlayer = 1; // 내가 조작할 플레이어 (1 또는 2, 조작키는 1P 키 사용)
+    public static int rollbackMaxTicks = 8; // 예측으로 앞서 나갈 수 있는 최대 틱 수
+    public static int netMaxInputDelay = 4; // 지연이 클 때 자동으로 늘릴 수 있는 최대 입력 지연 (틱)
+    // 네트워크 상태 흉내 (보내는 패킷에 적용, 모두 0이면 사용 안 함)
+    public static int netSimLatencyMs = 0;
+    public static int netSimJitterMs = 0;
+    public static int netSimLossPercent = 0;
+    public static int netSimReorderPercent = 0;
+
+    // [로비 채팅] 서버 주소가 비어 있으면 채팅은 내 화면에만 표시
+    public static String lobbyServerHost = "";
+    public static int lobbyServerPort = 7777;
+    public static String playerName = "User";
+    public static int chatHistoryLines = 200; // 채팅창에 남겨 둘 최대 줄 수
+    public static int spectateRoom = -1; // 0 이상이면 게임 시작 시 서버의 해당 방을 관전
+
+    // 리플레이
+    public static int recordReplays = 1; // 1이면 경기마다 입력을 replays 폴더에 저장
+    public static long matchSeed = 0; // 0이 아니면 모든 경기에 이 난수 시드 사용 (아이템 드롭/랜덤 캐릭터 재현용)
+
+    // 빠른 저장
+    public static int autoSaveSeconds = 30; // 한 PC 경기를 이 간격(초)마다 saves/autosave.sav에 저장, 0이면 끔
+
+    // 성능 진단
+    public static int showPerfOverlay = 0; // 1이면 게임 화면에 성능 표시 (F3으로 켜고 끔)
+    public static int jfrRecording = 0; // 1이면 켤 때부터 JFR 기록 (recordings 폴더, 종료 시 저장)
+    public static String jfrProfile = "default"; // JFR 설정: default(가벼움) 또는 profile(자세함)
+    public static int hitchBudgetMs = 33; // 프레임이 이보다 길면 hitches 폴더에 최근 기록 저장 (0이면 끔)
 
     /**
      * 설정을 파일에서 로드합니다.
@@ -66,6 +103,42 @@ public class GameSettings {
             p2_Right = parseValue(props.getProperty("p2_Right", String.valueOf(KeyEvent.VK_RIGHT)));
             p2_Bomb = parseValue(props.getProperty("p2_Bomb", String.valueOf(KeyEvent.VK_NUMPAD1)));
             p2_Item = parseValue(props.getProperty("p2_Item", String.valueOf(KeyEvent.VK_NUMPAD0)));
+            p2Bot = parseValue(props.getProperty("p2Bot", "0"));
+            botRollouts = parseValue(props.getProperty("botRollouts", "1000"));
+            botThinkMs = parseValue(props.getProperty("botThinkMs", "40"));
+            showDangerOverlay = parseValue(props.getProperty("showDangerOverlay", "0"));
+
+            // 네트워크 대전 설정 로드
+            netPeerHost = props.getProperty("netPeerHost", "").trim();
+            netPeerPort = parseValue(props.getProperty("netPeerPort", "7777"));
+            netLocalPort = parseValue(props.getProperty("netLocalPort", "7777"));
+            netLocalPlayer = parseValue(props.getProperty("netLocalPlayer", "1"));
+            rollbackMaxTicks = parseValue(props.getProperty("rollbackMaxTicks", "8"));
+            netMaxInputDelay = parseValue(props.getProperty("netMaxInputDelay", "4"));
+            netSimLatencyMs = parseValue(props.getProperty("netSimLatencyMs", "0"));
+            netSimJitterMs = parseValue(props.getProperty("netSimJitterMs", "0"));
+            netSimLossPercent = parseValue(props.getProperty("netSimLossPercent", "0"));
+            netSimReorderPercent = parseValue(props.getProperty("netSimReorderPercent", "0"));
+
+            // 로비 채팅 설정 로드
+            lobbyServerHost = props.getProperty("lobbyServerHost", "").trim();
+            lobbyServerPort = parseValue(props.getProperty("lobbyServerPort", "7777"));
+            playerName = props.getProperty("playerName", "User").trim();
+            chatHistoryLines = parseValue(props.getProperty("chatHistoryLines", "200"));
+            spectateRoom = parseValue(props.getProperty("spectateRoom", "-1"));
+
+            // 리플레이 설정 로드
+            recordReplays = parseValue(props.getProperty("recordReplays", "1"));
+            matchSeed = Long.parseLong(props.getProperty("matchSeed", "0").split("#")[0].trim());
+
+            // 빠른 저장 설정 로드
+            autoSaveSeconds = parseValue(props.getProperty("autoSaveSeconds", "30"));
+
+            // 성능 진단 설정 로드
+            showPerfOverlay = parseValue(props.getProperty("showPerfOverlay", "0"));
+            jfrRecording = parseValue(props.getProperty("jfrRecording", "0"));
+            jfrProfile = props.getProperty("jfrProfile", "default").split("#")[0].trim();
+            hitchBudgetMs = parseValue(props.getProperty("hitchBudgetMs", "33"));
 
             System.out.println("설정 로드 완료: " + SETTINGS_FILE);
         } catch (IOException | NumberFormatException e) {
@@ -73,6 +146,27 @@ public class GameSettings {
         }
     }
 
+    /**
+     * 네트워크 대전 설정 여부
+     */
+    public static boolean isNetworkMatch() {
+        return netPeerHost != null && !netPeerHost.isEmpty();
+    }
+
+    /**
+     * 로비 채팅 서버 설정 여부
+     */
+    public static boolean isLobbyChatOnline() {
+        return lobbyServerHost != null && !lobbyServerHost.isEmpty();
+    }
+
+    /**
+     * 관전 모드 여부 (로비 서버 주소와 방 번호가 모두 있어야 함)
+     */
+    public static boolean isSpectating() {
+        return isLobbyChatOnline() && spectateRoom >= 0;
+    }
+
     /**
      * 값에서 주석(# 이후)을 제거하고 정수로 변환합니다.
      */
@@ -122,6 +216,52 @@ public class GameSettings {
             writer.println("p2_Right=" + p2_Right + "    # " + KeyEvent.getKeyText(p2_Right));
             writer.println("p2_Bomb=" + p2_Bomb + "    # " + KeyEvent.getKeyText(p2_Bomb));
             writer.println("p2_Item=" + p2_Item + "    # " + KeyEvent.getKeyText(p2_Item));
+            writer.println("p2Bot=" + p2Bot + "    # 0 사람, 1 길찾기 봇, 2 탐색 봇");
+            writer.println("botRollouts=" + botRollouts + "    # 탐색 봇 난이도");
+            writer.println("botThinkMs=" + botThinkMs);
+            writer.println("showDangerOverlay=" + showDangerOverlay + "    # 1이면 위험 칸 표시");
+            writer.println();
+
+            // 네트워크 대전 설정 저장
+            writer.println("# === 네트워크 대전 (netPeerHost 비우면 로컬 플레이) ===");
+            writer.println("netPeerHost=" + netPeerHost);
+            writer.println("netPeerPort=" + netPeerPort);
+            writer.println("netLocalPort=" + netLocalPort);
+            writer.println("netLocalPlayer=" + netLocalPlayer);
+            writer.println("rollbackMaxTicks=" + rollbackMaxTicks);
+            writer.println("netMaxInputDelay=" + netMaxInputDelay);
+            writer.println("netSimLatencyMs=" + netSimLatencyMs + "    # 시험용 지연 주입");
+            writer.println("netSimJitterMs=" + netSimJitterMs);
+            writer.println("netSimLossPercent=" + netSimLossPercent);
+            writer.println("netSimReorderPercent=" + netSimReorderPercent);
+            writer.println();
+
+            // 로비 채팅 설정 저장
+            writer.println("# === 로비 채팅 (lobbyServerHost 비우면 내 화면에만 표시) ===");
+            writer.println("lobbyServerHost=" + lobbyServerHost);
+            writer.println("lobbyServerPort=" + lobbyServerPort);
+            writer.println("playerName=" + playerName);
+            writer.println("chatHistoryLines=" + chatHistoryLines);
+            writer.println("spectateRoom=" + spectateRoom + "    # 0 이상이면 관전 모드");
+            writer.println();
+
+            // 리플레이 설정 저장
+            writer.println("# === 리플레이 ===");
+            writer.println("recordReplays=" + recordReplays + "    # 1이면 경기마다 replays 폴더에 저장");
+            writer.println("matchSeed=" + matchSeed + "    # 0이 아니면 고정 난수 시드");
+            writer.println();
+
+            // 빠른 저장 설정 저장
+            writer.println("# === 빠른 저장 ===");
+            writer.println("autoSaveSeconds=" + autoSaveSeconds + "    # 자동 저장 간격(초), 0이면 끔");
+            writer.println();
+
+            // 성능 진단 설정 저장
+            writer.println("# === 성능 진단 ===");
+            writer.println("showPerfOverlay=" + showPerfOverlay + "    # 1이면 성능 표시를 켠 채로 시작 (게임 중 F3)");
+            writer.println("jfrRecording=" + jfrRecording + "    # 1이면 JFR 기록 (recordings 폴더)");
+            writer.println("jfrProfile=" + jfrProfile + "    # default 또는 profile");
+            writer.println("hitchBudgetMs=" + hitchBudgetMs + "    # 프레임이 이 ms보다 길면 hitches 폴더에 기록 (0: 끔)");
 
             System.out.println("설정 저장 완료: " + SETTINGS_FILE);
         } catch (IOException e) {
@@ -0,0 +1,1083 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * ========================================================
+ * 게임 시뮬레이션 클래스 (GameSimulation)
+ * ========================================================
+ * GamePanelPlaceholder 안에 있던 게임 규칙(이동, 물풍선, 폭발, 아이템, 승패 판정)을
+ * 화면과 분리하여 고정 틱(TICK_MS) 단위로 진행하는 헤드리스 시뮬레이션입니다.
+ *
+ * - 모든 시간은 System.currentTimeMillis() 대신 틱 번호로 계산합니다.
+ * - 플레이어 입력은 틱마다 int 비트마스크로 전달합니다 (INPUT_* 상수).
+ * - 물풍선/폭발은 고정 크기 배열로 관리하므로 틱 진행 중 객체를 만들지 않습니다.
+ * - saveState/loadState로 전체 상태를 SimSnapshot에 복사/복원할 수 있습니다 (롤백용).
+ */
+public class GameSimulation {
+
+    // ========== 틱 설정 ==========
+    public static final int TICK_MS = 16; // 1틱 = 16ms (기존 Swing Timer 주기와 동일)
+
+    // ========== 맵 크기 ==========
+    public static final int TILE_ROWS = 13;
+    public static final int TILE_COLS = 15;
+    public static final int CELL_COUNT = TILE_ROWS * TILE_COLS;
+    public static final int MAP_X = 15;
+    public static final int MAP_Y = 15;
+    public static final int MAP_WIDTH = 600;
+    public static final int MAP_HEIGHT = 520;
+    public static final int TILE_WIDTH = MAP_WIDTH / TILE_COLS; // 40
+    public static final int TILE_HEIGHT = MAP_HEIGHT / TILE_ROWS; // 40
+    public static final int PLAYER_SIZE = 40;
+    public static final int PLAYER_COUNT = 2;
+
+    // ========== 입력 비트마스크 ==========
+    // 하위 3비트: 마지막으로 누른 방향 (기존 p1LastKey 역할), 0x08: 이번 틱에 물풍선 설치
+    public static final int INPUT_DIR_MASK = 0x07;
+    public static final int DIR_NONE = 0;
+    public static final int DIR_UP = 1;
+    public static final int DIR_DOWN = 2;
+    public static final int DIR_LEFT = 3;
+    public static final int DIR_RIGHT = 4;
+    public static final int INPUT_BOMB = 0x08;
+
+    // ========== 게임 상태 ==========
+    public static final int GAME_TIME = 150; // 초
+    public static final int STATE_PLAYING = 0;
+    public static final int STATE_P1_WIN = 1;
+    public static final int STATE_P2_WIN = 2;
+    public static final int STATE_DRAW = 3;
+
+    public static final int PLAYER_STATE_ALIVE = 0;
+    public static final int PLAYER_STATE_TRAPPED = 1;
+    public static final int PLAYER_STATE_DYING = 2;
+    public static final int PLAYER_STATE_DEAD = 3;
+
+    // ========== 폭발 방향 ==========
+    public static final int BLAST_CENTER = 0;
+    public static final int BLAST_UP = 1;
+    public static final int BLAST_DOWN = 2;
+    public static final int BLAST_LEFT = 3;
+    public static final int BLAST_RIGHT = 4;
+
+    // ========== 틱 단계 (끊김 기록용 시간 측정, HitchRecorder) ==========
+    public static final int PHASE_INPUT = 0; // 입력 반영, 물풍선 설치
+    public static final int PHASE_MOVEMENT = 1; // 이동, 애니메이션
+    public static final int PHASE_BOMBS = 2; // 물풍선 타이머, 폭발, 물줄기
+    public static final int PHASE_COLLISIONS = 3; // 물풍선/아이템/플레이어 충돌
+    public static final int PHASE_COUNT = 4;
+
+    // ========== 시간 상수 (ms → 틱) ==========
+    public static final int BALLOON_DELAY_TICKS = msToTicks(3800);
+    public static final int EXPLOSION_TICKS = msToTicks(500); // 5프레임 x 100ms
+    public static final int TRAPPED_TICKS = msToTicks(6000);
+    public static final int DIE_TICKS = msToTicks(1000);
+    private static final int STARTUP_DELAY_TICKS = 10;
+
+    // 동시에 존재할 수 있는 최대 물풍선 수 (두 플레이어 최대 개수 합보다 넉넉하게)
+    public static final int MAX_BALLOONS = 32;
+
+    // 물풍선 충돌 활성화 거리 (타일 크기의 1.2배)
+    private static final int SAFE_DISTANCE = (int) (Math.min(TILE_WIDTH, TILE_HEIGHT) * 1.2);
+
+    // 방향별 이동 (행, 열) - createExplosion 순서: 왼쪽, 오른쪽, 위, 아래
+    private static final int[] DIR_ROW = { 0, 0, -1, 1 };
+    private static final int[] DIR_COL = { -1, 1, 0, 0 };
+    private static final int[] DIR_BLAST = { BLAST_LEFT, BLAST_RIGHT, BLAST_UP, BLAST_DOWN };
+
+    // ========== 맵 ==========
+    private Tile[][] tiles;
+    private final int[] initialItems = new int[CELL_COUNT]; // resetGame 시 복원할 맵 데이터
+    private String mapDataFile = "mapData2.txt";
+
+    // ========== 진행 상태 ==========
+    private int tick = 0;
+    private int gameState = STATE_PLAYING;
+    private int endTick = -1; // 결과가 확정된 틱
+
+    // ========== 플레이어 (인덱스 0 = 1P, 1 = 2P) ==========
+    private final String[] characterNames = { "배찌", "다오" };
+    private final int[] playerX = new int[PLAYER_COUNT];
+    private final int[] playerY = new int[PLAYER_COUNT];
+    private final int[] bombCount = new int[PLAYER_COUNT];
+    private final int[] bombRange = new int[PLAYER_COUNT];
+    private final int[] speed = new int[PLAYER_COUNT];
+    private final int[] maxBombCount = new int[PLAYER_COUNT];
+    private final int[] maxBombRange = new int[PLAYER_COUNT];
+    private final int[] maxSpeed = new int[PLAYER_COUNT];
+    private final int[] playerState = new int[PLAYER_COUNT];
+    private final int[] stateStartTick = new int[PLAYER_COUNT]; // Trapped/Dying 시작 틱
+    private final int[] lastDir = new int[PLAYER_COUNT];
+    private final int[] spriteRow = new int[PLAYER_COUNT];
+    private final int[] spriteCol = new int[PLAYER_COUNT];
+    private final int[] frameCounter = new int[PLAYER_COUNT];
+    private static final int ANIMATION_SPEED = 3;
+
+    // ========== 물풍선 (설치 순서대로 저장) ==========
+    private int balloonCount = 0;
+    private final int[] balloonRow = new int[MAX_BALLOONS];
+    private final int[] balloonCol = new int[MAX_BALLOONS];
+    private final int[] balloonRange = new int[MAX_BALLOONS];
+    private final int[] balloonOwner = new int[MAX_BALLOONS]; // 1 또는 2
+    private final int[] balloonPlaceTick = new int[MAX_BALLOONS];
+    private final int[] balloonExplodeTick = new int[MAX_BALLOONS];
+    private final int[] balloonInstallX = new int[MAX_BALLOONS];
+    private final int[] balloonInstallY = new int[MAX_BALLOONS];
+    private final boolean[] balloonCollision = new boolean[MAX_BALLOONS];
+
+    // ========== 폭발 (칸마다 마지막 폭발 시작 틱과 방향) ==========
+    private final int[] blastStartTick = new int[CELL_COUNT];
+    private final int[] blastType = new int[CELL_COUNT];
+
+    // 연쇄 폭발 스택 (터질 차례를 기다리는 물풍선 칸) - 폭발마다 최대 4개, 틱마다 재사용
+    private final int[] chainStack = new int[(MAX_BALLOONS + 1) * 4];
+
+    // 칸별 물줄기 예정 틱 (물풍선 설치/폭발, 블록 파괴 때만 갱신)
+    private final DangerMap dangerMap = new DangerMap();
+    // 경기 난수 (아이템 드롭). resetGame마다 matchSeed로 되돌리고, 상태는 스냅샷에 포함
+    private long matchSeed = 0;
+    private final MatchRandom random = new MatchRandom(0);
+    // 타일(블록/아이템)이 바뀔 때마다 증가
+    private int tileVersion = 0;
+    // Zobrist 상태 해시 (값을 바꾸는 자리에서 바로 갱신)
+    private long stateHash = 0;
+    // 봇들이 함께 쓰는 거리 지도 (읽는 쪽이 update를 부를 때만 계산)
+    private final FlowFieldService flowFields = new FlowFieldService(this);
+
+    // 효과음 등 화면 쪽 이벤트 전달
+    private SimulationListener listener;
+    private boolean logging = true;
+    // 연쇄 폭발 JFR 이벤트를 남길지 (화면에 보이는 시뮬레이션만, 봇 탐색용 복사본은 끔)
+    private boolean tracing = false;
+    // 단계별 시간을 더해 넣을 곳 (null이면 재지 않음)
+    private long[] phaseNanos;
+    // 틱마다 입력을 남길 리플레이 (null이면 기록 안 함)
+    private InputReplay inputRecorder;
+
+    /**
+     * 시뮬레이션 이벤트 리스너
+     * 화면(효과음)이나 통계 쪽에서 필요한 이벤트만 골라서 구현합니다.
+     */
+    public interface SimulationListener {
+        default void onBalloonPlaced(int row, int col, int owner) {
+        }
+
+        default void onExplosion(int row, int col, int range) {
+        }
+    }
+
+    public GameSimulation() {
+        for (int i = 0; i < CELL_COUNT; i++) {
+            blastStartTick[i] = -1;
+        }
+    }
+
+    /**
+     * 밀리초를 틱 수로 변환 (올림)
+     */
+    public static int msToTicks(int ms) {
+        return (ms + TICK_MS - 1) / TICK_MS;
+    }
+
+    // ===== 초기화 =====
+
+    /**
+     * 맵 데이터 파일(mapData1.txt 등)을 읽어 타일을 만듭니다.
+     *
+     * @param mapDataFile 프로젝트 루트 기준 맵 데이터 파일명
+     */
+    public void loadTilesFromFile(String mapDataFile) {
+        this.mapDataFile = mapDataFile;
+        String path = System.getProperty("user.dir") + File.separator + mapDataFile;
+        int[][] data = new int[TILE_ROWS][TILE_COLS];
+
+        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+            String line;
+            int row = 0;
+
+            while ((line = br.readLine()) != null && row < TILE_ROWS) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                // 공백 또는 쉼표로 구분
+                String[] parts = line.split("[,\\s]+");
+
+                for (int col = 0; col < TILE_COLS && col < parts.length; col++) {
+                    try {
+                        data[row][col] = Integer.parseInt(parts[col].trim());
+                    } catch (NumberFormatException e) {
+                        System.err.println("숫자 파싱 오류 - 행:" + row + ", 열:" + col + ", 값:'" + parts[col] + "'");
+                        data[row][col] = 0;
+                    }
+                }
+                row++;
+            }
+        } catch (IOException e) {
+            System.err.println("맵 데이터 로드 실패 (" + mapDataFile + "): " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        tiles = new Tile[TILE_ROWS][TILE_COLS];
+        for (int r = 0; r < TILE_ROWS; r++) {
+            for (int c = 0; c < TILE_COLS; c++) {
+                int centerX = MAP_X + c * TILE_WIDTH + TILE_WIDTH / 2;
+                int centerY = MAP_Y + r * TILE_HEIGHT + TILE_HEIGHT / 2;
+                boolean isBreakable = (data[r][c] >= 0 && data[r][c] <= 3);
+                tiles[r][c] = new Tile(centerX, centerY, data[r][c], isBreakable);
+                initialItems[r * TILE_COLS + c] = data[r][c];
+            }
+        }
+        dangerMap.rebuild(this);
+        tileVersion++;
+        stateHash = StateHash.compute(this);
+
+        if (logging) {
+            System.out.println("타일 로드 완료: " + TILE_ROWS + "x" + TILE_COLS + " (파일: " + mapDataFile + ")");
+        }
+    }
+
+    /**
+     * 캐릭터 설정 (다음 resetGame부터 능력치에 반영)
+     */
+    public void setCharacters(String p1Character, String p2Character) {
+        characterNames[0] = p1Character;
+        characterNames[1] = p2Character;
+    }
+
+    /**
+     * 게임 상태를 처음으로 되돌립니다.
+     * 타일은 마지막으로 읽은 맵 데이터로 복원합니다.
+     */
+    public void resetGame() {
+        tick = 0;
+        gameState = STATE_PLAYING;
+        endTick = -1;
+
+        for (int p = 0; p < PLAYER_COUNT; p++) {
+            playerState[p] = PLAYER_STATE_ALIVE;
+            stateStartTick[p] = 0;
+            lastDir[p] = DIR_NONE;
+            spriteRow[p] = 3;
+            spriteCol[p] = 0;
+            frameCounter[p] = 0;
+        }
+        initPlayerPositions();
+        initCharacterStats();
+
+        if (tiles != null) {
+            for (int r = 0; r < TILE_ROWS; r++) {
+                for (int c = 0; c < TILE_COLS; c++) {
+                    tiles[r][c].setItemIndex(initialItems[r * TILE_COLS + c]);
+                }
+            }
+        }
+
+        balloonCount = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            blastStartTick[i] = -1;
+            blastType[i] = BLAST_CENTER;
+        }
+        random.setSeed(matchSeed);
+        dangerMap.clear();
+        tileVersion++;
+        stateHash = StateHash.compute(this);
+    }
+
+    private void initPlayerPositions() {
+        playerX[0] = MAP_X + 40;
+        playerY[0] = MAP_Y + 40;
+        playerX[1] = MAP_X + MAP_WIDTH - 80;
+        playerY[1] = MAP_Y + MAP_HEIGHT - 80;
+    }
+
+    private void initCharacterStats() {
+        for (int p = 0; p < PLAYER_COUNT; p++) {
+            // 슬롯 기본값: 1P는 배찌, 2P는 다오 능력치
+            String name = characterNames[p];
+            boolean bazzi = "배찌".equals(name) || (!"다오".equals(name) && p == 0);
+            if (bazzi) {
+                bombCount[p] = 1;
+                bombRange[p] = 1;
+                speed[p] = 4;
+                maxBombCount[p] = 6;
+                maxBombRange[p] = 7;
+                maxSpeed[p] = 9;
+            } else {
+                bombCount[p] = 2;
+                bombRange[p] = 1;
+                speed[p] = 4;
+                maxBombCount[p] = 7;
+                maxBombRange[p] = 9;
+                maxSpeed[p] = 8;
+            }
+        }
+    }
+
+    /**
+     * 경기 난수 시드 (다음 resetGame부터 적용). 같은 시드와 같은 입력이면 같은 경기가 됩니다.
+     */
+    public void setMatchSeed(long seed) {
+        this.matchSeed = seed;
+    }
+
+    public long getMatchSeed() {
+        return matchSeed;
+    }
+
+    /**
+     * 능력치 하나를 직접 바꿉니다 (밸런스 시험용, resetGame 뒤에 호출).
+     *
+     * @param stat bombCount, bombRange, speed, maxBombCount, maxBombRange, maxSpeed 중 하나
+     */
+    public void setPlayerStat(int p, String stat, int value) {
+        switch (stat) {
+            case "bombCount": bombCount[p] = value; break;
+            case "bombRange": bombRange[p] = value; break;
+            case "speed": speed[p] = value; break;
+            case "maxBombCount": maxBombCount[p] = value; break;
+            case "maxBombRange": maxBombRange[p] = value; break;
+            case "maxSpeed": maxSpeed[p] = value; break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 능력치: " + stat);
+        }
+    }
+
+    // ===== 틱 진행 =====
+
+    /**
+     * 한 틱 진행 (기존 updateGame + 키 입력 처리)
+     *
+     * @param p1Input 1P 입력 비트마스크
+     * @param p2Input 2P 입력 비트마스크
+     */
+    public void updateGame(int p1Input, int p2Input) {
+        if (gameState != STATE_PLAYING) {
+            tick++;
+            return;
+        }
+        if (inputRecorder != null) {
+            inputRecorder.record(tick, p1Input, p2Input, stateHash);
+        }
+
+        long phaseStart = phaseNanos != null ? System.nanoTime() : 0;
+
+        // 0. 입력 반영 (방향 전환 → 스프라이트 행 변경, 물풍선 설치)
+        applyInput(0, p1Input);
+        applyInput(1, p2Input);
+        phaseStart = endPhase(PHASE_INPUT, phaseStart);
+
+        updateBalloonCollisions();
+        phaseStart = endPhase(PHASE_COLLISIONS, phaseStart);
+
+        // 1~2. 플레이어 이동
+        for (int p = 0; p < PLAYER_COUNT; p++) {
+            movePlayer(p);
+        }
+        phaseStart = endPhase(PHASE_MOVEMENT, phaseStart);
+
+        // 3. 아이템 충돌 체크 (시작 직후 몇 틱은 비활성)
+        if (tick >= STARTUP_DELAY_TICKS) {
+            for (int p = 0; p < PLAYER_COUNT; p++) {
+                if (playerState[p] == PLAYER_STATE_ALIVE) {
+                    checkPlayerItemCollision(p);
+                }
+            }
+        }
+        phaseStart = endPhase(PHASE_COLLISIONS, phaseStart);
+
+        // 4. 스프라이트 애니메이션
+        for (int p = 0; p < PLAYER_COUNT; p++) {
+            if (playerState[p] == PLAYER_STATE_ALIVE) {
+                updatePlayerAnimation(p);
+            }
+        }
+        phaseStart = endPhase(PHASE_MOVEMENT, phaseStart);
+
+        // 5. 폭탄 시스템
+        updateBombSystem();
+        phaseStart = endPhase(PHASE_BOMBS, phaseStart);
+        checkPlayerToPlayerCollision();
+        endPhase(PHASE_COLLISIONS, phaseStart);
+
+        // 6. 시간 및 결과 판정
+        if (getRemainingTime() <= 0) {
+            endGame(STATE_DRAW);
+        }
+        boolean p1Dead = playerState[0] == PLAYER_STATE_DEAD;
+        boolean p2Dead = playerState[1] == PLAYER_STATE_DEAD;
+        if (p1Dead && !p2Dead) {
+            endGame(STATE_P2_WIN);
+        } else if (p2Dead && !p1Dead) {
+            endGame(STATE_P1_WIN);
+        } else if (p1Dead && p2Dead) {
+            endGame(STATE_DRAW);
+        }
+
+        tick++;
+    }
+
+    /**
+     * start부터 지금까지를 phase 시간에 더하고 지금 시각을 돌려줍니다 (측정 중이 아니면 아무 것도 안 함).
+     */
+    private long endPhase(int phase, long start) {
+        if (phaseNanos == null) return 0;
+        long now = System.nanoTime();
+        phaseNanos[phase] += now - start;
+        return now;
+    }
+
+    private void endGame(int result) {
+        gameState = result;
+        endTick = tick;
+    }
+
+    private void applyInput(int p, int input) {
+        int dir = input & INPUT_DIR_MASK;
+        if (dir != DIR_NONE && dir != lastDir[p]) {
+            switch (dir) {
+                case DIR_UP: spriteRow[p] = 1; break;
+                case DIR_DOWN: spriteRow[p] = 3; break;
+                case DIR_LEFT: spriteRow[p] = 0; break;
+                case DIR_RIGHT: spriteRow[p] = 2; break;
+                default: break;
+            }
+            spriteCol[p] = 0;
+            frameCounter[p] = 0;
+        }
+        lastDir[p] = dir;
+
+        if ((input & INPUT_BOMB) != 0) {
+            placeWaterBalloon(p);
+        }
+    }
+
+    private void movePlayer(int p) {
+        int state = playerState[p];
+        if ((state != PLAYER_STATE_ALIVE && state != PLAYER_STATE_TRAPPED) || lastDir[p] == DIR_NONE) {
+            return;
+        }
+        // Trapped 상태에서는 속도 1
+        int moveSpeed = (state == PLAYER_STATE_ALIVE) ? speed[p] : 1;
+
+        int x = playerX[p];
+        int y = playerY[p];
+        int newX = x, newY = y;
+        switch (lastDir[p]) {
+            case DIR_UP: newY = Math.max(MAP_Y, y - moveSpeed); break;
+            case DIR_DOWN: newY = Math.min(MAP_Y + MAP_HEIGHT - PLAYER_SIZE, y + moveSpeed); break;
+            case DIR_LEFT: newX = Math.max(MAP_X, x - moveSpeed); break;
+            case DIR_RIGHT: newX = Math.min(MAP_X + MAP_WIDTH - PLAYER_SIZE, x + moveSpeed); break;
+            default: break;
+        }
+
+        if (!isCollidingWithBlock(newX, y, PLAYER_SIZE) && !isCollidingWithBalloon(newX, y, PLAYER_SIZE))
+            playerX[p] = newX;
+        if (!isCollidingWithBlock(playerX[p], newY, PLAYER_SIZE) && !isCollidingWithBalloon(playerX[p], newY, PLAYER_SIZE))
+            playerY[p] = newY;
+        if (playerX[p] != x || playerY[p] != y) {
+            stateHash ^= StateHash.position(p, x, y) ^ StateHash.position(p, playerX[p], playerY[p]);
+        }
+    }
+
+    private void updatePlayerAnimation(int p) {
+        if (lastDir[p] != DIR_NONE) {
+            frameCounter[p]++;
+            if (frameCounter[p] >= ANIMATION_SPEED) {
+                frameCounter[p] = 0;
+                spriteCol[p] = (spriteCol[p] + 1) % 8;
+            }
+        }
+    }
+
+    // ===== 물풍선 =====
+
+    /**
+     * 플레이어 p가 지금 자리에 물풍선을 놓을 수 있는지 (살아 있고, 개수 여유가 있고, 빈 칸)
+     */
+    public boolean canPlaceBalloon(int p) {
+        if (playerState[p] != PLAYER_STATE_ALIVE) return false;
+        if (countBalloons(p + 1) >= bombCount[p]) return false;
+        if (balloonCount >= MAX_BALLOONS) return false;
+
+        // 이미 물풍선이 있는지 확인
+        int row = getTileRow(playerY[p] + PLAYER_SIZE / 2);
+        int col = getTileCol(playerX[p] + PLAYER_SIZE / 2);
+        return findBalloon(row, col) < 0;
+    }
+
+    private void placeWaterBalloon(int p) {
+        if (!canPlaceBalloon(p)) return;
+        int owner = p + 1;
+        int row = getTileRow(playerY[p] + PLAYER_SIZE / 2);
+        int col = getTileCol(playerX[p] + PLAYER_SIZE / 2);
+
+        int i = balloonCount++;
+        balloonRow[i] = row;
+        balloonCol[i] = col;
+        balloonRange[i] = bombRange[p];
+        balloonOwner[i] = owner;
+        balloonPlaceTick[i] = tick;
+        balloonExplodeTick[i] = tick + BALLOON_DELAY_TICKS;
+        balloonInstallX[i] = playerX[p];
+        balloonInstallY[i] = playerY[p];
+        balloonCollision[i] = false;
+        stateHash ^= StateHash.balloon(row * TILE_COLS + col, owner);
+        dangerMap.placeBalloon(tiles, row, col, bombRange[p], balloonExplodeTick[i]);
+
+        if (listener != null) listener.onBalloonPlaced(row, col, owner);
+    }
+
+    private int countBalloons(int owner) {
+        int n = 0;
+        for (int i = 0; i < balloonCount; i++) {
+            if (balloonOwner[i] == owner) n++;
+        }
+        return n;
+    }
+
+    private int findBalloon(int row, int col) {
+        for (int i = 0; i < balloonCount; i++) {
+            if (balloonRow[i] == row && balloonCol[i] == col) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 설치 순서를 유지하며 삭제
+    private void removeBalloon(int index) {
+        dangerMap.removeBalloon(balloonRow[index], balloonCol[index]);
+        stateHash ^= StateHash.balloon(balloonRow[index] * TILE_COLS + balloonCol[index], balloonOwner[index]);
+        int last = balloonCount - 1;
+        for (int i = index; i < last; i++) {
+            balloonRow[i] = balloonRow[i + 1];
+            balloonCol[i] = balloonCol[i + 1];
+            balloonRange[i] = balloonRange[i + 1];
+            balloonOwner[i] = balloonOwner[i + 1];
+            balloonPlaceTick[i] = balloonPlaceTick[i + 1];
+            balloonExplodeTick[i] = balloonExplodeTick[i + 1];
+            balloonInstallX[i] = balloonInstallX[i + 1];
+            balloonInstallY[i] = balloonInstallY[i + 1];
+            balloonCollision[i] = balloonCollision[i + 1];
+        }
+        balloonCount = last;
+    }
+
+    private void updateBalloonCollisions() {
+        for (int i = 0; i < balloonCount; i++) {
+            if (balloonCollision[i]) continue;
+            // 설치한 플레이어가 설치 위치에서 충분히 멀어졌는지 확인
+            int p = balloonOwner[i] - 1;
+            int dx = playerX[p] - balloonInstallX[i];
+            int dy = playerY[p] - balloonInstallY[i];
+            if (dx * dx + dy * dy > SAFE_DISTANCE * SAFE_DISTANCE) {
+                balloonCollision[i] = true;
+            }
+        }
+    }
+
+    // ===== 폭탄 시스템 =====
+
+    private void updateBombSystem() {
+        // 1P → 2P 순서로 터질 시간이 된 물풍선 처리 (연쇄로 이미 사라졌으면 건너뜀)
+        for (int owner = 1; owner <= PLAYER_COUNT; owner++) {
+            int i = 0;
+            while (i < balloonCount) {
+                if (balloonOwner[i] == owner && tick >= balloonExplodeTick[i]) {
+                    int row = balloonRow[i];
+                    int col = balloonCol[i];
+                    int range = balloonRange[i];
+                    removeBalloon(i);
+                    createExplosion(row, col, range);
+                    i = 0; // 연쇄 폭발로 배열이 바뀌었으므로 처음부터 다시 확인
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        checkExplosionCollision();
+    }
+
+    /**
+     * 물줄기 생성 및 연쇄 폭발 처리
+     * 재귀 대신 고정 크기 스택을 쓰지만 순서와 결과는 원래 재귀와 같습니다:
+     * 한 폭발이 4방향(왼쪽, 오른쪽, 위, 아래)에서 만난 물풍선은 그 순서대로 하나씩 끝까지 터뜨리고,
+     * 맞았지만 아직 터지지 않은 물풍선은 판에 남아 있어 다른 물줄기를 막습니다.
+     * (맞자마자 지우면 뒤 물줄기가 그 칸을 지나 더 멀리 퍼지므로 원래 규칙과 달라짐)
+     */
+    private void createExplosion(int centerRow, int centerCol, int range) {
+        GameEvents.ChainReaction event = tracing ? new GameEvents.ChainReaction() : null;
+        if (event != null) event.begin();
+        int cells = 0;
+        int blocks = 0;
+        int exploded = 0;
+        int top = 0;
+        int row = centerRow;
+        int col = centerCol;
+        int r = range;
+
+        while (true) {
+            exploded++;
+            if (listener != null) listener.onExplosion(row, col, r);
+
+            // 중심 폭발 및 블록 파괴
+            setBlast(row, col, BLAST_CENTER);
+            cells++;
+            if (tiles != null && inBounds(row, col)) {
+                Tile centerTile = tiles[row][col];
+                if (centerTile.isBreakable()) {
+                    int before = centerTile.getItemIndex();
+                    centerTile.breakBlock(random, logging);
+                    tileChanged(row, col, before);
+                }
+            }
+
+            // 4방향 폭발
+            int firstChild = top;
+            for (int d = 0; d < 4; d++) {
+                for (int i = 1; i <= r; i++) {
+                    int newRow = row + DIR_ROW[d] * i;
+                    int newCol = col + DIR_COL[d] * i;
+
+                    if (!inBounds(newRow, newCol)) {
+                        break;
+                    }
+
+                    setBlast(newRow, newCol, DIR_BLAST[d]);
+                    cells++;
+
+                    if (tiles != null) {
+                        Tile tile = tiles[newRow][newCol];
+                        int itemIndex = tile.getItemIndex();
+
+                        // 파괴 가능한 블록(3)에 막힘 → 파괴 후 전파 중단
+                        if (itemIndex == 3) {
+                            if (tile.isBreakable()) {
+                                tile.breakBlock(random, logging);
+                                tileChanged(newRow, newCol, itemIndex);
+                                dangerMap.blockBroken(tiles, newRow, newCol);
+                                blocks++;
+                            }
+                            break;
+                        }
+                        if (itemIndex >= 0 && itemIndex <= 2) {
+                            tile.breakBlock(random, logging);
+                            tileChanged(newRow, newCol, itemIndex);
+                        }
+                    }
+
+                    // 연쇄 폭발 확인 → 물풍선은 터질 차례까지 판에 남겨 두고 물줄기만 멈춤
+                    if (findBalloon(newRow, newCol) >= 0) {
+                        chainStack[top++] = newRow * TILE_COLS + newCol;
+                        break;
+                    }
+                }
+            }
+            // 방향 순서대로 꺼내도록 이번에 넣은 것을 뒤집음
+            for (int i = firstChild, j = top - 1; i < j; i++, j--) {
+                int tmp = chainStack[i];
+                chainStack[i] = chainStack[j];
+                chainStack[j] = tmp;
+            }
+
+            // 다음으로 터질 물풍선 (먼저 다른 연쇄로 터졌으면 건너뜀)
+            int hit = -1;
+            while (hit < 0 && top > 0) {
+                int cell = chainStack[--top];
+                row = cell / TILE_COLS;
+                col = cell % TILE_COLS;
+                hit = findBalloon(row, col);
+            }
+            if (hit < 0) break;
+            r = balloonRange[hit];
+            removeBalloon(hit);
+        }
+
+        if (event != null && event.shouldCommit()) {
+            event.tick = tick;
+            event.row = centerRow;
+            event.col = centerCol;
+            event.cells = cells;
+            event.balloons = exploded;
+            event.blocks = blocks;
+            event.commit();
+        }
+    }
+
+    private void setBlast(int row, int col, int type) {
+        if (!inBounds(row, col)) return;
+        int cell = row * TILE_COLS + col;
+        blastStartTick[cell] = tick;
+        blastType[cell] = type;
+        dangerMap.onBlast(row, col, tick);
+    }
+
+    private void checkExplosionCollision() {
+        if (playerState[0] == PLAYER_STATE_DEAD && playerState[1] == PLAYER_STATE_DEAD) return;
+
+        for (int p = 0; p < PLAYER_COUNT; p++) {
+            // 폭발에 맞으면 Trapped 상태로 전환
+            if (playerState[p] == PLAYER_STATE_ALIVE) {
+                int row = getTileRow(playerY[p] + PLAYER_SIZE / 2);
+                int col = getTileCol(playerX[p] + PLAYER_SIZE / 2);
+                if (isBlastActive(row, col)) {
+                    setPlayerState(p, PLAYER_STATE_TRAPPED);
+                    stateStartTick[p] = tick;
+                    if (logging) System.out.println((p + 1) + "P Trapped!");
+                }
+            }
+
+            // Trapped 6초 경과 → Dying
+            if (playerState[p] == PLAYER_STATE_TRAPPED && tick - stateStartTick[p] >= TRAPPED_TICKS) {
+                setPlayerState(p, PLAYER_STATE_DYING);
+                stateStartTick[p] = tick;
+                if (logging) System.out.println((p + 1) + "P Dying...");
+            }
+
+            // Dying 1초 경과 → Dead
+            if (playerState[p] == PLAYER_STATE_DYING && tick - stateStartTick[p] >= DIE_TICKS) {
+                setPlayerState(p, PLAYER_STATE_DEAD);
+                if (logging) System.out.println((p + 1) + "P Dead!");
+            }
+        }
+    }
+
+    // 캐릭터 간 충돌: 갇힌 플레이어에 살아있는 플레이어가 닿으면 사망
+    private void checkPlayerToPlayerCollision() {
+        if (playerState[0] == PLAYER_STATE_DEAD || playerState[1] == PLAYER_STATE_DEAD) return;
+
+        boolean overlap = Math.abs(playerX[0] - playerX[1]) < PLAYER_SIZE
+                && Math.abs(playerY[0] - playerY[1]) < PLAYER_SIZE;
+        if (!overlap) return;
+
+        if (playerState[0] == PLAYER_STATE_TRAPPED && playerState[1] == PLAYER_STATE_ALIVE) {
+            killPlayer(0);
+        }
+        if (playerState[1] == PLAYER_STATE_TRAPPED && playerState[0] == PLAYER_STATE_ALIVE) {
+            killPlayer(1);
+        }
+    }
+
+    private void killPlayer(int p) {
+        if (playerState[p] != PLAYER_STATE_DYING && playerState[p] != PLAYER_STATE_DEAD) {
+            setPlayerState(p, PLAYER_STATE_DYING);
+            stateStartTick[p] = tick;
+            if (logging) System.out.println((p + 1) + "P가 터졌습니다! (접촉 사망)");
+        }
+    }
+
+    // ===== 충돌 판정 =====
+
+    private boolean isCollidingWithBlock(int x, int y, int size) {
+        if (tiles == null) return false;
+        return isBlockAt(x + 5, y + 5)
+                || isBlockAt(x + size - 5, y + 5)
+                || isBlockAt(x + 5, y + size - 5)
+                || isBlockAt(x + size - 5, y + size - 5);
+    }
+
+    private boolean isBlockAt(int px, int py) {
+        int col = (px - MAP_X) / TILE_WIDTH;
+        int row = (py - MAP_Y) / TILE_HEIGHT;
+        if (!inBounds(row, col)) return false;
+        return tiles[row][col].getItemIndex() == 3;
+    }
+
+    /**
+     * 물풍선과의 충돌 감지 (충돌 판정이 활성화된 물풍선만)
+     */
+    private boolean isCollidingWithBalloon(int x, int y, int size) {
+        return isBalloonAt(x + 5, y + 5)
+                || isBalloonAt(x + size - 5, y + 5)
+                || isBalloonAt(x + 5, y + size - 5)
+                || isBalloonAt(x + size - 5, y + size - 5);
+    }
+
+    private boolean isBalloonAt(int px, int py) {
+        int col = (px - MAP_X) / TILE_WIDTH;
+        int row = (py - MAP_Y) / TILE_HEIGHT;
+        if (!inBounds(row, col)) return false;
+        for (int i = 0; i < balloonCount; i++) {
+            if (balloonCollision[i] && balloonRow[i] == row && balloonCol[i] == col) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void setPlayerState(int p, int state) {
+        stateHash ^= StateHash.playerState(p, playerState[p]) ^ StateHash.playerState(p, state);
+        playerState[p] = state;
+    }
+
+    // ===== 아이템 =====
+
+    private void checkPlayerItemCollision(int p) {
+        int row = getTileRow(playerY[p] + PLAYER_SIZE / 2);
+        int col = getTileCol(playerX[p] + PLAYER_SIZE / 2);
+        if (tiles == null || !inBounds(row, col)) return;
+
+        Tile tile = tiles[row][col];
+        int itemIndex = tile.getItemIndex();
+        if (itemIndex >= 0 && itemIndex <= 2) {
+            acquireItem(p, itemIndex);
+            tile.setItemIndex(5);
+            tileChanged(row, col, itemIndex);
+        }
+    }
+
+    private void acquireItem(int p, int itemType) {
+        switch (itemType) {
+            case 0: // 물풍선 개수 증가
+                if (bombCount[p] < maxBombCount[p]) bombCount[p]++;
+                break;
+            case 1: // 물풍선 범위 증가
+                if (bombRange[p] < maxBombRange[p]) bombRange[p]++;
+                break;
+            case 2: // 이동속도 증가
+                if (speed[p] < maxSpeed[p]) speed[p]++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ===== 좌표 변환 =====
+
+    public static int getTileRow(int pixelY) {
+        return (pixelY - MAP_Y) / TILE_HEIGHT;
+    }
+
+    public static int getTileCol(int pixelX) {
+        return (pixelX - MAP_X) / TILE_WIDTH;
+    }
+
+    public static boolean inBounds(int row, int col) {
+        return row >= 0 && row < TILE_ROWS && col >= 0 && col < TILE_COLS;
+    }
+
+    // ===== 스냅샷 (롤백용) =====
+
+    /**
+     * 현재 상태 전체를 스냅샷에 복사합니다 (객체 생성 없음).
+     */
+    public void saveState(SimSnapshot s) {
+        s.tick = tick;
+        s.gameState = gameState;
+        s.endTick = endTick;
+        s.randomState = random.getState();
+        s.stateHash = stateHash;
+        for (int r = 0; r < TILE_ROWS; r++) {
+            for (int c = 0; c < TILE_COLS; c++) {
+                s.tileItems[r * TILE_COLS + c] = (byte) (tiles != null ? tiles[r][c].getItemIndex() : 0);
+            }
+        }
+        System.arraycopy(playerX, 0, s.playerX, 0, PLAYER_COUNT);
+        System.arraycopy(playerY, 0, s.playerY, 0, PLAYER_COUNT);
+        System.arraycopy(bombCount, 0, s.bombCount, 0, PLAYER_COUNT);
+        System.arraycopy(bombRange, 0, s.bombRange, 0, PLAYER_COUNT);
+        System.arraycopy(speed, 0, s.speed, 0, PLAYER_COUNT);
+        System.arraycopy(maxBombCount, 0, s.maxBombCount, 0, PLAYER_COUNT);
+        System.arraycopy(maxBombRange, 0, s.maxBombRange, 0, PLAYER_COUNT);
+        System.arraycopy(maxSpeed, 0, s.maxSpeed, 0, PLAYER_COUNT);
+        System.arraycopy(playerState, 0, s.playerState, 0, PLAYER_COUNT);
+        System.arraycopy(stateStartTick, 0, s.stateStartTick, 0, PLAYER_COUNT);
+        System.arraycopy(lastDir, 0, s.lastDir, 0, PLAYER_COUNT);
+        System.arraycopy(spriteRow, 0, s.spriteRow, 0, PLAYER_COUNT);
+        System.arraycopy(spriteCol, 0, s.spriteCol, 0, PLAYER_COUNT);
+        System.arraycopy(frameCounter, 0, s.frameCounter, 0, PLAYER_COUNT);
+
+        s.balloonCount = balloonCount;
+        System.arraycopy(balloonRow, 0, s.balloonRow, 0, balloonCount);
+        System.arraycopy(balloonCol, 0, s.balloonCol, 0, balloonCount);
+        System.arraycopy(balloonRange, 0, s.balloonRange, 0, balloonCount);
+        System.arraycopy(balloonOwner, 0, s.balloonOwner, 0, balloonCount);
+        System.arraycopy(balloonPlaceTick, 0, s.balloonPlaceTick, 0, balloonCount);
+        System.arraycopy(balloonExplodeTick, 0, s.balloonExplodeTick, 0, balloonCount);
+        System.arraycopy(balloonInstallX, 0, s.balloonInstallX, 0, balloonCount);
+        System.arraycopy(balloonInstallY, 0, s.balloonInstallY, 0, balloonCount);
+        System.arraycopy(balloonCollision, 0, s.balloonCollision, 0, balloonCount);
+
+        System.arraycopy(blastStartTick, 0, s.blastStartTick, 0, CELL_COUNT);
+        System.arraycopy(blastType, 0, s.blastType, 0, CELL_COUNT);
+    }
+
+    /**
+     * 스냅샷의 상태로 되돌립니다 (객체 생성 없음).
+     * 같은 맵을 읽은 시뮬레이션에서만 사용해야 합니다.
+     */
+    public void loadState(SimSnapshot s) {
+        tick = s.tick;
+        gameState = s.gameState;
+        endTick = s.endTick;
+        random.setState(s.randomState);
+        if (tiles != null) {
+            for (int r = 0; r < TILE_ROWS; r++) {
+                for (int c = 0; c < TILE_COLS; c++) {
+                    tiles[r][c].setItemIndex(s.tileItems[r * TILE_COLS + c]);
+                }
+            }
+        }
+        System.arraycopy(s.playerX, 0, playerX, 0, PLAYER_COUNT);
+        System.arraycopy(s.playerY, 0, playerY, 0, PLAYER_COUNT);
+        System.arraycopy(s.bombCount, 0, bombCount, 0, PLAYER_COUNT);
+        System.arraycopy(s.bombRange, 0, bombRange, 0, PLAYER_COUNT);
+        System.arraycopy(s.speed, 0, speed, 0, PLAYER_COUNT);
+        System.arraycopy(s.maxBombCount, 0, maxBombCount, 0, PLAYER_COUNT);
+        System.arraycopy(s.maxBombRange, 0, maxBombRange, 0, PLAYER_COUNT);
+        System.arraycopy(s.maxSpeed, 0, maxSpeed, 0, PLAYER_COUNT);
+        System.arraycopy(s.playerState, 0, playerState, 0, PLAYER_COUNT);
+        System.arraycopy(s.stateStartTick, 0, stateStartTick, 0, PLAYER_COUNT);
+        System.arraycopy(s.lastDir, 0, lastDir, 0, PLAYER_COUNT);
+        System.arraycopy(s.spriteRow, 0, spriteRow, 0, PLAYER_COUNT);
+        System.arraycopy(s.spriteCol, 0, spriteCol, 0, PLAYER_COUNT);
+        System.arraycopy(s.frameCounter, 0, frameCounter, 0, PLAYER_COUNT);
+
+        balloonCount = s.balloonCount;
+        System.arraycopy(s.balloonRow, 0, balloonRow, 0, balloonCount);
+        System.arraycopy(s.balloonCol, 0, balloonCol, 0, balloonCount);
+        System.arraycopy(s.balloonRange, 0, balloonRange, 0, balloonCount);
+        System.arraycopy(s.balloonOwner, 0, balloonOwner, 0, balloonCount);
+        System.arraycopy(s.balloonPlaceTick, 0, balloonPlaceTick, 0, balloonCount);
+        System.arraycopy(s.balloonExplodeTick, 0, balloonExplodeTick, 0, balloonCount);
+        System.arraycopy(s.balloonInstallX, 0, balloonInstallX, 0, balloonCount);
+        System.arraycopy(s.balloonInstallY, 0, balloonInstallY, 0, balloonCount);
+        System.arraycopy(s.balloonCollision, 0, balloonCollision, 0, balloonCount);
+
+        System.arraycopy(s.blastStartTick, 0, blastStartTick, 0, CELL_COUNT);
+        System.arraycopy(s.blastType, 0, blastType, 0, CELL_COUNT);
+        dangerMap.rebuild(this);
+        tileVersion++;
+        stateHash = StateHash.compute(this);
+    }
+
+    /**
+     * 타일 하나가 before에서 지금 값으로 바뀐 뒤 호출 (버전/해시 갱신)
+     */
+    private void tileChanged(int row, int col, int before) {
+        int cell = row * TILE_COLS + col;
+        stateHash ^= StateHash.tile(cell, before) ^ StateHash.tile(cell, tiles[row][col].getItemIndex());
+        tileVersion++;
+    }
+
+    // ===== 설정 =====
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener;
+    }
+
+    public SimulationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 진행 중인 틱 입력을 리플레이에 기록합니다 (null이면 기록 중지).
+     */
+    public void setInputRecorder(InputReplay recorder) {
+        this.inputRecorder = recorder;
+    }
+
+    /**
+     * 콘솔 로그 출력 여부 (재시뮬레이션/헤드리스 실행 시 끔)
+     */
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+    }
+
+    /**
+     * 연쇄 폭발마다 JFR 이벤트(GameEvents.ChainReaction)를 남길지 설정합니다.
+     */
+    public void setTracing(boolean tracing) {
+        this.tracing = tracing;
+    }
+
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    /**
+     * 틱마다 단계별(PHASE_*) 걸린 시간을 sink에 더합니다. 비우는 것은 호출한 쪽이 합니다.
+     * null이면 재지 않습니다 (봇 탐색용 복사본, 벤치마크).
+     */
+    public void setPhaseTimes(long[] sink) {
+        this.phaseNanos = sink;
+    }
+
+    public boolean isLogging() {
+        return logging;
+    }
+
+    // ===== 조회 (화면 그리기용) =====
+
+    public int getTick() { return tick; }
+    public int getGameState() { return gameState; }
+    public int getEndTick() { return endTick; }
+    public String getMapDataFile() { return mapDataFile; }
+    public Tile[][] getTiles() { return tiles; }
+
+    /**
+     * 칸별 물줄기 예정 틱 (시뮬레이션이 갱신, 읽기 전용으로 사용)
+     */
+    public DangerMap getDangerMap() { return dangerMap; }
+
+    /**
+     * 봇용 공유 거리 지도 (읽기 전에 update 호출)
+     */
+    public FlowFieldService getFlowFields() { return flowFields; }
+
+    /**
+     * 블록/아이템이 바뀔 때마다 증가하는 번호
+     */
+    public int getTileVersion() { return tileVersion; }
+
+    /**
+     * 지금 상태의 Zobrist 해시 (타일, 물풍선 칸/주인, 플레이어 좌표/상태). 틱 시작 시점 비교용
+     */
+    public long getStateHash() { return stateHash; }
+    public String getCharacterName(int p) { return characterNames[p]; }
+
+    /**
+     * 남은 시간 (초)
+     */
+    public int getRemainingTime() {
+        return GAME_TIME - (int) ((long) tick * TICK_MS / 1000);
+    }
+
+    public int getPlayerX(int p) { return playerX[p]; }
+    public int getPlayerY(int p) { return playerY[p]; }
+    public int getPlayerState(int p) { return playerState[p]; }
+    public int getStateStartTick(int p) { return stateStartTick[p]; }
+    public int getBombCount(int p) { return bombCount[p]; }
+    public int getBombRange(int p) { return bombRange[p]; }
+    public int getSpeed(int p) { return speed[p]; }
+    public int getSpriteRow(int p) { return spriteRow[p]; }
+    public int getSpriteCol(int p) { return spriteCol[p]; }
+
+    public int getBalloonCount() { return balloonCount; }
+    public int getBalloonRow(int i) { return balloonRow[i]; }
+    public int getBalloonCol(int i) { return balloonCol[i]; }
+    public int getBalloonRange(int i) { return balloonRange[i]; }
+    public int getBalloonOwner(int i) { return balloonOwner[i]; }
+    public int getBalloonPlaceTick(int i) { return balloonPlaceTick[i]; }
+    public int getBalloonExplodeTick(int i) { return balloonExplodeTick[i]; }
+
+    /**
+     * 해당 칸에서 폭발(물줄기)이 진행 중인지 확인
+     */
+    public boolean isBlastActive(int row, int col) {
+        if (!inBounds(row, col)) return false;
+        int start = blastStartTick[row * TILE_COLS + col];
+        return start >= 0 && tick - start < EXPLOSION_TICKS;
+    }
+
+    public int getBlastStartTick(int row, int col) {
+        return blastStartTick[row * TILE_COLS + col];
+    }
+
+    public int getBlastType(int row, int col) {
+        return blastType[row * TILE_COLS + col];
+    }
+}
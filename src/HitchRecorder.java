@@ -0,0 +1,311 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ========================================================
+ * 끊김 기록기 (HitchRecorder)
+ * ========================================================
+ * 게임 루프 한 번(프레임)마다 단계별 시간과 주요 값을 미리 만들어 둔 고리 버퍼에 적어 두다가,
+ * 프레임 간격이나 업데이트가 기준(hitchBudgetMs, 기본 33ms)을 넘으면
+ * 최근 RING프레임과 그때의 EDT 스택을 hitches 폴더에 글 파일로 남깁니다.
+ * 가끔 생기는 끊김은 다시 만들기 어렵고 JFR을 계속 켜 두기는 무거우므로, 평소에는 이것만 켜 둡니다.
+ *
+ * 한 줄에 들어가는 값:
+ * - 프레임 간격, 업데이트 시간 (그중 입력 / 이동 / 폭발 / 충돌: GameSimulation.PHASE_*), 그리기 시간
+ * - 틱, 이번 프레임에 진행한 틱 수, 물풍선 수, GC 횟수/시간 증가, 힙 사용량
+ *
+ * EDT 스택은 감시 스레드가 잡습니다. EDT가 기준 시간 넘게 다음 프레임을 시작하지 못하면
+ * 그 순간 EDT가 무엇을 하고 있었는지 저장해 두었다가 기록에 붙입니다.
+ * 감시 스레드도 멈춰 스택이 없다면 GC나 OS가 프로세스 전체를 멈춘 경우일 가능성이 큽니다.
+ *
+ * 프레임마다 하는 일은 배열 쓰기와 System.nanoTime 몇 번뿐이고, 파일 쓰기는 별도 스레드에서 합니다.
+ */
+public class HitchRecorder {
+    public static final String HITCH_DIR = "hitches";
+    private static final int RING = 300; // 최근 프레임 수 (60fps에서 약 5초)
+    private static final long MIN_DUMP_INTERVAL_NANOS = 10_000_000_000L; // 연달아 끊길 때는 10초에 한 번만
+    private static final int MAX_DUMPS = 20; // 한 번 실행에 남길 최대 파일 수
+
+    private final long budgetNanos;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    // GameSimulation이 틱마다 단계별 시간을 더하는 곳 (프레임이 끝나면 고리에 옮기고 비움)
+    private final long[] phaseSink = new long[GameSimulation.PHASE_COUNT];
+
+    // 고리 버퍼 (프레임마다 한 칸)
+    private final long[] frameStart = new long[RING];
+    private final long[] frameGap = new long[RING];
+    private final long[] updateNanos = new long[RING];
+    private final long[] paintNanos = new long[RING];
+    private final long[] phaseNanos = new long[RING * GameSimulation.PHASE_COUNT];
+    private final int[] tick = new int[RING];
+    private final int[] steps = new int[RING];
+    private final int[] balloons = new int[RING];
+    private final long[] gcCount = new long[RING];
+    private final long[] gcMillis = new long[RING];
+    private final long[] heapUsed = new long[RING];
+    private int slot = -1;
+    private int count = 0;
+
+    // 감시 스레드와 나누는 값
+    private volatile boolean armed;
+    private volatile long lastBeat; // EDT가 마지막으로 프레임을 시작한 시각
+    private volatile Thread edt;
+    private volatile StackTraceElement[] stalledStack;
+    private volatile long stalledBeat; // stalledStack을 잡은 프레임의 lastBeat
+    private volatile long stalledAt; // stalledStack을 잡은 시각
+    private Thread watchdog;
+
+    private long previousBeat;
+    private int previousTick;
+    private long lastDumpNanos;
+    private int dumps;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hitch-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * budgetMs가 0 이하면 아무 것도 재지 않습니다.
+     */
+    public HitchRecorder(int budgetMs) {
+        this.budgetNanos = Math.max(0, budgetMs) * 1_000_000L;
+    }
+
+    public boolean isEnabled() {
+        return budgetNanos > 0;
+    }
+
+    /**
+     * GameSimulation.setPhaseTimes에 넘길 배열 (꺼져 있으면 null)
+     */
+    public long[] getPhaseSink() {
+        return isEnabled() ? phaseSink : null;
+    }
+
+    // ===== 게임 루프 시작/정지 =====
+
+    /**
+     * 게임 루프를 시작할 때 (첫 프레임 간격은 재지 않음)
+     */
+    public void start() {
+        if (!isEnabled()) return;
+        previousBeat = 0;
+        previousTick = -1;
+        lastBeat = 0;
+        count = 0;
+        Arrays.fill(phaseSink, 0);
+        synchronized (this) {
+            armed = true;
+            if (watchdog == null) {
+                watchdog = new Thread(this::watch, "hitch-watchdog");
+                watchdog.setDaemon(true);
+                watchdog.start();
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * 게임 루프를 멈출 때 (로비, 결과 화면에서 나갈 때, 화면 밖 그리기)
+     */
+    public void stop() {
+        armed = false;
+        lastBeat = 0;
+    }
+
+    // ===== 프레임 (EDT) =====
+
+    /**
+     * 게임 루프 한 번의 시작. 앞 프레임과의 간격을 적습니다.
+     */
+    public long beginFrame() {
+        if (!armed) return 0;
+        long now = System.nanoTime();
+        slot = (slot + 1) % RING;
+        count = Math.min(count + 1, RING);
+        frameStart[slot] = now;
+        frameGap[slot] = previousBeat != 0 ? now - previousBeat : 0;
+        paintNanos[slot] = 0;
+        edt = Thread.currentThread();
+        lastBeat = now;
+        return now;
+    }
+
+    /**
+     * 게임 루프 한 번의 끝. 단계별 시간과 값을 옮기고, 기준을 넘었으면 기록을 남깁니다.
+     */
+    public void endFrame(long start, GameSimulation sim) {
+        if (!armed || start == 0) return;
+        updateNanos[slot] = System.nanoTime() - start;
+        int base = slot * GameSimulation.PHASE_COUNT;
+        for (int i = 0; i < GameSimulation.PHASE_COUNT; i++) {
+            phaseNanos[base + i] = phaseSink[i];
+            phaseSink[i] = 0;
+        }
+        tick[slot] = sim.getTick();
+        steps[slot] = previousTick >= 0 ? tick[slot] - previousTick : 0;
+        previousTick = tick[slot];
+        balloons[slot] = sim.getBalloonCount();
+        long gcs = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : gcBeans) {
+            gcs += Math.max(0, gc.getCollectionCount());
+            gcTime += Math.max(0, gc.getCollectionTime());
+        }
+        gcCount[slot] = gcs;
+        gcMillis[slot] = gcTime;
+        Runtime rt = Runtime.getRuntime();
+        heapUsed[slot] = rt.totalMemory() - rt.freeMemory();
+
+        long before = previousBeat;
+        previousBeat = start;
+        if (frameGap[slot] > budgetNanos || updateNanos[slot] > budgetNanos) {
+            dump(before != 0 ? before : start);
+        }
+    }
+
+    /**
+     * 그리기 시간은 지금 프레임 칸에 적습니다 (repaint는 업데이트 뒤에 그려짐).
+     */
+    public long beginPaint() {
+        return armed && slot >= 0 ? System.nanoTime() : 0;
+    }
+
+    public void endPaint(long start) {
+        if (!armed || start == 0) return;
+        paintNanos[slot] += System.nanoTime() - start;
+    }
+
+    // ===== 감시 스레드 =====
+
+    private void watch() {
+        long pollMillis = Math.max(2, budgetNanos / 2_000_000L);
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!armed) {
+                        wait();
+                    }
+                }
+                Thread.sleep(pollMillis);
+                long beat = lastBeat;
+                Thread thread = edt;
+                if (beat == 0 || thread == null || beat == stalledBeat) continue;
+                long now = System.nanoTime();
+                if (now - beat > budgetNanos) {
+                    stalledStack = thread.getStackTrace();
+                    stalledAt = now;
+                    stalledBeat = beat;
+                }
+            }
+        } catch (InterruptedException e) {
+            // 데몬 스레드: 종료
+        }
+    }
+
+    // ===== 기록 파일 =====
+
+    /**
+     * 고리 버퍼를 복사해 두고 (EDT에서 수십 µs) 글로 만들고 쓰는 일은 기록 스레드에 맡깁니다.
+     * since: 끊긴 프레임 바로 앞 프레임의 시작 시각 (이때부터 잡힌 스택만 이번 끊김의 것)
+     */
+    private void dump(long since) {
+        long now = System.nanoTime();
+        if (dumps >= MAX_DUMPS || (lastDumpNanos != 0 && now - lastDumpNanos < MIN_DUMP_INTERVAL_NANOS)) return;
+        lastDumpNanos = now;
+        dumps++;
+
+        int n = count;
+        int phases = GameSimulation.PHASE_COUNT;
+        long[][] rows = new long[n][];
+        for (int i = 0; i < n; i++) {
+            int s = (slot - n + 1 + i + RING) % RING;
+            long[] row = new long[11 + phases];
+            row[0] = frameStart[s];
+            row[1] = frameGap[s];
+            row[2] = updateNanos[s];
+            row[3] = paintNanos[s];
+            row[4] = tick[s];
+            row[5] = steps[s];
+            row[6] = balloons[s];
+            row[7] = gcCount[s];
+            row[8] = gcMillis[s];
+            row[9] = heapUsed[s];
+            row[10] = i > 0 ? gcCount[s] - rows[i - 1][7] : 0;
+            System.arraycopy(phaseNanos, s * phases, row, 11, phases);
+            rows[i] = row;
+        }
+        long beat = stalledBeat;
+        StackTraceElement[] stack = beat >= since ? stalledStack : null;
+        long stackAgeNanos = stack != null ? stalledAt - beat : 0;
+        Date date = new Date();
+        long budget = budgetNanos;
+
+        writer.execute(() -> {
+            try {
+                File file = write(date, budget, rows, stack, stackAgeNanos);
+                System.out.println("끊김 기록: " + file.getPath());
+            } catch (IOException e) {
+                System.err.println("끊김 기록 실패: " + e.getMessage());
+            }
+        });
+    }
+
+    private static File write(Date date, long budget, long[][] rows, StackTraceElement[] stack, long stackAgeNanos)
+            throws IOException {
+        File dir = new File(System.getProperty("user.dir"), HITCH_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("폴더를 만들 수 없음: " + dir);
+        }
+        File file = new File(dir, "hitch_" + new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(date) + ".txt");
+        long[] last = rows[rows.length - 1];
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            out.println("# 끊김 기록 " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(date));
+            out.println(String.format("# 기준 %.1fms, 끊긴 프레임: 간격 %.1fms, 업데이트 %.2fms, 틱 %d",
+                    budget / 1e6, last[1] / 1e6, last[2] / 1e6, last[4]));
+            out.println(String.format("# Java %s, %s, 프로세서 %d개, 힙 최대 %dMB",
+                    System.getProperty("java.version"), System.getProperty("os.name"),
+                    Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() >> 20));
+            out.println();
+            out.println("## 최근 " + rows.length + "프레임 (시각은 끊긴 프레임 기준 ms, 시간은 ms, 그리기는 그 프레임 뒤의 repaint)");
+            out.println(String.format("%9s %7s %7s %6s %6s %6s %6s %7s %6s %3s %5s %8s %6s",
+                    "시각", "간격", "업데이트", "입력", "이동", "폭발", "충돌", "그리기", "틱", "스텝", "물풍선",
+                    "GC", "힙MB"));
+            for (int i = 0; i < rows.length; i++) {
+                long[] row = rows[i];
+                long gcTime = i > 0 ? row[8] - rows[i - 1][8] : 0;
+                String mark = row[1] > budget || row[2] > budget ? "  <-- 끊김" : "";
+                out.println(String.format("%9.1f %7.1f %7.3f %6.3f %6.3f %6.3f %6.3f %7.3f %6d %3d %5d %3d/%3dms %6d%s",
+                        (row[0] - last[0]) / 1e6, row[1] / 1e6, row[2] / 1e6,
+                        row[11 + GameSimulation.PHASE_INPUT] / 1e6, row[11 + GameSimulation.PHASE_MOVEMENT] / 1e6,
+                        row[11 + GameSimulation.PHASE_BOMBS] / 1e6, row[11 + GameSimulation.PHASE_COLLISIONS] / 1e6,
+                        row[3] / 1e6, row[4], row[5], row[6], row[10], gcTime, row[9] >> 20, mark));
+            }
+            out.println();
+            if (stack != null) {
+                out.println(String.format("## EDT 스택 (앞 프레임 시작 뒤 %.1fms 지점, 감시 스레드가 잡음)", stackAgeNanos / 1e6));
+                for (StackTraceElement e : stack) {
+                    out.println("\tat " + e);
+                }
+            } else {
+                out.println("## EDT 스택 없음");
+                out.println("감시 스레드도 제때 깨지 못했습니다: GC나 OS가 프로세스 전체를 멈췄을 가능성이 큽니다 (GC 열 확인).");
+            }
+        }
+        return file;
+    }
+}
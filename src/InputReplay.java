@@ -0,0 +1,297 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * ========================================================
+ * 입력 리플레이 (InputReplay)
+ * ========================================================
+ * 시뮬레이션은 같은 시작 조건과 같은 틱 입력이면 같은 결과가 나오므로,
+ * 화면이나 상태 대신 "시작 조건 + 틱마다의 입력 비트마스크"만 저장합니다.
+ * 입력은 대부분 같은 값이 길게 이어지므로 플레이어마다 (값, 길이) 런으로 줄여 씁니다.
+ * 150초 경기 하나가 수 KB 정도입니다.
+ *
+ * 기록: GameSimulation.setInputRecorder(replay) 후 평소처럼 updateGame
+ *       (롤백으로 틱이 되감기면 그 틱부터 다시 덮어씀)
+ * 재생: start(sim)로 같은 맵/캐릭터로 초기화한 뒤 getInput(p, 틱)을 updateGame에 넘김
+ * 검증: HASH_INTERVAL 틱마다 기록한 상태 해시와 비교해서 어긋나기 시작한 구간을 찾음 (findDivergence)
+ *
+ * 파일 구조 (빅 엔디언):
+ * [매직 "CARP" 4][버전 2][맵 데이터 파일 UTF][1P 캐릭터 UTF][2P 캐릭터 UTF]
+ * [난수 시드 8][틱 길이(ms) 2][틱 수 varint]
+ * [플레이어마다: 런 수 varint, 런마다 ((길이 - 1) << 4 | 입력) varint]
+ * [해시 간격 varint][해시 수 varint][해시 8바이트 x 수] (버전 2부터, 0, 간격, 2x간격 ... 틱 시작 상태)
+ * 입력은 4비트(방향 3 + 물풍선 1)이므로 8틱 이하 런은 1바이트, 1024틱 이하는 2바이트입니다.
+ */
+public class InputReplay {
+    private static final int MAGIC = 0x43415250; // "CARP"
+    private static final int VERSION = 2;
+    public static final int HASH_INTERVAL = 60; // 약 1초마다 상태 해시 (150초 경기에 약 1.2KB)
+    private static final int INPUT_BITS = 4;
+    private static final int INPUT_MASK = GameSimulation.INPUT_DIR_MASK | GameSimulation.INPUT_BOMB;
+    public static final String REPLAY_DIR = "replays";
+    public static final String EXTENSION = ".replay";
+
+    // ===== 시작 조건 =====
+    private String mapDataFile;
+    private final String[] characters = new String[GameSimulation.PLAYER_COUNT];
+    private long seed; // 매치 난수 시드
+    private int tickMs = GameSimulation.TICK_MS;
+
+    // ===== 틱 입력 =====
+    private byte[][] inputs = new byte[GameSimulation.PLAYER_COUNT][GameSimulation.msToTicks(GameSimulation.GAME_TIME * 1000) + 64];
+    private int length = 0; // 기록된 틱 수
+    private long[] hashes = new long[inputs[0].length / HASH_INTERVAL + 1]; // hashes[i] = i * hashInterval 틱 시작 상태
+    private int hashInterval = HASH_INTERVAL;
+
+    private InputReplay() {
+    }
+
+    /**
+     * 지금 시뮬레이션의 맵/캐릭터/경기 시드로 빈 기록을 만듭니다 (resetGame 직후 호출).
+     */
+    public static InputReplay begin(GameSimulation sim) {
+        InputReplay r = new InputReplay();
+        r.mapDataFile = sim.getMapDataFile();
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            r.characters[p] = sim.getCharacterName(p);
+        }
+        r.seed = sim.getMatchSeed();
+        return r;
+    }
+
+    /**
+     * tick의 입력을 기록합니다. 이미 기록한 틱이면 그 뒤는 버리고 다시 씁니다 (롤백 재시뮬레이션).
+     *
+     * @param stateHash tick 시작 시점의 상태 해시 (HASH_INTERVAL 틱마다 저장)
+     */
+    public void record(int tick, int p1Input, int p2Input, long stateHash) {
+        if (tick >= inputs[0].length) {
+            int capacity = Math.max(tick + 1, inputs[0].length * 2);
+            for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+                inputs[p] = Arrays.copyOf(inputs[p], capacity);
+            }
+        }
+        for (int t = length; t < tick; t++) {
+            // 기록이 빠진 틱(게임 시작 전 등)은 입력 없음
+            inputs[0][t] = 0;
+            inputs[1][t] = 0;
+        }
+        inputs[0][tick] = (byte) (p1Input & INPUT_MASK);
+        inputs[1][tick] = (byte) (p2Input & INPUT_MASK);
+        if (tick % hashInterval == 0) {
+            int i = tick / hashInterval;
+            if (i >= hashes.length) hashes = Arrays.copyOf(hashes, Math.max(i + 1, hashes.length * 2));
+            hashes[i] = stateHash;
+        }
+        length = tick + 1;
+    }
+
+    /**
+     * 시뮬레이션을 기록 당시 시작 상태로 만듭니다 (맵을 다시 읽고 캐릭터/시드 설정 후 resetGame).
+     */
+    public void start(GameSimulation sim) {
+        if (!mapDataFile.equals(sim.getMapDataFile()) || sim.getTiles() == null) {
+            sim.loadTilesFromFile(mapDataFile);
+        }
+        sim.setCharacters(characters[0], characters[1]);
+        sim.setMatchSeed(seed);
+        sim.resetGame();
+    }
+
+    /**
+     * 처음부터 끝까지 화면 없이 돌리고 최종 게임 상태(STATE_*)를 돌려줍니다.
+     */
+    public int simulate(GameSimulation sim) {
+        start(sim);
+        for (int t = 0; t < length && sim.getGameState() == GameSimulation.STATE_PLAYING; t++) {
+            sim.updateGame(getInput(0, t), getInput(1, t));
+        }
+        return sim.getGameState();
+    }
+
+    /**
+     * 처음부터 돌리면서 기록된 해시와 비교합니다.
+     *
+     * @return 처음으로 해시가 달랐던 기록 틱 (그 앞 hashInterval 틱 사이에서 어긋남), 모두 같으면 -1
+     */
+    public int findDivergence(GameSimulation sim) {
+        start(sim);
+        for (int t = 0; t < length && sim.getGameState() == GameSimulation.STATE_PLAYING; t++) {
+            if (isCheckpoint(t) && getCheckpointHash(t) != sim.getStateHash()) {
+                return t;
+            }
+            sim.updateGame(getInput(0, t), getInput(1, t));
+        }
+        return -1;
+    }
+
+    /**
+     * tick에 기록된 해시가 있는지 (버전 1 파일에는 없음)
+     */
+    public boolean isCheckpoint(int tick) {
+        return tick >= 0 && tick < length && tick % hashInterval == 0 && tick / hashInterval < getCheckpointCount();
+    }
+
+    public long getCheckpointHash(int tick) {
+        return hashes[tick / hashInterval];
+    }
+
+    private int getCheckpointCount() {
+        return hashInterval == 0 ? 0 : Math.min(hashes.length, (length + hashInterval - 1) / hashInterval);
+    }
+
+    /**
+     * p번 플레이어의 tick 입력 (기록이 끝난 뒤는 입력 없음)
+     */
+    public int getInput(int p, int tick) {
+        if (tick < 0 || tick >= length) return GameSimulation.DIR_NONE;
+        return inputs[p][tick];
+    }
+
+    public int getLength() { return length; }
+    public String getMapDataFile() { return mapDataFile; }
+    public String getCharacter(int p) { return characters[p]; }
+    public long getSeed() { return seed; }
+    public int getTickMs() { return tickMs; }
+
+    // ===== 파일 =====
+
+    /**
+     * replays 폴더에 날짜/시간 이름으로 저장하고 파일을 돌려줍니다.
+     */
+    public File save() throws IOException {
+        File dir = new File(System.getProperty("user.dir"), REPLAY_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("폴더를 만들 수 없음: " + dir);
+        }
+        String name = "replay_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + EXTENSION;
+        File file = new File(dir, name);
+        write(file);
+        return file;
+    }
+
+    public void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(mapDataFile);
+            out.writeUTF(characters[0]);
+            out.writeUTF(characters[1]);
+            out.writeLong(seed);
+            out.writeShort(tickMs);
+            writeVarInt(out, length);
+
+            for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+                byte[] in = inputs[p];
+                int runs = 0;
+                for (int t = 0; t < length; t++) {
+                    if (t == 0 || in[t] != in[t - 1]) runs++;
+                }
+                writeVarInt(out, runs);
+                for (int t = 0; t < length;) {
+                    int end = t + 1;
+                    while (end < length && in[end] == in[t]) end++;
+                    writeVarInt(out, (end - t - 1) << INPUT_BITS | in[t]);
+                    t = end;
+                }
+            }
+
+            int count = getCheckpointCount();
+            writeVarInt(out, hashInterval);
+            writeVarInt(out, count);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(hashes[i]);
+            }
+        }
+    }
+
+    public static InputReplay read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("리플레이 파일이 아님: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("지원하지 않는 리플레이 버전: " + version);
+            }
+
+            InputReplay r = new InputReplay();
+            r.mapDataFile = in.readUTF();
+            r.characters[0] = in.readUTF();
+            r.characters[1] = in.readUTF();
+            r.seed = in.readLong();
+            r.tickMs = in.readUnsignedShort();
+            r.length = readVarInt(in);
+            if (r.tickMs != GameSimulation.TICK_MS) {
+                System.err.println("리플레이 틱 길이(" + r.tickMs + "ms)가 현재(" + GameSimulation.TICK_MS
+                    + "ms)와 달라서 결과가 다를 수 있음");
+            }
+
+            for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+                byte[] inputs = new byte[Math.max(r.length, 1)];
+                int runs = readVarInt(in);
+                int t = 0;
+                for (int i = 0; i < runs; i++) {
+                    int token = readVarInt(in);
+                    byte value = (byte) (token & INPUT_MASK);
+                    int runLength = (token >>> INPUT_BITS) + 1;
+                    if (t + runLength > r.length) {
+                        throw new IOException("리플레이 입력 길이 오류 (" + (p + 1) + "P)");
+                    }
+                    Arrays.fill(inputs, t, t + runLength, value);
+                    t += runLength;
+                }
+                if (t != r.length) {
+                    throw new IOException("리플레이 입력 길이 오류 (" + (p + 1) + "P)");
+                }
+                r.inputs[p] = inputs;
+            }
+
+            if (version >= 2) {
+                r.hashInterval = readVarInt(in);
+                int count = readVarInt(in);
+                if (r.hashInterval <= 0 || count > r.length / r.hashInterval + 1) {
+                    throw new IOException("리플레이 해시 형식 오류");
+                }
+                r.hashes = new long[Math.max(count, 1)];
+                for (int i = 0; i < count; i++) {
+                    r.hashes[i] = in.readLong();
+                }
+            } else {
+                r.hashes = new long[0]; // 해시 없는 옛 파일: 검증 안 함
+            }
+            return r;
+        } catch (EOFException e) {
+            throw new IOException("리플레이 파일이 잘림: " + file);
+        }
+    }
+
+    // 7비트씩 나눠 쓰는 가변 길이 정수 (작은 값은 1바이트)
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("varint 형식 오류");
+    }
+}
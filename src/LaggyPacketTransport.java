@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * ========================================================
+ * 지연 주입 전송 래퍼 (LaggyPacketTransport)
+ * ========================================================
+ * 다른 PacketTransport를 감싸서 보내는 패킷에 NetworkConditions의
+ * 지연/지터/순서 뒤바뀜/손실을 적용합니다. 실제 네트워크 없이 한 PC에서
+ * 넷코드를 시험하기 위한 용도입니다.
+ *
+ * - 보낼 패킷은 도착 예정 시각 순서의 큐에 넣어 두고, send/poll이 불릴 때
+ *   시각이 된 것부터 안쪽 전송으로 넘깁니다 (별도 스레드 없음).
+ * - 시계를 주입할 수 있어서 가상 시간으로 돌리면 같은 시드에서 결과가 항상 같습니다.
+ * - 패킷 버퍼는 재사용하고, 더 큰 패킷이 오면 그 크기로 늘립니다.
+ */
+public class LaggyPacketTransport implements PacketTransport {
+    private static final int MAX_PACKET_SIZE = 1500;
+
+    private final PacketTransport inner;
+    private final NetworkConditions conditions;
+    private final SplittableRandom random;
+    private final LongSupplier clockNanos;
+
+    private final PriorityQueue<Delayed> queue = new PriorityQueue<>();
+    private final ArrayDeque<Delayed> pool = new ArrayDeque<>();
+    private long sequence = 0;
+
+    // 통계
+    private long sentCount = 0;
+    private long droppedCount = 0;
+    private long reorderedCount = 0;
+    private long lastDeliveredSeq = -1;
+
+    /**
+     * 늦춰서 보낼 패킷
+     */
+    private static class Delayed implements Comparable<Delayed> {
+        byte[] data = new byte[MAX_PACKET_SIZE];
+        int length;
+        long dueNanos;
+        long seq;
+
+        @Override
+        public int compareTo(Delayed o) {
+            if (dueNanos != o.dueNanos) return Long.compare(dueNanos, o.dueNanos);
+            return Long.compare(seq, o.seq);
+        }
+    }
+
+    /**
+     * @param inner      실제로 패킷을 보낼 전송
+     * @param conditions 흉내 낼 네트워크 상태
+     * @param seed       손실/지터 난수 시드
+     * @param clockNanos 현재 시각 (System::nanoTime 또는 가상 시계)
+     */
+    public LaggyPacketTransport(PacketTransport inner, NetworkConditions conditions, long seed, LongSupplier clockNanos) {
+        this.inner = inner;
+        this.conditions = conditions;
+        this.random = new SplittableRandom(seed);
+        this.clockNanos = clockNanos;
+    }
+
+    @Override
+    public void send(byte[] data, int length) throws IOException {
+        sentCount++;
+        if (conditions.shouldDrop(random)) {
+            droppedCount++;
+        } else {
+            Delayed d = pool.isEmpty() ? new Delayed() : pool.poll();
+            if (d.data.length < length) {
+                d.data = new byte[length];
+            }
+            System.arraycopy(data, 0, d.data, 0, length);
+            d.length = length;
+            d.seq = sequence++;
+            d.dueNanos = clockNanos.getAsLong() + conditions.sampleDelayNanos(random);
+            queue.add(d);
+        }
+        flushDue();
+    }
+
+    @Override
+    public int poll(byte[] buffer) throws IOException {
+        flushDue();
+        return inner.poll(buffer);
+    }
+
+    /**
+     * 도착 시각이 된 패킷을 안쪽 전송으로 넘깁니다.
+     */
+    public void flushDue() throws IOException {
+        long now = clockNanos.getAsLong();
+        while (!queue.isEmpty() && queue.peek().dueNanos <= now) {
+            Delayed d = queue.poll();
+            if (d.seq < lastDeliveredSeq) {
+                reorderedCount++;
+            } else {
+                lastDeliveredSeq = d.seq;
+            }
+            inner.send(d.data, d.length);
+            pool.add(d);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        queue.clear();
+        inner.close();
+    }
+
+    public long getSentCount() { return sentCount; }
+    public long getDroppedCount() { return droppedCount; }
+    public long getReorderedCount() { return reorderedCount; }
+    public NetworkConditions getConditions() { return conditions; }
+}
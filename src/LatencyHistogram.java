@@ -0,0 +1,104 @@
+/**
+ * ========================================================
+ * 지연 시간 히스토그램 클래스 (LatencyHistogram)
+ * ========================================================
+ * 나노초 단위 측정값을 로그 구간(2의 거듭제곱마다 32칸)으로 나누어 세는 히스토그램입니다.
+ * 기록(record)은 배열 카운트 증가뿐이라 틱마다 호출해도 부담이 없고,
+ * 백분위수(p50, p99 등)는 약 3% 오차 안에서 계산됩니다.
+ *
+ * 스레드 안전하지 않으므로 스레드마다 따로 두고 merge로 합칩니다.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+    private static final int MAGNITUDES = 64 - SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(MAGNITUDES + 1) * SUB_BUCKETS];
+    private long totalCount = 0;
+    private long totalValue = 0;
+    private long maxValue = 0;
+
+    /**
+     * 측정값 기록
+     *
+     * @param value 나노초 등 0 이상의 값
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[indexOf(value)]++;
+        totalCount++;
+        totalValue += value;
+        if (value > maxValue) maxValue = value;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // 최상위 6비트로 구간 결정 (2의 거듭제곱마다 32칸)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    // 구간의 대표값 (구간 상한)
+    private static long valueOf(int index) {
+        int magnitude = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (magnitude == 0) {
+            return sub;
+        }
+        int shift = magnitude - 1;
+        return ((long) (sub + SUB_BUCKETS) << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * 백분위수 계산
+     *
+     * @param quantile 0.0 ~ 1.0 (예: 0.99)
+     */
+    public long percentile(double quantile) {
+        if (totalCount == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(totalCount * quantile));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(valueOf(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalValue = 0;
+        maxValue = 0;
+    }
+
+    public long getCount() { return totalCount; }
+    public long getMax() { return maxValue; }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalValue / totalCount;
+    }
+
+    /**
+     * 마이크로초 단위 요약 문자열 (기록값이 나노초일 때)
+     */
+    public String summaryMicros() {
+        return String.format("n=%d 평균 %.1fµs p50 %.1fµs p99 %.1fµs p99.9 %.1fµs 최대 %.1fµs",
+                totalCount, getMean() / 1000.0, percentile(0.50) / 1000.0, percentile(0.99) / 1000.0,
+                percentile(0.999) / 1000.0, maxValue / 1000.0);
+    }
+}
@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+
+/**
+ * ========================================================
+ * 로비 채팅 클라이언트 (LobbyChatClient)
+ * ========================================================
+ * 로비 서버(GameServer)와 채팅 메시지를 주고받습니다.
+ * 논블로킹 UDP라 Swing 타이머에서 poll을 호출해도 화면이 멈추지 않습니다.
+ *
+ * - 서버가 묶어 보낸 메시지(BATCH)는 poll 한 번에 모두 꺼내 전달합니다.
+ * - 서버 목록에서 빠지지 않도록 HELLO_INTERVAL_MS마다 HELLO를 다시 보냅니다.
+ * - 서버와 같은 기준으로 미리 도배를 걸러서 버려질 패킷은 보내지 않습니다.
+ */
+public class LobbyChatClient implements AutoCloseable {
+    private static final int HELLO_INTERVAL_MS = 10000;
+    private static final int RATE_BURST = 5;
+    private static final long RATE_REFILL_NANOS = 1_000_000_000L;
+
+    private final PacketTransport transport;
+    private final String name;
+    private final byte[] packet = new byte[1400];
+    private long lastHelloNanos = 0;
+    private int tokens = RATE_BURST;
+    private long lastRefillNanos = System.nanoTime();
+
+    /**
+     * @param host 로비 서버 주소
+     * @param port 로비 서버 포트
+     * @param name 채팅에 표시할 이름
+     */
+    public LobbyChatClient(String host, int port, String name) throws IOException {
+        this(new UdpPacketTransport(0, host, port), name);
+    }
+
+    public LobbyChatClient(PacketTransport transport, String name) {
+        this.transport = transport;
+        this.name = LobbyChatServer.limit(name, LobbyChatServer.MAX_NAME_LENGTH);
+    }
+
+    /**
+     * 메시지 전송
+     *
+     * @return 도배 제한에 걸려 보내지 않았으면 false
+     */
+    public boolean send(String text) throws IOException {
+        long now = System.nanoTime();
+        long refill = (now - lastRefillNanos) / RATE_REFILL_NANOS;
+        if (refill > 0) {
+            tokens = (int) Math.min(RATE_BURST, tokens + refill);
+            lastRefillNanos += refill * RATE_REFILL_NANOS;
+        }
+        if (tokens == 0) return false;
+        tokens--;
+
+        ByteBuffer b = ByteBuffer.wrap(packet);
+        b.put(LobbyChatServer.MSG_CHAT_SEND);
+        LobbyChatServer.writeString(b, LobbyChatServer.limit(text, LobbyChatServer.MAX_TEXT_LENGTH));
+        transport.send(packet, b.position());
+        return true;
+    }
+
+    /**
+     * 받은 메시지를 모두 꺼내 (이름, 내용) 순서로 전달하고, 필요하면 HELLO를 보냅니다.
+     *
+     * @return 꺼낸 메시지 수
+     */
+    public int poll(BiConsumer<String, String> onMessage) throws IOException {
+        long now = System.nanoTime();
+        if (lastHelloNanos == 0 || now - lastHelloNanos >= HELLO_INTERVAL_MS * 1_000_000L) {
+            ByteBuffer b = ByteBuffer.wrap(packet);
+            b.put(LobbyChatServer.MSG_CHAT_HELLO);
+            LobbyChatServer.writeString(b, name);
+            transport.send(packet, b.position());
+            lastHelloNanos = now;
+        }
+
+        int received = 0;
+        int length;
+        while ((length = transport.poll(packet)) > 0) {
+            ByteBuffer b = ByteBuffer.wrap(packet, 0, length);
+            if (b.get() != LobbyChatServer.MSG_CHAT_BATCH) continue;
+            int count = b.get() & 0xFF;
+            try {
+                for (int i = 0; i < count; i++) {
+                    String from = LobbyChatServer.readString(b);
+                    String text = LobbyChatServer.readString(b);
+                    onMessage.accept(from, text);
+                    received++;
+                }
+            } catch (RuntimeException e) {
+                // 잘린 패킷은 읽은 데까지만 사용
+            }
+        }
+        return received;
+    }
+
+    @Override
+    public void close() {
+        try {
+            packet[0] = LobbyChatServer.MSG_CHAT_BYE;
+            transport.send(packet, 1);
+            transport.close();
+        } catch (IOException e) {
+            System.out.println("채팅 연결 종료 실패: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * ========================================================
+ * 로비 채팅 중계 클래스 (LobbyChatServer)
+ * ========================================================
+ * GameServer 소켓에 붙어서 로비 채팅을 모든 접속자에게 전달합니다.
+ *
+ * - 받은 메시지는 바로 보내지 않고 모아 두었다가 FLUSH_INTERVAL_MS마다
+ *   접속자당 패킷 하나(필요하면 여러 개)로 묶어서 보냅니다.
+ * - 접속자마다 토큰 버킷으로 도배를 막습니다 (초과분은 버리고 본인에게만 안내).
+ * - HELLO를 KEEPALIVE_TIMEOUT_MS 동안 보내지 않은 접속자는 목록에서 빠집니다.
+ *
+ * 메시지 형식 (문자열 = [길이 short][UTF-8]):
+ * HELLO [20][이름]
+ * SEND  [21][내용]
+ * BATCH [22][개수 byte]{[이름][내용]}...
+ * BYE   [23]
+ */
+public class LobbyChatServer {
+    static final byte MSG_CHAT_HELLO = 20;
+    static final byte MSG_CHAT_SEND = 21;
+    static final byte MSG_CHAT_BATCH = 22;
+    static final byte MSG_CHAT_BYE = 23;
+
+    static final int FLUSH_INTERVAL_MS = 100;
+    static final int MAX_TEXT_LENGTH = 200;
+    static final int MAX_NAME_LENGTH = 16;
+    static final int KEEPALIVE_TIMEOUT_MS = 30000;
+
+    // 도배 방지: 최대 5개까지 연속 허용, 이후 초당 1개씩 회복
+    private static final int RATE_BURST = 5;
+    private static final long RATE_REFILL_NANOS = 1_000_000_000L;
+
+    private static final int MAX_PACKET_SIZE = 1200;
+    private static final int MAX_PENDING = 256;
+    private static final String SYSTEM_NAME = "알림";
+
+    private final DatagramChannel channel;
+    private final Map<SocketAddress, Member> members = new HashMap<>();
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>(); // 인코딩된 [이름][내용]
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+
+    private long relayed = 0;
+    private long throttled = 0;
+
+    /**
+     * 로비 접속자
+     */
+    private static class Member {
+        String name;
+        long lastSeenNanos;
+        int tokens = RATE_BURST;
+        long lastRefillNanos;
+        byte[] notice; // 본인에게만 보낼 안내 (도배 경고)
+    }
+
+    public LobbyChatServer(DatagramChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 채팅 메시지 처리 (수신 스레드)
+     *
+     * @return 채팅 메시지였으면 true
+     */
+    public boolean handle(SocketAddress from, byte type, ByteBuffer buffer) {
+        long now = System.nanoTime();
+        switch (type) {
+            case MSG_CHAT_HELLO: {
+                String name = limit(readString(buffer), MAX_NAME_LENGTH);
+                synchronized (this) {
+                    Member m = members.get(from);
+                    if (m == null) {
+                        m = new Member();
+                        m.lastRefillNanos = now;
+                        members.put(from, m);
+                        enqueue(encodeEntry(SYSTEM_NAME, name + "님이 입장했습니다."));
+                    }
+                    m.name = name.isEmpty() ? "User" : name;
+                    m.lastSeenNanos = now;
+                }
+                return true;
+            }
+            case MSG_CHAT_SEND: {
+                String text = limit(readString(buffer).trim(), MAX_TEXT_LENGTH);
+                if (text.isEmpty()) return true;
+                synchronized (this) {
+                    Member m = members.get(from);
+                    if (m == null) return true; // HELLO 없이 보낸 메시지는 무시
+                    m.lastSeenNanos = now;
+                    if (!takeToken(m, now)) {
+                        throttled++;
+                        m.notice = encodeEntry(SYSTEM_NAME, "메시지를 너무 빨리 보내고 있습니다.");
+                        return true;
+                    }
+                    enqueue(encodeEntry(m.name, text));
+                    relayed++;
+                }
+                return true;
+            }
+            case MSG_CHAT_BYE:
+                synchronized (this) {
+                    Member m = members.remove(from);
+                    if (m != null) {
+                        enqueue(encodeEntry(SYSTEM_NAME, m.name + "님이 나갔습니다."));
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean takeToken(Member m, long now) {
+        long refill = (now - m.lastRefillNanos) / RATE_REFILL_NANOS;
+        if (refill > 0) {
+            m.tokens = (int) Math.min(RATE_BURST, m.tokens + refill);
+            m.lastRefillNanos += refill * RATE_REFILL_NANOS;
+        }
+        if (m.tokens == 0) return false;
+        m.tokens--;
+        return true;
+    }
+
+    private void enqueue(byte[] entry) {
+        if (pending.size() >= MAX_PENDING) {
+            pending.pollFirst(); // 너무 밀리면 오래된 것부터 버림
+        }
+        pending.addLast(entry);
+    }
+
+    /**
+     * 모아 둔 메시지를 접속자 전원에게 묶어서 보냅니다 (FLUSH_INTERVAL_MS마다 호출).
+     */
+    public synchronized void flush() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<SocketAddress, Member>> it = members.entrySet().iterator();
+        while (it.hasNext()) {
+            Member m = it.next().getValue();
+            if (now - m.lastSeenNanos > KEEPALIVE_TIMEOUT_MS * 1_000_000L) {
+                it.remove();
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            sendBuffer.clear();
+            int count = 0;
+            for (byte[] entry : pending) {
+                if (count == 255 || sendBuffer.position() + 2 + entry.length > MAX_PACKET_SIZE) {
+                    sendToAll(count);
+                    sendBuffer.clear();
+                    count = 0;
+                }
+                if (count == 0) {
+                    sendBuffer.put(MSG_CHAT_BATCH).put((byte) 0); // 개수는 나중에 채움
+                }
+                sendBuffer.put(entry);
+                count++;
+            }
+            sendToAll(count);
+            pending.clear();
+        }
+
+        for (Map.Entry<SocketAddress, Member> e : members.entrySet()) {
+            Member m = e.getValue();
+            if (m.notice != null) {
+                sendBuffer.clear();
+                sendBuffer.put(MSG_CHAT_BATCH).put((byte) 1).put(m.notice);
+                sendBuffer.flip();
+                sendTo(e.getKey());
+                m.notice = null;
+            }
+        }
+    }
+
+    private void sendToAll(int count) {
+        sendBuffer.put(1, (byte) count);
+        sendBuffer.flip();
+        for (SocketAddress address : members.keySet()) {
+            sendBuffer.rewind();
+            sendTo(address);
+        }
+    }
+
+    private void sendTo(SocketAddress address) {
+        try {
+            channel.send(sendBuffer, address);
+        } catch (IOException e) {
+            // UDP 전송 실패는 무시 (채팅은 최선 전달)
+        }
+    }
+
+    public synchronized int getMemberCount() { return members.size(); }
+    public synchronized long getRelayedCount() { return relayed; }
+    public synchronized long getThrottledCount() { return throttled; }
+
+    // ===== 문자열 인코딩 =====
+
+    private static byte[] encodeEntry(String name, String text) {
+        byte[] n = name.getBytes(StandardCharsets.UTF_8);
+        byte[] t = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer b = ByteBuffer.allocate(4 + n.length + t.length);
+        b.putShort((short) n.length).put(n).putShort((short) t.length).put(t);
+        return b.array();
+    }
+
+    static void writeString(ByteBuffer buffer, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[Math.min(length, buffer.remaining())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 글자 수 제한 (한글 포함)
+    static String limit(String s, int maxChars) {
+        return s.length() <= maxChars ? s : s.substring(0, maxChars);
+    }
+}
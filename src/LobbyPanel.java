@@ -2,7 +2,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
 
@@ -32,6 +31,10 @@ public class LobbyPanel extends JPanel {
     private JTextArea chatArea;
     private JTextField chatInput;
 
+    // 채팅 (서버 설정이 없으면 chatClient는 null)
+    private LobbyChatClient chatClient;
+    private Timer chatTimer;
+
     // 선택 카드 (피드백용)
     private JPanel cardBazzi, cardDao, cardRandom;
 
@@ -122,17 +125,12 @@ public class LobbyPanel extends JPanel {
 
         JButton sendBtn = new JButton("전송");
         sendBtn.setBounds(275, 240, 70, 28);
-        sendBtn.addActionListener(e -> {
-            String text = chatInput.getText().trim();
-            if (!text.isEmpty()) {
-                chatArea.append("User: " + text + "\n");
-                chatInput.setText("");
-                chatArea.setCaretPosition(chatArea.getDocument().getLength());
-            }
-        });
+        sendBtn.addActionListener(e -> sendChat());
         chatInput.addActionListener(e -> sendBtn.doClick()); // 엔터키 처리
         chatBox.add(sendBtn);
 
+        initChat();
+
         // ========== 오른쪽 영역 (캐릭터 선택 + 버튼) ==========
 
         // 오른쪽 상단: 캐릭터 선택 영역
@@ -527,6 +525,92 @@ public class LobbyPanel extends JPanel {
         return btn;
     }
 
+    // ===== 채팅 =====
+
+    /**
+     * 채팅 서버 연결 준비
+     * 서버 메시지는 타이머에서 모아 꺼내므로 메시지마다 화면을 다시 그리지 않습니다.
+     */
+    private void initChat() {
+        if (!GameSettings.isLobbyChatOnline()) {
+            return;
+        }
+        try {
+            chatClient = new LobbyChatClient(GameSettings.lobbyServerHost, GameSettings.lobbyServerPort,
+                    GameSettings.playerName);
+            chatTimer = new Timer(LobbyChatServer.FLUSH_INTERVAL_MS, e -> pollChat());
+            chatTimer.start();
+            System.out.println("로비 채팅 연결: " + GameSettings.lobbyServerHost + ":" + GameSettings.lobbyServerPort);
+        } catch (IOException e) {
+            System.out.println("로비 채팅 연결 실패: " + e.getMessage());
+            chatClient = null;
+        }
+    }
+
+    private void sendChat() {
+        String text = chatInput.getText().trim();
+        if (text.isEmpty()) {
+            return;
+        }
+        chatInput.setText("");
+        if (chatClient == null) {
+            appendChatLine(GameSettings.playerName + ": " + text);
+            return;
+        }
+        try {
+            if (!chatClient.send(text)) {
+                appendChatLine("알림: 메시지를 너무 빨리 보내고 있습니다.");
+            }
+        } catch (IOException e) {
+            appendChatLine("알림: 채팅 전송 실패 (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * 채팅 서버에 나간다고 알리고(BYE) 타이머를 멈춥니다. 프로그램을 닫을 때 호출.
+     */
+    public void closeChat() {
+        if (chatTimer != null) {
+            chatTimer.stop();
+        }
+        if (chatClient != null) {
+            chatClient.close();
+            chatClient = null;
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        closeChat(); // 창을 dispose할 때
+        super.removeNotify();
+    }
+
+    private void pollChat() {
+        try {
+            chatClient.poll((from, text) -> appendChatLine(from + ": " + text));
+        } catch (IOException e) {
+            System.out.println("로비 채팅 수신 오류: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 채팅 한 줄 추가
+     * 줄 수가 설정값을 넘으면 채팅창 문서에서 맨 윗줄부터 지워 일정하게 유지합니다.
+     */
+    private void appendChatLine(String line) {
+        chatArea.append(line + "\n");
+        int maxLines = Math.max(1, GameSettings.chatHistoryLines);
+        int excess = chatArea.getLineCount() - 1 - maxLines; // 마지막 줄바꿈 뒤의 빈 줄 제외
+        if (excess > 0) {
+            try {
+                chatArea.getDocument().remove(0, chatArea.getLineEndOffset(excess - 1));
+            } catch (javax.swing.text.BadLocationException e) {
+                chatArea.setText("");
+            }
+        }
+        chatArea.setCaretPosition(chatArea.getDocument().getLength());
+    }
+
     private void updateSelectionUI() {
         // 상태 라벨 업데이트
         for (Component comp : getComponents()) {
@@ -552,10 +636,10 @@ public class LobbyPanel extends JPanel {
             String basePath = System.getProperty("user.dir") + File.separator + "res" + File.separator;
             File bazziFile = new File(basePath + "배찌.png");
             if (bazziFile.exists())
-                bazziImg = ImageIO.read(bazziFile);
+                bazziImg = GameEvents.readImage(bazziFile);
             File daoFile = new File(basePath + "디지니.png");
             if (daoFile.exists())
-                daoImg = ImageIO.read(daoFile);
+                daoImg = GameEvents.readImage(daoFile);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -566,7 +650,7 @@ public class LobbyPanel extends JPanel {
             String cursorPath = System.getProperty("user.dir") + File.separator + "res" + File.separator + "cursor.png";
             File cursorFile = new File(cursorPath);
             if (cursorFile.exists()) {
-                Image cursorImg = ImageIO.read(cursorFile);
+                Image cursorImg = GameEvents.readImage(cursorFile);
                 customCursor = Toolkit.getDefaultToolkit().createCustomCursor(cursorImg, new Point(0, 0), "C");
                 setCursor(customCursor);
             }
@@ -585,14 +669,14 @@ public class LobbyPanel extends JPanel {
             // Map1: forest24.png (숲 테마)
             File map1File = new File(basePath + "forest24.png");
             if (map1File.exists()) {
-                map1Img = ImageIO.read(map1File);
+                map1Img = GameEvents.readImage(map1File);
                 System.out.println("Map1 이미지 로드 성공: " + map1File.getPath());
             }
 
             // Map2: map2.png (기본 맵)
             File map2File = new File(basePath + "map2.png");
             if (map2File.exists()) {
-                map2Img = ImageIO.read(map2File);
+                map2Img = GameEvents.readImage(map2File);
                 System.out.println("Map2 이미지 로드 성공: " + map2File.getPath());
             }
         } catch (IOException e) {
@@ -660,20 +744,24 @@ public class LobbyPanel extends JPanel {
 
     /**
      * 1P 캐릭터 반환 (랜덤 선택 시 실제 캐릭터로 변환)
+     * 
+     * @param random 경기 시드로 만든 난수 (같은 시드면 같은 캐릭터)
      */
-    public String getP1Character() {
+    public String getP1Character(MatchRandom random) {
         if ("랜덤".equals(p1Character)) {
-            return Math.random() < 0.5 ? "배찌" : "디지니";
+            return random.nextBoolean() ? "배찌" : "디지니";
         }
         return p1Character;
     }
 
     /**
      * 2P 캐릭터 반환 (랜덤 선택 시 실제 캐릭터로 변환)
+     * 
+     * @param random 경기 시드로 만든 난수 (같은 시드면 같은 캐릭터)
      */
-    public String getP2Character() {
+    public String getP2Character(MatchRandom random) {
         if ("랜덤".equals(p2Character)) {
-            return Math.random() < 0.5 ? "배찌" : "디지니";
+            return random.nextBoolean() ? "배찌" : "디지니";
         }
         return p2Character;
     }
@@ -0,0 +1,52 @@
+import java.util.ArrayDeque;
+
+/**
+ * ========================================================
+ * 메모리 연결 전송 (LoopbackTransport)
+ * ========================================================
+ * 같은 프로세스 안의 두 세션을 소켓 없이 연결합니다.
+ * pair()로 만든 두 끝 중 한쪽에서 보낸 패킷은 다른 쪽 poll에서 나옵니다.
+ * 한 스레드에서만 사용합니다 (헤드리스 시험, 봇 대전용).
+ */
+public class LoopbackTransport implements PacketTransport {
+    private final ArrayDeque<byte[]> inbox = new ArrayDeque<>();
+    private LoopbackTransport peer;
+    private boolean closed = false;
+
+    private LoopbackTransport() {
+    }
+
+    /**
+     * 서로 연결된 두 끝을 만듭니다.
+     */
+    public static LoopbackTransport[] pair() {
+        LoopbackTransport a = new LoopbackTransport();
+        LoopbackTransport b = new LoopbackTransport();
+        a.peer = b;
+        b.peer = a;
+        return new LoopbackTransport[] { a, b };
+    }
+
+    @Override
+    public void send(byte[] data, int length) {
+        if (closed || peer.closed) return;
+        byte[] copy = new byte[length];
+        System.arraycopy(data, 0, copy, 0, length);
+        peer.inbox.addLast(copy);
+    }
+
+    @Override
+    public int poll(byte[] buffer) {
+        byte[] packet = inbox.pollFirst();
+        if (packet == null) return -1;
+        int length = Math.min(packet.length, buffer.length);
+        System.arraycopy(packet, 0, buffer, 0, length);
+        return length;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        inbox.clear();
+    }
+}
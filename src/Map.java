@@ -2,7 +2,6 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 
 /**
  * ========================================================
@@ -34,7 +33,7 @@ public class Map {
             File mapFile = new File(path);
 
             if (mapFile.exists()) {
-                mapImage = ImageIO.read(mapFile);
+                mapImage = GameEvents.readImage(mapFile);
                 System.out.println("맵 이미지 로드 성공: " + path);
             } else {
                 System.err.println("맵 파일이 존재하지 않습니다: " + path);
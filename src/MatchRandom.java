@@ -0,0 +1,53 @@
+/**
+ * ========================================================
+ * 경기 난수 (MatchRandom)
+ * ========================================================
+ * 아이템 드롭처럼 경기 결과에 영향을 주는 무작위 결정은 모두 여기서 뽑습니다.
+ * 같은 시드로 시작하면 같은 순서로 같은 값이 나오므로
+ * 리플레이, 롤백 재시뮬레이션, 벤치마크가 매번 같은 경기를 재현할 수 있습니다.
+ *
+ * SplitMix64 방식: 상태가 long 하나뿐이라 스냅샷에 그대로 저장/복원할 수 있고,
+ * 값을 뽑을 때 객체를 만들지 않습니다.
+ * (java.util.SplittableRandom도 같은 방식이지만 상태를 꺼내거나 되돌릴 수 없음)
+ */
+public final class MatchRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public MatchRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * 시드로 처음 상태를 만듭니다 (어떤 값이든 괜찮음).
+     */
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    // 롤백/리플레이 되감기용
+    public long getState() { return state; }
+    public void setState(long state) { this.state = state; }
+
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 0 이상 bound 미만 정수 (상위 32비트를 곱셈으로 줄이므로 나눗셈 없음)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound는 양수여야 함: " + bound);
+        }
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+}
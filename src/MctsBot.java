@@ -0,0 +1,318 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ========================================================
+ * 몬테카를로 트리 탐색 봇 (MctsBot)
+ * ========================================================
+ * 현재 상태를 스냅샷으로 떠서, 헤드리스 GameSimulation으로 수천 번 앞으로 돌려 보고
+ * 가장 결과가 좋은 행동을 고르는 봇입니다.
+ *
+ * - 루트 행동: 제자리, 상/하/좌/우 (MACRO_TICKS 동안 유지), 물풍선 설치
+ *   (물풍선을 놓을 수 없는 상태면 설치는 후보에서 뺍니다)
+ * - 롤아웃: 행동 뒤에는 두 플레이어 모두 BotPlayer 규칙으로 움직이고,
+ *   가끔 무작위 방향을 섞어 상대의 다양한 움직임을 흉내 냅니다.
+ *   물풍선이 터지고 결과가 보일 때까지 (HORIZON_TICKS) 실제 규칙(updateGame) 그대로 진행합니다.
+ * - 병렬화: 공용 ForkJoinPool에서 작업마다 따로 UCB1 통계를 쌓고 끝에 합칩니다 (루트 병렬화).
+ *   작업 스레드마다 시뮬레이션 하나를 두고 loadState로 되감아 재사용합니다.
+ * - 탐색은 게임 루프 밖에서 돌고, 끝난 결과는 다음 nextInput(틱 경계)에서 받아 씁니다.
+ *   결과를 기다리는 동안에는 BotPlayer가 대신 조작합니다.
+ *
+ * 난이도는 결정당 롤아웃 수(rolloutBudget)와 시간 제한(thinkMs)으로 정합니다.
+ */
+public class MctsBot implements BotController {
+    // ========== 루트 행동 ==========
+    static final int ACTION_COUNT = 6;
+    private static final int ACTION_BOMB = 5;
+    private static final int[] ACTION_DIR = {
+        GameSimulation.DIR_NONE, GameSimulation.DIR_UP, GameSimulation.DIR_DOWN,
+        GameSimulation.DIR_LEFT, GameSimulation.DIR_RIGHT, GameSimulation.DIR_NONE
+    };
+
+    // ========== 롤아웃 설정 ==========
+    static final int MACRO_TICKS = 12; // 방향 행동을 유지하는 틱
+    static final int HORIZON_TICKS = GameSimulation.BALLOON_DELAY_TICKS + GameSimulation.EXPLOSION_TICKS + 30;
+    private static final double EXPLORATION = 1.4; // UCB1 탐색 계수
+    private static final double NOISE = 0.04; // 틱마다 무작위 방향으로 바꿀 확률
+    private static final int NOISE_HOLD_TICKS = 8;
+
+    // 모든 MCTS 봇이 함께 쓰는 작업 풀 (게임 루프 스레드 1개는 남겨 둠)
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("mcts-worker-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+
+    // 작업 스레드마다 롤아웃용 시뮬레이션 하나
+    private static final ThreadLocal<Rollout> ROLLOUTS = ThreadLocal.withInitial(Rollout::new);
+
+    private final int p;
+    private final int rolloutBudget;
+    private final long thinkNanos;
+    private final BotPlayer fallback;
+    private final SplittableRandom seeds;
+
+    // 탐색 상태 (게임 루프 스레드에서만 접근)
+    private CompletableFuture<Result> pending;
+    private int chosenAction = -1;
+    private int actionTicksLeft = 0;
+
+    // 통계
+    private long decisions = 0;
+    private long totalRollouts = 0;
+    private long totalSearchNanos = 0;
+    private final LatencyHistogram tickNanos = new LatencyHistogram(); // nextInput 자체 비용
+
+    /**
+     * 탐색 한 번의 결과
+     */
+    private static final class Result {
+        final int action;
+        final int rollouts;
+        final long nanos;
+
+        Result(int action, int rollouts, long nanos) {
+            this.action = action;
+            this.rollouts = rollouts;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * @param slot          조작할 플레이어 (0 = 1P, 1 = 2P)
+     * @param seed          롤아웃 난수 시드 (보통 경기 시드, 같으면 같은 롤아웃 순서)
+     * @param rolloutBudget 결정 한 번에 돌릴 최대 롤아웃 수
+     * @param thinkMs       결정 한 번에 쓸 최대 시간
+     */
+    public MctsBot(int slot, long seed, int rolloutBudget, int thinkMs) {
+        this.p = slot;
+        this.rolloutBudget = Math.max(ACTION_COUNT, rolloutBudget);
+        this.thinkNanos = Math.max(1, thinkMs) * 1_000_000L;
+        this.fallback = new BotPlayer(slot);
+        this.seeds = new SplittableRandom(seed + slot * 7919L);
+    }
+
+    @Override
+    public int nextInput(GameSimulation sim) {
+        long start = System.nanoTime();
+
+        // 끝난 탐색 결과를 틱 경계에서 받아 씀
+        if (pending != null && pending.isDone()) {
+            Result r = pending.join();
+            pending = null;
+            decisions++;
+            totalRollouts += r.rollouts;
+            totalSearchNanos += r.nanos;
+            chosenAction = r.action;
+            actionTicksLeft = MACRO_TICKS;
+        }
+
+        // 다음 탐색 시작 (현재 상태 복사본으로)
+        if (pending == null && sim.getGameState() == GameSimulation.STATE_PLAYING
+                && sim.getPlayerState(p) == GameSimulation.PLAYER_STATE_ALIVE) {
+            SimSnapshot root = new SimSnapshot();
+            sim.saveState(root);
+            String mapFile = sim.getMapDataFile();
+            long seed = seeds.nextLong();
+            int actions = sim.canPlaceBalloon(p) ? ACTION_COUNT : ACTION_BOMB; // 설치는 마지막 행동
+            pending = CompletableFuture.supplyAsync(() -> search(root, mapFile, actions, seed), POOL);
+        }
+
+        int input;
+        if (chosenAction == ACTION_BOMB) {
+            input = GameSimulation.INPUT_BOMB;
+            chosenAction = -1;
+        } else if (chosenAction >= 0 && actionTicksLeft > 0) {
+            actionTicksLeft--;
+            input = ACTION_DIR[chosenAction];
+        } else {
+            input = fallback.nextInput(sim);
+        }
+
+        tickNanos.record(System.nanoTime() - start);
+        return input;
+    }
+
+    // ===== 탐색 (작업 풀 스레드) =====
+
+    private Result search(SimSnapshot root, String mapFile, int actions, long seed) {
+        long start = System.nanoTime();
+        long deadline = start + thinkNanos;
+        int taskCount = POOL.getParallelism();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        SearchTask[] tasks = new SearchTask[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            int budget = rolloutBudget / taskCount + (i < rolloutBudget % taskCount ? 1 : 0);
+            tasks[i] = new SearchTask(root, mapFile, p, actions, budget, deadline, random.split());
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // 방문 횟수가 가장 많은 행동 선택
+        int[] visits = new int[ACTION_COUNT];
+        int rollouts = 0;
+        for (SearchTask task : tasks) {
+            for (int a = 0; a < ACTION_COUNT; a++) {
+                visits[a] += task.visits[a];
+                rollouts += task.visits[a];
+            }
+        }
+        int best = 0;
+        for (int a = 1; a < actions; a++) {
+            if (visits[a] > visits[best]) best = a;
+        }
+        return new Result(best, rollouts, System.nanoTime() - start);
+    }
+
+    /**
+     * 작업 하나: 자기 UCB1 통계로 행동을 고르며 롤아웃을 반복
+     */
+    private static final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SimSnapshot root;
+        private final String mapFile;
+        private final int me;
+        private final int actions; // 후보 행동 수 (0 ~ actions-1)
+        private final int budget;
+        private final long deadline;
+        private final SplittableRandom random;
+        final int[] visits = new int[ACTION_COUNT];
+        final double[] values = new double[ACTION_COUNT];
+
+        SearchTask(SimSnapshot root, String mapFile, int me, int actions, int budget, long deadline,
+                SplittableRandom random) {
+            this.root = root;
+            this.mapFile = mapFile;
+            this.me = me;
+            this.actions = actions;
+            this.budget = budget;
+            this.deadline = deadline;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            Rollout rollout = ROLLOUTS.get();
+            rollout.prepare(mapFile);
+            for (int n = 0; n < budget; n++) {
+                if (n >= actions && System.nanoTime() > deadline) break;
+                int action = select(n);
+                visits[action]++;
+                values[action] += rollout.run(root, me, action, random);
+            }
+        }
+
+        private int select(int total) {
+            if (total < actions) return total; // 모든 행동을 한 번씩 먼저
+            double logTotal = Math.log(total);
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int a = 0; a < actions; a++) {
+                double score = values[a] / visits[a] + EXPLORATION * Math.sqrt(logTotal / visits[a]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = a;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * 작업 스레드 전용 롤아웃 시뮬레이션
+     */
+    private static final class Rollout {
+        private final GameSimulation sim = new GameSimulation();
+        private final BotPlayer[] policy = { new BotPlayer(0), new BotPlayer(1) };
+        private final int[] noiseDir = new int[GameSimulation.PLAYER_COUNT];
+        private final int[] noiseLeft = new int[GameSimulation.PLAYER_COUNT];
+        private final int[] inputs = new int[GameSimulation.PLAYER_COUNT];
+        private String mapFile;
+
+        Rollout() {
+            sim.setLogging(false);
+        }
+
+        void prepare(String mapFile) {
+            if (!mapFile.equals(this.mapFile)) {
+                sim.loadTilesFromFile(mapFile);
+                this.mapFile = mapFile;
+            }
+        }
+
+        /**
+         * root 상태에서 me가 action을 한 뒤 끝까지 진행해 본 점수 (0 ~ 1)
+         */
+        double run(SimSnapshot root, int me, int action, SplittableRandom random) {
+            sim.loadState(root);
+            int start = sim.getTick();
+            int end = start + HORIZON_TICKS;
+            noiseLeft[0] = noiseLeft[1] = 0;
+
+            while (sim.getGameState() == GameSimulation.STATE_PLAYING && sim.getTick() < end) {
+                int elapsed = sim.getTick() - start;
+                for (int q = 0; q < GameSimulation.PLAYER_COUNT; q++) {
+                    if (q == me && action == ACTION_BOMB && elapsed == 0) {
+                        inputs[q] = GameSimulation.INPUT_BOMB;
+                    } else if (q == me && action != ACTION_BOMB && elapsed < MACRO_TICKS) {
+                        inputs[q] = ACTION_DIR[action];
+                    } else if (noiseLeft[q] > 0) {
+                        noiseLeft[q]--;
+                        inputs[q] = noiseDir[q];
+                    } else if (random.nextDouble() < NOISE) {
+                        noiseDir[q] = 1 + random.nextInt(4);
+                        noiseLeft[q] = NOISE_HOLD_TICKS - 1;
+                        inputs[q] = noiseDir[q];
+                    } else {
+                        inputs[q] = policy[q].nextInput(sim);
+                    }
+                }
+                sim.updateGame(inputs[0], inputs[1]);
+            }
+            return evaluate(me);
+        }
+
+        private double evaluate(int me) {
+            int state = sim.getGameState();
+            if (state == GameSimulation.STATE_DRAW) return 0.5;
+            if (state == GameSimulation.STATE_P1_WIN) return me == 0 ? 1.0 : 0.0;
+            if (state == GameSimulation.STATE_P2_WIN) return me == 1 ? 1.0 : 0.0;
+
+            int o = 1 - me;
+            double value = 0.5;
+            if (sim.getPlayerState(me) != GameSimulation.PLAYER_STATE_ALIVE) value -= 0.4;
+            if (sim.getPlayerState(o) != GameSimulation.PLAYER_STATE_ALIVE) value += 0.4;
+            // 아이템으로 얻은 능력치 차이 (조금만 반영)
+            int power = sim.getBombCount(me) + sim.getBombRange(me) + sim.getSpeed(me)
+                - sim.getBombCount(o) - sim.getBombRange(o) - sim.getSpeed(o);
+            value += Math.max(-0.08, Math.min(0.08, power * 0.02));
+            return Math.max(0.0, Math.min(1.0, value));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    @Override
+    public String getStatsSummary() {
+        if (decisions == 0) return "결정 0회";
+        double searchMs = totalSearchNanos / 1e6 / decisions;
+        double perSecond = totalRollouts / (totalSearchNanos / 1e9);
+        return String.format("결정 %d회, 결정당 롤아웃 %.0f개 (%.1fms, 초당 %.0f개, 작업 스레드 %d), 틱 처리 %s",
+            decisions, (double) totalRollouts / decisions, searchMs, perSecond, POOL.getParallelism(),
+            tickNanos.summaryMicros());
+    }
+}
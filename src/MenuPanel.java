@@ -1,6 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowEvent;
 import java.io.File;
 
 /**
@@ -72,9 +73,9 @@ public class MenuPanel extends JPanel {
         add(createRoundedButton("Settings", startX + (buttonWidth + gap) * 2, startY, buttonWidth, buttonHeight,
                 e -> mainFrame.showPanel(CrazyArcade_UI.PANEL_SETTINGS)));
 
-        // 4. 종료 버튼 -> 프로그램 종료
+        // 4. 종료 버튼 -> 프로그램 종료 (X 버튼과 같은 경로로 닫아서 종료 처리를 거치게 함)
         add(createRoundedButton("Exit", startX + (buttonWidth + gap) * 3, startY, buttonWidth, buttonHeight,
-                e -> System.exit(0)));
+                e -> mainFrame.dispatchEvent(new WindowEvent(mainFrame, WindowEvent.WINDOW_CLOSING))));
     }
 
     /**
@@ -113,6 +114,9 @@ public class MenuPanel extends JPanel {
         // 텍스트 하이라이트 (살짝 밝은 효과)
         g2.setColor(new Color(180, 230, 255, 180));
         g2.drawString(title, titleX - 1, titleY - 1);
+
+        // 시작 시간 측정 중이면 첫 화면 시각 기록 (버튼은 같은 그리기 안에서 이어서 그려짐)
+        StartupProfiler.framePainted();
     }
 
     /**
@@ -0,0 +1,281 @@
+import java.util.SplittableRandom;
+
+/**
+ * ========================================================
+ * 네트워크 상태 시험기 (NetworkConditionLab)
+ * ========================================================
+ * 두 RollbackSession을 한 프로세스 안에서 LoopbackTransport로 잇고,
+ * 양방향에 LaggyPacketTransport로 지연/지터/순서 뒤바뀜/손실을 넣어 봇끼리 경기를 돌립니다.
+ * 시계는 1ms씩 가는 가상 시계라 같은 설정과 시드면 결과가 항상 같습니다.
+ * 두 번째 피어는 시계 속도를 skew%만큼 다르게, 시작을 startOffset ms만큼 늦게 해서
+ * ClockSync의 틱 속도 보정과 입력 지연 조절이 틱 번호를 얼마나 맞추는지도 봅니다.
+ *
+ * 기록하는 값:
+ * - 동기화 어긋남(desync): 입력이 확정된 틱의 시작 상태를 양쪽에서 비교
+ * - 롤백 깊이 분포, 재시뮬레이션 시간, 입력 대기(stall) 횟수
+ * - 입력→화면 지연: 상대가 방향을 바꾼 시각부터 내 화면이 그 입력으로 다시 그려질 때까지
+ * - 두 피어의 틱 번호 차이, RTT 추정값, 입력 지연
+ *
+ * 실행 예시:
+ * java -cp out NetworkConditionLab "lat=60,jit=20,loss=2,reorder=5" [경기 수] [최대 롤백] [시드]
+ *      [시계 차이 %] [시작 차이 ms] [최대 입력 지연]
+ */
+public class NetworkConditionLab {
+    private static final long STEP_NANOS = 1_000_000L; // 가상 시계 1ms 단위
+    private static final int MAX_TICKS_PER_MATCH = GameSimulation.GAME_TIME * 1000 / GameSimulation.TICK_MS + 600;
+    private static final String[] MAPS = { "mapData1.txt", "mapData2.txt" };
+
+    // 가상 시계 (모든 전송이 공유)
+    private long nowNanos = 0;
+
+    // 결과
+    private long ticks = 0;
+    private long stalls = 0;
+    private long desyncs = 0;
+    private int firstDesyncTick = -1;
+    private long comparedTicks = 0;
+    private long hashChecks = 0;       // 입력 패킷에 실린 상태 해시 비교 횟수 (양쪽 합)
+    private int hashDesyncTick = -1;   // 해시 비교로 찾은 첫 어긋남
+    private final LatencyHistogram rollbackDepth = new LatencyHistogram();
+    private final LatencyHistogram resimNanos = new LatencyHistogram();
+    private final LatencyHistogram inputToDisplayMs = new LatencyHistogram();
+    private final LatencyHistogram tickGap = new LatencyHistogram();
+    private final LatencyHistogram inputDelayTicks = new LatencyHistogram();
+    private long adjustedTicks = 0;
+    private double rttEstimateMsSum = 0;
+    private int rttEstimates = 0;
+    private long sent = 0;
+    private long dropped = 0;
+    private long reordered = 0;
+
+    /**
+     * 한 쪽 피어 (시뮬레이션 + 세션 + 봇)
+     */
+    private class Peer {
+        final GameSimulation sim = new GameSimulation();
+        final RollbackSession session;
+        final LaggyPacketTransport transport;
+        final SplittableRandom bot;
+        int input = 0;
+        int checkedTick = -1;     // 여기까지 상대와 상태를 비교함
+        long lastRollbacks = 0;
+
+        // 이 피어의 시계 (가상 시계에 속도 차이와 시작 시각 차이를 적용)
+        final double clockRate;
+        final long startNanos;
+        long lastLocalNanos = 0;
+        long accumulator = 0;
+
+        // 내가 방향을 바꾼 틱과 시각 (상대 화면 지연 측정용)
+        final long[] changeNanos = new long[4096];
+
+        Peer(String map, PacketTransport link, int slot, int maxRollback, int maxInputDelay,
+             NetworkConditions conditions, long seed, double clockRate, long startNanos) {
+            this.clockRate = clockRate;
+            this.startNanos = startNanos;
+            sim.setLogging(false);
+            sim.loadTilesFromFile(map);
+            sim.resetGame();
+            transport = new LaggyPacketTransport(link, conditions, seed, () -> nowNanos);
+            session = new RollbackSession(sim, transport, slot, maxRollback, maxInputDelay, this::localNanos);
+            bot = new SplittableRandom(seed * 31 + 7);
+            java.util.Arrays.fill(changeNanos, -1);
+        }
+
+        long localNanos() {
+            return (long) (Math.max(0, nowNanos - startNanos) * clockRate);
+        }
+
+        void nextInput() {
+            int dir = input & GameSimulation.INPUT_DIR_MASK;
+            if (bot.nextInt(20) == 0) dir = bot.nextInt(5);
+            input = dir;
+            if (bot.nextInt(40) == 0) input |= GameSimulation.INPUT_BOMB;
+        }
+    }
+
+    public void runMatch(NetworkConditions conditions, String map, int maxRollback, int maxInputDelay,
+                         double skewPercent, int startOffsetMs, long seed) {
+        nowNanos = 0;
+        LoopbackTransport[] link = LoopbackTransport.pair();
+        Peer a = new Peer(map, link[0], 0, maxRollback, maxInputDelay, conditions, seed * 2 + 1, 1.0, 0);
+        Peer b = new Peer(map, link[1], 1, maxRollback, maxInputDelay, conditions, seed * 2 + 2,
+                1.0 + skewPercent / 100.0, startOffsetMs * STEP_NANOS);
+        Peer[] peers = { a, b };
+
+        long maxSteps = (long) MAX_TICKS_PER_MATCH * GameSimulation.TICK_MS * 2;
+        for (long step = 0; step < maxSteps; step++) {
+            nowNanos += STEP_NANOS;
+            for (int i = 0; i < peers.length; i++) {
+                Peer me = peers[i];
+                Peer other = peers[1 - i];
+                if (nowNanos < me.startNanos) continue;
+
+                // 각자 자기 시계로 틱 시각이 되었을 때만 진행 (게임 화면의 누적 방식과 같음)
+                long local = me.localNanos();
+                me.accumulator += local - me.lastLocalNanos;
+                me.lastLocalNanos = local;
+                long tickNanos = me.session.getTickNanos();
+                if (me.accumulator < tickNanos) continue;
+                me.accumulator -= tickNanos;
+                if (tickNanos != GameSimulation.TICK_MS * 1_000_000L) adjustedTicks++;
+
+                int tick = me.sim.getTick();
+                int prevDir = me.input & GameSimulation.INPUT_DIR_MASK;
+                me.nextInput();
+                boolean changed = (me.input & GameSimulation.INPUT_DIR_MASK) != prevDir;
+
+                int confirmedBefore = me.session.getLastConfirmedRemoteTick();
+                if (me.session.advance(me.input)) {
+                    ticks++;
+                    if (changed) {
+                        // 입력 지연이 있으면 이 입력은 tick + 지연 틱에 적용됨
+                        me.changeNanos[(tick + me.session.getInputDelay()) & 4095] = nowNanos;
+                    }
+                    inputDelayTicks.record(me.session.getInputDelay());
+                } else {
+                    stalls++;
+                    me.input = prevDir; // 진행 못 한 입력은 다음 틱에 다시
+                    me.accumulator = 0;
+                }
+                recordRollback(me);
+                recordDisplayLatency(me, other, confirmedBefore);
+            }
+            if (nowNanos >= b.startNanos) {
+                tickGap.record(Math.abs(a.sim.getTick() - b.sim.getTick()));
+            }
+            compareSettledStates(a, b);
+
+            if (a.sim.getGameState() != GameSimulation.STATE_PLAYING
+                    && b.sim.getGameState() != GameSimulation.STATE_PLAYING) {
+                break;
+            }
+        }
+
+        for (Peer p : peers) {
+            if (p.session.getClockSync().hasEstimate()) {
+                rttEstimateMsSum += p.session.getClockSync().getRttNanos() / 1_000_000.0;
+                rttEstimates++;
+            }
+            hashChecks += p.session.getHashChecks();
+            int d = p.session.getDesyncTick();
+            if (d >= 0 && (hashDesyncTick < 0 || d < hashDesyncTick)) hashDesyncTick = d;
+            sent += p.transport.getSentCount();
+            dropped += p.transport.getDroppedCount();
+            reordered += p.transport.getReorderedCount();
+        }
+    }
+
+    private void recordRollback(Peer p) {
+        long count = p.session.getRollbackCount();
+        if (count != p.lastRollbacks) {
+            rollbackDepth.record(p.session.getLastRollbackDepth());
+            resimNanos.record(p.session.getLastResimNanos());
+            p.lastRollbacks = count;
+        }
+    }
+
+    // 이번 틱에 확정된 상대 입력 중 방향이 바뀐 것 → 이번 프레임에 화면에 반영됨
+    private void recordDisplayLatency(Peer me, Peer other, int confirmedBefore) {
+        int confirmed = me.session.getLastConfirmedRemoteTick();
+        for (int t = confirmedBefore + 1; t <= confirmed; t++) {
+            long changedAt = other.changeNanos[t & 4095];
+            if (changedAt >= 0) {
+                inputToDisplayMs.record((nowNanos - changedAt) / 1_000_000L);
+                other.changeNanos[t & 4095] = -1;
+            }
+        }
+    }
+
+    // 양쪽 모두 입력이 확정된 틱의 시작 상태를 비교
+    private void compareSettledStates(Peer a, Peer b) {
+        int settled = Math.min(settledTick(a), settledTick(b));
+        int from = Math.max(a.checkedTick, b.checkedTick) + 1;
+        for (int t = from; t <= settled; t++) {
+            SimSnapshot sa = a.session.getSavedState(t);
+            SimSnapshot sb = b.session.getSavedState(t);
+            if (sa == null || sb == null) continue; // 이미 덮어써짐
+            comparedTicks++;
+            if (!sameState(sa, sb)) {
+                desyncs++;
+                if (firstDesyncTick < 0) firstDesyncTick = t;
+            }
+        }
+        if (settled >= from) {
+            a.checkedTick = settled;
+            b.checkedTick = settled;
+        }
+    }
+
+    private static int settledTick(Peer p) {
+        return Math.min(p.session.getLastConfirmedRemoteTick() + 1, p.sim.getTick() - 1);
+    }
+
+    private static boolean sameState(SimSnapshot x, SimSnapshot y) {
+        if (x.gameState != y.gameState || x.balloonCount != y.balloonCount) return false;
+        if (!java.util.Arrays.equals(x.tileItems, y.tileItems)) return false;
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            if (x.playerX[p] != y.playerX[p] || x.playerY[p] != y.playerY[p]
+                    || x.playerState[p] != y.playerState[p] || x.bombCount[p] != y.bombCount[p]
+                    || x.bombRange[p] != y.bombRange[p] || x.speed[p] != y.speed[p]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < x.balloonCount; i++) {
+            if (x.balloonRow[i] != y.balloonRow[i] || x.balloonCol[i] != y.balloonCol[i]
+                    || x.balloonPlaceTick[i] != y.balloonPlaceTick[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (SnapshotCodec.activeBlastStart(x, i) != SnapshotCodec.activeBlastStart(y, i)) return false;
+        }
+        return true;
+    }
+
+    public void printReport(NetworkConditions conditions, int matches, int maxRollback, double skewPercent,
+                            int startOffsetMs) {
+        System.out.println("===== 네트워크 상태 시험 결과 =====");
+        System.out.println("조건: " + conditions + ", 경기 " + matches + "판, 최대 롤백 " + maxRollback + "틱, 시계 차이 "
+                + skewPercent + "%, 시작 차이 " + startOffsetMs + "ms");
+        System.out.printf("패킷: 보냄 %d, 손실 %d (%.1f%%), 순서 뒤바뀜 %d%n",
+                sent, dropped, sent == 0 ? 0.0 : dropped * 100.0 / sent, reordered);
+        System.out.printf("진행 틱 %d, 입력 대기 %d회 (%.2f%%)%n",
+                ticks, stalls, (ticks + stalls) == 0 ? 0.0 : stalls * 100.0 / (ticks + stalls));
+        System.out.println("동기화 비교 " + comparedTicks + "틱, 어긋남 " + desyncs + "회"
+                + (firstDesyncTick >= 0 ? " (처음: tick " + firstDesyncTick + ")" : ""));
+        System.out.println("상태 해시 교환 " + hashChecks + "회"
+                + (hashDesyncTick >= 0 ? ", 어긋남 감지 tick " + hashDesyncTick : ", 어긋남 없음"));
+        System.out.printf("롤백 %d회, 깊이 평균 %.1f p50 %d p99 %d 최대 %d틱%n", rollbackDepth.getCount(),
+                rollbackDepth.getMean(), rollbackDepth.percentile(0.5), rollbackDepth.percentile(0.99),
+                rollbackDepth.getMax());
+        System.out.println("재시뮬레이션 시간: " + resimNanos.summaryMicros());
+        System.out.printf("상대 입력→화면 지연: 평균 %.1fms p50 %dms p99 %dms 최대 %dms (%d건)%n",
+                inputToDisplayMs.getMean(), inputToDisplayMs.percentile(0.5), inputToDisplayMs.percentile(0.99),
+                inputToDisplayMs.getMax(), inputToDisplayMs.getCount());
+        System.out.printf("두 피어 틱 차이: 평균 %.2f p50 %d p99 %d 최대 %d틱%n", tickGap.getMean(),
+                tickGap.percentile(0.5), tickGap.percentile(0.99), tickGap.getMax());
+        System.out.printf("RTT 추정 %.1fms (설정 기준 약 %dms), 틱 길이 보정 %.1f%%, 입력 지연 평균 %.2f 최대 %d틱%n",
+                rttEstimates == 0 ? 0.0 : rttEstimateMsSum / rttEstimates,
+                2 * conditions.latencyMs + conditions.jitterMs,
+                ticks == 0 ? 0.0 : adjustedTicks * 100.0 / (ticks + stalls),
+                inputDelayTicks.getMean(), inputDelayTicks.getMax());
+    }
+
+    public static void main(String[] args) {
+        NetworkConditions conditions = NetworkConditions.parse(args.length > 0 ? args[0] : "lat=60,jit=20,loss=2,reorder=5");
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int maxRollback = args.length > 2 ? Integer.parseInt(args[2]) : GameSettings.rollbackMaxTicks;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        double skewPercent = args.length > 4 ? Double.parseDouble(args[4]) : 0.5;
+        int startOffsetMs = args.length > 5 ? Integer.parseInt(args[5]) : 100;
+        int maxInputDelay = args.length > 6 ? Integer.parseInt(args[6]) : GameSettings.netMaxInputDelay;
+
+        NetworkConditionLab lab = new NetworkConditionLab();
+        for (int m = 0; m < matches; m++) {
+            lab.runMatch(conditions, MAPS[m % MAPS.length], maxRollback, maxInputDelay, skewPercent, startOffsetMs,
+                    seed + m);
+        }
+        lab.printReport(conditions, matches, maxRollback, skewPercent, startOffsetMs);
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.SplittableRandom;
+
+/**
+ * ========================================================
+ * 네트워크 상태 설정 (NetworkConditions)
+ * ========================================================
+ * 지연, 지터, 순서 뒤바뀜, 손실을 흉내 낼 때 쓰는 값 묶음입니다.
+ * LaggyPacketTransport가 패킷마다 이 값으로 버릴지, 얼마나 늦출지 정합니다.
+ *
+ * 문자열 형식 (쉼표 구분, 생략한 값은 0):
+ * "lat=80,jit=20,loss=2,reorder=5"
+ * - lat: 한 방향 기본 지연 (ms)
+ * - jit: 패킷마다 0 ~ jit ms를 무작위로 더함
+ * - loss: 손실 확률 (%)
+ * - reorder: 뒤 패킷에 추월당하도록 REORDER_HOLD_MS만큼 더 붙잡아 둘 확률 (%)
+ */
+public class NetworkConditions {
+    static final int REORDER_HOLD_MS = 2 * GameSimulation.TICK_MS;
+
+    public final int latencyMs;
+    public final int jitterMs;
+    public final double lossPercent;
+    public final double reorderPercent;
+
+    public NetworkConditions(int latencyMs, int jitterMs, double lossPercent, double reorderPercent) {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.lossPercent = Math.max(0, Math.min(100, lossPercent));
+        this.reorderPercent = Math.max(0, Math.min(100, reorderPercent));
+    }
+
+    /**
+     * "lat=80,jit=20,loss=2,reorder=5" 형식을 읽습니다.
+     */
+    public static NetworkConditions parse(String text) {
+        int latency = 0;
+        int jitter = 0;
+        double loss = 0;
+        double reorder = 0;
+        for (String part : text.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) continue;
+            String key = kv[0].trim();
+            String value = kv[1].trim();
+            switch (key) {
+                case "lat": latency = Integer.parseInt(value); break;
+                case "jit": jitter = Integer.parseInt(value); break;
+                case "loss": loss = Double.parseDouble(value); break;
+                case "reorder": reorder = Double.parseDouble(value); break;
+                default:
+                    throw new IllegalArgumentException("알 수 없는 네트워크 설정: " + key);
+            }
+        }
+        return new NetworkConditions(latency, jitter, loss, reorder);
+    }
+
+    /**
+     * GameSettings의 netSim* 값으로 만듭니다.
+     */
+    public static NetworkConditions fromSettings() {
+        return new NetworkConditions(GameSettings.netSimLatencyMs, GameSettings.netSimJitterMs,
+                GameSettings.netSimLossPercent, GameSettings.netSimReorderPercent);
+    }
+
+    /**
+     * 아무 영향도 주지 않는 설정인지
+     */
+    public boolean isPerfect() {
+        return latencyMs == 0 && jitterMs == 0 && lossPercent == 0 && reorderPercent == 0;
+    }
+
+    boolean shouldDrop(SplittableRandom random) {
+        return lossPercent > 0 && random.nextDouble() * 100 < lossPercent;
+    }
+
+    long sampleDelayNanos(SplittableRandom random) {
+        long ms = latencyMs;
+        if (jitterMs > 0) ms += random.nextInt(jitterMs + 1);
+        if (reorderPercent > 0 && random.nextDouble() * 100 < reorderPercent) ms += REORDER_HOLD_MS;
+        return ms * 1_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        return "lat=" + latencyMs + ",jit=" + jitterMs + ",loss=" + lossPercent + ",reorder=" + reorderPercent;
+    }
+}
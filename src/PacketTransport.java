@@ -0,0 +1,29 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * ========================================================
+ * 패킷 전송 인터페이스 (PacketTransport)
+ * ========================================================
+ * 네트워크 대전에서 상대와 주고받는 작은 패킷의 송수신 통로입니다.
+ * 실제 UDP 소켓(UdpPacketTransport) 외에도 테스트용 래퍼로 교체할 수 있도록
+ * 블로킹 없는 send/poll 두 동작만 정의합니다.
+ */
+public interface PacketTransport extends Closeable {
+
+    /**
+     * 패킷 전송 (블로킹하지 않음, 실패 시 조용히 버려질 수 있음)
+     *
+     * @param data   보낼 데이터
+     * @param length 데이터 길이
+     */
+    void send(byte[] data, int length) throws IOException;
+
+    /**
+     * 도착한 패킷 하나를 꺼냅니다 (블로킹하지 않음).
+     *
+     * @param buffer 받은 데이터를 복사할 버퍼
+     * @return 받은 길이, 도착한 패킷이 없으면 -1
+     */
+    int poll(byte[] buffer) throws IOException;
+}
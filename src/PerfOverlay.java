@@ -0,0 +1,245 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ========================================================
+ * 성능 표시 (PerfOverlay)
+ * ========================================================
+ * 게임 화면 위에 프레임 시간과 원인 후보를 겹쳐 보여 줍니다 (F3으로 켜고 끔).
+ * - 업데이트 시간 (그중 효과음 재생에 쓴 시간), 그리기 시간, FPS
+ * - GC 횟수/시간, 힙 사용량
+ * - 물풍선 수, 물줄기 칸 수
+ * - 최근 프레임 간격 히스토그램과 p50/p99
+ *
+ * 끊김이 GC 때문인지 (GC 증가), EDT가 다른 일로 막혔는지 (업데이트/그리기는 짧은데 간격이 김),
+ * 효과음 때문인지 (효과음 시간) 그 자리에서 구분할 수 있습니다.
+ * 꺼져 있으면 측정도 하지 않으므로 호출 비용은 boolean 확인 한 번입니다.
+ */
+public class PerfOverlay {
+    private static final int HISTORY = 240; // 프레임 간격 기록 (60fps에서 약 4초)
+    private static final int BUCKET_MS = 2; // 히스토그램 칸 너비
+    private static final int BUCKETS = 25; // 0 ~ 48ms, 마지막 칸은 50ms 이상
+    private static final long REFRESH_NANOS = 500_000_000L; // 숫자 갱신 주기
+    private static final double BUDGET_MS = 1000.0 / 60; // 60fps 기준선
+    private static final int WIDTH = 250;
+    private static final int HEIGHT = 160;
+    private static final int GRAPH_HEIGHT = 50;
+    private static final Font FONT = new Font("맑은 고딕", Font.PLAIN, 11);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Color BAR = new Color(120, 220, 120);
+    private static final Color BAR_SLOW = new Color(240, 90, 70);
+
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private boolean visible;
+
+    // 프레임 간격 (그리기 시작 사이)
+    private final long[] frameNanos = new long[HISTORY];
+    private final long[] sorted = new long[HISTORY];
+    private final int[] buckets = new int[BUCKETS];
+    private int frameIndex = 0;
+    private int frameCount = 0;
+    private long lastPaintStart = 0;
+
+    // 갱신 주기 동안 모은 값
+    private long periodStart = 0;
+    private int periodFrames = 0;
+    private int periodUpdates = 0;
+    private long updateSum, updateMax;
+    private long paintSum, paintMax;
+    private long audioSum;
+    private long gcCountBase, gcTimeBase;
+
+    // 화면에 보이는 값 (REFRESH_NANOS마다 갱신)
+    private double fps;
+    private double p50Ms, p99Ms, maxMs;
+    private double updateAvgMs, updateMaxMs, paintAvgMs, paintMaxMs, audioMs;
+    private long gcCount, gcTimeMs, gcRecentCount, gcRecentMs;
+    private long heapUsedMb, heapMaxMb;
+
+    public PerfOverlay(boolean visible) {
+        setVisible(visible);
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        setVisible(!visible);
+    }
+
+    /**
+     * 켤 때마다 기록을 비우고 새로 모읍니다.
+     */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        if (visible) {
+            frameIndex = 0;
+            frameCount = 0;
+            lastPaintStart = 0;
+            startPeriod(System.nanoTime());
+            gcCountBase = gcCount();
+            gcTimeBase = gcTime();
+            gcCount = gcTimeMs = 0;
+        }
+    }
+
+    // ===== 측정 (꺼져 있으면 0을 돌려주고 아무 것도 안 함) =====
+
+    /**
+     * 구간 시작 시각 (업데이트, 효과음)
+     */
+    public long begin() {
+        return visible ? System.nanoTime() : 0;
+    }
+
+    public void endUpdate(long start) {
+        if (!visible || start == 0) return;
+        long nanos = System.nanoTime() - start;
+        updateSum += nanos;
+        updateMax = Math.max(updateMax, nanos);
+        periodUpdates++;
+    }
+
+    public void endAudio(long start) {
+        if (!visible || start == 0) return;
+        audioSum += System.nanoTime() - start;
+    }
+
+    /**
+     * 그리기 시작: 앞 프레임과의 간격을 기록합니다.
+     */
+    public long beginPaint() {
+        if (!visible) return 0;
+        long now = System.nanoTime();
+        if (lastPaintStart != 0) {
+            frameNanos[frameIndex] = now - lastPaintStart;
+            frameIndex = (frameIndex + 1) % HISTORY;
+            frameCount = Math.min(frameCount + 1, HISTORY);
+            periodFrames++;
+        }
+        lastPaintStart = now;
+        return now;
+    }
+
+    public void endPaint(long start) {
+        if (!visible || start == 0) return;
+        long nanos = System.nanoTime() - start;
+        paintSum += nanos;
+        paintMax = Math.max(paintMax, nanos);
+    }
+
+    // ===== 표시 =====
+
+    private void refresh(long now) {
+        double seconds = (now - periodStart) / 1e9;
+        fps = periodFrames / seconds;
+        updateAvgMs = periodUpdates > 0 ? updateSum / 1e6 / periodUpdates : 0;
+        updateMaxMs = updateMax / 1e6;
+        paintAvgMs = periodFrames > 0 ? paintSum / 1e6 / periodFrames : 0;
+        paintMaxMs = paintMax / 1e6;
+        audioMs = audioSum / 1e6 / Math.max(1, periodUpdates);
+
+        long count = gcCount() - gcCountBase;
+        long time = gcTime() - gcTimeBase;
+        gcRecentCount = count - gcCount;
+        gcRecentMs = time - gcTimeMs;
+        gcCount = count;
+        gcTimeMs = time;
+
+        Runtime rt = Runtime.getRuntime();
+        heapUsedMb = (rt.totalMemory() - rt.freeMemory()) >> 20;
+        heapMaxMb = rt.maxMemory() >> 20;
+
+        Arrays.fill(buckets, 0);
+        System.arraycopy(frameNanos, 0, sorted, 0, frameCount);
+        Arrays.sort(sorted, 0, frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            buckets[Math.min(BUCKETS - 1, (int) (sorted[i] / 1_000_000L / BUCKET_MS))]++;
+        }
+        p50Ms = frameCount > 0 ? sorted[frameCount / 2] / 1e6 : 0;
+        p99Ms = frameCount > 0 ? sorted[Math.min(frameCount - 1, frameCount * 99 / 100)] / 1e6 : 0;
+        maxMs = frameCount > 0 ? sorted[frameCount - 1] / 1e6 : 0;
+
+        startPeriod(now);
+    }
+
+    private void startPeriod(long now) {
+        periodStart = now;
+        periodFrames = 0;
+        periodUpdates = 0;
+        updateSum = updateMax = 0;
+        paintSum = paintMax = 0;
+        audioSum = 0;
+    }
+
+    /**
+     * (x, y)에 표시를 그립니다. 이 그리기 시간은 paint 측정에 들어가지 않습니다.
+     */
+    public void draw(Graphics2D g2, GameSimulation sim, int x, int y) {
+        if (!visible) return;
+        long now = System.nanoTime();
+        if (now - periodStart >= REFRESH_NANOS) {
+            refresh(now);
+        }
+
+        g2.setColor(BACKGROUND);
+        g2.fillRoundRect(x, y, WIDTH, HEIGHT, 8, 8);
+        g2.setFont(FONT);
+        g2.setColor(Color.WHITE);
+        int line = y + 15;
+        g2.drawString(String.format("FPS %.0f   프레임 p50 %.1f  p99 %.1f  최대 %.1fms", fps, p50Ms, p99Ms, maxMs), x + 8, line);
+        line += 15;
+        g2.drawString(String.format("업데이트 %.2f (최대 %.1f)  효과음 %.2fms", updateAvgMs, updateMaxMs, audioMs), x + 8, line);
+        line += 15;
+        g2.drawString(String.format("그리기 %.2f (최대 %.1f)ms", paintAvgMs, paintMaxMs), x + 8, line);
+        line += 15;
+        g2.drawString(String.format("GC %d회 %dms (최근 %d회 %dms)  힙 %d/%dMB", gcCount, gcTimeMs,
+                gcRecentCount, gcRecentMs, heapUsedMb, heapMaxMb), x + 8, line);
+        line += 15;
+        g2.drawString(String.format("물풍선 %d  물줄기 %d칸  틱 %d", sim.getBalloonCount(), countBlasts(sim), sim.getTick()),
+                x + 8, line);
+
+        // 프레임 간격 히스토그램 (빨간 칸은 60fps 기준보다 느린 프레임)
+        int graphX = x + 8;
+        int graphY = y + HEIGHT - 10;
+        int barWidth = (WIDTH - 16) / BUCKETS;
+        int peak = 1;
+        for (int b : buckets) peak = Math.max(peak, b);
+        for (int i = 0; i < BUCKETS; i++) {
+            int h = buckets[i] * GRAPH_HEIGHT / peak;
+            if (buckets[i] > 0) h = Math.max(h, 1);
+            g2.setColor(i * BUCKET_MS > BUDGET_MS ? BAR_SLOW : BAR);
+            g2.fillRect(graphX + i * barWidth, graphY - h, barWidth - 1, h);
+        }
+        g2.setColor(new Color(255, 255, 255, 120));
+        g2.drawLine(graphX, graphY, graphX + BUCKETS * barWidth, graphY);
+    }
+
+    private static int countBlasts(GameSimulation sim) {
+        int n = 0;
+        for (int r = 0; r < GameSimulation.TILE_ROWS; r++) {
+            for (int c = 0; c < GameSimulation.TILE_COLS; c++) {
+                if (sim.isBlastActive(r, c)) n++;
+            }
+        }
+        return n;
+    }
+
+    private long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : gcBeans) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private long gcTime() {
+        long ms = 0;
+        for (GarbageCollectorMXBean gc : gcBeans) ms += Math.max(0, gc.getCollectionTime());
+        return ms;
+    }
+}
@@ -0,0 +1,391 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * ========================================================
+ * 빠른 저장 (QuickSave)
+ * ========================================================
+ * 진행 중인 경기의 전체 상태를 작은 바이너리 파일로 저장하고 그대로 이어서 진행할 수 있게 복원합니다.
+ * 오래 켜 둔 PC가 죽었을 때 이어 하기, 다른 방(서버)으로 경기 옮기기에 씁니다.
+ *
+ * 내용은 SimSnapshot(롤백 링 버퍼와 같은 상태 정의)을 손실 없이 담습니다.
+ * 틱 번호가 들어가는 값은 현재 틱과의 차이(물풍선 남은 시간, 폭발 경과 시간 등)로 적어서
+ * 대부분 1바이트로 끝나고, 끝난 폭발 칸처럼 결과에 영향이 없는 값은 적지 않습니다.
+ * 보통 경기 중 상태는 300바이트 안팎이고 저장/복원 모두 객체를 거의 만들지 않습니다.
+ *
+ * 파일 구조:
+ * [매직 "CAQS" 4][버전 1][맵 파일][1P 캐릭터][2P 캐릭터] (문자열은 [길이 1][UTF-8])
+ * [경기 시드 8][틱 길이(ms) 2][상태 본문][상태 해시 8][CRC32 4]
+ *
+ * 상태 본문 (정수는 varint, 부호가 있는 값은 zigzag varint):
+ * [틱][게임 상태 1][끝난 틱 - 틱][난수 상태 8]
+ * [타일 아이템 4비트 x 195칸 = 98]
+ * [플레이어마다: x, y, 능력치 6개, 상태, 상태 시작 후 틱, 방향, 스프라이트 행/열, 프레임]
+ * [물풍선 수][물풍선마다: 행, 열, 범위, 주인, 설치 후 틱, 남은 틱, 설치 x/y, 충돌 여부]
+ * [폭발 중인 칸 수][칸마다: 칸 번호, 모양, 시작 후 틱]
+ */
+public final class QuickSave {
+    private static final int MAGIC = 0x43415153; // "CAQS"
+    private static final int VERSION = 1;
+    public static final String SAVE_DIR = "saves";
+    public static final String EXTENSION = ".sav";
+    public static final String QUICK_SAVE = "quicksave" + EXTENSION;
+    public static final String AUTO_SAVE = "autosave" + EXTENSION;
+    private static final int BUFFER_SIZE = 4096; // 물풍선/폭발이 가득 차도 2KB 미만
+
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private final SimSnapshot snapshot = new SimSnapshot();
+    private final CRC32 crc = new CRC32();
+
+    // 읽은 파일의 시작 조건
+    private String mapDataFile;
+    private final String[] characters = new String[GameSimulation.PLAYER_COUNT];
+    private long seed;
+
+    // 통계
+    private long lastSaveNanos;
+    private long lastLoadNanos;
+
+    /**
+     * saves 폴더 안의 파일
+     */
+    public static File file(String name) {
+        return new File(new File(System.getProperty("user.dir"), SAVE_DIR), name);
+    }
+
+    // ===== 저장 =====
+
+    /**
+     * 지금 상태를 버퍼에 기록하고 길이를 돌려줍니다 (getBuffer로 꺼냄).
+     */
+    public int encode(GameSimulation sim) {
+        sim.saveState(snapshot);
+        pos = 0;
+        writeInt(MAGIC);
+        buf[pos++] = (byte) VERSION;
+        writeString(sim.getMapDataFile());
+        writeString(sim.getCharacterName(0));
+        writeString(sim.getCharacterName(1));
+        writeLong(sim.getMatchSeed());
+        buf[pos++] = (byte) (GameSimulation.TICK_MS >> 8);
+        buf[pos++] = (byte) GameSimulation.TICK_MS;
+        writeSnapshot(snapshot);
+        writeLong(snapshot.stateHash);
+        crc.reset();
+        crc.update(buf, 0, pos);
+        writeInt((int) crc.getValue());
+        return pos;
+    }
+
+    /**
+     * 지금 상태를 file에 저장합니다 (encode + writeFile).
+     */
+    public void save(GameSimulation sim, File file) throws IOException {
+        long start = System.nanoTime();
+        writeFile(buf, encode(sim), file);
+        lastSaveNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * encode한 바이트를 file에 씁니다. 임시 파일에 쓴 뒤 바꿔치기하므로 쓰는 도중 꺼져도 이전 파일은 남습니다.
+     * 파일 시스템에 따라 수 ms 걸릴 수 있으므로 게임 중에는 버퍼를 복사해서 다른 스레드에서 호출합니다.
+     */
+    public static void writeFile(byte[] data, int length, File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("폴더를 만들 수 없음: " + dir);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(data, 0, length);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ===== 복원 =====
+
+    /**
+     * file의 경기를 sim에 복원합니다 (맵이 다르면 다시 읽고 캐릭터/시드도 맞춤).
+     * 파일이 깨졌으면 sim은 건드리지 않고 IOException.
+     */
+    public void load(GameSimulation sim, File file) throws IOException {
+        long start = System.nanoTime();
+        long size = file.length();
+        if (size > BUFFER_SIZE) {
+            throw new IOException("저장 파일이 너무 큼: " + file + " (" + size + "바이트)");
+        }
+        int length;
+        try (FileInputStream in = new FileInputStream(file)) {
+            length = in.readNBytes(buf, 0, BUFFER_SIZE);
+        }
+        restore(sim, length);
+        lastLoadNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 버퍼(getBuffer)의 앞 length바이트를 읽어 sim에 복원합니다.
+     */
+    public void restore(GameSimulation sim, int length) throws IOException {
+        long savedHash = decode(length);
+        if (!mapDataFile.equals(sim.getMapDataFile()) || sim.getTiles() == null) {
+            sim.loadTilesFromFile(mapDataFile);
+        }
+        sim.setCharacters(characters[0], characters[1]);
+        sim.setMatchSeed(seed);
+        sim.loadState(snapshot);
+        if (sim.getStateHash() != savedHash) {
+            System.err.println("빠른 저장: 상태 해시가 저장 당시와 다름 (게임 규칙이 바뀌었을 수 있음)");
+        }
+    }
+
+    /**
+     * 버퍼를 검사하고 snapshot과 시작 조건을 채웁니다.
+     *
+     * @return 저장 당시 상태 해시
+     */
+    private long decode(int length) throws IOException {
+        if (length < 4 + 1 + 4) {
+            throw new IOException("저장 파일이 너무 짧음");
+        }
+        crc.reset();
+        crc.update(buf, 0, length - 4);
+        pos = length - 4;
+        limit = length;
+        if (readInt() != (int) crc.getValue()) {
+            throw new IOException("저장 파일이 깨짐 (CRC 불일치)");
+        }
+        pos = 0;
+        limit = length - 4;
+        if (readInt() != MAGIC) {
+            throw new IOException("빠른 저장 파일이 아님");
+        }
+        int version = readByte();
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 저장 버전: " + version);
+        }
+        mapDataFile = readString();
+        characters[0] = readString();
+        characters[1] = readString();
+        seed = readLong();
+        int tickMs = (readByte() << 8) | readByte();
+        if (tickMs != GameSimulation.TICK_MS) {
+            throw new IOException("저장 당시 틱 길이(" + tickMs + "ms)가 지금(" + GameSimulation.TICK_MS + "ms)과 다름");
+        }
+        readSnapshot(snapshot);
+        long hash = readLong();
+        if (pos != limit) {
+            throw new IOException("저장 파일 길이 오류");
+        }
+        return hash;
+    }
+
+    // ===== 상태 본문 =====
+
+    private void writeSnapshot(SimSnapshot s) {
+        int tick = s.tick;
+        writeVarInt(tick);
+        buf[pos++] = (byte) s.gameState;
+        writeSigned(s.endTick - tick);
+        writeLong(s.randomState);
+
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i += 2) {
+            int hi = s.tileItems[i] & 0x0F;
+            int lo = i + 1 < GameSimulation.CELL_COUNT ? s.tileItems[i + 1] & 0x0F : 0;
+            buf[pos++] = (byte) (hi << 4 | lo);
+        }
+
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            writeVarInt(s.playerX[p]);
+            writeVarInt(s.playerY[p]);
+            buf[pos++] = (byte) s.bombCount[p];
+            buf[pos++] = (byte) s.bombRange[p];
+            buf[pos++] = (byte) s.speed[p];
+            buf[pos++] = (byte) s.maxBombCount[p];
+            buf[pos++] = (byte) s.maxBombRange[p];
+            buf[pos++] = (byte) s.maxSpeed[p];
+            buf[pos++] = (byte) s.playerState[p];
+            writeSigned(tick - s.stateStartTick[p]);
+            buf[pos++] = (byte) s.lastDir[p];
+            buf[pos++] = (byte) s.spriteRow[p];
+            buf[pos++] = (byte) s.spriteCol[p];
+            writeVarInt(s.frameCounter[p]);
+        }
+
+        buf[pos++] = (byte) s.balloonCount;
+        for (int i = 0; i < s.balloonCount; i++) {
+            buf[pos++] = (byte) s.balloonRow[i];
+            buf[pos++] = (byte) s.balloonCol[i];
+            buf[pos++] = (byte) s.balloonRange[i];
+            buf[pos++] = (byte) s.balloonOwner[i];
+            writeSigned(tick - s.balloonPlaceTick[i]);
+            writeSigned(s.balloonExplodeTick[i] - tick);
+            writeVarInt(s.balloonInstallX[i]);
+            writeVarInt(s.balloonInstallY[i]);
+            buf[pos++] = (byte) (s.balloonCollision[i] ? 1 : 0);
+        }
+
+        int blasts = 0;
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (SnapshotCodec.activeBlastStart(s, i) >= 0) blasts++;
+        }
+        buf[pos++] = (byte) blasts;
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (SnapshotCodec.activeBlastStart(s, i) < 0) continue;
+            buf[pos++] = (byte) i;
+            buf[pos++] = (byte) s.blastType[i];
+            buf[pos++] = (byte) (tick - s.blastStartTick[i]);
+        }
+    }
+
+    private void readSnapshot(SimSnapshot s) throws IOException {
+        int tick = readVarInt();
+        s.tick = tick;
+        s.gameState = readByte();
+        s.endTick = tick + readSigned();
+        s.randomState = readLong();
+
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i += 2) {
+            int b = readByte();
+            s.tileItems[i] = (byte) (b >> 4);
+            if (i + 1 < GameSimulation.CELL_COUNT) s.tileItems[i + 1] = (byte) (b & 0x0F);
+        }
+
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            s.playerX[p] = readVarInt();
+            s.playerY[p] = readVarInt();
+            s.bombCount[p] = readByte();
+            s.bombRange[p] = readByte();
+            s.speed[p] = readByte();
+            s.maxBombCount[p] = readByte();
+            s.maxBombRange[p] = readByte();
+            s.maxSpeed[p] = readByte();
+            s.playerState[p] = readByte();
+            s.stateStartTick[p] = tick - readSigned();
+            s.lastDir[p] = readByte();
+            s.spriteRow[p] = readByte();
+            s.spriteCol[p] = readByte();
+            s.frameCounter[p] = readVarInt();
+        }
+
+        int count = readByte();
+        if (count > GameSimulation.MAX_BALLOONS) {
+            throw new IOException("물풍선 수 오류: " + count);
+        }
+        s.balloonCount = count;
+        for (int i = 0; i < count; i++) {
+            s.balloonRow[i] = readByte();
+            s.balloonCol[i] = readByte();
+            s.balloonRange[i] = readByte();
+            s.balloonOwner[i] = readByte();
+            s.balloonPlaceTick[i] = tick - readSigned();
+            s.balloonExplodeTick[i] = tick + readSigned();
+            s.balloonInstallX[i] = readVarInt();
+            s.balloonInstallY[i] = readVarInt();
+            s.balloonCollision[i] = readByte() != 0;
+        }
+
+        Arrays.fill(s.blastStartTick, -1);
+        Arrays.fill(s.blastType, 0);
+        int blasts = readByte();
+        for (int k = 0; k < blasts; k++) {
+            int cell = readByte();
+            if (cell >= GameSimulation.CELL_COUNT) {
+                throw new IOException("폭발 칸 번호 오류: " + cell);
+            }
+            s.blastType[cell] = readByte();
+            s.blastStartTick[cell] = tick - readByte();
+        }
+    }
+
+    // ===== 바이트 입출력 (버퍼 하나를 재사용) =====
+
+    private void writeInt(int v) {
+        buf[pos++] = (byte) (v >>> 24);
+        buf[pos++] = (byte) (v >>> 16);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    private void writeLong(long v) {
+        writeInt((int) (v >>> 32));
+        writeInt((int) v);
+    }
+
+    private void writeVarInt(int v) {
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private void writeSigned(int v) {
+        writeVarInt((v << 1) ^ (v >> 31)); // zigzag: 작은 음수도 1바이트
+    }
+
+    private void writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buf[pos++] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private int readByte() throws IOException {
+        if (pos >= limit) {
+            throw new IOException("저장 파일이 중간에 끝남");
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+        return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+
+    private long readLong() throws IOException {
+        return (long) readInt() << 32 | (readInt() & 0xFFFFFFFFL);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("varint 형식 오류");
+    }
+
+    private int readSigned() throws IOException {
+        int v = readVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private String readString() throws IOException {
+        int length = readByte();
+        if (pos + length > limit) {
+            throw new IOException("저장 파일이 중간에 끝남");
+        }
+        String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return s;
+    }
+
+    public byte[] getBuffer() { return buf; }
+    public long getLastSaveNanos() { return lastSaveNanos; }
+    public void setLastSaveNanos(long nanos) { lastSaveNanos = nanos; } // 파일 쓰기를 다른 스레드에 맡긴 경우
+    public long getLastLoadNanos() { return lastLoadNanos; }
+}
@@ -0,0 +1,223 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import javax.swing.SwingUtilities;
+
+/**
+ * ========================================================
+ * 화면 그리기 벤치마크 (RenderBenchmark)
+ * ========================================================
+ * 창 없이(java.awt.headless=true) 게임 화면을 BufferedImage에 그리면서
+ * 장면마다 초당 프레임 수와 층별(맵, 타일, 물풍선, 폭발, 플레이어, 정보 패널) 그리기 시간을 잽니다.
+ * 그리는 코드는 화면과 같은 GamePanelPlaceholder.paintComponent / paintLayer 입니다.
+ *
+ * 장면은 리플레이(없으면 봇끼리 한 판)에서 고릅니다:
+ * - opening : 시작 직후
+ * - midgame : 경기 중간
+ * - busy    : 물풍선 + 물줄기 칸이 가장 많았던 틱
+ * - result  : 결과 화면
+ * 장면마다 window틱 구간을 반복 재생하며 그리고, 시뮬레이션 진행 시간은 재지 않습니다.
+ * 헤드리스 그리기는 가속 없는 소프트웨어 경로라 실습실 PC처럼 그래픽 가속이 약한 환경에 가깝습니다.
+ *
+ * 실행: java CrazyArcade_UI renderbench [리플레이파일] [옵션]
+ *   --frames N   장면마다 잴 프레임 수 (기본 600)
+ *   --warmup N   재기 전에 버릴 프레임 수 (기본 300)
+ *   --window N   반복 재생할 틱 수 (기본 60)
+ *   --seed N     리플레이가 없을 때 봇 경기 시드 (기본 1)
+ */
+public class RenderBenchmark {
+    private static final String[] SCENES = { "opening", "midgame", "busy", "result" };
+    private static final int RESULT_OFFSET_TICKS = GameSimulation.msToTicks(500); // 결과 화면이 뜬 뒤
+
+    private final GamePanelPlaceholder panel;
+    private final GameSimulation sim;
+    private final InputReplay replay;
+    private final int frames;
+    private final int warmup;
+    private final int window;
+    private final BufferedImage image;
+
+    // 장면 시작 상태와 그 틱의 물풍선/물줄기 칸 수
+    private final SimSnapshot[] scenes = new SimSnapshot[SCENES.length];
+    private final int[] sceneBalloons = new int[SCENES.length];
+    private final int[] sceneBlasts = new int[SCENES.length];
+
+    RenderBenchmark(GamePanelPlaceholder panel, InputReplay replay, int frames, int warmup, int window) {
+        this.panel = panel;
+        this.sim = panel.getSimulation();
+        this.replay = replay;
+        this.frames = frames;
+        this.warmup = warmup;
+        this.window = window;
+        this.image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * 리플레이를 끝까지 한 번 돌리면서 장면으로 쓸 틱의 상태를 저장합니다.
+     */
+    private void pickScenes() {
+        for (int i = 0; i < scenes.length; i++) {
+            scenes[i] = new SimSnapshot();
+        }
+        replay.start(sim);
+        int middle = replay.getLength() / 2;
+        int busiest = -1;
+        int resultTick = -1;
+        while (resultTick < 0 || sim.getTick() < resultTick) {
+            int t = sim.getTick();
+            int blasts = countBlasts();
+            int activity = sim.getBalloonCount() + blasts;
+            if (t == 0) save(0, blasts);
+            if (t == middle) save(1, blasts);
+            if (activity > busiest && sim.getGameState() == GameSimulation.STATE_PLAYING) {
+                busiest = activity;
+                save(2, blasts);
+            }
+            if (resultTick < 0 && sim.getGameState() != GameSimulation.STATE_PLAYING) {
+                resultTick = t + RESULT_OFFSET_TICKS;
+            }
+            sim.updateGame(replay.getInput(0, t), replay.getInput(1, t));
+        }
+        save(3, countBlasts());
+    }
+
+    private void save(int scene, int blasts) {
+        sim.saveState(scenes[scene]);
+        sceneBalloons[scene] = sim.getBalloonCount();
+        sceneBlasts[scene] = blasts;
+    }
+
+    private int countBlasts() {
+        int n = 0;
+        for (int r = 0; r < GameSimulation.TILE_ROWS; r++) {
+            for (int c = 0; c < GameSimulation.TILE_COLS; c++) {
+                if (sim.isBlastActive(r, c)) n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * i번째 프레임 전에 시뮬레이션을 한 틱 진행 (window마다 장면 시작으로 되돌림)
+     */
+    private void step(SimSnapshot start, int i) {
+        if (i % window == 0) {
+            sim.loadState(start);
+        } else {
+            int t = sim.getTick();
+            sim.updateGame(replay.getInput(0, t), replay.getInput(1, t));
+        }
+    }
+
+    private void run() {
+        pickScenes();
+        System.out.println("===== 화면 그리기 벤치마크 =====");
+        System.out.println(String.format("맵 %s, %s vs %s, 화면 %dx%d, 장면마다 %d프레임 (워밍업 %d, %d틱 반복)",
+                replay.getMapDataFile(), replay.getCharacter(0), replay.getCharacter(1),
+                image.getWidth(), image.getHeight(), frames, warmup, window));
+        System.out.println(String.format("%-8s %6s %6s %6s %8s %8s %8s %8s", "장면", "틱", "물풍선", "물줄기",
+                "FPS", "평균ms", "p50ms", "p99ms"));
+
+        double[][] layerMicros = new double[SCENES.length][GamePanelPlaceholder.LAYER_COUNT];
+        long[] nanos = new long[frames];
+        for (int s = 0; s < SCENES.length; s++) {
+            SimSnapshot start = scenes[s];
+
+            // 전체 프레임 (paintComponent 그대로)
+            for (int i = 0; i < warmup; i++) {
+                step(start, i);
+                renderFrame();
+            }
+            long total = 0;
+            for (int i = 0; i < frames; i++) {
+                step(start, i);
+                long t0 = System.nanoTime();
+                renderFrame();
+                nanos[i] = System.nanoTime() - t0;
+                total += nanos[i];
+            }
+
+            // 층별 (같은 순서로 한 층씩)
+            long[] layerNanos = new long[GamePanelPlaceholder.LAYER_COUNT];
+            for (int i = 0; i < frames; i++) {
+                step(start, i);
+                Graphics2D g = image.createGraphics();
+                for (int layer = 0; layer < GamePanelPlaceholder.LAYER_COUNT; layer++) {
+                    long t0 = System.nanoTime();
+                    panel.paintLayer(g, layer);
+                    layerNanos[layer] += System.nanoTime() - t0;
+                }
+                g.dispose();
+            }
+            for (int layer = 0; layer < layerNanos.length; layer++) {
+                layerMicros[s][layer] = layerNanos[layer] / 1e3 / frames;
+            }
+
+            Arrays.sort(nanos);
+            double avgMs = total / 1e6 / frames;
+            System.out.println(String.format("%-8s %6d %6d %6d %8.0f %8.3f %8.3f %8.3f", SCENES[s], start.tick,
+                    sceneBalloons[s], sceneBlasts[s], 1000 / avgMs, avgMs,
+                    nanos[frames / 2] / 1e6, nanos[Math.min(frames - 1, (int) (frames * 0.99))] / 1e6));
+        }
+
+        System.out.println();
+        System.out.println("층별 평균 (µs/프레임, 괄호는 비율)");
+        StringBuilder header = new StringBuilder(String.format("%-11s", "층"));
+        for (String scene : SCENES) {
+            header.append(String.format(" %15s", scene));
+        }
+        System.out.println(header);
+        for (int layer = 0; layer < GamePanelPlaceholder.LAYER_COUNT; layer++) {
+            StringBuilder line = new StringBuilder(String.format("%-11s", GamePanelPlaceholder.LAYER_NAMES[layer]));
+            for (int s = 0; s < SCENES.length; s++) {
+                double sum = 0;
+                for (double v : layerMicros[s]) sum += v;
+                line.append(String.format(" %8.1f (%3.0f%%)", layerMicros[s][layer], 100 * layerMicros[s][layer] / sum));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private void renderFrame() {
+        Graphics2D g = image.createGraphics();
+        panel.renderFrame(g);
+        g.dispose();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File replayFile = null;
+        int frames = 600;
+        int warmup = 300;
+        int window = 60;
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--frames": frames = Math.max(1, Integer.parseInt(args[++i])); break;
+                case "--warmup": warmup = Math.max(0, Integer.parseInt(args[++i])); break;
+                case "--window": window = Math.max(1, Integer.parseInt(args[++i])); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.out.println("사용법: RenderBenchmark [리플레이파일] [--frames N] [--warmup N] [--window N] [--seed N]");
+                        return;
+                    }
+                    replayFile = new File(args[i]);
+            }
+        }
+
+        InputReplay replay = replayFile != null ? InputReplay.read(replayFile)
+                : DeterminismVerifier.recordBotMatch(seed, 0);
+        System.out.println("경기: " + (replayFile != null ? replayFile.getName() : "봇 경기 (시드 " + seed + ")")
+                + ", " + replay.getLength() + "틱");
+
+        GamePanelPlaceholder[] holder = new GamePanelPlaceholder[1];
+        SwingUtilities.invokeAndWait(() -> {
+            holder[0] = new GamePanelPlaceholder(null);
+            holder[0].prepareOffscreen(replay);
+        });
+        new RenderBenchmark(holder[0], replay, frames, warmup, window).run();
+    }
+}
@@ -0,0 +1,407 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import javax.swing.SwingUtilities;
+
+/**
+ * ========================================================
+ * 리플레이 영상 내보내기 (ReplayExporter)
+ * ========================================================
+ * 리플레이를 화면 없이 돌리면서 프레임마다 게임 화면(GamePanelPlaceholder.paintComponent와 같은 코드)을
+ * BufferedImage에 그리고 PNG 연속 파일이나 움직이는 GIF로 저장합니다.
+ * 하이라이트 영상용이며 java.awt.headless=true 인 빌드 서버에서도 돌아갑니다.
+ *
+ * 시뮬레이션 진행과 그리기는 한 스레드에서 순서대로 하고,
+ * 느린 인코딩(PNG 압축, GIF 색상 줄이기)은 작업 스레드들이 나눠 맡습니다.
+ * 인코딩 대기 중인 프레임은 최대 queue개까지만 두고, 다 차면 가장 오래된 프레임이 끝날 때까지 그리기를 멈춥니다.
+ * 끝난 프레임 버퍼는 다시 쓰므로 경기 길이와 상관없이 메모리 사용량이 일정합니다.
+ *
+ * 실행: java CrazyArcade_UI export 리플레이파일 [옵션]
+ *   --format png|gif  출력 형식 (기본 png, --out이 .gif로 끝나면 gif)
+ *   --out 경로        png는 폴더 (기본 export/리플레이이름/), gif는 파일 (기본 export/리플레이이름.gif)
+ *   --fps N           초당 프레임 (기본 png 60, gif 25 / gif는 1/100초 단위로 맞춤)
+ *   --from 초, --to 초  내보낼 구간 (기본 처음부터 결과 화면까지)
+ *   --scale X         크기 배율 (예: 0.5)
+ *   --threads N       인코딩 스레드 수 (기본 코어 수)
+ *   --queue N         인코딩 대기 프레임 수 (기본 스레드 수 x 2)
+ */
+public class ReplayExporter {
+    private static final String EXPORT_DIR = "export";
+    private static final int RESULT_TAIL_TICKS = GameSimulation.msToTicks(3000); // 끝난 뒤 결과 화면
+    private static final int GIF_COLORS = 256;
+    private static final int COLOR_BITS = 5; // 색상 줄이기용 히스토그램 (채널당 5비트)
+
+    private final InputReplay replay;
+    private final boolean gif;
+    private final File out;
+    private final double fps;
+    private final int fromTick;
+    private final int toTick;
+    private final double scale;
+    private final int threads;
+    private final int queue;
+
+    // 통계
+    private int frames = 0;
+    private long renderNanos = 0;
+    private long waitNanos = 0; // 인코딩이 밀려서 기다린 시간
+
+    /**
+     * 인코딩 중인 프레임 (결과: png는 null, gif는 색상을 줄인 이미지)
+     */
+    private static final class Pending {
+        final BufferedImage frame;
+        final Future<BufferedImage> result;
+
+        Pending(BufferedImage frame, Future<BufferedImage> result) {
+            this.frame = frame;
+            this.result = result;
+        }
+    }
+
+    ReplayExporter(InputReplay replay, boolean gif, File out, double fps, int fromTick, int toTick, double scale,
+                   int threads, int queue) {
+        this.replay = replay;
+        this.gif = gif;
+        this.out = out;
+        this.fps = fps;
+        this.fromTick = fromTick;
+        this.toTick = toTick;
+        this.scale = scale;
+        this.threads = threads;
+        this.queue = queue;
+    }
+
+    /**
+     * i번째 프레임을 그릴 틱 (gif는 프레임 간격이 1/100초 단위)
+     */
+    private int frameTick(int i) {
+        double ms = gif ? i * gifDelayCs() * 10.0 : i * 1000.0 / fps;
+        return fromTick + (int) (ms / GameSimulation.TICK_MS);
+    }
+
+    private int gifDelayCs() {
+        return Math.max(2, (int) Math.round(100 / fps)); // 2 미만은 대부분의 뷰어가 무시함
+    }
+
+    void export() throws Exception {
+        GamePanelPlaceholder[] holder = new GamePanelPlaceholder[1];
+        SwingUtilities.invokeAndWait(() -> {
+            holder[0] = new GamePanelPlaceholder(null);
+            holder[0].prepareOffscreen(replay);
+        });
+        GamePanelPlaceholder panel = holder[0];
+        GameSimulation sim = panel.getSimulation();
+        int width = (int) Math.round(panel.getWidth() * scale);
+        int height = (int) Math.round(panel.getHeight() * scale);
+
+        if (gif) {
+            File parent = out.getAbsoluteFile().getParentFile();
+            if (parent != null) parent.mkdirs();
+        } else {
+            out.mkdirs();
+        }
+        ImageIO.setUseCache(false); // 임시 파일 없이 메모리에서 인코딩
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "export-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Pending> pending = new ArrayDeque<>();
+        ArrayDeque<BufferedImage> free = new ArrayDeque<>();
+        GifSequence gifOut = gif ? new GifSequence(out, gifDelayCs()) : null;
+        try {
+            while (true) {
+                int target = frameTick(frames);
+                if (target > toTick) break;
+                while (sim.getTick() < target && !finished(sim)) {
+                    int t = sim.getTick();
+                    sim.updateGame(replay.getInput(0, t), replay.getInput(1, t));
+                }
+                if (finished(sim) && sim.getTick() < target) break;
+
+                // 대기 줄이 차면 가장 오래된 프레임이 끝날 때까지 기다림
+                if (pending.size() >= queue) {
+                    finish(pending.poll(), free, gifOut);
+                }
+                BufferedImage frame = free.isEmpty()
+                        ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB) : free.poll();
+                long start = System.nanoTime();
+                Graphics2D g = frame.createGraphics();
+                if (scale != 1.0) {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.scale(scale, scale);
+                }
+                panel.renderFrame(g);
+                g.dispose();
+                renderNanos += System.nanoTime() - start;
+
+                int index = frames++;
+                pending.add(new Pending(frame, pool.submit(() -> encode(frame, index))));
+                if (frames % 300 == 0) {
+                    System.out.println("  " + frames + "프레임 (" + sim.getTick() * GameSimulation.TICK_MS / 1000 + "초)");
+                }
+            }
+            while (!pending.isEmpty()) {
+                finish(pending.poll(), free, gifOut);
+            }
+            if (gifOut != null) gifOut.close();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 경기가 끝나고 결과 화면도 다 보여 줬거나, 기록이 끝났는지
+     */
+    private boolean finished(GameSimulation sim) {
+        if (sim.getGameState() != GameSimulation.STATE_PLAYING) {
+            return sim.getTick() >= sim.getEndTick() + RESULT_TAIL_TICKS;
+        }
+        return sim.getTick() >= replay.getLength();
+    }
+
+    private BufferedImage encode(BufferedImage frame, int index) throws IOException {
+        if (gif) {
+            return quantize(frame);
+        }
+        ImageIO.write(frame, "png", new File(out, String.format("frame_%05d.png", index)));
+        return null;
+    }
+
+    private void finish(Pending p, ArrayDeque<BufferedImage> free, GifSequence gifOut) throws Exception {
+        long start = System.nanoTime();
+        BufferedImage result = p.result.get();
+        waitNanos += System.nanoTime() - start;
+        if (gifOut != null) {
+            gifOut.write(result); // 순서대로 써야 하므로 이 스레드에서
+        }
+        free.add(p.frame);
+    }
+
+    // ===== GIF =====
+
+    /**
+     * 한 프레임을 256색으로 줄입니다 (많이 쓰인 색 순서로 팔레트를 만들고 가장 가까운 색으로 바꿈).
+     * 게임 화면은 배경 맵이 대부분이라 프레임마다 팔레트를 만들어도 색 번짐이 거의 없습니다.
+     */
+    static BufferedImage quantize(BufferedImage frame) {
+        int[] rgb = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        int bins = 1 << (COLOR_BITS * 3);
+        int shift = 8 - COLOR_BITS;
+        int[] count = new int[bins];
+        long[] sumR = new long[bins];
+        long[] sumG = new long[bins];
+        long[] sumB = new long[bins];
+        for (int px : rgb) {
+            int r = (px >> 16) & 0xFF, g = (px >> 8) & 0xFF, b = px & 0xFF;
+            int bin = ((r >> shift) << (COLOR_BITS * 2)) | ((g >> shift) << COLOR_BITS) | (b >> shift);
+            count[bin]++;
+            sumR[bin] += r;
+            sumG[bin] += g;
+            sumB[bin] += b;
+        }
+
+        // 쓰인 칸을 많이 쓰인 순서로 정렬 (상위 32비트 = 개수, 하위 = 칸 번호)
+        int used = 0;
+        long[] order = new long[bins];
+        for (int bin = 0; bin < bins; bin++) {
+            if (count[bin] > 0) order[used++] = ((long) count[bin] << 32) | bin;
+        }
+        Arrays.sort(order, 0, used);
+        int colors = Math.min(GIF_COLORS, used);
+        byte[] pr = new byte[colors], pg = new byte[colors], pb = new byte[colors];
+        for (int i = 0; i < colors; i++) {
+            int bin = (int) order[used - 1 - i];
+            pr[i] = (byte) (sumR[bin] / count[bin]);
+            pg[i] = (byte) (sumG[bin] / count[bin]);
+            pb[i] = (byte) (sumB[bin] / count[bin]);
+        }
+
+        // 쓰인 칸마다 가장 가까운 팔레트 색
+        byte[] map = new byte[bins];
+        for (int k = 0; k < used; k++) {
+            int bin = (int) order[k];
+            int r = (int) (sumR[bin] / count[bin]), g = (int) (sumG[bin] / count[bin]), b = (int) (sumB[bin] / count[bin]);
+            int best = 0;
+            int bestDist = Integer.MAX_VALUE;
+            for (int i = 0; i < colors; i++) {
+                int dr = r - (pr[i] & 0xFF), dg = g - (pg[i] & 0xFF), db = b - (pb[i] & 0xFF);
+                int dist = dr * dr + dg * dg + db * db;
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    best = i;
+                }
+            }
+            map[bin] = (byte) best;
+        }
+
+        BufferedImage indexed = new BufferedImage(frame.getWidth(), frame.getHeight(), BufferedImage.TYPE_BYTE_INDEXED,
+                new IndexColorModel(8, colors, pr, pg, pb));
+        byte[] pixels = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < rgb.length; i++) {
+            int px = rgb[i];
+            int bin = ((((px >> 16) & 0xFF) >> shift) << (COLOR_BITS * 2))
+                    | ((((px >> 8) & 0xFF) >> shift) << COLOR_BITS) | ((px & 0xFF) >> shift);
+            pixels[i] = map[bin];
+        }
+        return indexed;
+    }
+
+    /**
+     * 움직이는 GIF 파일 (프레임마다 자기 팔레트, 무한 반복)
+     */
+    private static final class GifSequence {
+        private final ImageWriter writer;
+        private final ImageOutputStream stream;
+        private final int delayCs;
+        private boolean first = true;
+
+        GifSequence(File file, int delayCs) throws IOException {
+            if (file.exists() && !file.delete()) { // 전에 만든 파일은 덮어씀 (남겨 두면 뒷부분이 남음)
+                throw new IOException("기존 파일을 지울 수 없음: " + file);
+            }
+            this.writer = ImageIO.getImageWritersByFormatName("gif").next();
+            this.stream = ImageIO.createImageOutputStream(file);
+            this.delayCs = delayCs;
+            writer.setOutput(stream);
+            writer.prepareWriteSequence(null);
+        }
+
+        void write(BufferedImage image) throws IOException {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            IIOMetadata meta = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+            String format = meta.getNativeMetadataFormatName();
+            IIOMetadataNode root = (IIOMetadataNode) meta.getAsTree(format);
+            // 기본 메타데이터의 색상표는 이미지 팔레트와 다를 수 있음 → 지우면 이미지의 팔레트를 씀
+            IIOMetadataNode table = child(root, "LocalColorTable");
+            root.removeChild(table);
+
+            IIOMetadataNode control = child(root, "GraphicControlExtension");
+            control.setAttribute("disposalMethod", "none");
+            control.setAttribute("userInputFlag", "FALSE");
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("delayTime", Integer.toString(delayCs));
+            control.setAttribute("transparentColorIndex", "0");
+
+            if (first) {
+                IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+                loop.setAttribute("applicationID", "NETSCAPE");
+                loop.setAttribute("authenticationCode", "2.0");
+                loop.setUserObject(new byte[] { 1, 0, 0 }); // 0 = 무한 반복
+                child(root, "ApplicationExtensions").appendChild(loop);
+                first = false;
+            }
+            meta.setFromTree(format, root);
+            writer.writeToSequence(new IIOImage(image, null, meta), param);
+        }
+
+        void close() throws IOException {
+            writer.endWriteSequence();
+            writer.dispose();
+            stream.close();
+        }
+
+        private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+            for (int i = 0; i < root.getLength(); i++) {
+                if (root.item(i).getNodeName().equals(name)) {
+                    return (IIOMetadataNode) root.item(i);
+                }
+            }
+            IIOMetadataNode node = new IIOMetadataNode(name);
+            root.appendChild(node);
+            return node;
+        }
+    }
+
+    // ===== 실행 =====
+
+    private static long sizeOf(File f) {
+        if (f.isFile()) return f.length();
+        long total = 0;
+        File[] files = f.listFiles();
+        if (files != null) {
+            for (File c : files) total += c.length();
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.out.println("사용법: ReplayExporter 리플레이파일 [--format png|gif] [--out 경로] [--fps N] "
+                    + "[--from 초] [--to 초] [--scale X] [--threads N] [--queue N]");
+            return;
+        }
+        File replayFile = new File(args[0]);
+        String format = null;
+        String outPath = null;
+        double fps = 0;
+        double fromSec = 0;
+        double toSec = -1;
+        double scale = 1.0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = 0;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--format": format = args[++i]; break;
+                case "--out": outPath = args[++i]; break;
+                case "--fps": fps = Double.parseDouble(args[++i]); break;
+                case "--from": fromSec = Double.parseDouble(args[++i]); break;
+                case "--to": toSec = Double.parseDouble(args[++i]); break;
+                case "--scale": scale = Double.parseDouble(args[++i]); break;
+                case "--threads": threads = Math.max(1, Integer.parseInt(args[++i])); break;
+                case "--queue": queue = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("알 수 없는 옵션: " + args[i]);
+                    return;
+            }
+        }
+        if (format == null) {
+            format = (outPath != null && outPath.toLowerCase().endsWith(".gif")) ? "gif" : "png";
+        }
+        boolean gif = format.equals("gif");
+        if (!gif && !format.equals("png")) {
+            System.out.println("지원하지 않는 형식: " + format + " (png 또는 gif)");
+            return;
+        }
+        String name = replayFile.getName().replace(InputReplay.EXTENSION, "");
+        File out = new File(outPath != null ? outPath : EXPORT_DIR + File.separator + name + (gif ? ".gif" : ""));
+        if (fps <= 0) fps = gif ? 25 : 60;
+        if (queue <= 0) queue = threads * 2;
+        int fromTick = GameSimulation.msToTicks((int) (fromSec * 1000));
+        int toTick = toSec < 0 ? Integer.MAX_VALUE : GameSimulation.msToTicks((int) (toSec * 1000));
+
+        InputReplay replay = InputReplay.read(replayFile);
+        ReplayExporter exporter = new ReplayExporter(replay, gif, out, fps, fromTick, toTick, scale, threads, queue);
+        System.out.println("리플레이 내보내기: " + replayFile.getName() + " → " + out.getPath() + " (" + format + ", "
+                + fps + "fps, 배율 " + scale + ", 인코딩 스레드 " + threads + "개, 대기 " + queue + "프레임)");
+        long start = System.nanoTime();
+        exporter.export();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("완료: %d프레임, %.1f초 걸림 (초당 %.1f프레임), 그리기 평균 %.2fms, 인코딩 대기 %.1f초, %dKB",
+                exporter.frames, seconds, exporter.frames / seconds,
+                exporter.renderNanos / 1e6 / Math.max(1, exporter.frames), exporter.waitNanos / 1e9,
+                sizeOf(out) / 1024));
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * ========================================================
+ * 리플레이 재생기 (ReplayPlayback)
+ * ========================================================
+ * InputReplay를 배속 재생하고 원하는 틱으로 바로 이동할 수 있게 합니다.
+ *
+ * 처음 열 때 화면 없이 끝까지 한 번 돌리면서 KEYFRAME_INTERVAL 틱마다
+ * 전체 상태(SimSnapshot)를 메모리에 남겨 둡니다 (파일에는 입력만 저장).
+ * 이동할 때는 가장 가까운 앞쪽 키프레임을 loadState로 복원하고
+ * 남은 틱(최대 KEYFRAME_INTERVAL - 1)만 시뮬레이션하므로 어느 위치든 1ms 안팎입니다.
+ *
+ * 재생 속도: 0.25배 ~ 16배, 일시 정지 중에는 한 틱씩 앞/뒤로 이동할 수 있습니다.
+ * 키프레임을 만들면서 파일에 기록된 상태 해시와 비교해 어긋난 위치를 찾아 둡니다.
+ */
+public class ReplayPlayback {
+    public static final int KEYFRAME_INTERVAL = 180; // 약 3초
+    public static final double MIN_SPEED = 0.25;
+    public static final double MAX_SPEED = 16.0;
+    // 끝난 뒤 결과 화면을 보여 줄 틱 수 (이후로는 진행하지 않음)
+    private static final int RESULT_TAIL_TICKS = GameSimulation.msToTicks(3000);
+    private static final long TICK_NANOS = GameSimulation.TICK_MS * 1_000_000L;
+    private static final int MAX_TICKS_PER_ADVANCE = 64; // 16배속에서 프레임이 밀려도 한 번에 이만큼만
+
+    private final InputReplay replay;
+    private final GameSimulation sim;
+    private final SimSnapshot[] keyframes;
+    private final int lastTick; // 재생할 수 있는 마지막 틱
+    private int divergenceTick = -1; // 기록과 해시가 처음 달랐던 틱 (-1이면 일치)
+
+    private double speed = 1.0;
+    private boolean paused = false;
+    private long accumulatorNanos = 0; // 배속을 곱한 경과 시간
+
+    // 통계
+    private long buildNanos;
+    private long lastSeekNanos;
+
+    /**
+     * 키프레임을 만들고 처음(0틱)으로 이동합니다.
+     *
+     * @param sim 화면에 그릴 시뮬레이션 (맵/캐릭터는 리플레이에 맞게 다시 설정됨)
+     */
+    public ReplayPlayback(InputReplay replay, GameSimulation sim) {
+        this.replay = replay;
+        this.sim = sim;
+
+        long start = System.nanoTime();
+        GameSimulation.SimulationListener listener = sim.getListener();
+        boolean logging = sim.isLogging();
+        boolean tracing = sim.isTracing();
+        sim.setListener(null);
+        sim.setLogging(false);
+        sim.setTracing(false); // 키프레임 만들기는 경기 전체를 미리 돌리므로 JFR 이벤트를 남기지 않음
+
+        replay.start(sim);
+        int count = replay.getLength() / KEYFRAME_INTERVAL + 1;
+        keyframes = new SimSnapshot[count];
+        for (int k = 0; k < count; k++) {
+            while (sim.getTick() < k * KEYFRAME_INTERVAL) {
+                step();
+            }
+            keyframes[k] = new SimSnapshot();
+            sim.saveState(keyframes[k]);
+        }
+        while (sim.getTick() < replay.getLength() && sim.getGameState() == GameSimulation.STATE_PLAYING) {
+            step();
+        }
+        int end = (sim.getGameState() != GameSimulation.STATE_PLAYING) ? sim.getEndTick() : sim.getTick();
+        lastTick = end + RESULT_TAIL_TICKS;
+
+        sim.loadState(keyframes[0]);
+        sim.setListener(listener);
+        sim.setLogging(logging);
+        sim.setTracing(tracing);
+        buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 흐른 실제 시간만큼 (배속을 곱해) 진행합니다. 화면 루프에서 매 프레임 호출.
+     */
+    public void advance(long elapsedNanos) {
+        if (paused) return;
+        accumulatorNanos += (long) (elapsedNanos * speed);
+        int steps = 0;
+        while (accumulatorNanos >= TICK_NANOS && steps < MAX_TICKS_PER_ADVANCE) {
+            accumulatorNanos -= TICK_NANOS;
+            if (sim.getTick() >= lastTick) {
+                paused = true; // 끝에서 멈춤 (되감기는 가능)
+                break;
+            }
+            step();
+            steps++;
+        }
+        if (steps == MAX_TICKS_PER_ADVANCE) {
+            accumulatorNanos = 0;
+        }
+    }
+
+    /**
+     * tick 위치로 이동합니다 (범위 밖이면 처음/끝으로).
+     * 이동 중에는 효과음 등 리스너 이벤트, 로그, JFR 이벤트를 남기지 않습니다.
+     */
+    public void seek(int tick) {
+        long start = System.nanoTime();
+        tick = Math.max(0, Math.min(tick, lastTick));
+        GameSimulation.SimulationListener listener = sim.getListener();
+        boolean logging = sim.isLogging();
+        boolean tracing = sim.isTracing();
+        sim.setListener(null);
+        sim.setLogging(false);
+        sim.setTracing(false);
+
+        // 앞으로 조금만 가면 되면 키프레임 없이 그대로 진행
+        if (tick < sim.getTick() || tick - sim.getTick() >= KEYFRAME_INTERVAL) {
+            sim.loadState(keyframes[Math.min(tick / KEYFRAME_INTERVAL, keyframes.length - 1)]);
+        }
+        while (sim.getTick() < tick) {
+            step();
+        }
+
+        sim.setListener(listener);
+        sim.setLogging(logging);
+        sim.setTracing(tracing);
+        accumulatorNanos = 0;
+        lastSeekNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 상대 이동 (틱 단위, 음수면 뒤로)
+     */
+    public void seekBy(int ticks) {
+        seek(sim.getTick() + ticks);
+    }
+
+    private void step() {
+        int t = sim.getTick();
+        if (divergenceTick < 0 && replay.isCheckpoint(t) && replay.getCheckpointHash(t) != sim.getStateHash()) {
+            divergenceTick = t;
+        }
+        sim.updateGame(replay.getInput(0, t), replay.getInput(1, t));
+    }
+
+    // ===== 재생 제어 =====
+
+    public void togglePause() {
+        paused = !paused;
+        accumulatorNanos = 0;
+        if (!paused && sim.getTick() >= lastTick) {
+            seek(0); // 끝에서 다시 누르면 처음부터
+        }
+    }
+
+    public void faster() {
+        speed = Math.min(MAX_SPEED, speed * 2);
+    }
+
+    public void slower() {
+        speed = Math.max(MIN_SPEED, speed / 2);
+    }
+
+    public double getSpeed() { return speed; }
+    public boolean isPaused() { return paused; }
+    public int getTick() { return sim.getTick(); }
+    public int getLastTick() { return lastTick; }
+    public InputReplay getReplay() { return replay; }
+    public long getBuildNanos() { return buildNanos; }
+    public long getLastSeekNanos() { return lastSeekNanos; }
+
+    /**
+     * 기록 당시와 상태가 처음 달랐던 틱 (그 앞 InputReplay.HASH_INTERVAL 틱 사이에서 어긋남), 일치하면 -1
+     */
+    public int getDivergenceTick() { return divergenceTick; }
+}
@@ -0,0 +1,501 @@
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+/**
+ * ========================================================
+ * 롤백 네트워크 세션 클래스 (RollbackSession)
+ * ========================================================
+ * 두 플레이어가 서로의 입력만 주고받으며 같은 GameSimulation을 진행합니다.
+ *
+ * 동작 방식:
+ * 1. 매 틱 내 입력을 보내고, 상대 입력이 아직 안 왔으면 마지막 입력으로 예측해서 진행합니다.
+ * 2. 틱을 진행하기 전 상태를 링 버퍼(SimSnapshot)에 저장합니다.
+ * 3. 늦게 도착한 상대 입력이 예측과 다르면 해당 틱으로 되돌아가(loadState)
+ *    현재 틱까지 한 프레임 안에서 다시 시뮬레이션합니다.
+ * 4. 확정되지 않은 틱이 maxRollback을 넘으면 상대 입력이 올 때까지 멈춥니다.
+ *
+ * 시계 동기화 (ClockSync):
+ * - PING_INTERVAL_TICKS마다 핑을 보내 RTT와 상대보다 앞선 틱 수를 추정합니다.
+ * - getTickNanos로 틱 길이를 최대 ±MAX_RATE_ADJUST만큼 늘리거나 줄여서
+ *   양쪽 틱 번호가 눈에 띄는 멈춤/빨리감기 없이 서서히 맞춰지게 합니다.
+ * - 입력 지연(inputDelay)은 편도 지연이 롤백 한도를 넘지 않을 만큼만 1틱씩 조절합니다.
+ *
+ * 동기화 확인:
+ * - 양쪽 입력이 모두 확정된 틱의 시작 상태 해시(GameSimulation.getStateHash)를 입력 패킷에 실어 보내고,
+ *   받은 쪽은 자기 해시와 비교해서 처음 달라진 틱을 바로 알립니다 (getDesyncTick).
+ *
+ * 롤백 깊이와 재시뮬레이션 시간은 getter로 확인할 수 있습니다.
+ */
+public class RollbackSession {
+
+    // 패킷 종류
+    static final byte MSG_INPUT = 1;
+    static final byte MSG_PING = 2;
+    static final byte MSG_PONG = 3;
+
+    // 입력 기록 링 버퍼 크기 (2의 거듭제곱)
+    private static final int INPUT_RING = 256;
+    private static final int INPUT_MASK = INPUT_RING - 1;
+    // 한 패킷에 싣는 최대 입력 수 (받았다는 확인이 없는 입력이 더 많으면 여러 패킷으로 나눠 보냄)
+    private static final int MAX_INPUTS_PER_PACKET = 64;
+    public static final int MAX_ROLLBACK_LIMIT = 120;
+
+    // 시계 동기화
+    private static final int PING_INTERVAL_TICKS = 10;
+    private static final long TICK_NANOS = GameSimulation.TICK_MS * 1_000_000L;
+    private static final double MAX_RATE_ADJUST = 0.05;      // 틱 길이 최대 ±5%
+    private static final double RATE_CORRECTION_TICKS = 30;  // 차이 1틱을 약 30틱에 걸쳐 보정
+    private static final double ADVANTAGE_DEAD_ZONE = 0.5;   // 이 이하 차이는 무시
+    private static final int DELAY_CHANGE_INTERVAL_TICKS = 60;
+    private static final int DELAY_MARGIN_TICKS = 2;         // 롤백 한도에 남겨 둘 여유
+
+    private final GameSimulation sim;
+    private final PacketTransport transport;
+    private final int localSlot; // 0 = 1P, 1 = 2P
+    private final int maxRollback;
+    private final int maxInputDelay;
+    private final LongSupplier clockNanos;
+    private final ClockSync clockSync = new ClockSync();
+
+    // 틱 시작 시점 상태 (tick % snapshots.length 위치에 저장)
+    private final SimSnapshot[] snapshots;
+
+    private final int[] localInputs = new int[INPUT_RING];
+    private final int[] remoteInputs = new int[INPUT_RING];
+    private final int[] usedRemoteInputs = new int[INPUT_RING]; // 실제 시뮬레이션에 사용한 상대 입력
+
+    private int lastConfirmedRemoteTick = -1; // 여기까지 상대 입력이 연속으로 도착함
+    private int lastAckedLocalTick = -1; // 상대가 받았다고 알려준 내 입력
+    private int pendingRollbackTick = Integer.MAX_VALUE;
+
+    // 입력 지연: 틱 t에 받은 내 입력은 t + inputDelay 틱에 적용
+    private int inputDelay = 0;
+    private int localInputFrontier = -1; // 내 입력을 채운 마지막 틱
+    private int carriedBomb = 0;         // 지연을 줄이는 동안 미뤄 둔 물풍선 입력
+    private int lastDelayChangeTick = 0;
+
+    // 확정된 틱의 상태 해시 (틱 & INPUT_MASK 위치)
+    private final long[] confirmedHashes = new long[INPUT_RING];
+    private int lastHashedTick = -1;        // 여기까지 확정 해시를 기록함
+    private int remoteHashTick = -1;        // 상대가 마지막으로 보낸 확정 해시의 틱
+    private long remoteHash;
+    private int checkedRemoteHashTick = -1; // 여기까지 비교함
+    private int desyncTick = -1;            // 처음으로 해시가 달랐던 틱
+    private long hashChecks = 0;
+
+    private final byte[] sendBuffer = new byte[10 + MAX_INPUTS_PER_PACKET + 12];
+    private final byte[] pingBuffer = new byte[40];
+    private final byte[] receiveBuffer = new byte[1500];
+
+    // ========== 통계 ==========
+    private int lastRollbackDepth = 0;
+    private int maxRollbackDepth = 0;
+    private long rollbackCount = 0;
+    private long resimulatedTicks = 0;
+    private long lastResimNanos = 0;
+    private long maxResimNanos = 0;
+    private long totalResimNanos = 0;
+    private long stallCount = 0;
+
+    /**
+     * @param sim         진행할 시뮬레이션 (resetGame 이 끝난 상태)
+     * @param transport   상대와 연결된 패킷 통로
+     * @param localSlot   내 플레이어 슬롯 (0 = 1P, 1 = 2P)
+     * @param maxRollback 최대 롤백 틱 수 (N)
+     */
+    public RollbackSession(GameSimulation sim, PacketTransport transport, int localSlot, int maxRollback) {
+        this(sim, transport, localSlot, maxRollback, 0, System::nanoTime);
+    }
+
+    /**
+     * @param maxInputDelay 자동으로 늘릴 수 있는 최대 입력 지연 (틱, 0이면 지연 없음)
+     * @param clockNanos    핑 시각에 쓸 시계 (System::nanoTime 또는 시험용 가상 시계)
+     */
+    public RollbackSession(GameSimulation sim, PacketTransport transport, int localSlot, int maxRollback,
+                           int maxInputDelay, LongSupplier clockNanos) {
+        this.sim = sim;
+        this.transport = transport;
+        this.localSlot = localSlot;
+        this.maxRollback = Math.max(1, Math.min(maxRollback, MAX_ROLLBACK_LIMIT));
+        this.maxInputDelay = Math.max(0, Math.min(maxInputDelay, this.maxRollback));
+        this.clockNanos = clockNanos;
+
+        snapshots = new SimSnapshot[this.maxRollback + 2];
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = new SimSnapshot();
+        }
+    }
+
+    /**
+     * 한 틱 진행
+     *
+     * @param localInput 이번 틱 내 입력 (GameSimulation.INPUT_*)
+     * @return 진행했으면 true, 상대 입력을 기다리느라 멈췄으면 false
+     */
+    public boolean advance(int localInput) {
+        pollPackets();
+
+        if (pendingRollbackTick != Integer.MAX_VALUE) {
+            rollbackTo(pendingRollbackTick);
+            pendingRollbackTick = Integer.MAX_VALUE;
+        }
+        recordConfirmedHashes();
+
+        int t = sim.getTick();
+        if (t - lastConfirmedRemoteTick > maxRollback) {
+            // 예측 범위를 넘음 → 상대 입력이 올 때까지 대기
+            stallCount++;
+            sendInputs(localInputFrontier);
+            return false;
+        }
+
+        updateInputDelay(t);
+        storeLocalInput(t, localInput);
+        sendInputs(localInputFrontier);
+        step(t);
+        // 실제로 진행한 틱에서만 (멈춘 동안 같은 틱으로 매번 보내지 않도록)
+        if (t % PING_INTERVAL_TICKS == 0) {
+            sendPing();
+        }
+        return true;
+    }
+
+    // 내 입력을 t + inputDelay 틱 자리에 기록
+    private void storeLocalInput(int t, int localInput) {
+        int target = t + inputDelay;
+        if (localInputFrontier >= target) {
+            // 지연을 줄이는 중: 이미 보낸 입력은 바꿀 수 없으므로 물풍선만 다음으로 미룸
+            carriedBomb |= localInput & GameSimulation.INPUT_BOMB;
+            return;
+        }
+        while (localInputFrontier < target - 1) {
+            // 지연을 늘리는 중 (또는 시작): 빈 틱은 방향만 채움
+            localInputFrontier++;
+            localInputs[localInputFrontier & INPUT_MASK] = localInput & GameSimulation.INPUT_DIR_MASK;
+        }
+        localInputFrontier = target;
+        localInputs[target & INPUT_MASK] = localInput | carriedBomb;
+        carriedBomb = 0;
+    }
+
+    // 편도 지연이 롤백 한도에 가까우면 입력 지연을 1틱씩 늘리고, 여유가 생기면 줄임
+    private void updateInputDelay(int t) {
+        if (maxInputDelay == 0 || !clockSync.hasEstimate()) return;
+        if (t - lastDelayChangeTick < DELAY_CHANGE_INTERVAL_TICKS) return;
+
+        int needed = (int) Math.ceil(clockSync.getOneWayTicks()) - maxRollback + DELAY_MARGIN_TICKS;
+        int target = Math.max(0, Math.min(maxInputDelay, needed));
+        if (target != inputDelay) {
+            inputDelay += (target > inputDelay) ? 1 : -1;
+            lastDelayChangeTick = t;
+        }
+    }
+
+    // 상태 저장 후 t 틱 진행
+    private void step(int t) {
+        sim.saveState(snapshots[t % snapshots.length]);
+
+        int remote;
+        if (t <= lastConfirmedRemoteTick) {
+            remote = remoteInputs[t & INPUT_MASK];
+        } else {
+            remote = predictRemoteInput();
+        }
+        usedRemoteInputs[t & INPUT_MASK] = remote;
+
+        int local = localInputs[t & INPUT_MASK];
+        if (localSlot == 0) {
+            sim.updateGame(local, remote);
+        } else {
+            sim.updateGame(remote, local);
+        }
+    }
+
+    // 마지막으로 확정된 방향을 유지한다고 예측 (물풍선 설치는 반복하지 않음)
+    private int predictRemoteInput() {
+        if (lastConfirmedRemoteTick < 0) return 0;
+        return remoteInputs[lastConfirmedRemoteTick & INPUT_MASK] & GameSimulation.INPUT_DIR_MASK;
+    }
+
+    // from 틱 시작 상태로 되돌린 뒤 현재 틱까지 다시 진행
+    private void rollbackTo(int from) {
+        int target = sim.getTick();
+        if (from >= target) return;
+
+        long start = System.nanoTime();
+        GameSimulation.SimulationListener listener = sim.getListener();
+        boolean logging = sim.isLogging();
+        boolean tracing = sim.isTracing();
+        sim.setListener(null); // 이미 재생한 효과음을 다시 내지 않음
+        sim.setLogging(false);
+        sim.setTracing(false); // 이미 기록한 연쇄 폭발 JFR 이벤트도 다시 남기지 않음
+
+        sim.loadState(snapshots[from % snapshots.length]);
+        for (int t = from; t < target; t++) {
+            step(t);
+        }
+
+        sim.setListener(listener);
+        sim.setLogging(logging);
+        sim.setTracing(tracing);
+
+        long elapsed = System.nanoTime() - start;
+        int depth = target - from;
+        lastRollbackDepth = depth;
+        maxRollbackDepth = Math.max(maxRollbackDepth, depth);
+        rollbackCount++;
+        resimulatedTicks += depth;
+        lastResimNanos = elapsed;
+        maxResimNanos = Math.max(maxResimNanos, elapsed);
+        totalResimNanos += elapsed;
+    }
+
+    // ===== 동기화 확인 =====
+
+    /**
+     * 양쪽 입력이 모두 확정된 틱들의 시작 상태 해시를 기록합니다.
+     * 지난 틱은 스냅샷 링 버퍼에 저장된 해시를, 현재 틱은 시뮬레이션의 해시를 씁니다.
+     */
+    private void recordConfirmedHashes() {
+        int limit = Math.min(lastConfirmedRemoteTick + 1, sim.getTick());
+        for (int c = lastHashedTick + 1; c <= limit; c++) {
+            long hash = (c == sim.getTick()) ? sim.getStateHash() : snapshots[c % snapshots.length].stateHash;
+            confirmedHashes[c & INPUT_MASK] = hash;
+            lastHashedTick = c;
+        }
+        checkRemoteHash();
+    }
+
+    private void checkRemoteHash() {
+        if (remoteHashTick <= checkedRemoteHashTick) return;
+        if (remoteHashTick > lastHashedTick) return; // 아직 내 쪽이 확정 안 됨
+        if (remoteHashTick > lastHashedTick - INPUT_RING) {
+            hashChecks++;
+            if (desyncTick < 0 && confirmedHashes[remoteHashTick & INPUT_MASK] != remoteHash) {
+                desyncTick = remoteHashTick;
+                System.err.println("동기화 어긋남 감지: 틱 " + desyncTick + " 시작 상태가 상대와 다름 (내 해시 "
+                    + Long.toHexString(confirmedHashes[remoteHashTick & INPUT_MASK]) + ", 상대 "
+                    + Long.toHexString(remoteHash) + ")");
+            }
+        }
+        checkedRemoteHashTick = remoteHashTick;
+    }
+
+    // ===== 패킷 처리 =====
+
+    /*
+     * 입력 패킷 형식
+     * [0] MSG_INPUT
+     * [1..4] 내가 받은 상대 입력의 마지막 틱 (ack)
+     * [5..8] 첫 입력의 틱
+     * [9] 입력 개수 n
+     * [10..] 입력 n개 (틱당 1바이트)
+     * [10+n..13+n] 확정 해시의 틱, [14+n..21+n] 그 틱 시작 상태 해시 (확정된 틱이 있을 때만)
+     */
+    private void sendPing() {
+        pingBuffer[0] = MSG_PING;
+        writeLong(pingBuffer, 1, clockNanos.getAsLong());
+        try {
+            transport.send(pingBuffer, 9);
+        } catch (IOException e) {
+            System.err.println("핑 전송 실패: " + e.getMessage());
+        }
+    }
+
+    /*
+     * 퐁 패킷 형식
+     * [0] MSG_PONG
+     * [1..8] t0 (핑 보낸 시각, 상대 시계)
+     * [9..16] t1 (핑 받은 시각)
+     * [17..24] t2 (퐁 보낸 시각)
+     * [25..28] t2 시점의 내 틱
+     */
+    private void sendPong(long t0, long t1) {
+        pingBuffer[0] = MSG_PONG;
+        writeLong(pingBuffer, 1, t0);
+        writeLong(pingBuffer, 9, t1);
+        writeLong(pingBuffer, 17, clockNanos.getAsLong());
+        writeInt(pingBuffer, 25, sim.getTick());
+        try {
+            transport.send(pingBuffer, 29);
+        } catch (IOException e) {
+            System.err.println("퐁 전송 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 상대가 받았다고 알려준 틱 다음부터 latestTick까지 모두 보냅니다.
+     * 상대는 빠진 틱 없이 이어지는 입력만 받으므로, 오래 끊겼을 때도 가장 오래된 입력부터 빠짐없이 보내야
+     * 양쪽이 서로 기다리며 멈추지 않습니다 (예측 범위 maxRollback + inputDelay가 한 패킷보다 클 수 있음).
+     */
+    private void sendInputs(int latestTick) {
+        if (latestTick < 0) return;
+        for (int first = lastAckedLocalTick + 1; first <= latestTick; first += MAX_INPUTS_PER_PACKET) {
+            sendInputPacket(first, Math.min(MAX_INPUTS_PER_PACKET, latestTick - first + 1));
+        }
+    }
+
+    private void sendInputPacket(int first, int count) {
+        sendBuffer[0] = MSG_INPUT;
+        writeInt(sendBuffer, 1, lastConfirmedRemoteTick);
+        writeInt(sendBuffer, 5, first);
+        sendBuffer[9] = (byte) count;
+        for (int i = 0; i < count; i++) {
+            sendBuffer[10 + i] = (byte) localInputs[(first + i) & INPUT_MASK];
+        }
+        int length = 10 + count;
+        if (lastHashedTick >= 0) {
+            writeInt(sendBuffer, length, lastHashedTick);
+            writeLong(sendBuffer, length + 4, confirmedHashes[lastHashedTick & INPUT_MASK]);
+            length += 12;
+        }
+
+        try {
+            transport.send(sendBuffer, length);
+        } catch (IOException e) {
+            System.err.println("입력 전송 실패: " + e.getMessage());
+        }
+    }
+
+    private void pollPackets() {
+        try {
+            int length;
+            while ((length = transport.poll(receiveBuffer)) >= 0) {
+                if (length >= 10 && receiveBuffer[0] == MSG_INPUT) {
+                    handleInputPacket(length);
+                } else if (length >= 9 && receiveBuffer[0] == MSG_PING) {
+                    sendPong(readLong(receiveBuffer, 1), clockNanos.getAsLong());
+                } else if (length >= 29 && receiveBuffer[0] == MSG_PONG) {
+                    clockSync.addSample(readLong(receiveBuffer, 1), readLong(receiveBuffer, 9),
+                            readLong(receiveBuffer, 17), clockNanos.getAsLong(),
+                            readInt(receiveBuffer, 25), sim.getTick());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("입력 수신 실패: " + e.getMessage());
+        }
+    }
+
+    private void handleInputPacket(int length) {
+        int ack = readInt(receiveBuffer, 1);
+        int first = readInt(receiveBuffer, 5);
+        int count = receiveBuffer[9] & 0xFF;
+        if (10 + count > length) return;
+
+        if (ack > lastAckedLocalTick) {
+            lastAckedLocalTick = ack;
+        }
+        if (10 + count + 12 <= length) {
+            int hashTick = readInt(receiveBuffer, 10 + count);
+            if (hashTick > remoteHashTick) {
+                remoteHashTick = hashTick;
+                remoteHash = readLong(receiveBuffer, 14 + count);
+            }
+        }
+
+        int simTick = sim.getTick();
+        for (int i = 0; i < count; i++) {
+            int t = first + i;
+            if (t != lastConfirmedRemoteTick + 1) continue; // 이미 받았거나 중간이 빠짐
+            if (t - simTick >= INPUT_RING - maxRollback) break; // 너무 앞선 입력 (링 버퍼 보호)
+
+            int input = receiveBuffer[10 + i] & 0xFF;
+            remoteInputs[t & INPUT_MASK] = input;
+            lastConfirmedRemoteTick = t;
+
+            // 이미 예측으로 진행한 틱인데 예측이 틀렸으면 롤백 예약
+            if (t < simTick && usedRemoteInputs[t & INPUT_MASK] != input) {
+                pendingRollbackTick = Math.min(pendingRollbackTick, t);
+            }
+        }
+    }
+
+    static void writeInt(byte[] buf, int offset, int value) {
+        buf[offset] = (byte) (value >>> 24);
+        buf[offset + 1] = (byte) (value >>> 16);
+        buf[offset + 2] = (byte) (value >>> 8);
+        buf[offset + 3] = (byte) value;
+    }
+
+    static int readInt(byte[] buf, int offset) {
+        return ((buf[offset] & 0xFF) << 24)
+                | ((buf[offset + 1] & 0xFF) << 16)
+                | ((buf[offset + 2] & 0xFF) << 8)
+                | (buf[offset + 3] & 0xFF);
+    }
+
+    static void writeLong(byte[] buf, int offset, long value) {
+        writeInt(buf, offset, (int) (value >>> 32));
+        writeInt(buf, offset + 4, (int) value);
+    }
+
+    static long readLong(byte[] buf, int offset) {
+        return ((long) readInt(buf, offset) << 32) | (readInt(buf, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 다음 틱까지 기다릴 시간 (나노초)
+     * 내가 상대보다 앞서 있으면 조금 길게, 뒤처져 있으면 조금 짧게 돌려줍니다.
+     * 양쪽이 절반씩 보정하므로 차이의 절반만 반영합니다.
+     */
+    public long getTickNanos() {
+        if (!clockSync.hasEstimate()) return TICK_NANOS;
+        double advantage = clockSync.getTickAdvantage() / 2.0;
+        if (Math.abs(advantage) < ADVANTAGE_DEAD_ZONE) return TICK_NANOS;
+        double adjust = Math.max(-MAX_RATE_ADJUST, Math.min(MAX_RATE_ADJUST, advantage / RATE_CORRECTION_TICKS));
+        return (long) (TICK_NANOS * (1.0 + adjust));
+    }
+
+    public void close() {
+        try {
+            transport.close();
+        } catch (IOException e) {
+            System.err.println("네트워크 종료 실패: " + e.getMessage());
+        }
+    }
+
+    // ===== 통계 조회 =====
+
+    /**
+     * 저장해 둔 틱 시작 상태 (동기화 검사용)
+     * lastConfirmedRemoteTick + 1 이하의 틱이면 입력이 모두 확정된 상태라 양쪽이 같아야 합니다.
+     *
+     * @return 아직 진행하지 않았거나 이미 덮어쓴 틱이면 null
+     */
+    public SimSnapshot getSavedState(int tick) {
+        if (tick < 0 || tick >= sim.getTick()) return null;
+        SimSnapshot s = snapshots[tick % snapshots.length];
+        return s.getTick() == tick ? s : null;
+    }
+
+    public ClockSync getClockSync() { return clockSync; }
+    public int getInputDelay() { return inputDelay; }
+    public int getLocalSlot() { return localSlot; }
+    public int getMaxRollback() { return maxRollback; }
+    public int getLastConfirmedRemoteTick() { return lastConfirmedRemoteTick; }
+    public int getLastRollbackDepth() { return lastRollbackDepth; }
+    public int getMaxRollbackDepth() { return maxRollbackDepth; }
+    public long getRollbackCount() { return rollbackCount; }
+    public long getResimulatedTicks() { return resimulatedTicks; }
+    public long getLastResimNanos() { return lastResimNanos; }
+    public long getMaxResimNanos() { return maxResimNanos; }
+    public long getStallCount() { return stallCount; }
+    public int getDesyncTick() { return desyncTick; }
+    public long getHashChecks() { return hashChecks; }
+
+    public long getAverageResimNanos() {
+        return rollbackCount == 0 ? 0 : totalResimNanos / rollbackCount;
+    }
+
+    /**
+     * 통계 요약 문자열 (로그/화면 표시용)
+     */
+    public String getStatsSummary() {
+        return String.format("rollback %d회 (최근 %d틱, 최대 %d틱), 재시뮬 최근 %.2fms / 최대 %.2fms, 대기 %d회, "
+                + "RTT %.1fms, 틱 차이 %.2f, 입력 지연 %d틱, 해시 비교 %d회%s",
+                rollbackCount, lastRollbackDepth, maxRollbackDepth,
+                lastResimNanos / 1_000_000.0, maxResimNanos / 1_000_000.0, stallCount,
+                clockSync.getRttNanos() / 1_000_000.0, clockSync.getTickAdvantage(), inputDelay,
+                hashChecks, desyncTick >= 0 ? " (틱 " + desyncTick + "부터 어긋남)" : "");
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * ========================================================
+ * 시뮬레이션 스냅샷 클래스 (SimSnapshot)
+ * ========================================================
+ * GameSimulation의 전체 상태를 담는 미리 할당된 버퍼입니다.
+ * 롤백 링 버퍼에서 틱마다 재사용하므로 배열은 생성 시 한 번만 만듭니다.
+ *
+ * GameSimulation.saveState / loadState 로만 채우고 읽습니다.
+ */
+public class SimSnapshot {
+    int tick;
+    int gameState;
+    int endTick;
+    long randomState; // MatchRandom 상태
+    long stateHash; // 저장 시점의 상태 해시 (복원할 때는 다시 계산)
+
+    // 타일 아이템 인덱스 (행 * TILE_COLS + 열)
+    final byte[] tileItems = new byte[GameSimulation.CELL_COUNT];
+
+    // 플레이어
+    final int[] playerX = new int[GameSimulation.PLAYER_COUNT];
+    final int[] playerY = new int[GameSimulation.PLAYER_COUNT];
+    final int[] bombCount = new int[GameSimulation.PLAYER_COUNT];
+    final int[] bombRange = new int[GameSimulation.PLAYER_COUNT];
+    final int[] speed = new int[GameSimulation.PLAYER_COUNT];
+    final int[] maxBombCount = new int[GameSimulation.PLAYER_COUNT];
+    final int[] maxBombRange = new int[GameSimulation.PLAYER_COUNT];
+    final int[] maxSpeed = new int[GameSimulation.PLAYER_COUNT];
+    final int[] playerState = new int[GameSimulation.PLAYER_COUNT];
+    final int[] stateStartTick = new int[GameSimulation.PLAYER_COUNT];
+    final int[] lastDir = new int[GameSimulation.PLAYER_COUNT];
+    final int[] spriteRow = new int[GameSimulation.PLAYER_COUNT];
+    final int[] spriteCol = new int[GameSimulation.PLAYER_COUNT];
+    final int[] frameCounter = new int[GameSimulation.PLAYER_COUNT];
+
+    // 물풍선
+    int balloonCount;
+    final int[] balloonRow = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonCol = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonRange = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonOwner = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonPlaceTick = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonExplodeTick = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonInstallX = new int[GameSimulation.MAX_BALLOONS];
+    final int[] balloonInstallY = new int[GameSimulation.MAX_BALLOONS];
+    final boolean[] balloonCollision = new boolean[GameSimulation.MAX_BALLOONS];
+
+    // 폭발 칸
+    final int[] blastStartTick = new int[GameSimulation.CELL_COUNT];
+    final int[] blastType = new int[GameSimulation.CELL_COUNT];
+
+    /**
+     * 다른 스냅샷의 내용을 그대로 복사합니다 (객체 생성 없음).
+     */
+    public void copyFrom(SimSnapshot o) {
+        tick = o.tick;
+        gameState = o.gameState;
+        endTick = o.endTick;
+        randomState = o.randomState;
+        stateHash = o.stateHash;
+        System.arraycopy(o.tileItems, 0, tileItems, 0, tileItems.length);
+        System.arraycopy(o.playerX, 0, playerX, 0, playerX.length);
+        System.arraycopy(o.playerY, 0, playerY, 0, playerY.length);
+        System.arraycopy(o.bombCount, 0, bombCount, 0, bombCount.length);
+        System.arraycopy(o.bombRange, 0, bombRange, 0, bombRange.length);
+        System.arraycopy(o.speed, 0, speed, 0, speed.length);
+        System.arraycopy(o.maxBombCount, 0, maxBombCount, 0, maxBombCount.length);
+        System.arraycopy(o.maxBombRange, 0, maxBombRange, 0, maxBombRange.length);
+        System.arraycopy(o.maxSpeed, 0, maxSpeed, 0, maxSpeed.length);
+        System.arraycopy(o.playerState, 0, playerState, 0, playerState.length);
+        System.arraycopy(o.stateStartTick, 0, stateStartTick, 0, stateStartTick.length);
+        System.arraycopy(o.lastDir, 0, lastDir, 0, lastDir.length);
+        System.arraycopy(o.spriteRow, 0, spriteRow, 0, spriteRow.length);
+        System.arraycopy(o.spriteCol, 0, spriteCol, 0, spriteCol.length);
+        System.arraycopy(o.frameCounter, 0, frameCounter, 0, frameCounter.length);
+        balloonCount = o.balloonCount;
+        System.arraycopy(o.balloonRow, 0, balloonRow, 0, balloonCount);
+        System.arraycopy(o.balloonCol, 0, balloonCol, 0, balloonCount);
+        System.arraycopy(o.balloonRange, 0, balloonRange, 0, balloonCount);
+        System.arraycopy(o.balloonOwner, 0, balloonOwner, 0, balloonCount);
+        System.arraycopy(o.balloonPlaceTick, 0, balloonPlaceTick, 0, balloonCount);
+        System.arraycopy(o.balloonExplodeTick, 0, balloonExplodeTick, 0, balloonCount);
+        System.arraycopy(o.balloonInstallX, 0, balloonInstallX, 0, balloonCount);
+        System.arraycopy(o.balloonInstallY, 0, balloonInstallY, 0, balloonCount);
+        System.arraycopy(o.balloonCollision, 0, balloonCollision, 0, balloonCount);
+        System.arraycopy(o.blastStartTick, 0, blastStartTick, 0, blastStartTick.length);
+        System.arraycopy(o.blastType, 0, blastType, 0, blastType.length);
+    }
+
+    /**
+     * 빈 상태로 초기화 (키프레임 복원 전 사용)
+     */
+    public void clear() {
+        tick = 0;
+        gameState = GameSimulation.STATE_PLAYING;
+        endTick = -1;
+        randomState = 0;
+        stateHash = 0;
+        java.util.Arrays.fill(tileItems, (byte) 0);
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            playerX[p] = playerY[p] = 0;
+            bombCount[p] = bombRange[p] = speed[p] = 0;
+            maxBombCount[p] = maxBombRange[p] = maxSpeed[p] = 0;
+            playerState[p] = stateStartTick[p] = lastDir[p] = 0;
+            spriteRow[p] = spriteCol[p] = frameCounter[p] = 0;
+        }
+        balloonCount = 0;
+        java.util.Arrays.fill(blastStartTick, -1);
+        java.util.Arrays.fill(blastType, 0);
+    }
+
+    /**
+     * 스냅샷이 저장된 틱 번호
+     */
+    public int getTick() {
+        return tick;
+    }
+}
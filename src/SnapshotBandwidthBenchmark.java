@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * ========================================================
+ * 스냅샷 대역폭 벤치마크 (SnapshotBandwidthBenchmark)
+ * ========================================================
+ * 헤드리스로 전체 경기를 여러 번 진행하면서 매 틱 SnapshotCodec으로 인코딩한
+ * 패킷 크기(바이트/틱)를 측정하고, 디코딩 결과가 서버 상태와 같은지 확인합니다.
+ *
+ * 실행 예시 (프로젝트 루트에서):
+ * java -cp out SnapshotBandwidthBenchmark [경기 수] [ack 지연 틱] [시드]
+ */
+public class SnapshotBandwidthBenchmark {
+
+    private static final String[] MAPS = { "mapData1.txt", "mapData2.txt" };
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int ackDelay = args.length > 1 ? Integer.parseInt(args[1]) : 6; // 왕복 지연 (틱)
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        Random random = new Random(seed);
+        BitWriter writer = new BitWriter(512);
+        BitReader reader = new BitReader();
+
+        long totalTicks = 0;
+        long totalBytes = 0;
+        long keyframeBytes = 0;
+        long keyframes = 0;
+        long naiveBytes = 0;
+        int maxBytes = 0;
+        int[] sizeHistogram = new int[1024];
+
+        for (int m = 0; m < matches; m++) {
+            GameSimulation sim = new GameSimulation();
+            sim.setLogging(false);
+            sim.loadTilesFromFile(MAPS[m % MAPS.length]);
+            sim.resetGame();
+
+            SnapshotHistory serverHistory = new SnapshotHistory(64);
+            SnapshotHistory clientHistory = new SnapshotHistory(64);
+            int[] inputs = new int[GameSimulation.PLAYER_COUNT];
+            int[] ackedAt = new int[64]; // 틱 t 패킷이 도착할 시점의 ack
+
+            while (sim.getGameState() == GameSimulation.STATE_PLAYING) {
+                for (int p = 0; p < inputs.length; p++) {
+                    inputs[p] = randomInput(random, inputs[p]);
+                }
+                sim.updateGame(inputs[0], inputs[1]);
+
+                SimSnapshot cur = serverHistory.record(sim);
+                int ackTick = sim.getTick() - ackDelay;
+                SimSnapshot base = (ackTick >= 0) ? serverHistory.get(ackTick) : null;
+
+                writer.reset();
+                SnapshotCodec.encode(base, cur, writer);
+                int bytes = writer.getByteLength();
+
+                // 클라이언트 디코딩 및 검증
+                reader.reset(writer.getBuffer(), bytes);
+                SimSnapshot decoded = clientHistory.slotFor(cur.tick);
+                if (!SnapshotCodec.decode(reader, clientHistory, decoded)) {
+                    throw new IllegalStateException("기준 스냅샷 없음: tick " + cur.tick);
+                }
+                verify(cur, decoded);
+
+                totalTicks++;
+                totalBytes += bytes;
+                maxBytes = Math.max(maxBytes, bytes);
+                sizeHistogram[Math.min(bytes, sizeHistogram.length - 1)]++;
+                if (base == null) {
+                    keyframes++;
+                    keyframeBytes += bytes;
+                }
+                naiveBytes += naiveSize(cur);
+            }
+        }
+
+        System.out.println("===== 스냅샷 대역폭 벤치마크 =====");
+        System.out.println("경기 수: " + matches + ", 총 틱: " + totalTicks + ", ack 지연: " + ackDelay + "틱");
+        System.out.printf("델타 평균: %.2f 바이트/틱 (p50 %d, p99 %d, 최대 %d)%n",
+                (double) totalBytes / totalTicks, percentile(sizeHistogram, totalTicks, 0.50),
+                percentile(sizeHistogram, totalTicks, 0.99), maxBytes);
+        System.out.printf("키프레임 평균: %.1f 바이트 (%d회)%n", keyframes == 0 ? 0.0 : (double) keyframeBytes / keyframes, keyframes);
+        System.out.printf("전체 상태 직렬화(Tile[][] + 물풍선 목록) 평균: %.1f 바이트/틱%n", (double) naiveBytes / totalTicks);
+        System.out.printf("62.5틱/초 기준 대역폭: 델타 %.2f KB/s, 전체 %.2f KB/s%n",
+                totalBytes * 62.5 / totalTicks / 1024.0, naiveBytes * 62.5 / totalTicks / 1024.0);
+    }
+
+    // 방향은 가끔 바꾸고 물풍선은 가끔 설치하는 무작위 입력
+    private static int randomInput(Random random, int previous) {
+        int dir = previous & GameSimulation.INPUT_DIR_MASK;
+        if (random.nextInt(20) == 0) {
+            dir = random.nextInt(5);
+        }
+        int input = dir;
+        if (random.nextInt(40) == 0) {
+            input |= GameSimulation.INPUT_BOMB;
+        }
+        return input;
+    }
+
+    // 타일 int + 물풍선당 int 8개 + 폭발 칸당 int 4개 + 플레이어당 int 9개로 보낼 때의 크기
+    private static int naiveSize(SimSnapshot s) {
+        int activeBlasts = 0;
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (SnapshotCodec.activeBlastStart(s, i) >= 0) activeBlasts++;
+        }
+        return 4 + GameSimulation.CELL_COUNT * 4 + 4 + s.balloonCount * 32 + 4 + activeBlasts * 16
+                + GameSimulation.PLAYER_COUNT * 36;
+    }
+
+    private static void verify(SimSnapshot expected, SimSnapshot actual) {
+        check(Arrays.equals(expected.tileItems, actual.tileItems), expected.tick, "타일");
+        check(expected.gameState == actual.gameState, expected.tick, "게임 상태");
+        check(expected.balloonCount == actual.balloonCount, expected.tick, "물풍선 수");
+        for (int i = 0; i < expected.balloonCount; i++) {
+            check(expected.balloonRow[i] == actual.balloonRow[i] && expected.balloonCol[i] == actual.balloonCol[i]
+                    && expected.balloonPlaceTick[i] == actual.balloonPlaceTick[i]
+                    && expected.balloonCollision[i] == actual.balloonCollision[i], expected.tick, "물풍선 " + i);
+        }
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            int start = SnapshotCodec.activeBlastStart(expected, i);
+            check(start == SnapshotCodec.activeBlastStart(actual, i)
+                    && (start < 0 || expected.blastType[i] == actual.blastType[i]), expected.tick, "폭발 칸 " + i);
+        }
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            check(expected.playerX[p] == actual.playerX[p] && expected.playerY[p] == actual.playerY[p],
+                    expected.tick, (p + 1) + "P 위치");
+            check(expected.playerState[p] == actual.playerState[p], expected.tick, (p + 1) + "P 상태");
+        }
+    }
+
+    private static void check(boolean ok, int tick, String what) {
+        if (!ok) {
+            throw new IllegalStateException("디코딩 불일치 (tick " + tick + "): " + what);
+        }
+    }
+
+    private static int percentile(int[] histogram, long total, double q) {
+        long target = (long) Math.ceil(total * q);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return i;
+        }
+        return histogram.length - 1;
+    }
+}
@@ -0,0 +1,423 @@
+/**
+ * ========================================================
+ * 스냅샷 델타 압축 클래스 (SnapshotCodec)
+ * ========================================================
+ * 서버 권한(server-authoritative) 모드에서 클라이언트에 보낼 상태를
+ * "마지막으로 확인(ack)된 스냅샷"과 비교해 바뀐 부분만 비트 단위로 기록합니다.
+ *
+ * 보내는 내용:
+ * - 아이템 인덱스가 바뀐 타일
+ * - 추가/삭제된 물풍선 (칸 번호로 구분), 충돌 판정이 켜진 물풍선
+ * - 폭발 중인 칸의 변화
+ * - 플레이어 위치(픽셀 단위 10비트), 상태, 스프라이트, 능력치
+ *
+ * 기준 스냅샷이 없으면(처음 접속, ack가 너무 오래됨) 전체 상태를 키프레임으로 보냅니다.
+ * 설치 좌표 등 화면에 필요 없는 값은 보내지 않으므로 디코딩 결과는 표시용 상태입니다.
+ *
+ * 패킷 구조:
+ * [키프레임 1][틱 32][기준 틱과의 차 8 (델타일 때)]
+ * [게임 상태][타일][물풍선][폭발][플레이어 x2]
+ */
+public class SnapshotCodec {
+
+    // 필드 비트 수
+    private static final int TICK_BITS = 32;
+    private static final int BASE_AGE_BITS = 8;
+    private static final int STATE_BITS = 2;
+    private static final int CELL_BITS = 8; // 195칸 < 256
+    private static final int ITEM_BITS = 3; // 아이템 인덱스 0~5
+    private static final int COUNT_BITS = 6; // 물풍선 수 <= MAX_BALLOONS(32)
+    private static final int RANGE_BITS = 4;
+    private static final int AGE_BITS = 8; // 설치 후 지난 틱 (터지기 전까지 238틱 이하)
+    private static final int BLAST_TYPE_BITS = 3;
+    private static final int BLAST_AGE_BITS = 6; // 폭발 지속 EXPLOSION_TICKS(32) 이하
+    private static final int POS_BITS = 10; // 픽셀 좌표 0~1023
+    private static final int SMALL_DELTA_BITS = 5; // -16 ~ 15 픽셀 이동
+    private static final int STATE_AGE_BITS = 10;
+    private static final int STAT_BITS = 4;
+
+    private static final int MAX_BASE_AGE = (1 << BASE_AGE_BITS) - 1;
+    private static final int TILE_LIST_LIMIT = 24; // 이보다 많이 바뀌면 비트맵으로 전송
+
+    // 키프레임 인코딩/디코딩 기준으로 쓰는 빈 상태
+    private static final SimSnapshot EMPTY = new SimSnapshot();
+    static {
+        EMPTY.clear();
+    }
+
+    /**
+     * 현재 상태를 기준 스냅샷 대비 델타로 기록합니다.
+     *
+     * @param base 클라이언트가 마지막으로 확인한 스냅샷 (null이면 키프레임)
+     * @param cur  보낼 현재 스냅샷
+     * @param w    출력 버퍼 (호출 전에 reset)
+     */
+    public static void encode(SimSnapshot base, SimSnapshot cur, BitWriter w) {
+        boolean full = base == null || cur.tick - base.tick > MAX_BASE_AGE || base.tick > cur.tick;
+        if (full) base = EMPTY;
+
+        w.writeBoolean(full);
+        w.writeBits(cur.tick, TICK_BITS);
+        if (!full) {
+            w.writeBits(cur.tick - base.tick, BASE_AGE_BITS);
+        }
+
+        // ===== 게임 상태 =====
+        boolean stateChanged = full || cur.gameState != base.gameState;
+        w.writeBoolean(stateChanged);
+        if (stateChanged) {
+            w.writeBits(cur.gameState, STATE_BITS);
+            w.writeBits(cur.endTick, TICK_BITS);
+        }
+
+        encodeTiles(base, cur, full, w);
+        encodeBalloons(base, cur, w);
+        encodeBlasts(base, cur, w);
+
+        // ===== 플레이어 =====
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            encodePosition(base.playerX[p], cur.playerX[p], full, w);
+            encodePosition(base.playerY[p], cur.playerY[p], full, w);
+
+            boolean stChanged = full || cur.playerState[p] != base.playerState[p]
+                    || cur.stateStartTick[p] != base.stateStartTick[p];
+            w.writeBoolean(stChanged);
+            if (stChanged) {
+                w.writeBits(cur.playerState[p], STATE_BITS);
+                w.writeBits(clamp(cur.tick - cur.stateStartTick[p], STATE_AGE_BITS), STATE_AGE_BITS);
+            }
+
+            boolean spriteChanged = full || cur.spriteRow[p] != base.spriteRow[p] || cur.spriteCol[p] != base.spriteCol[p];
+            w.writeBoolean(spriteChanged);
+            if (spriteChanged) {
+                w.writeBits(cur.spriteRow[p], 2);
+                w.writeBits(cur.spriteCol[p], 3);
+            }
+
+            boolean statsChanged = full || cur.bombCount[p] != base.bombCount[p]
+                    || cur.bombRange[p] != base.bombRange[p] || cur.speed[p] != base.speed[p];
+            w.writeBoolean(statsChanged);
+            if (statsChanged) {
+                w.writeBits(cur.bombCount[p], STAT_BITS);
+                w.writeBits(cur.bombRange[p], STAT_BITS);
+                w.writeBits(cur.speed[p], STAT_BITS);
+            }
+        }
+    }
+
+    /**
+     * 패킷 헤더에서 틱 번호만 읽습니다 (디코딩 결과를 저장할 자리를 고를 때 사용).
+     * 읽은 뒤에는 reader를 다시 reset해야 decode할 수 있습니다.
+     */
+    public static int peekTick(BitReader r) {
+        r.readBoolean();
+        return r.readBits(TICK_BITS);
+    }
+
+    /**
+     * 패킷 헤더에서 키프레임 여부만 읽습니다.
+     * 읽은 뒤에는 reader를 다시 reset해야 decode할 수 있습니다.
+     */
+    public static boolean peekKeyframe(BitReader r) {
+        return r.readBoolean();
+    }
+
+    /**
+     * 패킷을 읽어 기준 스냅샷에 델타를 적용한 결과를 out에 씁니다.
+     *
+     * @param r       입력 버퍼
+     * @param history 클라이언트가 받은 스냅샷 기록 (기준 스냅샷 검색용)
+     * @param out     결과 스냅샷
+     * @return 기준 스냅샷을 찾지 못하면 false (키프레임 재요청 필요)
+     */
+    public static boolean decode(BitReader r, SnapshotHistory history, SimSnapshot out) {
+        boolean full = r.readBoolean();
+        int tick = r.readBits(TICK_BITS);
+        SimSnapshot base;
+        if (full) {
+            base = EMPTY;
+        } else {
+            int baseTick = tick - r.readBits(BASE_AGE_BITS);
+            base = history.get(baseTick);
+            if (base == null) return false;
+        }
+
+        out.copyFrom(base);
+        out.tick = tick;
+
+        // ===== 게임 상태 =====
+        if (r.readBoolean()) {
+            out.gameState = r.readBits(STATE_BITS);
+            out.endTick = r.readBits(TICK_BITS);
+        }
+
+        decodeTiles(r, full, out);
+        decodeBalloons(r, out);
+        decodeBlasts(r, out);
+
+        // ===== 플레이어 =====
+        for (int p = 0; p < GameSimulation.PLAYER_COUNT; p++) {
+            out.playerX[p] = decodePosition(out.playerX[p], full, r);
+            out.playerY[p] = decodePosition(out.playerY[p], full, r);
+            if (r.readBoolean()) {
+                out.playerState[p] = r.readBits(STATE_BITS);
+                out.stateStartTick[p] = tick - r.readBits(STATE_AGE_BITS);
+            }
+            if (r.readBoolean()) {
+                out.spriteRow[p] = r.readBits(2);
+                out.spriteCol[p] = r.readBits(3);
+            }
+            if (r.readBoolean()) {
+                out.bombCount[p] = r.readBits(STAT_BITS);
+                out.bombRange[p] = r.readBits(STAT_BITS);
+                out.speed[p] = r.readBits(STAT_BITS);
+            }
+        }
+        return true;
+    }
+
+    // ===== 타일 =====
+
+    private static void encodeTiles(SimSnapshot base, SimSnapshot cur, boolean full, BitWriter w) {
+        if (full) {
+            for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+                w.writeBits(cur.tileItems[i], ITEM_BITS);
+            }
+            return;
+        }
+
+        int changed = 0;
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (cur.tileItems[i] != base.tileItems[i]) changed++;
+        }
+
+        boolean bitmap = changed > TILE_LIST_LIMIT;
+        w.writeBoolean(bitmap);
+        if (bitmap) {
+            // 칸마다 1비트 변경 여부 + 바뀐 칸의 값
+            for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+                boolean diff = cur.tileItems[i] != base.tileItems[i];
+                w.writeBoolean(diff);
+                if (diff) w.writeBits(cur.tileItems[i], ITEM_BITS);
+            }
+        } else {
+            w.writeBits(changed, 5);
+            for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+                if (cur.tileItems[i] != base.tileItems[i]) {
+                    w.writeBits(i, CELL_BITS);
+                    w.writeBits(cur.tileItems[i], ITEM_BITS);
+                }
+            }
+        }
+    }
+
+    private static void decodeTiles(BitReader r, boolean full, SimSnapshot out) {
+        if (full) {
+            for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+                out.tileItems[i] = (byte) r.readBits(ITEM_BITS);
+            }
+            return;
+        }
+        if (r.readBoolean()) {
+            for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+                if (r.readBoolean()) out.tileItems[i] = (byte) r.readBits(ITEM_BITS);
+            }
+        } else {
+            int changed = r.readBits(5);
+            for (int k = 0; k < changed; k++) {
+                int cell = r.readBits(CELL_BITS);
+                out.tileItems[cell] = (byte) r.readBits(ITEM_BITS);
+            }
+        }
+    }
+
+    // ===== 물풍선 =====
+
+    private static int balloonCell(SimSnapshot s, int i) {
+        return s.balloonRow[i] * GameSimulation.TILE_COLS + s.balloonCol[i];
+    }
+
+    // 같은 칸, 같은 설치 틱의 물풍선 위치 (없으면 -1)
+    private static int findBalloon(SimSnapshot s, int cell, int placeTick) {
+        for (int i = 0; i < s.balloonCount; i++) {
+            if (balloonCell(s, i) == cell && s.balloonPlaceTick[i] == placeTick) return i;
+        }
+        return -1;
+    }
+
+    private static void encodeBalloons(SimSnapshot base, SimSnapshot cur, BitWriter w) {
+        // 삭제된 물풍선
+        int removed = 0;
+        for (int i = 0; i < base.balloonCount; i++) {
+            if (findBalloon(cur, balloonCell(base, i), base.balloonPlaceTick[i]) < 0) removed++;
+        }
+        w.writeBits(removed, COUNT_BITS);
+        for (int i = 0; i < base.balloonCount; i++) {
+            if (findBalloon(cur, balloonCell(base, i), base.balloonPlaceTick[i]) < 0) {
+                w.writeBits(balloonCell(base, i), CELL_BITS);
+            }
+        }
+
+        // 추가된 물풍선 (배열 순서대로 → 디코더도 같은 순서로 뒤에 붙임)
+        int added = 0;
+        for (int i = 0; i < cur.balloonCount; i++) {
+            if (findBalloon(base, balloonCell(cur, i), cur.balloonPlaceTick[i]) < 0) added++;
+        }
+        w.writeBits(added, COUNT_BITS);
+        for (int i = 0; i < cur.balloonCount; i++) {
+            if (findBalloon(base, balloonCell(cur, i), cur.balloonPlaceTick[i]) < 0) {
+                w.writeBits(balloonCell(cur, i), CELL_BITS);
+                w.writeBits(cur.balloonOwner[i] - 1, 1);
+                w.writeBits(cur.balloonRange[i], RANGE_BITS);
+                w.writeBits(clamp(cur.tick - cur.balloonPlaceTick[i], AGE_BITS), AGE_BITS);
+                w.writeBits(clamp(cur.balloonExplodeTick[i] - cur.balloonPlaceTick[i], AGE_BITS), AGE_BITS);
+                w.writeBoolean(cur.balloonCollision[i]);
+            }
+        }
+
+        // 유지된 물풍선 중 충돌 판정이 새로 켜진 것
+        int enabled = 0;
+        for (int i = 0; i < cur.balloonCount; i++) {
+            int b = findBalloon(base, balloonCell(cur, i), cur.balloonPlaceTick[i]);
+            if (b >= 0 && cur.balloonCollision[i] && !base.balloonCollision[b]) enabled++;
+        }
+        w.writeBits(enabled, COUNT_BITS);
+        for (int i = 0; i < cur.balloonCount; i++) {
+            int b = findBalloon(base, balloonCell(cur, i), cur.balloonPlaceTick[i]);
+            if (b >= 0 && cur.balloonCollision[i] && !base.balloonCollision[b]) {
+                w.writeBits(balloonCell(cur, i), CELL_BITS);
+            }
+        }
+    }
+
+    private static void decodeBalloons(BitReader r, SimSnapshot out) {
+        int removed = r.readBits(COUNT_BITS);
+        for (int k = 0; k < removed; k++) {
+            int cell = r.readBits(CELL_BITS);
+            for (int i = 0; i < out.balloonCount; i++) {
+                if (balloonCell(out, i) == cell) {
+                    removeBalloon(out, i);
+                    break;
+                }
+            }
+        }
+
+        int added = r.readBits(COUNT_BITS);
+        for (int k = 0; k < added; k++) {
+            int cell = r.readBits(CELL_BITS);
+            int i = out.balloonCount++;
+            out.balloonRow[i] = cell / GameSimulation.TILE_COLS;
+            out.balloonCol[i] = cell % GameSimulation.TILE_COLS;
+            out.balloonOwner[i] = r.readBits(1) + 1;
+            out.balloonRange[i] = r.readBits(RANGE_BITS);
+            out.balloonPlaceTick[i] = out.tick - r.readBits(AGE_BITS);
+            out.balloonExplodeTick[i] = out.balloonPlaceTick[i] + r.readBits(AGE_BITS);
+            out.balloonCollision[i] = r.readBoolean();
+            out.balloonInstallX[i] = 0;
+            out.balloonInstallY[i] = 0;
+        }
+
+        int enabled = r.readBits(COUNT_BITS);
+        for (int k = 0; k < enabled; k++) {
+            int cell = r.readBits(CELL_BITS);
+            for (int i = 0; i < out.balloonCount; i++) {
+                if (balloonCell(out, i) == cell) {
+                    out.balloonCollision[i] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void removeBalloon(SimSnapshot s, int index) {
+        int last = s.balloonCount - 1;
+        for (int i = index; i < last; i++) {
+            s.balloonRow[i] = s.balloonRow[i + 1];
+            s.balloonCol[i] = s.balloonCol[i + 1];
+            s.balloonRange[i] = s.balloonRange[i + 1];
+            s.balloonOwner[i] = s.balloonOwner[i + 1];
+            s.balloonPlaceTick[i] = s.balloonPlaceTick[i + 1];
+            s.balloonExplodeTick[i] = s.balloonExplodeTick[i + 1];
+            s.balloonInstallX[i] = s.balloonInstallX[i + 1];
+            s.balloonInstallY[i] = s.balloonInstallY[i + 1];
+            s.balloonCollision[i] = s.balloonCollision[i + 1];
+        }
+        s.balloonCount = last;
+    }
+
+    // ===== 폭발 칸 =====
+
+    /**
+     * 스냅샷 시점에 폭발 중이면 시작 틱, 아니면 -1
+     * (이미 끝난 폭발의 시작 틱은 화면에 의미가 없으므로 보내지 않습니다)
+     */
+    static int activeBlastStart(SimSnapshot s, int cell) {
+        int start = s.blastStartTick[cell];
+        return (start >= 0 && s.tick - start < GameSimulation.EXPLOSION_TICKS) ? start : -1;
+    }
+
+    private static void encodeBlasts(SimSnapshot base, SimSnapshot cur, BitWriter w) {
+        int changed = 0;
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (activeBlastStart(cur, i) != activeBlastStart(base, i)) changed++;
+        }
+        w.writeBits(changed, CELL_BITS);
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            int start = activeBlastStart(cur, i);
+            if (start == activeBlastStart(base, i)) continue;
+            w.writeBits(i, CELL_BITS);
+            w.writeBoolean(start >= 0);
+            if (start >= 0) {
+                w.writeBits(cur.blastType[i], BLAST_TYPE_BITS);
+                w.writeBits(cur.tick - start, BLAST_AGE_BITS);
+            }
+        }
+    }
+
+    private static void decodeBlasts(BitReader r, SimSnapshot out) {
+        // 기준 스냅샷에서 이미 끝난 폭발은 지움 (인코더와 같은 기준)
+        for (int i = 0; i < GameSimulation.CELL_COUNT; i++) {
+            if (activeBlastStart(out, i) < 0) out.blastStartTick[i] = -1;
+        }
+        int changed = r.readBits(CELL_BITS);
+        for (int k = 0; k < changed; k++) {
+            int cell = r.readBits(CELL_BITS);
+            if (r.readBoolean()) {
+                out.blastType[cell] = r.readBits(BLAST_TYPE_BITS);
+                out.blastStartTick[cell] = out.tick - r.readBits(BLAST_AGE_BITS);
+            } else {
+                out.blastStartTick[cell] = -1;
+            }
+        }
+    }
+
+    // ===== 위치 =====
+
+    // 0: 변화 없음 / 10: 작은 이동(5비트 부호) / 11: 절대 좌표(10비트)
+    private static void encodePosition(int before, int after, boolean full, BitWriter w) {
+        int delta = after - before;
+        if (!full && delta == 0) {
+            w.writeBoolean(false);
+            return;
+        }
+        w.writeBoolean(true);
+        boolean small = !full && delta >= -(1 << (SMALL_DELTA_BITS - 1)) && delta < (1 << (SMALL_DELTA_BITS - 1));
+        w.writeBoolean(!small);
+        if (small) {
+            w.writeSigned(delta, SMALL_DELTA_BITS);
+        } else {
+            w.writeBits(clamp(after, POS_BITS), POS_BITS);
+        }
+    }
+
+    private static int decodePosition(int before, boolean full, BitReader r) {
+        if (!r.readBoolean()) return before;
+        if (r.readBoolean()) return r.readBits(POS_BITS);
+        return before + r.readSigned(SMALL_DELTA_BITS);
+    }
+
+    private static int clamp(int value, int bits) {
+        int max = (1 << bits) - 1;
+        return Math.max(0, Math.min(value, max));
+    }
+}
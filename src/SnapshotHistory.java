@@ -0,0 +1,50 @@
+/**
+ * ========================================================
+ * 스냅샷 기록 클래스 (SnapshotHistory)
+ * ========================================================
+ * 최근 몇 틱의 SimSnapshot을 틱 번호로 찾을 수 있게 보관하는 링 버퍼입니다.
+ * 서버는 보낸 상태를, 클라이언트는 받은 상태를 저장해 두고
+ * 델타 압축의 기준(마지막으로 확인된 스냅샷)으로 사용합니다.
+ */
+public class SnapshotHistory {
+    private final SimSnapshot[] ring;
+
+    public SnapshotHistory(int capacity) {
+        ring = new SimSnapshot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new SimSnapshot();
+            ring[i].tick = -1;
+        }
+    }
+
+    /**
+     * 시뮬레이션의 현재 상태를 저장하고 저장된 스냅샷을 반환합니다.
+     */
+    public SimSnapshot record(GameSimulation sim) {
+        SimSnapshot slot = ring[Math.floorMod(sim.getTick(), ring.length)];
+        sim.saveState(slot);
+        return slot;
+    }
+
+    /**
+     * 디코딩 결과를 저장할 빈 자리를 반환합니다.
+     */
+    public SimSnapshot slotFor(int tick) {
+        return ring[Math.floorMod(tick, ring.length)];
+    }
+
+    /**
+     * 해당 틱의 스냅샷 (이미 덮어써졌으면 null)
+     */
+    public SimSnapshot get(int tick) {
+        if (tick < 0) return null;
+        SimSnapshot s = ring[Math.floorMod(tick, ring.length)];
+        return s.tick == tick ? s : null;
+    }
+
+    public void clear() {
+        for (SimSnapshot s : ring) {
+            s.tick = -1;
+        }
+    }
+}
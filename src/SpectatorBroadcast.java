@@ -0,0 +1,99 @@
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ========================================================
+ * 관전 방송 버퍼 (SpectatorBroadcast)
+ * ========================================================
+ * 경기 하나의 틱 스냅샷을 한 번만 인코딩해서 담아 두는 공유 링 버퍼입니다.
+ * 틱 스레드 하나가 쓰고, 관전자 전송 스레드가 관전자마다 자기 위치에서 읽습니다.
+ *
+ * - 프레임은 바로 앞 틱을 기준으로 한 델타이고, KEYFRAME_INTERVAL 틱마다 키프레임을 넣습니다.
+ * - 관전자 수와 상관없이 틱당 인코딩은 한 번뿐이라 경기 틱 시간에 영향이 없습니다.
+ * - 읽는 쪽이 느려서 덮어써진 프레임은 read가 -1을 돌려주므로,
+ *   그때는 getLatestKeyframe 위치로 건너뛰면 됩니다.
+ *
+ * 슬롯마다 순번을 기록하고, 복사 전후의 순번이 같을 때만 유효한 프레임으로 봅니다
+ * (쓰는 중에는 -1). 잠금 없이 동작합니다.
+ */
+public class SpectatorBroadcast {
+    static final int KEYFRAME_INTERVAL = 60; // 약 1초
+    static final int RING_SIZE = 128;        // 약 2초 분량
+    static final int MAX_FRAME_BYTES = 1200;
+
+    private final byte[][] frames = new byte[RING_SIZE][MAX_FRAME_BYTES];
+    private final int[] lengths = new int[RING_SIZE];
+    private final AtomicLongArray slotSeq = new AtomicLongArray(RING_SIZE);
+
+    private volatile long head = -1;            // 마지막으로 쓴 프레임 순번
+    private volatile long latestKeyframe = -1;  // 마지막 키프레임 순번
+    private volatile int viewerCount = 0;
+
+    // 쓰는 쪽(틱 스레드) 전용
+    private final SimSnapshot prev = new SimSnapshot();
+    private final SimSnapshot cur = new SimSnapshot();
+    private final BitWriter writer = new BitWriter(MAX_FRAME_BYTES);
+    private boolean hasPrev = false;
+
+    public SpectatorBroadcast() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            slotSeq.set(i, -1);
+        }
+    }
+
+    /**
+     * 현재 틱 상태를 프레임으로 추가합니다 (틱 스레드, 관전자가 없으면 아무것도 안 함).
+     */
+    public void publish(GameSimulation sim) {
+        if (viewerCount == 0) {
+            hasPrev = false; // 다음 관전자는 키프레임부터
+            return;
+        }
+        sim.saveState(cur);
+        boolean keyframe = !hasPrev || cur.tick != prev.tick + 1 || cur.tick % KEYFRAME_INTERVAL == 0;
+
+        writer.reset();
+        SnapshotCodec.encode(keyframe ? null : prev, cur, writer);
+        int length = writer.getByteLength();
+        if (length > MAX_FRAME_BYTES) {
+            hasPrev = false; // 들어가지 않는 프레임은 버리고 다음에 키프레임
+            return;
+        }
+
+        long seq = head + 1;
+        int slot = (int) (seq % RING_SIZE);
+        slotSeq.set(slot, -1);
+        VarHandle.storeStoreFence(); // -1 표시가 데이터보다 먼저 보이도록
+        System.arraycopy(writer.getBuffer(), 0, frames[slot], 0, length);
+        lengths[slot] = length;
+        slotSeq.set(slot, seq);
+        if (keyframe) latestKeyframe = seq;
+        head = seq;
+
+        prev.copyFrom(cur);
+        hasPrev = true;
+    }
+
+    /**
+     * 프레임 복사 (전송 스레드)
+     *
+     * @return 프레임 길이, 아직 없거나 덮어써졌으면 -1
+     */
+    public int read(long seq, byte[] out) {
+        if (seq < 0 || seq > head) return -1;
+        int slot = (int) (seq % RING_SIZE);
+        if (slotSeq.get(slot) != seq) return -1;
+        int length = lengths[slot];
+        System.arraycopy(frames[slot], 0, out, 0, length);
+        VarHandle.acquireFence(); // 복사가 끝난 뒤에 순번을 다시 읽도록 보장
+        if (slotSeq.get(slot) != seq) return -1; // 복사 중에 덮어써짐
+        return length;
+    }
+
+    public long getHead() { return head; }
+    public long getLatestKeyframe() { return latestKeyframe; }
+
+    public synchronized void addViewer() { viewerCount++; }
+    public synchronized void removeViewer() { viewerCount = Math.max(0, viewerCount - 1); }
+    public int getViewerCount() { return viewerCount; }
+}
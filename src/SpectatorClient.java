@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * ========================================================
+ * 관전 클라이언트 (SpectatorClient)
+ * ========================================================
+ * 서버의 방 하나를 관전합니다. 받은 프레임을 SnapshotHistory에 복원하고
+ * 가장 최근 상태를 돌려주며, 화면은 GamePanelPlaceholder가 그대로 그립니다.
+ *
+ * - 주기적으로 마지막으로 복원한 틱을 ack로 보냅니다 (서버가 밀림 정도를 판단).
+ * - 프레임을 한동안 못 받으면 관전 요청을 다시 보냅니다.
+ * - 기준 프레임을 잃은 델타는 버리고 다음 키프레임을 기다립니다.
+ * - 이미 받은 틱 이하의 프레임은 버립니다. 틱이 기록 크기보다 크게 되돌아간
+ *   키프레임만 새 경기의 시작으로 보고 기록을 비웁니다.
+ */
+public class SpectatorClient implements AutoCloseable {
+    private static final long ACK_INTERVAL_NANOS = 100_000_000L;
+    private static final long REJOIN_NANOS = 2_000_000_000L;
+    private static final int HISTORY_SIZE = 64;
+
+    private final PacketTransport transport;
+    private final int roomId;
+    private final byte[] packet = new byte[1400];
+    private final BitReader reader = new BitReader();
+    private final SnapshotHistory history = new SnapshotHistory(HISTORY_SIZE);
+
+    private SimSnapshot latest;
+    private int mapIndex = 0;
+    private long lastAckNanos = 0;
+    private long lastFrameNanos = 0;
+    private long lastJoinNanos = 0;
+    private long framesReceived = 0;
+    private long framesDropped = 0;
+
+    public SpectatorClient(String host, int port, int roomId) throws IOException {
+        this(new UdpPacketTransport(0, host, port), roomId);
+    }
+
+    public SpectatorClient(PacketTransport transport, int roomId) {
+        this.transport = transport;
+        this.roomId = roomId;
+    }
+
+    /**
+     * 받은 프레임을 모두 복원합니다.
+     *
+     * @return 새 상태가 있으면 가장 최근 스냅샷, 없으면 null
+     */
+    public SimSnapshot poll() throws IOException {
+        long now = System.nanoTime();
+        boolean starving = latest == null || now - lastFrameNanos > REJOIN_NANOS;
+        if (starving && (lastJoinNanos == 0 || now - lastJoinNanos > REJOIN_NANOS)) {
+            ByteBuffer b = ByteBuffer.wrap(packet);
+            b.put(SpectatorHub.MSG_SPECTATE).putInt(roomId);
+            transport.send(packet, b.position());
+            lastJoinNanos = now;
+        }
+
+        SimSnapshot updated = null;
+        int length;
+        while ((length = transport.poll(packet)) > 0) {
+            ByteBuffer b = ByteBuffer.wrap(packet, 0, length);
+            if (length < 6 || b.get() != SpectatorHub.MSG_SPECTATE_FRAME || b.getInt() != roomId) continue;
+            mapIndex = b.get();
+            SimSnapshot s = decode(b.position(), length);
+            if (s != null) {
+                updated = s;
+                latest = s;
+                lastFrameNanos = now;
+            }
+        }
+
+        if (latest != null && now - lastAckNanos >= ACK_INTERVAL_NANOS) {
+            ByteBuffer b = ByteBuffer.wrap(packet);
+            b.put(SpectatorHub.MSG_SPECTATE_ACK).putInt(roomId).putInt(latest.getTick());
+            transport.send(packet, b.position());
+            lastAckNanos = now;
+        }
+        return updated;
+    }
+
+    // 헤더 뒤의 비트열을 앞으로 당겨서 복원
+    private SimSnapshot decode(int offset, int length) {
+        System.arraycopy(packet, offset, packet, 0, length - offset);
+        int bytes = length - offset;
+
+        reader.reset(packet, bytes);
+        int tick = SnapshotCodec.peekTick(reader);
+        if (latest != null && tick <= latest.getTick()) {
+            reader.reset(packet, bytes);
+            boolean keyframe = SnapshotCodec.peekKeyframe(reader);
+            if (!keyframe || latest.getTick() - tick <= HISTORY_SIZE) {
+                return null; // 늦게 도착하거나 순서가 바뀐 프레임
+            }
+            history.clear(); // 새 경기 시작 (키프레임과 함께 틱이 크게 되돌아감)
+            latest = null;
+        }
+
+        SimSnapshot out = history.slotFor(tick);
+        reader.reset(packet, bytes);
+        try {
+            if (SnapshotCodec.decode(reader, history, out)) {
+                framesReceived++;
+                return out;
+            }
+        } catch (IllegalStateException e) {
+            out.tick = -1; // 잘린 패킷
+        }
+        framesDropped++;
+        return null;
+    }
+
+    /**
+     * 서버가 알려 준 맵 번호 (1 또는 2, 아직 모르면 0)
+     */
+    public int getMapIndex() { return mapIndex; }
+    public long getFramesReceived() { return framesReceived; }
+    public long getFramesDropped() { return framesDropped; }
+
+    @Override
+    public void close() {
+        try {
+            ByteBuffer b = ByteBuffer.wrap(packet);
+            b.put(GameServer.MSG_LEAVE).putInt(roomId);
+            transport.send(packet, b.position());
+            transport.close();
+        } catch (IOException e) {
+            System.out.println("관전 연결 종료 실패: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ========================================================
+ * 관전자 전송 클래스 (SpectatorHub)
+ * ========================================================
+ * 방마다의 SpectatorBroadcast에서 프레임을 읽어 관전자들에게 보냅니다.
+ * 방 틱 스레드와 다른 전용 스레드에서 돌기 때문에 관전자가 아무리 많아도
+ * 플레이어 쪽 틱 시간에는 영향을 주지 않습니다.
+ *
+ * 관전자별 역압(backpressure):
+ * - 한 번에 보내는 프레임 수를 MAX_FRAMES_PER_PASS로 제한합니다.
+ * - 읽을 위치가 덮어써졌거나, 관전자가 보낸 ack가 MAX_ACK_LAG_TICKS 이상 밀리면
+ *   밀린 프레임은 버리고 가장 최근 키프레임으로 건너뜁니다.
+ * - ack가 10초(TIMEOUT_NANOS) 동안 없으면 관전자 목록에서 뺍니다.
+ *
+ * 메시지 형식:
+ * SPECTATE     [15][방 번호 int]
+ * SPECTATE_ACK [16][방 번호 int][받은 틱 int]
+ * FRAME        [17][방 번호 int][맵 번호 byte][SnapshotCodec 비트열]
+ */
+public class SpectatorHub implements Runnable {
+    static final byte MSG_SPECTATE = 15;
+    static final byte MSG_SPECTATE_ACK = 16;
+    static final byte MSG_SPECTATE_FRAME = 17;
+
+    private static final int MAX_FRAMES_PER_PASS = 4;
+    private static final int MAX_ACK_LAG_TICKS = 45;
+    private static final long SKIP_GRACE_NANOS = 1_000_000_000L; // 건너뛴 뒤 ack가 따라올 시간
+    private static final long TIMEOUT_NANOS = 10_000_000_000L;
+
+    private final DatagramChannel channel;
+    private final List<Viewer> viewers = new ArrayList<>();
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(SpectatorBroadcast.MAX_FRAME_BYTES + 16);
+    private final byte[] frame = new byte[SpectatorBroadcast.MAX_FRAME_BYTES];
+    private final BitReader peekReader = new BitReader();
+
+    private long framesSent = 0;
+    private long skips = 0;
+
+    /**
+     * 관전자 한 명
+     */
+    private static class Viewer {
+        final SocketAddress address;
+        final GameRoom room;
+        long cursor = -1;        // 다음에 보낼 프레임 순번
+        int ackTick = -1;
+        long lastAckNanos;
+        long lastSkipNanos = 0;
+        int lastSentTick = -1;
+
+        Viewer(SocketAddress address, GameRoom room) {
+            this.address = address;
+            this.room = room;
+            this.lastAckNanos = System.nanoTime();
+        }
+    }
+
+    public SpectatorHub(DatagramChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 관전 메시지 처리 (수신 스레드)
+     *
+     * @return 관전 메시지였으면 true
+     */
+    public boolean handle(SocketAddress from, byte type, GameRoom room, ByteBuffer buffer) {
+        switch (type) {
+            case MSG_SPECTATE:
+                synchronized (this) {
+                    if (find(from, room) == null) {
+                        viewers.add(new Viewer(from, room));
+                        room.getSpectatorBroadcast().addViewer();
+                        System.out.println("방 " + room.getId() + " 관전 시작: " + from);
+                    }
+                }
+                return true;
+            case MSG_SPECTATE_ACK: {
+                int tick = buffer.getInt();
+                synchronized (this) {
+                    Viewer v = find(from, room);
+                    if (v != null) {
+                        v.ackTick = tick;
+                        v.lastAckNanos = System.nanoTime();
+                    }
+                }
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 관전 종료 (LEAVE 또는 시간 초과)
+     */
+    public synchronized void remove(SocketAddress from, GameRoom room) {
+        Viewer v = find(from, room);
+        if (v != null) {
+            viewers.remove(v);
+            room.getSpectatorBroadcast().removeViewer();
+        }
+    }
+
+    private Viewer find(SocketAddress from, GameRoom room) {
+        for (Viewer v : viewers) {
+            if (v.room == room && v.address.equals(from)) return v;
+        }
+        return null;
+    }
+
+    /**
+     * 관전자마다 밀린 프레임을 보냅니다 (전용 스레드에서 틱 주기로 호출).
+     */
+    @Override
+    public synchronized void run() {
+        long now = System.nanoTime();
+        for (int i = viewers.size() - 1; i >= 0; i--) {
+            Viewer v = viewers.get(i);
+            if (now - v.lastAckNanos > TIMEOUT_NANOS) {
+                viewers.remove(i);
+                v.room.getSpectatorBroadcast().removeViewer();
+                System.out.println("방 " + v.room.getId() + " 관전 시간 초과: " + v.address);
+                continue;
+            }
+            pump(v, now);
+        }
+    }
+
+    private void pump(Viewer v, long now) {
+        SpectatorBroadcast broadcast = v.room.getSpectatorBroadcast();
+        long head = broadcast.getHead();
+        if (head < 0) return;
+
+        // 처음이거나 너무 밀렸으면 최신 키프레임으로 건너뜀
+        boolean overwritten = v.cursor >= 0 && head - v.cursor >= SpectatorBroadcast.RING_SIZE;
+        boolean ackLagging = v.ackTick >= 0 && v.lastSentTick - v.ackTick > MAX_ACK_LAG_TICKS
+                && now - v.lastSkipNanos > SKIP_GRACE_NANOS;
+        if (v.cursor < 0 || overwritten || ackLagging) {
+            long key = broadcast.getLatestKeyframe();
+            if (key < 0) return;
+            if (v.cursor >= 0 && key > v.cursor) skips++;
+            v.cursor = Math.max(v.cursor, key);
+            v.lastSkipNanos = now;
+            if (v.cursor < 0) return;
+        }
+
+        int mapIndex = "mapData1.txt".equals(v.room.getSimulation().getMapDataFile()) ? 1 : 2;
+        for (int n = 0; n < MAX_FRAMES_PER_PASS && v.cursor <= head; n++) {
+            int length = broadcast.read(v.cursor, frame);
+            if (length < 0) {
+                v.cursor = broadcast.getLatestKeyframe(); // 읽는 사이에 덮어써짐
+                skips++;
+                return;
+            }
+            sendBuffer.clear();
+            sendBuffer.put(MSG_SPECTATE_FRAME);
+            sendBuffer.putInt(v.room.getId());
+            sendBuffer.put((byte) mapIndex);
+            sendBuffer.put(frame, 0, length);
+            sendBuffer.flip();
+            try {
+                channel.send(sendBuffer, v.address);
+            } catch (IOException e) {
+                return; // 다음 주기에 다시 시도
+            }
+            v.lastSentTick = peekTick(length);
+            v.cursor++;
+            framesSent++;
+        }
+    }
+
+    private int peekTick(int length) {
+        peekReader.reset(frame, length);
+        return SnapshotCodec.peekTick(peekReader);
+    }
+
+    public synchronized int getViewerCount() { return viewers.size(); }
+    public synchronized long getFramesSent() { return framesSent; }
+    public synchronized long getSkipCount() { return skips; }
+}
@@ -1,7 +1,6 @@
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 
 /**
  * ========================================================
@@ -35,7 +34,7 @@ public class SpriteStore {
         try {
             // 아이템 스프라이트 시트 로드
             String path = System.getProperty("user.dir") + File.separator + "res" + File.separator + "Items.png";
-            BufferedImage itemImage = ImageIO.read(new File(path));
+            BufferedImage itemImage = GameEvents.readImage(new File(path));
             System.out.println("아이템 스프라이트 로드 성공: " + path);
 
             // ARGB 형식으로 변환 (알파 채널 지원)
@@ -0,0 +1,350 @@
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+
+/**
+ * ========================================================
+ * 시작 시간 측정 (StartupProfiler)
+ * ========================================================
+ * 프로그램을 켠 뒤 메뉴 화면이 처음 그려지고 입력을 받을 수 있게 될 때까지를 단계별로 잽니다.
+ * (설정 읽기, 패널 생성, 스프라이트 로드, SpriteStore.init, 커서, 첫 BGM 재생 등)
+ * 시간은 모두 JVM 시작 기준이고, 결과는 JSON 파일로 남깁니다.
+ *
+ * 평소에는 꺼져 있어서 begin/end는 아무 것도 하지 않습니다.
+ *
+ * 실행: java CrazyArcade_UI startup [옵션]
+ *   --runs N     새 JVM으로 N번 켜서 단계별 중앙값/최솟값/최댓값 (기본 1: 지금 JVM에서 한 번)
+ *   --out 파일   결과 JSON (기본 startup-report.json)
+ * 한 번 잴 때는 메뉴가 입력을 받을 수 있게 되면 결과를 쓰고 바로 종료합니다.
+ */
+public class StartupProfiler {
+    public static final String DEFAULT_REPORT = "startup-report.json";
+    private static final int TIMEOUT_MS = 60000; // 첫 화면이 안 뜨면 이만큼 기다린 뒤 종료
+    private static final Pattern PHASE_LINE = Pattern.compile(
+            "\\{\"name\": \"([^\"]+)\", \"depth\": (\\d+), \"startMs\": ([0-9.]+), \"ms\": ([0-9.]+)\\}");
+    private static final Pattern NUMBER_FIELD = Pattern.compile("\"(\\w+)\": ([0-9.]+),?$");
+
+    private static boolean enabled = false;
+    private static File reportFile;
+    private static long originNanos; // JVM 시작 시각 (nanoTime 기준)
+    private static int depth = 0;
+    private static final List<Phase> phases = new ArrayList<>();
+    private static final java.util.Map<String, Double> marks = new LinkedHashMap<>();
+
+    /**
+     * 끝난 단계 하나 (시작 시각은 JVM 시작 기준)
+     */
+    private static final class Phase {
+        final String name;
+        final int depth;
+        final double startMs;
+        final double ms;
+
+        Phase(String name, int depth, double startMs, double ms) {
+            this.name = name;
+            this.depth = depth;
+            this.startMs = startMs;
+            this.ms = ms;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 단계 시작 (꺼져 있으면 0). 돌려받은 값을 end에 넘깁니다.
+     */
+    public static long begin() {
+        if (!enabled) return 0;
+        depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * begin에서 시작한 단계를 끝냅니다. 안쪽 단계가 먼저 끝나므로 보고서는 시작 순서로 정렬합니다.
+     */
+    public static void end(String name, long start) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        depth--;
+        phases.add(new Phase(name, depth, (start - originNanos) / 1e6, (now - start) / 1e6));
+    }
+
+    /**
+     * 지금 시각을 이름 붙여 남깁니다 (JVM 시작 기준).
+     */
+    public static void mark(String name) {
+        if (!enabled) return;
+        marks.putIfAbsent(name, (System.nanoTime() - originNanos) / 1e6);
+    }
+
+    /**
+     * 메뉴 화면을 그린 직후 호출 (MenuPanel.paintComponent).
+     * 처음 한 번만 기록하고, 그 뒤 이벤트 큐가 비어 입력을 받을 수 있게 되면 결과를 씁니다.
+     */
+    public static void framePainted() {
+        if (!enabled || marks.containsKey("firstFrame")) return;
+        mark("firstFrame");
+        SwingUtilities.invokeLater(() -> {
+            mark("interactive");
+            finish(0);
+        });
+    }
+
+    private static void enable(File report) {
+        reportFile = report;
+        long uptimeNanos = ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+        originNanos = System.nanoTime() - uptimeNanos;
+        enabled = true;
+        mark("main");
+    }
+
+    private static synchronized void finish(int exitCode) {
+        if (!enabled) return;
+        enabled = false;
+        try {
+            writeReport(reportFile);
+            System.out.println(summary());
+            System.out.println("시작 시간 보고서 저장: " + reportFile.getPath());
+        } catch (IOException e) {
+            System.err.println("시작 시간 보고서 저장 실패: " + e.getMessage());
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    // ===== 보고서 =====
+
+    private static List<Phase> sortedPhases() {
+        List<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort((a, b) -> a.startMs != b.startMs ? Double.compare(a.startMs, b.startMs) : Integer.compare(a.depth, b.depth));
+        return sorted;
+    }
+
+    private static void writeReport(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            out.println("{");
+            writeHeader(out, 1);
+            for (java.util.Map.Entry<String, Double> m : marks.entrySet()) {
+                out.println(String.format(Locale.ROOT, "  \"%sMs\": %.3f,", m.getKey(), m.getValue()));
+            }
+            out.println("  \"phases\": [");
+            List<Phase> sorted = sortedPhases();
+            for (int i = 0; i < sorted.size(); i++) {
+                Phase p = sorted.get(i);
+                out.println(String.format(Locale.ROOT, "    {\"name\": \"%s\", \"depth\": %d, \"startMs\": %.3f, \"ms\": %.3f}%s",
+                        p.name, p.depth, p.startMs, p.ms, i < sorted.size() - 1 ? "," : ""));
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    private static void writeHeader(PrintWriter out, int runs) {
+        out.println("  \"version\": 1,");
+        out.println("  \"createdAt\": \"" + OffsetDateTime.now() + "\",");
+        out.println("  \"java\": \"" + System.getProperty("java.version") + "\",");
+        out.println("  \"os\": \"" + System.getProperty("os.name") + " " + System.getProperty("os.arch") + "\",");
+        out.println("  \"cpus\": " + Runtime.getRuntime().availableProcessors() + ",");
+        out.println("  \"runs\": " + runs + ",");
+    }
+
+    private static String summary() {
+        StringBuilder sb = new StringBuilder("===== 시작 시간 =====\n");
+        for (Phase p : sortedPhases()) {
+            sb.append(String.format("%-32s %8.1fms  (시작 %7.1fms)%n", "  ".repeat(p.depth) + p.name, p.ms, p.startMs));
+        }
+        for (java.util.Map.Entry<String, Double> m : marks.entrySet()) {
+            sb.append(String.format("%-32s %8.1fms%n", "@" + m.getKey(), m.getValue()));
+        }
+        return sb.toString().trim();
+    }
+
+    // ===== 여러 번 재기 (새 JVM) =====
+
+    /**
+     * 한 번 잰 보고서 (자식 JVM 결과 파일을 읽은 것)
+     */
+    private static final class Run {
+        final java.util.Map<String, Double> marks = new LinkedHashMap<>();
+        final List<Phase> phases = new ArrayList<>();
+    }
+
+    private static Run readRun(File file) throws IOException {
+        Run run = new Run();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            Matcher phase = PHASE_LINE.matcher(line);
+            if (phase.find()) {
+                run.phases.add(new Phase(phase.group(1), Integer.parseInt(phase.group(2)),
+                        Double.parseDouble(phase.group(3)), Double.parseDouble(phase.group(4))));
+                continue;
+            }
+            Matcher field = NUMBER_FIELD.matcher(line);
+            if (field.find() && field.group(1).endsWith("Ms")) {
+                String name = field.group(1);
+                run.marks.put(name.substring(0, name.length() - 2), Double.parseDouble(field.group(2)));
+            }
+        }
+        return run;
+    }
+
+    private static void runMany(int runs, File report) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("CrazyArcade_UI");
+        command.add("startup");
+        command.add("--out");
+        int outIndex = command.size();
+        command.add("");
+
+        List<Run> results = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            File tmp = File.createTempFile("startup", ".json");
+            tmp.deleteOnExit();
+            command.set(outIndex, tmp.getPath());
+            Process process = new ProcessBuilder(command)
+                    .directory(new File(System.getProperty("user.dir")))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            int code = process.waitFor();
+            if (code != 0) {
+                System.out.println((i + 1) + "번째 실행 실패 (종료 코드 " + code + ")");
+                continue;
+            }
+            Run run = readRun(tmp);
+            results.add(run);
+            System.out.println(String.format("%d/%d: 입력 가능까지 %.1fms", i + 1, runs,
+                    run.marks.getOrDefault("interactive", Double.NaN)));
+            tmp.delete();
+        }
+        if (results.isEmpty()) {
+            System.out.println("성공한 실행이 없습니다");
+            System.exit(1);
+        }
+        writeAggregate(results, report);
+        System.out.println("시작 시간 보고서 저장: " + report.getPath() + " (" + results.size() + "회 중앙값)");
+    }
+
+    private static void writeAggregate(List<Run> results, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        Run first = results.get(0);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            out.println("{");
+            writeHeader(out, results.size());
+            for (String mark : first.marks.keySet()) {
+                double[] v = new double[results.size()];
+                for (int i = 0; i < v.length; i++) {
+                    v[i] = results.get(i).marks.getOrDefault(mark, Double.NaN);
+                }
+                out.println(String.format(Locale.ROOT, "  \"%sMs\": %s,", mark, stats(v)));
+            }
+            out.println("  \"phases\": [");
+            for (int p = 0; p < first.phases.size(); p++) {
+                Phase phase = first.phases.get(p);
+                double[] v = new double[results.size()];
+                for (int i = 0; i < v.length; i++) {
+                    v[i] = findPhase(results.get(i), phase.name);
+                }
+                out.println(String.format(Locale.ROOT, "    {\"name\": \"%s\", \"depth\": %d, \"ms\": %s}%s",
+                        phase.name, phase.depth, stats(v), p < first.phases.size() - 1 ? "," : ""));
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+        // 화면에도 중앙값 요약
+        System.out.println("===== 시작 시간 (중앙값) =====");
+        for (Phase phase : first.phases) {
+            double[] v = new double[results.size()];
+            for (int i = 0; i < v.length; i++) {
+                v[i] = findPhase(results.get(i), phase.name);
+            }
+            System.out.println(String.format("%-32s %8.1fms", "  ".repeat(phase.depth) + phase.name, median(v)));
+        }
+    }
+
+    private static double findPhase(Run run, String name) {
+        for (Phase p : run.phases) {
+            if (p.name.equals(name)) return p.ms;
+        }
+        return Double.NaN;
+    }
+
+    private static String stats(double[] v) {
+        double[] sorted = v.clone();
+        Arrays.sort(sorted); // NaN은 뒤로
+        return String.format(Locale.ROOT, "{\"median\": %.3f, \"min\": %.3f, \"max\": %.3f}",
+                median(v), sorted[0], maxOf(sorted));
+    }
+
+    private static double median(double[] v) {
+        double[] sorted = Arrays.stream(v).filter(d -> !Double.isNaN(d)).sorted().toArray();
+        if (sorted.length == 0) return Double.NaN;
+        int n = sorted.length;
+        return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+    }
+
+    private static double maxOf(double[] sorted) {
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            if (!Double.isNaN(sorted[i])) return sorted[i];
+        }
+        return Double.NaN;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 1;
+        File report = new File(DEFAULT_REPORT);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs": runs = Math.max(1, Integer.parseInt(args[++i])); break;
+                case "--out": report = new File(args[++i]); break;
+                default:
+                    System.out.println("사용법: StartupProfiler [--runs N] [--out 파일]");
+                    return;
+            }
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            System.out.println("화면이 없는 환경에서는 시작 시간을 잴 수 없습니다");
+            System.exit(1);
+        }
+        if (runs > 1) {
+            runMany(runs, report);
+            return;
+        }
+
+        enable(report);
+        Thread watchdog = new Thread(() -> {
+            try {
+                Thread.sleep(TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            System.err.println("첫 화면이 " + TIMEOUT_MS / 1000 + "초 안에 그려지지 않았습니다");
+            finish(1);
+        }, "startup-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        SwingUtilities.invokeLater(() -> new CrazyArcade_UI());
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * ========================================================
+ * 상태 해시 (StateHash)
+ * ========================================================
+ * 두 시뮬레이션이 같은 상태인지 틱마다 싸게 비교하기 위한 64비트 Zobrist 해시 키입니다.
+ *
+ * 상태의 각 요소(칸의 아이템, 칸의 물풍선과 주인, 플레이어 좌표와 상태)마다
+ * 고정된 난수 키를 하나씩 정해 두고, 현재 상태에 해당하는 키를 모두 XOR 한 값이 해시입니다.
+ * 요소 하나가 바뀌면 옛 키와 새 키를 XOR 하기만 하면 되므로
+ * GameSimulation은 값을 바꾸는 자리에서 해시를 바로 고치고, 판 전체를 다시 훑지 않습니다.
+ *
+ * 키는 고정 시드로 만들므로 어느 PC, 어느 실행에서도 같은 상태면 같은 해시입니다.
+ */
+public final class StateHash {
+    private static final int CELLS = GameSimulation.CELL_COUNT;
+    private static final int PLAYERS = GameSimulation.PLAYER_COUNT;
+    private static final int ITEM_KINDS = 8;      // 아이템 인덱스 0~5 (하위 3비트)
+    private static final int OWNER_KINDS = PLAYERS + 1; // 물풍선 주인 1, 2
+    private static final int COORD_RANGE = 1024;  // 픽셀 좌표 0~1023
+    private static final int STATE_KINDS = 4;     // PLAYER_STATE_*
+    private static final long KEY_SEED = 0x5A0B_215C_0DE5_EED5L;
+
+    private static final long[] TILE = new long[CELLS * ITEM_KINDS];
+    private static final long[] BALLOON = new long[CELLS * OWNER_KINDS];
+    private static final long[] PLAYER_X = new long[PLAYERS * COORD_RANGE];
+    private static final long[] PLAYER_Y = new long[PLAYERS * COORD_RANGE];
+    private static final long[] PLAYER_STATE = new long[PLAYERS * STATE_KINDS];
+
+    static {
+        MatchRandom random = new MatchRandom(KEY_SEED);
+        fill(TILE, random);
+        fill(BALLOON, random);
+        fill(PLAYER_X, random);
+        fill(PLAYER_Y, random);
+        fill(PLAYER_STATE, random);
+    }
+
+    private StateHash() {
+    }
+
+    private static void fill(long[] keys, MatchRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    // ===== 요소별 키 =====
+
+    static long tile(int cell, int itemIndex) {
+        return TILE[cell * ITEM_KINDS + (itemIndex & (ITEM_KINDS - 1))];
+    }
+
+    static long balloon(int cell, int owner) {
+        return BALLOON[cell * OWNER_KINDS + owner];
+    }
+
+    static long position(int p, int x, int y) {
+        return PLAYER_X[p * COORD_RANGE + (x & (COORD_RANGE - 1))]
+             ^ PLAYER_Y[p * COORD_RANGE + (y & (COORD_RANGE - 1))];
+    }
+
+    static long playerState(int p, int state) {
+        return PLAYER_STATE[p * STATE_KINDS + (state & (STATE_KINDS - 1))];
+    }
+
+    /**
+     * 판 전체를 훑어서 해시를 처음부터 계산합니다 (초기화/상태 복원 때와 검증용).
+     */
+    public static long compute(GameSimulation sim) {
+        long hash = 0;
+        Tile[][] tiles = sim.getTiles();
+        if (tiles != null) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                hash ^= tile(cell, tiles[cell / GameSimulation.TILE_COLS][cell % GameSimulation.TILE_COLS].getItemIndex());
+            }
+        }
+        for (int i = 0; i < sim.getBalloonCount(); i++) {
+            hash ^= balloon(sim.getBalloonRow(i) * GameSimulation.TILE_COLS + sim.getBalloonCol(i), sim.getBalloonOwner(i));
+        }
+        for (int p = 0; p < PLAYERS; p++) {
+            hash ^= position(p, sim.getPlayerX(p), sim.getPlayerY(p));
+            hash ^= playerState(p, sim.getPlayerState(p));
+        }
+        return hash;
+    }
+}
@@ -3,7 +3,6 @@ import java.awt.Graphics2D;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.image.BufferedImage;
-import java.util.Random;
 
 /**
  * ========================================================
@@ -104,13 +103,18 @@ public class Tile {
     public int getItemIndex() {
         return itemIndex;
     }
-    public void breakBlock() {
+
+    /**
+     * 블록/아이템 파괴
+     * 
+     * @param random  경기 난수 (아이템 드롭 여부와 종류를 뽑음)
+     * @param logging 파괴 로그 출력 여부 (시뮬레이션의 설정을 따름, GameSimulation.setLogging)
+     */
+    public void breakBlock(MatchRandom random, boolean logging) {
         if (!this.IS_BREAKABLE) {
             return;
         }
         
-        Random random = new Random();
-        
         // 파괴 가능한 블록(3) → 랜덤 아이템 또는 파괴된 상태
         if (itemIndex == 3) {
             // 50% 확률로 아이템 드롭
@@ -118,16 +122,16 @@ public class Tile {
                 // 0, 1, 2 중 랜덤 선택 (물풍선, 물줄기, 스케이트)
                 int randomItem = random.nextInt(3);  // ← 수정!
                 setItemIndex(randomItem);
-                System.out.println("블록 파괴 → 아이템 " + randomItem + " 드롭!");
+                if (logging) System.out.println("블록 파괴 → 아이템 " + randomItem + " 드롭!");
             } else {
                 setItemIndex(4);  // 파괴된 상태
-                System.out.println("블록 파괴 → 빈 상태");
+                if (logging) System.out.println("블록 파괴 → 빈 상태");
             }
         } 
         // 아이템(0, 1, 2) → 파괴된 상태(4)
         else if (itemIndex >= 0 && itemIndex <= 2) {
             setItemIndex(4);  // 파괴된 상태
-            System.out.println("아이템 " + itemIndex + " 파괴 → 빈 상태");
+            if (logging) System.out.println("아이템 " + itemIndex + " 파괴 → 빈 상태");
         }
         // 이미 파괴된 상태(4)는 무시
         else if (itemIndex == 4) {
@@ -0,0 +1,57 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * ========================================================
+ * UDP 패킷 전송 클래스 (UdpPacketTransport)
+ * ========================================================
+ * 논블로킹 DatagramChannel 하나로 상대 한 명과 패킷을 주고받습니다.
+ * 송수신 버퍼는 미리 할당해 두고 재사용합니다.
+ */
+public class UdpPacketTransport implements PacketTransport {
+    private static final int MAX_PACKET_SIZE = 1400;
+
+    private final DatagramChannel channel;
+    private final InetSocketAddress peer;
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+
+    /**
+     * @param localPort 내가 받을 포트
+     * @param peerHost  상대 주소
+     * @param peerPort  상대 포트
+     */
+    public UdpPacketTransport(int localPort, String peerHost, int peerPort) throws IOException {
+        this.peer = new InetSocketAddress(peerHost, peerPort);
+        this.channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(localPort));
+        channel.configureBlocking(false);
+    }
+
+    @Override
+    public void send(byte[] data, int length) throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(data, 0, length);
+        sendBuffer.flip();
+        channel.send(sendBuffer, peer);
+    }
+
+    @Override
+    public int poll(byte[] buffer) throws IOException {
+        receiveBuffer.clear();
+        if (channel.receive(receiveBuffer) == null) {
+            return -1;
+        }
+        receiveBuffer.flip();
+        int length = Math.min(receiveBuffer.remaining(), buffer.length);
+        receiveBuffer.get(buffer, 0, length);
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}